@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.action;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.binding.ThingActions;
+import org.eclipse.smarthome.core.thing.binding.ThingActionsScope;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
+import org.openhab.binding.astro.internal.handler.MoonHandler;
+import org.openhab.binding.astro.internal.model.Moon;
+import org.openhab.core.automation.annotation.ActionInput;
+import org.openhab.core.automation.annotation.ActionOutput;
+import org.openhab.core.automation.annotation.RuleAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This is the automation engine action handler service for the moon data of a range of days.
+ *
+ * @author agent - Initial contribution
+ */
+@ThingActionsScope(name = "astro")
+@NonNullByDefault
+public class MoonActions implements ThingActions {
+    private final Logger logger = LoggerFactory.getLogger(MoonActions.class);
+    private @Nullable MoonHandler handler;
+
+    @Override
+    public void setThingHandler(@Nullable ThingHandler handler) {
+        this.handler = (MoonHandler) handler;
+    }
+
+    @Override
+    public @Nullable ThingHandler getThingHandler() {
+        return this.handler;
+    }
+
+    @RuleAction(label = "@text/actionGetMoonInfosLabel", description = "@text/actionGetMoonInfosDesc")
+    public @ActionOutput(name = "moons", type = "java.util.List<org.openhab.binding.astro.internal.model.Moon>") List<Moon> getMoonInfos(
+            @ActionInput(name = "from", label = "@text/actionInputFromLabel", description = "@text/actionInputFromDesc") @Nullable ZonedDateTime from,
+            @ActionInput(name = "to", label = "@text/actionInputToLabel", description = "@text/actionInputToDesc") @Nullable ZonedDateTime to) {
+        MoonHandler moonHandler = handler;
+        if (moonHandler == null) {
+            logger.warn("Astro Action service ThingHandler is null!");
+            return Collections.emptyList();
+        }
+        if (from == null || to == null) {
+            logger.debug("skipping Astro getMoonInfos from '{}' to '{}' due to null value.", from, to);
+            return Collections.emptyList();
+        }
+        try {
+            return moonHandler.getMoonInfos(GregorianCalendar.from(from), GregorianCalendar.from(to));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot get the moon data from '{}' to '{}': {}", from, to, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    public static List<Moon> getMoonInfos(@Nullable ThingActions actions, @Nullable ZonedDateTime from,
+            @Nullable ZonedDateTime to) {
+        if (actions instanceof MoonActions) {
+            return ((MoonActions) actions).getMoonInfos(from, to);
+        } else {
+            throw new IllegalArgumentException("Instance is not a MoonActions class.");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.action;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.binding.ThingActions;
+import org.eclipse.smarthome.core.thing.binding.ThingActionsScope;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
+import org.openhab.binding.astro.internal.handler.SunHandler;
+import org.openhab.binding.astro.internal.model.Range;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.model.SunPhaseName;
+import org.openhab.core.automation.annotation.ActionInput;
+import org.openhab.core.automation.annotation.ActionOutput;
+import org.openhab.core.automation.annotation.RuleAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This is the automation engine action handler service for the sun data of a range of days.
+ *
+ * @author agent - Initial contribution
+ */
+@ThingActionsScope(name = "astro")
+@NonNullByDefault
+public class SunActions implements ThingActions {
+    private final Logger logger = LoggerFactory.getLogger(SunActions.class);
+    private @Nullable SunHandler handler;
+
+    @Override
+    public void setThingHandler(@Nullable ThingHandler handler) {
+        this.handler = (SunHandler) handler;
+    }
+
+    @Override
+    public @Nullable ThingHandler getThingHandler() {
+        return this.handler;
+    }
+
+    @RuleAction(label = "@text/actionGetSunInfosLabel", description = "@text/actionGetSunInfosDesc")
+    public @ActionOutput(name = "suns", type = "java.util.List<org.openhab.binding.astro.internal.model.Sun>") List<Sun> getSunInfos(
+            @ActionInput(name = "from", label = "@text/actionInputFromLabel", description = "@text/actionInputFromDesc") @Nullable ZonedDateTime from,
+            @ActionInput(name = "to", label = "@text/actionInputToLabel", description = "@text/actionInputToDesc") @Nullable ZonedDateTime to) {
+        SunHandler sunHandler = handler;
+        if (sunHandler == null) {
+            logger.warn("Astro Action service ThingHandler is null!");
+            return Collections.emptyList();
+        }
+        if (from == null || to == null) {
+            logger.debug("skipping Astro getSunInfos from '{}' to '{}' due to null value.", from, to);
+            return Collections.emptyList();
+        }
+        try {
+            return sunHandler.getSunInfos(GregorianCalendar.from(from), GregorianCalendar.from(to));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot get the sun data from '{}' to '{}': {}", from, to, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @RuleAction(label = "@text/actionGetEventRangesLabel", description = "@text/actionGetEventRangesDesc")
+    public @ActionOutput(name = "ranges", type = "java.util.List<org.openhab.binding.astro.internal.model.Range>") List<Range> getEventRanges(
+            @ActionInput(name = "phaseName", label = "@text/actionInputPhaseNameLabel", description = "@text/actionInputPhaseNameDesc") @Nullable String phaseName,
+            @ActionInput(name = "from", label = "@text/actionInputFromLabel", description = "@text/actionInputFromDesc") @Nullable ZonedDateTime from,
+            @ActionInput(name = "to", label = "@text/actionInputToLabel", description = "@text/actionInputToDesc") @Nullable ZonedDateTime to) {
+        SunHandler sunHandler = handler;
+        if (sunHandler == null) {
+            logger.warn("Astro Action service ThingHandler is null!");
+            return Collections.emptyList();
+        }
+        if (phaseName == null || from == null || to == null) {
+            logger.debug("skipping Astro getEventRanges of '{}' from '{}' to '{}' due to null value.", phaseName, from,
+                    to);
+            return Collections.emptyList();
+        }
+        try {
+            return sunHandler.getEventRanges(SunPhaseName.valueOf(phaseName), GregorianCalendar.from(from),
+                    GregorianCalendar.from(to));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot get the ranges of '{}' from '{}' to '{}': {}", phaseName, from, to, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    public static List<Sun> getSunInfos(@Nullable ThingActions actions, @Nullable ZonedDateTime from,
+            @Nullable ZonedDateTime to) {
+        if (actions instanceof SunActions) {
+            return ((SunActions) actions).getSunInfos(from, to);
+        } else {
+            throw new IllegalArgumentException("Instance is not a SunActions class.");
+        }
+    }
+
+    public static List<Range> getEventRanges(@Nullable ThingActions actions, @Nullable String phaseName,
+            @Nullable ZonedDateTime from, @Nullable ZonedDateTime to) {
+        if (actions instanceof SunActions) {
+            return ((SunActions) actions).getEventRanges(phaseName, from, to);
+        } else {
+            throw new IllegalArgumentException("Instance is not a SunActions class.");
+        }
+    }
+}
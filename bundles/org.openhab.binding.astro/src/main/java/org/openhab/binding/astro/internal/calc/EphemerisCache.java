@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.openhab.binding.astro.internal.model.Planet;
+
+/**
+ * Cache of the daily Astro data of one location.
+ *
+ * The data of a day is calculated when it is requested first. Days from today up to the configured number of days
+ * ahead are kept, older days are removed and days beyond the window are calculated without being kept. The returned
+ * instances are shared and must only be modified by the thing handler owning the cache.
+ *
+ * @author agent - Initial contribution
+ */
+public class EphemerisCache<T extends Planet> {
+
+    /**
+     * Maximum number of days which may be requested at once
+     */
+    public static final int MAX_DAYS = 366;
+
+    private final Function<Calendar, T> calculator;
+    private final int windowDays;
+    private final TreeMap<Integer, T> days = new TreeMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param calculator calculates the data of the day of the passed calendar
+     * @param windowDays number of days after today to keep
+     */
+    public EphemerisCache(Function<Calendar, T> calculator, int windowDays) {
+        this.calculator = calculator;
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * Returns the data of the day of the specified calendar.
+     */
+    public synchronized T get(Calendar calendar) {
+        Calendar today = Calendar.getInstance(calendar.getTimeZone());
+        int todayKey = getKey(today);
+        days.headMap(todayKey).clear();
+
+        int key = getKey(calendar);
+        T planet = days.get(key);
+        if (planet == null) {
+            planet = calculator.apply((Calendar) calendar.clone());
+            today.add(Calendar.DAY_OF_MONTH, windowDays);
+            if (key >= todayKey && key <= getKey(today)) {
+                days.put(key, planet);
+            }
+        }
+        return planet;
+    }
+
+    /**
+     * Returns the data of all days from the day of {@code from} until the day of {@code to}, both inclusive.
+     *
+     * @throws IllegalArgumentException if the range is longer than {@link #MAX_DAYS}
+     */
+    public synchronized List<T> get(Calendar from, Calendar to) {
+        long dayCount = ChronoUnit.DAYS.between(getDate(from), getDate(to)) + 1;
+        if (dayCount > MAX_DAYS) {
+            throw new IllegalArgumentException("The range must not be longer than " + MAX_DAYS + " days");
+        }
+        List<T> planets = new ArrayList<>();
+        Calendar day = (Calendar) from.clone();
+        for (long i = 0; i < dayCount; i++) {
+            planets.add(get(day));
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return planets;
+    }
+
+    /**
+     * Removes all days, e.g. after the location has changed.
+     */
+    public synchronized void clear() {
+        days.clear();
+    }
+
+    private static int getKey(Calendar calendar) {
+        return calendar.get(Calendar.YEAR) * 1000 + calendar.get(Calendar.DAY_OF_YEAR);
+    }
+
+    private static LocalDate getDate(Calendar calendar) {
+        return LocalDate.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+}
@@ -248,10 +248,19 @@ public class SunCalc {
         SeasonCalc seasonCalc = new SeasonCalc();
         sun.setSeason(seasonCalc.getSeason(calendar, latitude));
 
-        // phase
+        setPhaseInfo(Calendar.getInstance(), sun);
+
+        return sun;
+    }
+
+    /**
+     * Sets the name of the sun phase at the specified time, or removes it if none of the ranges of the day matches.
+     */
+    public void setPhaseInfo(Calendar calendar, Sun sun) {
+        sun.getPhase().setName(null);
         for (Entry<SunPhaseName, Range> rangeEntry : sun.getAllRanges().entrySet()) {
             SunPhaseName entryPhase = rangeEntry.getKey();
-            if (rangeEntry.getValue().matches(Calendar.getInstance())) {
+            if (rangeEntry.getValue().matches(calendar)) {
                 if (entryPhase == SunPhaseName.MORNING_NIGHT || entryPhase == SunPhaseName.EVENING_NIGHT) {
                     sun.getPhase().setName(SunPhaseName.NIGHT);
                 } else {
@@ -259,8 +268,6 @@ public class SunCalc {
                 }
             }
         }
-
-        return sun;
     }
 
     /**
@@ -16,12 +16,18 @@ import static org.openhab.binding.astro.internal.AstroBindingConstants.THING_TYP
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.smarthome.core.scheduler.CronScheduler;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
+import org.openhab.binding.astro.internal.action.MoonActions;
+import org.openhab.binding.astro.internal.calc.EphemerisCache;
 import org.openhab.binding.astro.internal.calc.MoonCalc;
 import org.openhab.binding.astro.internal.job.DailyJobMoon;
 import org.openhab.binding.astro.internal.job.Job;
@@ -38,9 +44,13 @@ public class MoonHandler extends AstroThingHandler {
 
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES = new HashSet<>(Arrays.asList(THING_TYPE_MOON));
 
+    /** Number of days after today for which the calculated moon data is kept */
+    private static final int CACHED_DAYS = 31;
+
     private final String[] positionalChannelIds = new String[] { "phase#name", "phase#age", "phase#agePercent",
             "phase#ageDegree", "phase#illumination", "position#azimuth", "position#elevation", "zodiac#sign" };
     private final MoonCalc moonCalc = new MoonCalc();
+    private final EphemerisCache<Moon> moonCache = new EphemerisCache<>(this::calculateMoon, CACHED_DAYS);
     private Moon moon;
 
     /**
@@ -50,6 +60,12 @@ public class MoonHandler extends AstroThingHandler {
         super(thing, scheduler);
     }
 
+    @Override
+    public void initialize() {
+        moonCache.clear();
+        super.initialize();
+    }
+
     @Override
     public void publishDailyInfo() {
         initializeMoon();
@@ -72,6 +88,7 @@ public class MoonHandler extends AstroThingHandler {
     public void dispose() {
         super.dispose();
         moon = null;
+        moonCache.clear();
     }
 
     @Override
@@ -79,13 +96,30 @@ public class MoonHandler extends AstroThingHandler {
         return positionalChannelIds;
     }
 
+    @Override
+    public Collection<Class<? extends ThingHandlerService>> getServices() {
+        return Collections.singletonList(MoonActions.class);
+    }
+
     @Override
     protected Job getDailyJob() {
         return new DailyJobMoon(thing.getUID().getAsString(), this);
     }
 
+    /**
+     * Returns the moon data of all days from {@code from} until {@code to}, both inclusive. The returned instances are
+     * shared and must not be modified.
+     */
+    public List<Moon> getMoonInfos(Calendar from, Calendar to) {
+        return moonCache.get(from, to);
+    }
+
     private void initializeMoon() {
-        moon = moonCalc.getMoonInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude());
+        moon = moonCache.get(Calendar.getInstance());
+    }
+
+    private Moon calculateMoon(Calendar calendar) {
+        return moonCalc.getMoonInfo(calendar, thingConfig.getLatitude(), thingConfig.getLongitude());
     }
 
 }
@@ -16,17 +16,26 @@ import static org.openhab.binding.astro.internal.AstroBindingConstants.THING_TYP
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.core.scheduler.CronScheduler;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
+import org.openhab.binding.astro.internal.action.SunActions;
+import org.openhab.binding.astro.internal.calc.EphemerisCache;
 import org.openhab.binding.astro.internal.calc.SunCalc;
 import org.openhab.binding.astro.internal.job.DailyJobSun;
 import org.openhab.binding.astro.internal.job.Job;
 import org.openhab.binding.astro.internal.model.Planet;
+import org.openhab.binding.astro.internal.model.Range;
 import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.model.SunPhaseName;
 
 /**
  * The SunHandler is responsible for updating calculated sun data.
@@ -38,9 +47,13 @@ public class SunHandler extends AstroThingHandler {
 
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES = new HashSet<>(Arrays.asList(THING_TYPE_SUN));
 
+    /** Number of days after today for which the calculated sun data is kept */
+    private static final int CACHED_DAYS = 31;
+
     private final String[] positionalChannelIds = new String[] { "position#azimuth", "position#elevation",
             "radiation#direct", "radiation#diffuse", "radiation#total" };
     private final SunCalc sunCalc = new SunCalc();
+    private final EphemerisCache<Sun> sunCache = new EphemerisCache<>(this::calculateSun, CACHED_DAYS);
     private Sun sun;
 
     /**
@@ -50,6 +63,12 @@ public class SunHandler extends AstroThingHandler {
         super(thing, scheduler);
     }
 
+    @Override
+    public void initialize() {
+        sunCache.clear();
+        super.initialize();
+    }
+
     @Override
     public void publishDailyInfo() {
         initializeSun();
@@ -73,6 +92,7 @@ public class SunHandler extends AstroThingHandler {
     public void dispose() {
         super.dispose();
         sun = null;
+        sunCache.clear();
     }
 
     @Override
@@ -80,13 +100,42 @@ public class SunHandler extends AstroThingHandler {
         return positionalChannelIds;
     }
 
+    @Override
+    public Collection<Class<? extends ThingHandlerService>> getServices() {
+        return Collections.singletonList(SunActions.class);
+    }
+
     @Override
     protected Job getDailyJob() {
         return new DailyJobSun(thing.getUID().getAsString(), this);
     }
 
+    /**
+     * Returns the sun data of all days from {@code from} until {@code to}, both inclusive. The returned instances are
+     * shared and must not be modified.
+     */
+    public List<Sun> getSunInfos(Calendar from, Calendar to) {
+        return sunCache.get(from, to);
+    }
+
+    /**
+     * Returns the range of the specified sun phase of all days from {@code from} until {@code to}, both inclusive. The
+     * range of a day on which the phase does not occur has neither start nor end.
+     */
+    public List<Range> getEventRanges(SunPhaseName phaseName, Calendar from, Calendar to) {
+        return getSunInfos(from, to).stream()
+                .map(daySun -> daySun.getAllRanges().getOrDefault(phaseName, new Range()))
+                .collect(Collectors.toList());
+    }
+
     private void initializeSun() {
-        sun = sunCalc.getSunInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
+        Calendar now = Calendar.getInstance();
+        sun = sunCache.get(now);
+        sunCalc.setPhaseInfo(now, sun);
+    }
+
+    private Sun calculateSun(Calendar calendar) {
+        return sunCalc.getSunInfo(calendar, thingConfig.getLatitude(), thingConfig.getLongitude(),
                 thingConfig.getAltitude());
     }
 
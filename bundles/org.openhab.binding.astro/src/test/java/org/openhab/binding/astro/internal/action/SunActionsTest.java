@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.action;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.astro.internal.calc.EphemerisCache;
+import org.openhab.binding.astro.internal.calc.SunCalc;
+import org.openhab.binding.astro.internal.handler.SunHandler;
+import org.openhab.binding.astro.internal.model.Range;
+import org.openhab.binding.astro.internal.model.Sun;
+
+/**
+ * Tests for the range queries of {@link SunActions}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SunActionsTest {
+
+    private static final double AMSTERDAM_LATITUDE = 52.367607;
+    private static final double AMSTERDAM_LONGITUDE = 4.8978293;
+    private static final ZoneId AMSTERDAM_ZONE = ZoneId.of("Europe/Amsterdam");
+
+    private SunHandler handler;
+    private SunActions actions;
+
+    @Before
+    public void init() {
+        SunCalc sunCalc = new SunCalc();
+        EphemerisCache<Sun> cache = new EphemerisCache<>(
+                calendar -> sunCalc.getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, 0.0), 31);
+        handler = mock(SunHandler.class);
+        when(handler.getSunInfos(any(), any()))
+                .thenAnswer(invocation -> cache.get(invocation.getArgument(0), invocation.getArgument(1)));
+        when(handler.getEventRanges(any(), any(), any())).thenCallRealMethod();
+
+        actions = new SunActions();
+        actions.setThingHandler(handler);
+    }
+
+    @Test
+    public void testEventRangesOfEveryDay() {
+        ZonedDateTime from = ZonedDateTime.of(2019, 3, 30, 12, 0, 0, 0, AMSTERDAM_ZONE);
+        ZonedDateTime to = from.plusDays(6);
+
+        List<Range> ranges = SunActions.getEventRanges(actions, "SUN_RISE", from, to);
+        assertEquals(7, ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            Calendar start = ranges.get(i).getStart();
+            assertNotNull(start);
+            assertEquals(from.plusDays(i).toLocalDate(), start.toInstant().atZone(AMSTERDAM_ZONE).toLocalDate());
+        }
+    }
+
+    @Test
+    public void testEventRangesOfPhaseWhichDoesNotOccur() {
+        // the sun does not set 18 degrees below the horizon in Amsterdam around the summer solstice
+        ZonedDateTime from = ZonedDateTime.of(2019, 6, 18, 12, 0, 0, 0, AMSTERDAM_ZONE);
+
+        List<Range> ranges = actions.getEventRanges("ASTRO_DAWN", from, from.plusDays(2));
+        assertEquals(3, ranges.size());
+        for (Range range : ranges) {
+            assertNull(range.getStart());
+        }
+    }
+
+    @Test
+    public void testSunInfosOfEveryDay() {
+        ZonedDateTime from = ZonedDateTime.of(2019, 10, 1, 0, 0, 0, 0, AMSTERDAM_ZONE);
+
+        List<Sun> suns = actions.getSunInfos(from, from.plusDays(30));
+        assertEquals(31, suns.size());
+    }
+
+    @Test
+    public void testInvalidQueriesReturnNoRanges() {
+        ZonedDateTime from = ZonedDateTime.now(AMSTERDAM_ZONE);
+
+        assertTrue(actions.getEventRanges("SUNRISE", from, from).isEmpty());
+        assertTrue(actions.getEventRanges("SUN_RISE", from, null).isEmpty());
+        assertTrue(actions.getEventRanges("SUN_RISE", from, from.plusDays(EphemerisCache.MAX_DAYS)).isEmpty());
+        // only the too long range is passed to the handler
+        verify(handler, times(1)).getSunInfos(any(), any());
+    }
+}
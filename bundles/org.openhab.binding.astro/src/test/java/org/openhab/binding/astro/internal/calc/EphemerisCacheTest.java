@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.model.SunPhaseName;
+
+/**
+ * Tests for {@link EphemerisCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class EphemerisCacheTest {
+
+    private static final double AMSTERDAM_LATITUDE = 52.367607;
+    private static final double AMSTERDAM_LONGITUDE = 4.8978293;
+
+    private final AtomicInteger calculations = new AtomicInteger();
+    private EphemerisCache<Sun> cache;
+
+    @Before
+    public void init() {
+        SunCalc sunCalc = new SunCalc();
+        cache = new EphemerisCache<>(calendar -> {
+            calculations.incrementAndGet();
+            return sunCalc.getSunInfo(calendar, AMSTERDAM_LATITUDE, AMSTERDAM_LONGITUDE, 0.0);
+        }, 31);
+    }
+
+    @Test
+    public void testDayIsCalculatedOnce() {
+        Calendar morning = Calendar.getInstance();
+        morning.set(Calendar.HOUR_OF_DAY, 6);
+        Calendar evening = Calendar.getInstance();
+        evening.set(Calendar.HOUR_OF_DAY, 20);
+
+        Sun sun = cache.get(morning);
+        assertSame(sun, cache.get(evening));
+        assertEquals(1, calculations.get());
+    }
+
+    @Test
+    public void testRangeReturnsEveryDay() {
+        Calendar from = Calendar.getInstance();
+        Calendar to = (Calendar) from.clone();
+        to.add(Calendar.DAY_OF_MONTH, 29);
+
+        List<Sun> suns = cache.get(from, to);
+        assertEquals(30, suns.size());
+        for (int i = 0; i < suns.size(); i++) {
+            Calendar day = (Calendar) from.clone();
+            day.add(Calendar.DAY_OF_MONTH, i);
+            Calendar rise = suns.get(i).getRise().getStart();
+            assertNotNull(rise);
+            assertEquals(day.get(Calendar.DAY_OF_YEAR), rise.get(Calendar.DAY_OF_YEAR));
+        }
+
+        assertEquals(suns, cache.get(from, to));
+        assertEquals(30, calculations.get());
+    }
+
+    @Test
+    public void testDaysOutsideWindowAreNotKept() {
+        Calendar yesterday = Calendar.getInstance();
+        yesterday.add(Calendar.DAY_OF_MONTH, -1);
+        Calendar nextYear = Calendar.getInstance();
+        nextYear.add(Calendar.YEAR, 1);
+
+        cache.get(yesterday);
+        cache.get(yesterday);
+        cache.get(nextYear);
+        cache.get(nextYear);
+        assertEquals(4, calculations.get());
+    }
+
+    @Test
+    public void testClearRecalculates() {
+        Calendar now = Calendar.getInstance();
+        Sun sun = cache.get(now);
+        cache.clear();
+        assertNotSame(sun, cache.get(now));
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    public void testTooLongRangeIsRejectedBeforeCalculating() {
+        Calendar from = Calendar.getInstance();
+        Calendar to = (Calendar) from.clone();
+        to.add(Calendar.DAY_OF_MONTH, EphemerisCache.MAX_DAYS);
+        try {
+            cache.get(from, to);
+            fail("The range of " + (EphemerisCache.MAX_DAYS + 1) + " days was not rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, calculations.get());
+        }
+    }
+
+    @Test
+    public void testEmptyRange() {
+        Calendar from = Calendar.getInstance();
+        Calendar to = (Calendar) from.clone();
+        to.add(Calendar.DAY_OF_MONTH, -1);
+        assertTrue(cache.get(from, to).isEmpty());
+        assertEquals(0, calculations.get());
+    }
+
+    @Test
+    public void testPhaseNameIsResetWhenNoRangeMatches() {
+        Calendar now = Calendar.getInstance();
+        Sun sun = cache.get(now);
+        sun.getPhase().setName(SunPhaseName.NOON);
+        Calendar lastYear = (Calendar) now.clone();
+        lastYear.add(Calendar.YEAR, -1);
+
+        new SunCalc().setPhaseInfo(lastYear, sun);
+        assertNull(sun.getPhase().getName());
+    }
+}
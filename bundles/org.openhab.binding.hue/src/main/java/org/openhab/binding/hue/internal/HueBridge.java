@@ -23,9 +23,12 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -70,10 +73,15 @@ public class HueBridge {
     private final Gson gson = new GsonBuilder().setDateFormat(DATE_FORMAT).create();
     private HttpClient http = new HttpClient();
     private final ScheduledExecutorService scheduler;
+    private final HueCommandScheduler commandScheduler;
 
     @Nullable
     private Config cachedConfig;
 
+    // responses of the last calls of getFullLightsIfModified() and getSensorsIfModified()
+    private @Nullable String lastLightsBody;
+    private @Nullable String lastSensorsBody;
+
     /**
      * Connect with a bridge as a new user.
      *
@@ -93,6 +101,8 @@ public class HueBridge {
         }
         this.baseUrl = baseUrl;
         this.scheduler = scheduler;
+        this.commandScheduler = new HueCommandScheduler((path, body) -> http.put(getRelativeURL(path), body),
+                this::getCommandGroupLights, scheduler);
     }
 
     /**
@@ -196,6 +206,32 @@ public class HueBridge {
         return getTypedLights(gsonType);
     }
 
+    /**
+     * Returns a list of lights known to the bridge, if the response of the bridge differs from the one of the last
+     * call of this method.
+     *
+     * @return list of known lights as {@link FullLight}s or {@code null} if nothing changed
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public @Nullable List<FullLight> getFullLightsIfModified() throws IOException, ApiException {
+        if (!ApiVersionUtils.supportsFullLights(getVersion())) {
+            return getFullConfig().getLights();
+        }
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("lights"));
+
+        handleErrors(result);
+
+        String body = result.getBody();
+        if (body.equals(lastLightsBody)) {
+            return null;
+        }
+        List<FullLight> lights = parseLights(body, FullLight.GSON_TYPE);
+        lastLightsBody = body;
+        return lights;
+    }
+
     private <T extends HueObject> List<T> getTypedLights(Type gsonType) throws IOException, ApiException {
         requireAuthentication();
 
@@ -203,7 +239,11 @@ public class HueBridge {
 
         handleErrors(result);
 
-        Map<String, T> lightMap = safeFromJson(result.getBody(), gsonType);
+        return parseLights(result.getBody(), gsonType);
+    }
+
+    private <T extends HueObject> List<T> parseLights(String body, Type gsonType) throws ApiException {
+        Map<String, T> lightMap = safeFromJson(body, gsonType);
         ArrayList<T> lightList = new ArrayList<>();
 
         for (String id : lightMap.keySet()) {
@@ -228,7 +268,34 @@ public class HueBridge {
 
         handleErrors(result);
 
-        Map<String, FullSensor> sensorMap = safeFromJson(result.getBody(), FullSensor.GSON_TYPE);
+        return parseSensors(result.getBody());
+    }
+
+    /**
+     * Returns a list of sensors known to the bridge, if the response of the bridge differs from the one of the last
+     * call of this method.
+     *
+     * @return list of sensors or {@code null} if nothing changed
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public @Nullable List<FullSensor> getSensorsIfModified() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("sensors"));
+
+        handleErrors(result);
+
+        String body = result.getBody();
+        if (body.equals(lastSensorsBody)) {
+            return null;
+        }
+        List<FullSensor> sensors = parseSensors(body);
+        lastSensorsBody = body;
+        return sensors;
+    }
+
+    private List<FullSensor> parseSensors(String body) throws ApiException {
+        Map<String, FullSensor> sensorMap = safeFromJson(body, FullSensor.GSON_TYPE);
         ArrayList<FullSensor> sensorList = new ArrayList<>();
 
         for (String id : sensorMap.keySet()) {
@@ -347,6 +414,8 @@ public class HueBridge {
 
     /**
      * Changes the state of a light.
+     * The update is queued by the {@link HueCommandScheduler} of the bridge, it may be merged with a queued update
+     * of the same light or sent as part of a group action.
      *
      * @param light light
      * @param update changes to the state
@@ -358,9 +427,48 @@ public class HueBridge {
     public CompletableFuture<Result> setLightState(FullLight light, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("lights/" + enc(light.getId()) + "/state"), body, update.getMessageDelay(),
-                scheduler);
+        return commandScheduler.setLightState(enc(light.getId()), update);
+    }
+
+    /**
+     * Returns the scheduler of the light state updates of this bridge.
+     *
+     * @return command scheduler
+     */
+    public HueCommandScheduler getCommandScheduler() {
+        return commandScheduler;
+    }
+
+    /**
+     * Reads the groups of the bridge and passes them to the command scheduler, so that it can send
+     * group actions instead of updating all lights of a group one by one.
+     *
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public void updateCommandGroups() throws IOException, ApiException {
+        Map<String, Set<String>> groupLights = new HashMap<>();
+        for (FullGroup group : getFullGroups()) {
+            groupLights.put(enc(group.getId()), getLightIds(group));
+        }
+        commandScheduler.setGroups(groupLights);
+    }
+
+    private Set<String> getCommandGroupLights(String groupId) throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("groups/" + groupId));
+
+        handleErrors(result);
+
+        return getLightIds(safeFromJson(result.getBody(), FullGroup.class));
+    }
+
+    private Set<String> getLightIds(FullGroup group) {
+        Set<String> lights = new HashSet<>();
+        for (HueObject light : group.getLights()) {
+            lights.add(enc(light.getId()));
+        }
+        return lights;
     }
 
     /**
@@ -436,6 +544,31 @@ public class HueBridge {
         return groupList;
     }
 
+    /**
+     * Returns detailed information about the groups, excluding the all lights pseudo group.
+     *
+     * @return list of groups
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public List<FullGroup> getFullGroups() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("groups"));
+
+        handleErrors(result);
+
+        Map<String, FullGroup> groupMap = safeFromJson(result.getBody(), FullGroup.GSON_TYPE);
+        ArrayList<FullGroup> groupList = new ArrayList<>();
+
+        for (String id : groupMap.keySet()) {
+            FullGroup group = groupMap.get(id);
+            group.setId(id);
+            groupList.add(group);
+        }
+
+        return groupList;
+    }
+
     /**
      * Creates a new group and returns it.
      * Due to API limitations, the name of the returned object
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the light state updates sent to one bridge.
+ *
+ * The bridge can only process about 10 commands per second, of which at most 1 group command, see
+ * https://developers.meethue.com/documentation/hue-system-performance. Updates are therefore queued and sent at
+ * that rate using a token bucket shared by all commands and a further one for group commands. An update of a light which is still queued is merged
+ * into the queued one. If all lights of a group of the bridge have the same queued update, a single group action is
+ * sent instead of the light updates. The lights of the group are read from the bridge before each group action, as
+ * the groups may have been changed since they were set.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueCommandScheduler {
+
+    static final double COMMANDS_PER_SECOND = 10;
+    static final double GROUP_COMMANDS_PER_SECOND = 1;
+
+    /**
+     * Number of commands which may be sent at once after a period without commands
+     */
+    static final double COMMAND_BURST = 3;
+
+    /**
+     * Minimum number of light updates which are replaced by a group action
+     */
+    static final int MIN_GROUP_LIGHTS = 3;
+
+    /**
+     * Time to wait for further updates before the first update is sent, the updates of a scene or an openHAB group
+     * arrive one by one
+     */
+    static final long COLLECT_DELAY_MILLIS = 25;
+
+    /**
+     * Sends a PUT request to a path relative to the API base URL of the user
+     */
+    @FunctionalInterface
+    public interface Sender {
+        Result put(String path, String body) throws IOException;
+    }
+
+    /**
+     * Reads the ids of the lights of a group from the bridge
+     */
+    @FunctionalInterface
+    public interface GroupReader {
+        Set<String> getLights(String groupId) throws IOException, ApiException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(HueCommandScheduler.class);
+
+    private final Sender sender;
+    private final GroupReader groupReader;
+    private final ScheduledExecutorService scheduler;
+
+    private final TokenBucket commandTokens = new TokenBucket(COMMANDS_PER_SECOND, COMMAND_BURST);
+    private final TokenBucket groupTokens = new TokenBucket(GROUP_COMMANDS_PER_SECOND, 1);
+
+    // guarded by this
+    private final LinkedHashMap<String, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+    private @Nullable ScheduledFuture<?> job;
+    private boolean running;
+    private Map<String, Set<String>> groupLights = Collections.emptyMap();
+
+    public HueCommandScheduler(Sender sender, GroupReader groupReader, ScheduledExecutorService scheduler) {
+        this.sender = sender;
+        this.groupReader = groupReader;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queues an update of the state of a light.
+     *
+     * @param lightId id of the light
+     * @param update changes to the state
+     * @return the result of the request which contained the update
+     */
+    public CompletableFuture<Result> setLightState(String lightId, StateUpdate update) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        synchronized (this) {
+            PendingUpdate pendingUpdate = pendingUpdates.get(lightId);
+            if (pendingUpdate == null) {
+                pendingUpdate = new PendingUpdate(lightId);
+                pendingUpdates.put(lightId, pendingUpdate);
+            } else {
+                logger.trace("Merging state update of light {} into the queued one", lightId);
+            }
+            pendingUpdate.merge(update, future);
+            if (job == null && !running) {
+                job = scheduler.schedule(this::processQueue, COLLECT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Sets the groups of the bridge which may be used to update several lights at once.
+     *
+     * @param groupLights ids of the lights by group id
+     */
+    public synchronized void setGroups(Map<String, Set<String>> groupLights) {
+        this.groupLights = groupLights;
+    }
+
+    /**
+     * Discards all queued updates
+     */
+    public void dispose() {
+        List<PendingUpdate> discarded;
+        synchronized (this) {
+            ScheduledFuture<?> job = this.job;
+            if (job != null) {
+                job.cancel(false);
+                this.job = null;
+            }
+            discarded = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates.clear();
+        }
+        IllegalStateException e = new IllegalStateException("Bridge has been disposed");
+        discarded.forEach(update -> update.futures.forEach(future -> future.completeExceptionally(e)));
+    }
+
+    private void processQueue() {
+        while (true) {
+            String candidateGroupId = null;
+            Set<String> candidateLights = null;
+            synchronized (this) {
+                job = null;
+                if (pendingUpdates.isEmpty()) {
+                    running = false;
+                    return;
+                }
+                running = true;
+                if (groupTokens.isAvailable(System.nanoTime())) {
+                    candidateGroupId = findGroup();
+                    candidateLights = candidateGroupId == null ? null : groupLights.get(candidateGroupId);
+                }
+            }
+            // the lights of the group are read without holding the lock, so that updates can still be queued
+            String verifiedGroupId = candidateGroupId != null && candidateLights != null
+                    && verifyGroup(candidateGroupId, candidateLights) ? candidateGroupId : null;
+
+            String path;
+            List<PendingUpdate> updates;
+            int queueDepth;
+            synchronized (this) {
+                if (pendingUpdates.isEmpty()) {
+                    running = false;
+                    return;
+                }
+                long now = System.nanoTime();
+                // group commands count against the overall rate as well
+                long wait = commandTokens.nanosUntilAvailable(now);
+                if (wait > 0) {
+                    running = false;
+                    job = scheduler.schedule(this::processQueue, wait, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                commandTokens.take(now);
+                String groupId = verifiedGroupId != null && verifiedGroupId.equals(findGroup()) ? verifiedGroupId
+                        : null;
+                if (groupId != null) {
+                    groupTokens.take(now);
+                    updates = new ArrayList<>();
+                    for (String lightId : groupLights.get(groupId)) {
+                        updates.add(pendingUpdates.remove(lightId));
+                    }
+                    path = "groups/" + groupId + "/action";
+                } else {
+                    Iterator<PendingUpdate> eldest = pendingUpdates.values().iterator();
+                    PendingUpdate update = eldest.next();
+                    eldest.remove();
+                    updates = Collections.singletonList(update);
+                    path = "lights/" + update.lightId + "/state";
+                }
+                queueDepth = pendingUpdates.size();
+                running = true;
+            }
+            send(path, updates, queueDepth);
+        }
+    }
+
+    /*
+     * Find the largest group whose lights all have the same queued update
+     */
+    private @Nullable String findGroup() {
+        Map<String, String> bodies = new HashMap<>();
+        pendingUpdates.forEach((lightId, update) -> bodies.put(lightId, update.toJson()));
+
+        String bestGroupId = null;
+        int bestSize = MIN_GROUP_LIGHTS - 1;
+        for (Map.Entry<String, Set<String>> group : groupLights.entrySet()) {
+            Set<String> lights = group.getValue();
+            if (lights.size() <= bestSize || lights.size() > bodies.size()) {
+                continue;
+            }
+            Set<String> distinctBodies = new HashSet<>();
+            for (String lightId : lights) {
+                distinctBodies.add(bodies.get(lightId));
+            }
+            if (distinctBodies.size() == 1 && !distinctBodies.contains(null)) {
+                bestGroupId = group.getKey();
+                bestSize = lights.size();
+            }
+        }
+        return bestGroupId;
+    }
+
+    /*
+     * Checks that the group still consists of the expected lights. Otherwise the group is updated or, if it cannot be
+     * read, not used until the groups are set again, and the lights are sent one by one.
+     */
+    private boolean verifyGroup(String groupId, Set<String> expectedLights) {
+        Set<String> lights;
+        try {
+            lights = groupReader.getLights(groupId);
+        } catch (IOException | ApiException | RuntimeException e) {
+            logger.debug("Could not read the lights of group {}, sending light commands instead: {}", groupId,
+                    e.getMessage());
+            lights = null;
+        }
+        if (expectedLights.equals(lights)) {
+            return true;
+        }
+        synchronized (this) {
+            Map<String, Set<String>> groupLights = new HashMap<>(this.groupLights);
+            if (lights == null) {
+                groupLights.remove(groupId);
+            } else {
+                logger.debug("Lights of group {} changed from {} to {}", groupId, expectedLights, lights);
+                groupLights.put(groupId, lights);
+            }
+            this.groupLights = groupLights;
+        }
+        return false;
+    }
+
+    private void send(String path, List<PendingUpdate> updates, int queueDepth) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - updates.get(0).queuedAt);
+        String body = updates.get(0).toJson();
+        logger.debug("Sending put to {} for {} light(s) after {} ms, {} light(s) queued: {}", path, updates.size(),
+                latency, queueDepth, body);
+        try {
+            Result result = sender.put(path, body);
+            updates.forEach(update -> update.futures.forEach(future -> future.complete(result)));
+        } catch (IOException | RuntimeException e) {
+            updates.forEach(update -> update.futures.forEach(future -> future.completeExceptionally(e)));
+        }
+    }
+
+    /*
+     * The merged updates of a light which are not sent yet
+     */
+    private static class PendingUpdate {
+        private static final String TRANSITION_TIME = "transitiontime";
+
+        private final String lightId;
+        private final long queuedAt = System.nanoTime();
+        private final Map<String, Command> commands = new TreeMap<>();
+        private final List<CompletableFuture<Result>> futures = new ArrayList<>();
+
+        PendingUpdate(String lightId) {
+            this.lightId = lightId;
+        }
+
+        void merge(StateUpdate update, CompletableFuture<Result> future) {
+            // the transition time only applies to the commands it was sent with, so the one of the last update is used
+            commands.remove(TRANSITION_TIME);
+            // later commands replace earlier ones with the same key
+            for (Command command : update.commands) {
+                commands.put(command.key, command);
+            }
+            futures.add(future);
+        }
+
+        String toJson() {
+            return commands.values().stream().map(Command::toJson).collect(joining(",", "{", "}"));
+        }
+    }
+
+    /*
+     * Token bucket refilled at a fixed rate
+     */
+    private static class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long updatedAt = System.nanoTime();
+
+        TokenBucket(double tokensPerSecond, double capacity) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+            updatedAt = now;
+        }
+
+        boolean isAvailable(long now) {
+            return nanosUntilAvailable(now) == 0;
+        }
+
+        long nanosUntilAvailable(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        void take(long now) {
+            refill(now);
+            tokens -= 1;
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class HueBridgeConfig {
     private @Nullable String userName;
     private int pollingInterval = 10;
     private int sensorPollingInterval = 500;
+    private int sensorPollingIdleInterval = 0;
 
     public String getIpAddress() {
         return ipAddress;
@@ -80,4 +81,12 @@ public class HueBridgeConfig {
     public void setSensorPollingInterval(int sensorPollingInterval) {
         this.sensorPollingInterval = sensorPollingInterval;
     }
+
+    public int getSensorPollingIdleInterval() {
+        return sensorPollingIdleInterval;
+    }
+
+    public void setSensorPollingIdleInterval(int sensorPollingIdleInterval) {
+        this.sensorPollingIdleInterval = sensorPollingIdleInterval;
+    }
 }
@@ -18,18 +18,17 @@ import static org.openhab.binding.hue.internal.HueBindingConstants.*;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -43,7 +42,6 @@ import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.ConfigStatusBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
-import org.openhab.binding.hue.internal.ApiVersionUtils;
 import org.openhab.binding.hue.internal.Config;
 import org.openhab.binding.hue.internal.ConfigUpdate;
 import org.openhab.binding.hue.internal.FullConfig;
@@ -83,6 +81,14 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private long lightPollingInterval = TimeUnit.SECONDS.toSeconds(10);
     private long sensorPollingInterval = TimeUnit.MILLISECONDS.toMillis(500);
 
+    private SensorPollingSchedule sensorPollingSchedule = new SensorPollingSchedule(sensorPollingInterval, 0);
+
+    /**
+     * Interval in which the groups of the bridge are read for sending group actions
+     */
+    private static final long COMMAND_GROUPS_UPDATE_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private long lastCommandGroupsUpdate;
+
     final ReentrantLock pollingLock = new ReentrantLock();
 
     abstract class PollingRunnable implements Runnable {
@@ -166,8 +172,8 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
     private boolean propertiesInitializedSuccessfully = false;
 
-    private final List<LightStatusListener> lightStatusListeners = new CopyOnWriteArrayList<>();
-    private final List<SensorStatusListener> sensorStatusListeners = new CopyOnWriteArrayList<>();
+    private final StatusListenerIndex<LightStatusListener> lightStatusListeners = new StatusListenerIndex<>();
+    private final StatusListenerIndex<SensorStatusListener> sensorStatusListeners = new StatusListenerIndex<>();
 
     private @Nullable ScheduledFuture<?> lightPollingJob;
     private @Nullable ScheduledFuture<?> sensorPollingJob;
@@ -178,35 +184,45 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Runnable sensorPollingRunnable = new PollingRunnable() {
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
-            Map<String, FullSensor> lastSensorStateCopy = new HashMap<>(lastSensorStates);
+            long now = System.currentTimeMillis();
+            if (!sensorPollingSchedule.poll(now)) {
+                return;
+            }
 
-            for (final FullSensor sensor : hueBridge.getSensors()) {
+            List<FullSensor> sensors = hueBridge.getSensorsIfModified();
+            if (sensors == null) {
+                return;
+            }
+
+            for (final FullSensor sensor : sensors) {
                 String sensorId = sensor.getId();
-                if (lastSensorStateCopy.containsKey(sensorId)) {
-                    final FullSensor lastFullSensor = lastSensorStateCopy.remove(sensorId);
-                    final Map<String, Object> lastFullSensorState = lastFullSensor.getState();
-                    lastSensorStates.put(sensorId, sensor);
-                    if (!lastFullSensorState.equals(sensor.getState())) {
-                        logger.debug("Status update for Hue sensor '{}' detected: {}", sensorId, sensor.getState());
-                        notifySensorStatusListeners(sensor, STATE_CHANGED);
-                    }
-                } else {
-                    lastSensorStates.put(sensorId, sensor);
+                final FullSensor lastFullSensor = lastSensorStates.put(sensorId, sensor);
+                if (lastFullSensor == null) {
                     logger.debug("Hue sensor '{}' added.", sensorId);
                     notifySensorStatusListeners(sensor, STATE_ADDED);
-
+                } else if (!lastFullSensor.getState().equals(sensor.getState())) {
+                    logger.debug("Status update for Hue sensor '{}' detected: {}", sensorId, sensor.getState());
+                    sensorPollingSchedule.sensorChanged(lastFullSensor, sensor, now);
+                    notifySensorStatusListeners(sensor, STATE_CHANGED);
                 }
             }
 
             // Check for removed sensors
-            for (Entry<String, FullSensor> fullSensorEntry : lastSensorStateCopy.entrySet()) {
-                lastSensorStates.remove(fullSensorEntry.getKey());
-                logger.debug("Hue sensor '{}' removed.", fullSensorEntry.getKey());
-                for (SensorStatusListener sensorStatusListener : sensorStatusListeners) {
-                    try {
-                        sensorStatusListener.onSensorRemoved(hueBridge, fullSensorEntry.getValue());
-                    } catch (Exception e) {
-                        logger.error("An exception occurred while calling the Sensor Listeners", e);
+            if (lastSensorStates.size() > sensors.size()) {
+                Set<String> sensorIds = sensors.stream().map(FullSensor::getId).collect(Collectors.toSet());
+                Iterator<FullSensor> iterator = lastSensorStates.values().iterator();
+                while (iterator.hasNext()) {
+                    FullSensor removedSensor = iterator.next();
+                    if (!sensorIds.contains(removedSensor.getId())) {
+                        iterator.remove();
+                        logger.debug("Hue sensor '{}' removed.", removedSensor.getId());
+                        sensorStatusListeners.forEach(removedSensor.getId(), sensorStatusListener -> {
+                            try {
+                                sensorStatusListener.onSensorRemoved(hueBridge, removedSensor);
+                            } catch (Exception e) {
+                                logger.error("An exception occurred while calling the Sensor Listeners", e);
+                            }
+                        });
                     }
                 }
             }
@@ -216,44 +232,51 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Runnable lightPollingRunnable = new PollingRunnable() {
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
-            Map<String, FullLight> lastLightStateCopy = new HashMap<>(lastLightStates);
-
-            List<FullLight> lights;
-            if (ApiVersionUtils.supportsFullLights(hueBridge.getVersion())) {
-                lights = hueBridge.getFullLights();
-            } else {
-                lights = hueBridge.getFullConfig().getLights();
-            }
-
-            for (final FullLight fullLight : lights) {
-                final String lightId = fullLight.getId();
-                if (lastLightStateCopy.containsKey(lightId)) {
-                    final FullLight lastFullLight = lastLightStateCopy.remove(lightId);
-                    final State lastFullLightState = lastFullLight.getState();
-                    lastLightStates.put(lightId, fullLight);
-                    if (!isEqual(lastFullLightState, fullLight.getState())) {
+            List<FullLight> lights = hueBridge.getFullLightsIfModified();
+
+            if (lights != null) {
+                for (final FullLight fullLight : lights) {
+                    final String lightId = fullLight.getId();
+                    final FullLight lastFullLight = lastLightStates.put(lightId, fullLight);
+                    if (lastFullLight == null) {
+                        logger.debug("Hue light '{}' added.", lightId);
+                        notifyLightStatusListeners(fullLight, STATE_ADDED);
+                    } else if (!isEqual(lastFullLight.getState(), fullLight.getState())) {
                         logger.debug("Status update for Hue light '{}' detected.", lightId);
                         notifyLightStatusListeners(fullLight, STATE_CHANGED);
                     }
-                } else {
-                    lastLightStates.put(lightId, fullLight);
-                    logger.debug("Hue light '{}' added.", lightId);
-                    notifyLightStatusListeners(fullLight, STATE_ADDED);
                 }
-            }
 
-            // Check for removed lights
-            for (Entry<String, FullLight> fullLightEntry : lastLightStateCopy.entrySet()) {
-                lastLightStates.remove(fullLightEntry.getKey());
-                logger.debug("Hue light '{}' removed.", fullLightEntry.getKey());
-                for (LightStatusListener lightStatusListener : lightStatusListeners) {
-                    try {
-                        lightStatusListener.onLightRemoved(hueBridge, fullLightEntry.getValue());
-                    } catch (Exception e) {
-                        logger.error("An exception occurred while calling the BridgeHeartbeatListener", e);
+                // Check for removed lights
+                if (lastLightStates.size() > lights.size()) {
+                    Set<String> lightIds = lights.stream().map(FullLight::getId).collect(Collectors.toSet());
+                    Iterator<FullLight> iterator = lastLightStates.values().iterator();
+                    while (iterator.hasNext()) {
+                        FullLight removedLight = iterator.next();
+                        if (!lightIds.contains(removedLight.getId())) {
+                            iterator.remove();
+                            logger.debug("Hue light '{}' removed.", removedLight.getId());
+                            lightStatusListeners.forEach(removedLight.getId(), lightStatusListener -> {
+                                try {
+                                    lightStatusListener.onLightRemoved(hueBridge, removedLight);
+                                } catch (Exception e) {
+                                    logger.error("An exception occurred while calling the BridgeHeartbeatListener",
+                                            e);
+                                }
+                            });
+                        }
                     }
                 }
             }
+
+            if (System.currentTimeMillis() - lastCommandGroupsUpdate >= COMMAND_GROUPS_UPDATE_INTERVAL) {
+                try {
+                    hueBridge.updateCommandGroups();
+                } catch (IOException | ApiException e) {
+                    logger.debug("Could not read the groups of the Hue bridge: {}", e.getMessage());
+                }
+                lastCommandGroupsUpdate = System.currentTimeMillis();
+            }
         }
     };
 
@@ -399,6 +422,8 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             } else {
                 sensorPollingInterval = hueBridgeConfig.getSensorPollingInterval();
             }
+            sensorPollingSchedule = new SensorPollingSchedule(sensorPollingInterval,
+                    hueBridgeConfig.getSensorPollingIdleInterval());
             sensorPollingJob = scheduler.scheduleWithFixedDelay(sensorPollingRunnable, 1, sensorPollingInterval,
                     TimeUnit.MILLISECONDS);
         }
@@ -417,6 +442,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         stopLightPolling();
         stopSensorPolling();
         if (hueBridge != null) {
+            hueBridge.getCommandScheduler().dispose();
             hueBridge = null;
         }
     }
@@ -594,7 +620,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
     @Override
     public boolean registerLightStatusListener(LightStatusListener lightStatusListener) {
-        boolean result = lightStatusListeners.add(lightStatusListener);
+        boolean result = lightStatusListeners.add(lightStatusListener, lightStatusListener.getLightId());
         if (result && hueBridge != null) {
             // start light polling only if a light handler has been registered
             startLightPolling();
@@ -620,7 +646,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
     @Override
     public boolean registerSensorStatusListener(SensorStatusListener sensorStatusListener) {
-        boolean result = sensorStatusListeners.add(sensorStatusListener);
+        boolean result = sensorStatusListeners.add(sensorStatusListener, sensorStatusListener.getSensorId());
         if (result && hueBridge != null) {
             // start sensor polling only if a sensor handler has been registered
             startSensorPolling();
@@ -712,7 +738,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             return;
         }
 
-        for (LightStatusListener lightStatusListener : lightStatusListeners) {
+        lightStatusListeners.forEach(fullLight.getId(), lightStatusListener -> {
             try {
                 switch (type) {
                     case STATE_ADDED:
@@ -733,7 +759,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             } catch (Exception e) {
                 logger.error("An exception occurred while calling the BridgeHeartbeatListener", e);
             }
-        }
+        });
     }
 
     private void notifySensorStatusListeners(final FullSensor fullSensor, final String type) {
@@ -742,7 +768,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             return;
         }
 
-        for (SensorStatusListener sensorStatusListener : sensorStatusListeners) {
+        sensorStatusListeners.forEach(fullSensor.getId(), sensorStatusListener -> {
             try {
                 switch (type) {
                     case STATE_ADDED:
@@ -763,7 +789,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             } catch (Exception e) {
                 logger.error("An exception occurred while calling the Sensor Listeners", e);
             }
-        }
+        });
     }
 
     /**
@@ -227,6 +227,11 @@ public abstract class HueSensorHandler extends BaseThingHandler implements Senso
         super.handleConfigurationUpdate(configurationParameters);
     }
 
+    @Override
+    public @Nullable String getSensorId() {
+        return sensorId;
+    }
+
     @Override
     public void onSensorStateChanged(@Nullable HueBridge bridge, FullSensor sensor) {
         logger.trace("onSensorStateChanged() was called");
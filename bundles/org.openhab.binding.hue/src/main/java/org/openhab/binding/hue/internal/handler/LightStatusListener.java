@@ -26,6 +26,16 @@ import org.openhab.binding.hue.internal.HueBridge;
 @NonNullByDefault
 public interface LightStatusListener {
 
+    /**
+     * Returns the id of the light this listener is interested in. Only status changes of this light are passed to the
+     * listener. Returns {@code null} by default to receive the status changes of all lights.
+     *
+     * @return the id of the light or {@code null}
+     */
+    default @Nullable String getLightId() {
+        return null;
+    }
+
     /**
      * This method is called whenever the state of the given light has changed. The new state can be obtained by
      * {@link FullLight#getState()}.
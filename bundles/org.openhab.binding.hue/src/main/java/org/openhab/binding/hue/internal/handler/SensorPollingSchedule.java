@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.handler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.hue.internal.FullSensor;
+
+/**
+ * The {@link SensorPollingSchedule} decides whether the sensors of a bridge are polled in a run of the sensor polling
+ * job. The job runs with the sensor polling interval. If an idle interval is configured, the sensors are only polled
+ * with the idle interval when there was no motion or button activity for {@link #ACTIVITY_PERIOD} milliseconds.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class SensorPollingSchedule {
+
+    /**
+     * Time after the last motion or button activity in which the sensors are polled with the sensor polling interval
+     */
+    static final long ACTIVITY_PERIOD = TimeUnit.MINUTES.toMillis(2);
+
+    private final long pollingInterval;
+    private final long idleInterval;
+
+    private volatile long lastActivity;
+    private long lastPoll;
+
+    /**
+     * @param pollingInterval the interval in milliseconds in which the polling job runs
+     * @param idleInterval the interval in milliseconds in which the sensors are polled without activity, disabled if
+     *            not larger than the polling interval
+     */
+    SensorPollingSchedule(long pollingInterval, long idleInterval) {
+        this.pollingInterval = pollingInterval;
+        this.idleInterval = idleInterval;
+    }
+
+    /**
+     * Returns whether the sensors are to be polled now, and if so records the poll.
+     *
+     * @param now the current time in milliseconds
+     */
+    boolean poll(long now) {
+        if (isIdle(now) && now - lastPoll < idleInterval) {
+            return false;
+        }
+        lastPoll = now;
+        return true;
+    }
+
+    /**
+     * Returns whether the sensors are polled with the idle interval.
+     *
+     * @param now the current time in milliseconds
+     */
+    boolean isIdle(long now) {
+        return idleInterval > pollingInterval && now - lastActivity >= ACTIVITY_PERIOD;
+    }
+
+    /**
+     * Records a changed sensor, so that the sensors are polled with the polling interval again if the change was a
+     * motion or button activity.
+     *
+     * @param lastSensor the sensor as polled before
+     * @param sensor the changed sensor
+     * @param now the current time in milliseconds
+     */
+    void sensorChanged(FullSensor lastSensor, FullSensor sensor, long now) {
+        if (isActivity(lastSensor.getState(), sensor.getState())) {
+            lastActivity = now;
+        }
+    }
+
+    /**
+     * Returns whether the state change of a sensor indicates activity in the house. A button is pressed when its
+     * button event or update time changes, as pressing the same button again only changes the update time. Motion is
+     * detected when a presence sensor reports presence with a new update time.
+     */
+    static boolean isActivity(Map<String, Object> lastState, Map<String, Object> state) {
+        boolean updated = !Objects.equals(lastState.get(FullSensor.STATE_LAST_UPDATED),
+                state.get(FullSensor.STATE_LAST_UPDATED));
+        if (state.containsKey(FullSensor.STATE_BUTTON_EVENT)) {
+            return updated || !Objects.equals(lastState.get(FullSensor.STATE_BUTTON_EVENT),
+                    state.get(FullSensor.STATE_BUTTON_EVENT));
+        }
+        return Boolean.TRUE.equals(state.get(FullSensor.STATE_PRESENCE))
+                && (updated || !Boolean.TRUE.equals(lastState.get(FullSensor.STATE_PRESENCE)));
+    }
+}
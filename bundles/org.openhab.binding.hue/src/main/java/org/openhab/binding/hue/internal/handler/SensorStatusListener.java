@@ -26,6 +26,16 @@ import org.openhab.binding.hue.internal.HueBridge;
 @NonNullByDefault
 public interface SensorStatusListener {
 
+    /**
+     * Returns the id of the sensor this listener is interested in. Only status changes of this sensor are passed to the
+     * listener. Returns {@code null} by default to receive the status changes of all sensors.
+     *
+     * @return the id of the sensor or {@code null}
+     */
+    default @Nullable String getSensorId() {
+        return null;
+    }
+
     /**
      * This method is called whenever the state of the given sensor has changed. The new state can be obtained by
      * {@link FullSensor#getState()}.
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.handler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link StatusListenerIndex} holds the status listeners of a bridge indexed by the id of the light or sensor
+ * they are interested in, so that a status change is only passed to the listeners of the changed light or sensor
+ * and to the listeners interested in all of them.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class StatusListenerIndex<L> {
+
+    private final List<L> listeners = new CopyOnWriteArrayList<>();
+    private final List<L> unfilteredListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<L>> listenersById = new ConcurrentHashMap<>();
+    private final Map<L, String> registeredIds = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener the listener
+     * @param id the id of the light or sensor the listener is interested in, {@code null} for all
+     * @return {@code true} if the listener has been added
+     */
+    public synchronized boolean add(L listener, @Nullable String id) {
+        if (listeners.contains(listener)) {
+            return false;
+        }
+        listeners.add(listener);
+        if (id == null) {
+            unfilteredListeners.add(listener);
+        } else {
+            registeredIds.put(listener, id);
+            listenersById.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(listener);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     * @return {@code true} if the listener has been removed
+     */
+    public synchronized boolean remove(L listener) {
+        if (!listeners.remove(listener)) {
+            return false;
+        }
+        unfilteredListeners.remove(listener);
+        String id = registeredIds.remove(listener);
+        if (id != null) {
+            List<L> idListeners = listenersById.get(id);
+            if (idListeners != null) {
+                idListeners.remove(listener);
+                if (idListeners.isEmpty()) {
+                    listenersById.remove(id);
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    /**
+     * Passes the listeners interested in the given light or sensor to the given action.
+     *
+     * @param id the id of the light or sensor
+     * @param action the action
+     */
+    public void forEach(String id, Consumer<L> action) {
+        List<L> idListeners = listenersById.get(id);
+        if (idListeners != null) {
+            idListeners.forEach(action);
+        }
+        unfilteredListeners.forEach(action);
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.exceptions.EntityNotAvailableException;
+
+/**
+ * Tests for {@link HueCommandScheduler}
+ *
+ * @author agent - Initial contribution
+ */
+public class HueCommandSchedulerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, Set<String>> bridgeGroups = new ConcurrentHashMap<>();
+    private final HueCommandScheduler commandScheduler = new HueCommandScheduler((path, body) -> {
+        requests.add(path + " " + body);
+        return new Result("[]", 200);
+    }, groupId -> {
+        Set<String> lights = bridgeGroups.get(groupId);
+        if (lights == null) {
+            throw new EntityNotAvailableException("resource, /groups/" + groupId + ", not available");
+        }
+        return lights;
+    }, scheduler);
+
+    private void setGroup(String groupId, String... lightIds) {
+        Set<String> lights = new HashSet<>(Arrays.asList(lightIds));
+        bridgeGroups.put(groupId, lights);
+        commandScheduler.setGroups(Collections.singletonMap(groupId, new HashSet<>(lights)));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void queuedUpdatesOfALightAreMerged() throws Exception {
+        CompletableFuture<Result> first = commandScheduler.setLightState("1", new StateUpdate().turnOn());
+        CompletableFuture<Result> second = commandScheduler.setLightState("1",
+                new StateUpdate().setBrightness(100).setTransitionTime(400));
+        CompletableFuture<Result> third = commandScheduler.setLightState("1", new StateUpdate().setBrightness(200));
+
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList("lights/1/state {\"bri\":200,\"on\":true}"), requests);
+    }
+
+    @Test
+    public void mergedUpdateUsesTransitionTimeOfLastUpdate() throws Exception {
+        CompletableFuture<Result> first = commandScheduler.setLightState("1",
+                new StateUpdate().setBrightness(100).setTransitionTime(400));
+        CompletableFuture<Result> second = commandScheduler.setLightState("1",
+                new StateUpdate().turnOn().setTransitionTime(1000));
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList("lights/1/state {\"bri\":100,\"on\":true,\"transitiontime\":10}"),
+                requests);
+    }
+
+    @Test
+    public void identicalUpdatesOfAllLightsOfAGroupAreSentAsGroupAction() throws Exception {
+        setGroup("7", "1", "2", "3");
+
+        CompletableFuture<Result> light1 = commandScheduler.setLightState("1", new StateUpdate().turnOff());
+        CompletableFuture<Result> light2 = commandScheduler.setLightState("2", new StateUpdate().turnOff());
+        CompletableFuture<Result> light3 = commandScheduler.setLightState("3", new StateUpdate().turnOff());
+        CompletableFuture<Result> light4 = commandScheduler.setLightState("4", new StateUpdate().turnOff());
+
+        CompletableFuture.allOf(light1, light2, light3, light4).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("groups/7/action {\"on\":false}", "lights/4/state {\"on\":false}"), requests);
+    }
+
+    @Test
+    public void groupIsNotUsedIfItsLightsDiffer() throws Exception {
+        setGroup("7", "1", "2", "3");
+
+        CompletableFuture<Result> light1 = commandScheduler.setLightState("1", new StateUpdate().turnOff());
+        CompletableFuture<Result> light2 = commandScheduler.setLightState("2", new StateUpdate().turnOff());
+        CompletableFuture<Result> light3 = commandScheduler.setLightState("3", new StateUpdate().turnOn());
+
+        CompletableFuture.allOf(light1, light2, light3).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("lights/1/state {\"on\":false}", "lights/2/state {\"on\":false}",
+                "lights/3/state {\"on\":true}"), requests);
+    }
+
+    @Test
+    public void changedGroupIsNotUsed() throws Exception {
+        setGroup("7", "1", "2", "3");
+        bridgeGroups.put("7", new HashSet<>(Arrays.asList("1", "2", "3", "4")));
+
+        CompletableFuture<Result> light1 = commandScheduler.setLightState("1", new StateUpdate().turnOff());
+        CompletableFuture<Result> light2 = commandScheduler.setLightState("2", new StateUpdate().turnOff());
+        CompletableFuture<Result> light3 = commandScheduler.setLightState("3", new StateUpdate().turnOff());
+
+        CompletableFuture.allOf(light1, light2, light3).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("lights/1/state {\"on\":false}", "lights/2/state {\"on\":false}",
+                "lights/3/state {\"on\":false}"), requests);
+    }
+
+    @Test
+    public void deletedGroupIsNotUsed() throws Exception {
+        setGroup("7", "1", "2", "3");
+        bridgeGroups.remove("7");
+
+        CompletableFuture<Result> light1 = commandScheduler.setLightState("1", new StateUpdate().turnOff());
+        CompletableFuture<Result> light2 = commandScheduler.setLightState("2", new StateUpdate().turnOff());
+        CompletableFuture<Result> light3 = commandScheduler.setLightState("3", new StateUpdate().turnOff());
+
+        CompletableFuture.allOf(light1, light2, light3).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("lights/1/state {\"on\":false}", "lights/2/state {\"on\":false}",
+                "lights/3/state {\"on\":false}"), requests);
+    }
+
+    @Test
+    public void groupAndLightCommandsShareTheOverallRate() throws Exception {
+        List<Long> sentAt = new CopyOnWriteArrayList<>();
+        HueCommandScheduler rateLimitedScheduler = new HueCommandScheduler((path, body) -> {
+            sentAt.add(System.nanoTime());
+            return new Result("[]", 200);
+        }, groupId -> bridgeGroups.get(groupId), scheduler);
+        Map<String, Set<String>> groups = new HashMap<>();
+        for (int group = 0; group < 5; group++) {
+            Set<String> lights = new HashSet<>();
+            for (int light = 0; light < 3; light++) {
+                lights.add("g" + group + "l" + light);
+            }
+            groups.put(String.valueOf(group), lights);
+            bridgeGroups.put(String.valueOf(group), lights);
+        }
+        rateLimitedScheduler.setGroups(groups);
+
+        // the single lights are queued first, so that the lights of the groups are left for group actions
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (int light = 0; light < 30; light++) {
+            futures.add(rateLimitedScheduler.setLightState(String.valueOf(light), new StateUpdate().turnOn()));
+        }
+        for (Set<String> lights : groups.values()) {
+            for (String lightId : lights) {
+                futures.add(rateLimitedScheduler.setLightState(lightId, new StateUpdate().turnOff()));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        long first = sentAt.get(0);
+        for (int i = 0; i < sentAt.size(); i++) {
+            double seconds = (sentAt.get(i) - first) / (double) TimeUnit.SECONDS.toNanos(1);
+            // one command of tolerance for the timing of the scheduler
+            double allowed = HueCommandScheduler.COMMAND_BURST + HueCommandScheduler.COMMANDS_PER_SECOND * seconds + 1;
+            assertTrue("command " + (i + 1) + " sent after " + seconds + " s", i + 1 <= allowed);
+        }
+    }
+}
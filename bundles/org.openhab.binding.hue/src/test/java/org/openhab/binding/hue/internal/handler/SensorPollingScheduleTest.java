@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.handler;
+
+import static org.junit.Assert.*;
+import static org.openhab.binding.hue.internal.handler.SensorPollingSchedule.ACTIVITY_PERIOD;
+
+import org.junit.Test;
+import org.openhab.binding.hue.internal.FullSensor;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for {@link SensorPollingSchedule}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SensorPollingScheduleTest {
+
+    private static final long POLLING_INTERVAL = 500;
+    private static final long IDLE_INTERVAL = 5000;
+
+    private final Gson gson = new Gson();
+
+    private FullSensor sensor(String state) {
+        return gson.fromJson("{\"state\":" + state + "}", FullSensor.class);
+    }
+
+    @Test
+    public void sensorsArePolledEveryRunWithoutIdleInterval() {
+        SensorPollingSchedule schedule = new SensorPollingSchedule(POLLING_INTERVAL, 0);
+        long now = ACTIVITY_PERIOD;
+        for (int i = 0; i < 10; i++) {
+            assertTrue(schedule.poll(now));
+            now += POLLING_INTERVAL;
+        }
+    }
+
+    @Test
+    public void sensorsArePolledWithIdleIntervalWithoutActivity() {
+        SensorPollingSchedule schedule = new SensorPollingSchedule(POLLING_INTERVAL, IDLE_INTERVAL);
+        long now = ACTIVITY_PERIOD;
+        assertTrue(schedule.isIdle(now));
+        assertTrue(schedule.poll(now));
+        assertFalse(schedule.poll(now + POLLING_INTERVAL));
+        assertFalse(schedule.poll(now + IDLE_INTERVAL - 1));
+        assertTrue(schedule.poll(now + IDLE_INTERVAL));
+    }
+
+    @Test
+    public void activityReturnsToPollingInterval() {
+        SensorPollingSchedule schedule = new SensorPollingSchedule(POLLING_INTERVAL, IDLE_INTERVAL);
+        long now = ACTIVITY_PERIOD;
+        assertTrue(schedule.poll(now));
+
+        schedule.sensorChanged(sensor("{\"presence\":false,\"lastupdated\":\"2019-06-01T10:00:00\"}"),
+                sensor("{\"presence\":true,\"lastupdated\":\"2019-06-01T10:05:00\"}"), now);
+        assertFalse(schedule.isIdle(now + POLLING_INTERVAL));
+        assertTrue(schedule.poll(now + POLLING_INTERVAL));
+        assertTrue(schedule.poll(now + 2 * POLLING_INTERVAL));
+
+        assertTrue(schedule.isIdle(now + ACTIVITY_PERIOD));
+    }
+
+    @Test
+    public void otherChangesKeepIdleInterval() {
+        SensorPollingSchedule schedule = new SensorPollingSchedule(POLLING_INTERVAL, IDLE_INTERVAL);
+        long now = ACTIVITY_PERIOD;
+        assertTrue(schedule.poll(now));
+
+        schedule.sensorChanged(sensor("{\"temperature\":2100,\"lastupdated\":\"2019-06-01T10:00:00\"}"),
+                sensor("{\"temperature\":2150,\"lastupdated\":\"2019-06-01T10:05:00\"}"), now);
+        assertTrue(schedule.isIdle(now));
+        assertFalse(schedule.poll(now + POLLING_INTERVAL));
+    }
+
+    @Test
+    public void buttonActivityRequiresChangedEventOrUpdateTime() {
+        FullSensor pressed = sensor("{\"buttonevent\":1002,\"lastupdated\":\"2019-06-01T10:00:00\"}");
+        FullSensor pressedAgain = sensor("{\"buttonevent\":1002,\"lastupdated\":\"2019-06-01T10:05:00\"}");
+        FullSensor otherButton = sensor("{\"buttonevent\":2002,\"lastupdated\":\"2019-06-01T10:00:00\"}");
+
+        assertTrue(SensorPollingSchedule.isActivity(pressed.getState(), pressedAgain.getState()));
+        assertTrue(SensorPollingSchedule.isActivity(pressed.getState(), otherButton.getState()));
+        assertFalse(SensorPollingSchedule.isActivity(pressed.getState(), pressed.getState()));
+    }
+
+    @Test
+    public void presenceActivityRequiresPresence() {
+        FullSensor present = sensor("{\"presence\":true,\"lastupdated\":\"2019-06-01T10:00:00\"}");
+        FullSensor stillPresent = sensor("{\"presence\":true,\"lastupdated\":\"2019-06-01T10:05:00\"}");
+        FullSensor absent = sensor("{\"presence\":false,\"lastupdated\":\"2019-06-01T10:10:00\"}");
+
+        assertTrue(SensorPollingSchedule.isActivity(present.getState(), stillPresent.getState()));
+        assertFalse(SensorPollingSchedule.isActivity(present.getState(), present.getState()));
+        assertFalse(SensorPollingSchedule.isActivity(stillPresent.getState(), absent.getState()));
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link StatusListenerIndex}.
+ *
+ * @author agent - Initial contribution
+ */
+public class StatusListenerIndexTest {
+
+    private final StatusListenerIndex<String> index = new StatusListenerIndex<>();
+
+    private List<String> listenersOf(String id) {
+        List<String> listeners = new ArrayList<>();
+        index.forEach(id, listeners::add);
+        return listeners;
+    }
+
+    @Test
+    public void changesArePassedToListenersOfTheIdAndToUnfilteredListeners() {
+        assertTrue(index.add("light1", "1"));
+        assertTrue(index.add("light2", "2"));
+        assertTrue(index.add("discovery", null));
+
+        assertEquals(Arrays.asList("light1", "discovery"), listenersOf("1"));
+        assertEquals(Arrays.asList("light2", "discovery"), listenersOf("2"));
+        assertEquals(Collections.singletonList("discovery"), listenersOf("3"));
+    }
+
+    @Test
+    public void listenerIsOnlyAddedOnce() {
+        assertTrue(index.add("light1", "1"));
+        assertFalse(index.add("light1", "1"));
+        assertFalse(index.add("light1", null));
+
+        assertEquals(Collections.singletonList("light1"), listenersOf("1"));
+        assertEquals(Collections.emptyList(), listenersOf("2"));
+    }
+
+    @Test
+    public void removedListenerIsNotCalled() {
+        index.add("light1", "1");
+        index.add("discovery", null);
+
+        assertTrue(index.remove("light1"));
+        assertFalse(index.remove("light1"));
+        assertEquals(Collections.singletonList("discovery"), listenersOf("1"));
+        assertFalse(index.isEmpty());
+
+        assertTrue(index.remove("discovery"));
+        assertEquals(Collections.emptyList(), listenersOf("1"));
+        assertTrue(index.isEmpty());
+    }
+}
@@ -13,15 +13,17 @@
 package org.openhab.binding.knx.internal.client;
 
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -73,8 +75,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private final int readingPause;
     private final int autoReconnectPeriod;
     private final int readRetriesLimit;
+    private final int maxPendingReads;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
+    private final @Nullable ThreadPoolExecutor readExecutor;
 
     private @Nullable ProcessCommunicator processCommunicator;
     private @Nullable ProcessCommunicationResponder responseCommunicator;
@@ -85,8 +89,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final GroupAddressListenerIndex groupAddressListeners = new GroupAddressListenerIndex();
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+    private final AtomicInteger pendingReads = new AtomicInteger();
+    private volatile int readWindow = 1;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -124,14 +130,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     };
 
     public AbstractKNXClient(int autoReconnectPeriod, ThingUID thingUID, int responseTimeout, int readingPause,
-            int readRetriesLimit, ScheduledExecutorService knxScheduler, StatusUpdateCallback statusUpdateCallback) {
+            int readRetriesLimit, int maxPendingReads, ScheduledExecutorService knxScheduler,
+            StatusUpdateCallback statusUpdateCallback) {
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
+        this.maxPendingReads = Math.max(1, maxPendingReads);
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        if (this.maxPendingReads > 1) {
+            // the reads block until the response is received, so they must not occupy the shared scheduler threads
+            ThreadPoolExecutor readExecutor = new ThreadPoolExecutor(this.maxPendingReads, this.maxPendingReads, 60,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("knx-read-" + thingUID));
+            readExecutor.allowCoreThreadTimeOut(true);
+            this.readExecutor = readExecutor;
+        } else {
+            this.readExecutor = null;
+        }
     }
 
     public void initialize() {
@@ -224,6 +241,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
+        readWindow = 1;
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -251,11 +269,20 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = groupAddressListeners.getListeners(destination);
+        if (listeners.isEmpty()) {
+            return;
         }
+        knxScheduler.execute(() -> {
+            for (GroupAddressListener listener : listeners) {
+                try {
+                    action.apply(listener, source, destination, asdu);
+                } catch (RuntimeException e) {
+                    logger.warn("Listener '{}' failed to process a {} telegram to '{}': {}", listener, task,
+                            destination, e.getMessage(), e);
+                }
+            }
+        });
     }
 
     /**
@@ -270,7 +297,6 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    @SuppressWarnings("null")
     private void readNextQueuedDatapoint() {
         if (!connectIfNotAutomatic()) {
             return;
@@ -279,31 +305,78 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (processCommunicator == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
-            try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
-            } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
+        ThreadPoolExecutor readExecutor = this.readExecutor;
+        if (readExecutor == null) {
+            ReadDatapoint datapoint = readDatapoints.poll();
+            if (datapoint != null) {
+                readQueuedDatapoint(processCommunicator, datapoint);
+            }
+            return;
+        }
+        // adaptive pacing: keep up to readWindow read requests in flight
+        while (pendingReads.get() < readWindow) {
+            ReadDatapoint datapoint = readDatapoints.poll();
+            if (datapoint == null) {
                 return;
             }
+            pendingReads.incrementAndGet();
+            readExecutor.execute(() -> {
+                try {
+                    adaptReadWindow(readQueuedDatapoint(processCommunicator, datapoint));
+                } finally {
+                    pendingReads.decrementAndGet();
+                }
+            });
         }
     }
 
+    /**
+     * Widens the read window by one after each timely response and halves it when the bus does not respond in
+     * time, limited by {@code maxPendingReads}.
+     */
+    private synchronized void adaptReadWindow(boolean success) {
+        int window = success ? Math.min(maxPendingReads, readWindow + 1) : Math.max(1, readWindow / 2);
+        if (window != readWindow) {
+            logger.trace("Adjusting the number of pending read requests from {} to {}", readWindow, window);
+            readWindow = window;
+        }
+    }
+
+    /**
+     * Sends a group read request for the given datapoint and waits for the response.
+     *
+     * @return {@code true} if the response was received within half of the response timeout
+     */
+    @SuppressWarnings("null")
+    private boolean readQueuedDatapoint(ProcessCommunicator processCommunicator, ReadDatapoint datapoint) {
+        datapoint.incrementRetries();
+        long start = System.nanoTime();
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+            processCommunicator.read(datapoint.getDatapoint());
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < responseTimeout * 1000L / 2;
+        } catch (KNXException e) {
+            if (datapoint.getRetries() < datapoint.getLimit()) {
+                readDatapoints.add(datapoint);
+                logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
+                        datapoint.getDatapoint().getMainAddress(), e.getMessage());
+            } else {
+                logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted sending KNX read request");
+        }
+        return false;
+    }
+
     public void dispose() {
         cancelReconnectJob();
         disconnect(null);
+        ThreadPoolExecutor readExecutor = this.readExecutor;
+        if (readExecutor != null) {
+            readExecutor.shutdownNow();
+        }
     }
 
     @Override
@@ -366,23 +439,18 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        return groupAddressListeners.register(listener);
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        return groupAddressListeners.unregister(listener);
     }
 
     @Override
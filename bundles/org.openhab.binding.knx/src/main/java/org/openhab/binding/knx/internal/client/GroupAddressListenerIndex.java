@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Index of {@link GroupAddressListener}s by the group addresses they are interested in.
+ *
+ * Lookups are lock-free, so dispatching a telegram does not need to ask every registered listener whether it
+ * {@link GroupAddressListener#listensTo(GroupAddress) listens to} the destination. (Re-)Registering a listener
+ * replaces the addresses it was indexed with before.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+class GroupAddressListenerIndex {
+
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> addressesByListener = new ConcurrentHashMap<>();
+
+    /**
+     * Add the given listener to the index or update the addresses it is indexed with.
+     *
+     * @param listener the listener
+     * @return {@code true} if it wasn't registered before
+     */
+    synchronized boolean register(GroupAddressListener listener) {
+        Set<GroupAddress> addresses = new HashSet<>(listener.getGroupAddresses());
+        Set<GroupAddress> previous = addressesByListener.put(listener, addresses);
+        if (previous != null) {
+            for (GroupAddress address : previous) {
+                if (!addresses.contains(address)) {
+                    removeFromAddress(address, listener);
+                }
+            }
+        }
+        for (GroupAddress address : addresses) {
+            listenersByAddress.computeIfAbsent(address, a -> new CopyOnWriteArraySet<>()).add(listener);
+        }
+        return previous == null;
+    }
+
+    /**
+     * Remove the given listener from the index.
+     *
+     * @param listener the listener
+     * @return {@code true} if it was registered before
+     */
+    synchronized boolean unregister(GroupAddressListener listener) {
+        Set<GroupAddress> previous = addressesByListener.remove(listener);
+        if (previous == null) {
+            return false;
+        }
+        for (GroupAddress address : previous) {
+            removeFromAddress(address, listener);
+        }
+        return true;
+    }
+
+    private void removeFromAddress(GroupAddress address, GroupAddressListener listener) {
+        Set<GroupAddressListener> listeners = listenersByAddress.get(address);
+        if (listeners != null) {
+            listeners.remove(listener);
+            if (listeners.isEmpty()) {
+                listenersByAddress.remove(address);
+            }
+        }
+    }
+
+    /**
+     * Get the listeners which are interested in the given group address.
+     *
+     * @param destination the group address
+     * @return the (possibly empty) set of listeners
+     */
+    Set<GroupAddressListener> getListeners(GroupAddress destination) {
+        Set<GroupAddressListener> listeners = listenersByAddress.get(destination);
+        return listeners != null ? listeners : Collections.emptySet();
+    }
+
+}
@@ -63,6 +63,8 @@ public interface KNXClient {
     /**
      * Register the given listener to be informed on KNX bus traffic.
      *
+     * Registering an already registered listener again updates the group addresses it will be informed about.
+     *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
      */
@@ -79,9 +81,13 @@ public interface KNXClient {
     /**
      * Schedule the given data point for asynchronous reading.
      *
+     * Data points are read in the order of their priority. A data point which is already scheduled will not be
+     * scheduled again, but its priority is raised if necessary.
+     *
      * @param datapoint the datapoint
+     * @param priority the priority of the read request
      */
-    void readDatapoint(Datapoint datapoint);
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.KNXAddress;
+
+/**
+ * Queue of data points to be read from the KNX bus.
+ *
+ * Data points are handed out by {@link ReadPriority} first and in the order they were queued second. A data point
+ * which is already queued is not queued again, but it gets promoted if it is requested with a higher priority.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+class ReadDatapointQueue {
+
+    private final Map<ReadPriority, Deque<ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+    private final Map<KNXAddress, ReadDatapoint> queued = new HashMap<>();
+
+    ReadDatapointQueue() {
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Add the given data point to the queue, unless it is queued already with the same or a higher priority.
+     *
+     * @param datapoint the data point to read
+     * @return {@code true} if it was added or promoted
+     */
+    synchronized boolean add(ReadDatapoint datapoint) {
+        KNXAddress address = datapoint.getDatapoint().getMainAddress();
+        ReadDatapoint existing = queued.get(address);
+        if (existing != null) {
+            if (existing.getPriority().compareTo(datapoint.getPriority()) <= 0) {
+                return false;
+            }
+            queues.get(existing.getPriority()).remove(existing);
+        }
+        queued.put(address, datapoint);
+        queues.get(datapoint.getPriority()).addLast(datapoint);
+        return true;
+    }
+
+    /**
+     * Retrieve and remove the next data point to read.
+     *
+     * @return the data point with the highest priority or {@code null} if the queue is empty
+     */
+    synchronized @Nullable ReadDatapoint poll() {
+        for (Deque<ReadDatapoint> queue : queues.values()) {
+            ReadDatapoint datapoint = queue.pollFirst();
+            if (datapoint != null) {
+                queued.remove(datapoint.getDatapoint().getMainAddress());
+                return datapoint;
+            }
+        }
+        return null;
+    }
+
+    synchronized int size() {
+        return queued.size();
+    }
+
+    synchronized void clear() {
+        for (Deque<ReadDatapoint> queue : queues.values()) {
+            queue.clear();
+        }
+        queued.clear();
+    }
+
+}
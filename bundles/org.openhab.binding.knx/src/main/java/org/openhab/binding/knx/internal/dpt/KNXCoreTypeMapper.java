@@ -24,6 +24,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -95,6 +98,23 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     private static final String TIME_DAY_FORMAT = new String("EEE, HH:mm:ss");
     private static final String DATE_FORMAT = new String("yyyy-MM-dd");
 
+    /**
+     * caches the main and sub number of each datapoint type id, so ids don't need to be parsed for every telegram.
+     */
+    private static final Map<String, int[]> DPT_NUMBERS = new ConcurrentHashMap<>();
+
+    /**
+     * caches the (immutable) calimero datapoint types by id.
+     */
+    private static final Map<String, DPT> DPTS = new ConcurrentHashMap<>();
+
+    /**
+     * pools translators by datapoint type id. As translators hold the translated data, a translator is taken from the
+     * pool while a telegram is translated and returned afterwards. The pool belongs to the mapper instance, so it is
+     * released together with the handler using it.
+     */
+    private final Map<String, Queue<DPTXlator>> translators = new ConcurrentHashMap<>();
+
     /**
      * stores the openHAB type class for (supported) KNX datapoint types in a generic way.
      * dptTypeMap stores more specific type class and exceptions.
@@ -587,8 +607,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         }
 
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
-            dpt = translator.getType();
+            dpt = getDPT(mainNumber, dptID);
         } catch (KNXException e) {
             return null;
         }
@@ -674,8 +693,9 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        DPTXlator translator = null;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            translator = getTranslator(datapoint.getMainNumber(), datapoint.getDPT());
             translator.setData(data);
             String value = translator.getValue();
 
@@ -856,6 +876,10 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     datapoint.getDPT());
         } catch (KNXException e) {
             logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        } finally {
+            if (translator != null) {
+                releaseTranslator(datapoint.getDPT(), translator);
+            }
         }
 
         return null;
@@ -958,30 +982,52 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     }
 
     /**
-     * Retrieves sub number from a DTP ID such as "14.001"
+     * Retrieves the datapoint type for the given id.
      *
+     * @param mainNumber the main number of the datapoint type or 0 to derive it from the id
      * @param dptID String with DPT ID
-     * @return sub number or -1
+     * @return the datapoint type
+     * @throws KNXException if there is no translator for the given datapoint type
      */
-    private int getSubNumber(String dptID) {
-        int result = -1;
-        if (dptID == null) {
-            throw new IllegalArgumentException("Parameter dptID cannot be null");
+    private DPT getDPT(int mainNumber, String dptID) throws KNXException {
+        DPT dpt = DPTS.get(dptID);
+        if (dpt == null) {
+            dpt = TranslatorTypes.createTranslator(mainNumber, dptID).getType();
+            DPTS.put(dptID, dpt);
         }
+        return dpt;
+    }
 
-        int dptSepratorPosition = dptID.indexOf('.');
-        if (dptSepratorPosition > 0) {
-            try {
-                result = Integer.parseInt(dptID.substring(dptSepratorPosition + 1, dptID.length()));
-            } catch (NumberFormatException nfe) {
-                logger.error("toType couldn't identify main and/or sub number in dptID (NumberFormatException): {}",
-                        dptID);
-            } catch (IndexOutOfBoundsException ioobe) {
-                logger.error("toType couldn't identify main and/or sub number in dptID (IndexOutOfBoundsException): {}",
-                        dptID);
-            }
+    /**
+     * Takes a translator for the given datapoint type from the pool, it must be returned with
+     * {@link #releaseTranslator(String, DPTXlator)} when the telegram is translated.
+     *
+     * @param mainNumber the main number of the datapoint type or 0 to derive it from the id
+     * @param dptID String with DPT ID
+     * @return the translator
+     * @throws KNXException if there is no translator for the given datapoint type
+     */
+    private DPTXlator getTranslator(int mainNumber, String dptID) throws KNXException {
+        Queue<DPTXlator> pool = translators.get(dptID);
+        DPTXlator translator = pool == null ? null : pool.poll();
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(mainNumber, dptID);
         }
-        return result;
+        return translator;
+    }
+
+    private void releaseTranslator(String dptID, DPTXlator translator) {
+        translators.computeIfAbsent(dptID, id -> new ConcurrentLinkedQueue<>()).offer(translator);
+    }
+
+    /**
+     * Retrieves sub number from a DTP ID such as "14.001"
+     *
+     * @param dptID String with DPT ID
+     * @return sub number or -1
+     */
+    private int getSubNumber(String dptID) {
+        return getDPTNumbers(dptID)[1];
     }
 
     /**
@@ -991,15 +1037,34 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
      * @return main number or -1
      */
     private int getMainNumber(String dptID) {
-        int result = -1;
+        return getDPTNumbers(dptID)[0];
+    }
+
+    /**
+     * Retrieves main and sub number from a DTP ID such as "14.001", parsing each id only once
+     *
+     * @param dptID String with DPT ID
+     * @return array of main and sub number, each of them -1 if it couldn't be identified
+     */
+    private int[] getDPTNumbers(String dptID) {
         if (dptID == null) {
             throw new IllegalArgumentException("Parameter dptID cannot be null");
         }
+        int[] result = DPT_NUMBERS.get(dptID);
+        if (result == null) {
+            result = new int[] { parseNumber(dptID, true), parseNumber(dptID, false) };
+            DPT_NUMBERS.put(dptID, result);
+        }
+        return result;
+    }
 
+    private int parseNumber(String dptID, boolean mainNumber) {
+        int result = -1;
         int dptSepratorPosition = dptID.indexOf('.');
         if (dptSepratorPosition > 0) {
             try {
-                result = Integer.parseInt(dptID.substring(0, dptSepratorPosition));
+                result = Integer.parseInt(mainNumber ? dptID.substring(0, dptSepratorPosition)
+                        : dptID.substring(dptSepratorPosition + 1, dptID.length()));
             } catch (NumberFormatException nfe) {
                 logger.error("toType couldn't identify main and/or sub number in dptID (NumberFormatException): {}",
                         dptID);
@@ -15,6 +15,7 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.internal.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,6 +46,7 @@ import org.openhab.binding.knx.internal.channel.KNXChannelTypes;
 import org.openhab.binding.knx.internal.client.AbstractKNXClient;
 import org.openhab.binding.knx.internal.client.InboundSpec;
 import org.openhab.binding.knx.internal.client.OutboundSpec;
+import org.openhab.binding.knx.internal.client.ReadPriority;
 import org.openhab.binding.knx.internal.config.DeviceConfig;
 import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
 import org.slf4j.Logger;
@@ -83,13 +85,15 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
-        super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
+        // the group addresses need to be known before the handler gets registered as a listener with the client
         initializeGroupAddresses();
+        super.initialize();
     }
 
     private void initializeGroupAddresses() {
+        groupAddresses.clear();
         forAllChannels((selector, channelConfiguration) -> {
             groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
             groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
@@ -140,7 +144,7 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     public void channelLinked(ChannelUID channelUID) {
         if (!isControl(channelUID)) {
             withKNXType(channelUID, (selector, configuration) -> {
-                scheduleRead(selector, configuration);
+                scheduleRead(selector, configuration, ReadPriority.STARTUP);
             });
         }
     }
@@ -151,42 +155,43 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         for (Channel channel : getThing().getChannels()) {
             if (isLinked(channel.getUID().getId()) && !isControl(channel.getUID())) {
                 withKNXType(channel, (selector, configuration) -> {
-                    scheduleRead(selector, configuration);
+                    scheduleRead(selector, configuration, ReadPriority.STARTUP);
                 });
             }
         }
     }
 
-    private void scheduleRead(KNXChannelType selector, Configuration configuration) throws KNXFormatException {
+    private void scheduleRead(KNXChannelType selector, Configuration configuration, ReadPriority priority)
+            throws KNXFormatException {
         List<InboundSpec> readSpecs = selector.getReadSpec(configuration);
         for (InboundSpec readSpec : readSpecs) {
             for (GroupAddress groupAddress : readSpec.getGroupAddresses()) {
-                scheduleReadJob(groupAddress, readSpec.getDPT());
+                scheduleReadJob(groupAddress, readSpec.getDPT(), priority);
             }
         }
     }
 
-    private void scheduleReadJob(GroupAddress groupAddress, String dpt) {
+    private void scheduleReadJob(GroupAddress groupAddress, String dpt, ReadPriority priority) {
+        getScheduler().submit(() -> readDatapoint(groupAddress, dpt, priority));
         if (readInterval > 0) {
             ScheduledFuture<?> future = readFutures.get(groupAddress);
             if (future == null || future.isDone() || future.isCancelled()) {
-                future = getScheduler().scheduleWithFixedDelay(() -> readDatapoint(groupAddress, dpt), 0, readInterval,
+                future = getScheduler().scheduleWithFixedDelay(
+                        () -> readDatapoint(groupAddress, dpt, ReadPriority.PERIODIC), readInterval, readInterval,
                         TimeUnit.SECONDS);
                 readFutures.put(groupAddress, future);
             }
-        } else {
-            getScheduler().submit(() -> readDatapoint(groupAddress, dpt));
         }
     }
 
-    private void readDatapoint(GroupAddress groupAddress, String dpt) {
+    private void readDatapoint(GroupAddress groupAddress, String dpt, ReadPriority priority) {
         if (getClient().isConnected()) {
             if (!isDPTSupported(dpt)) {
                 logger.warn("DPT '{}' is not supported by the KNX binding", dpt);
                 return;
             }
             Datapoint datapoint = new CommandDP(groupAddress, getThing().getUID().toString(), 0, dpt);
-            getClient().readDatapoint(datapoint);
+            getClient().readDatapoint(datapoint, priority);
         }
     }
 
@@ -195,6 +200,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         return groupAddresses.contains(destination);
     }
 
+    @Override
+    public Set<GroupAddress> getGroupAddresses() {
+        return Collections.unmodifiableSet(groupAddresses);
+    }
+
     /** KNXIO remember controls, removeIf may be null */
     @SuppressWarnings("null")
     private void rememberRespondingSpec(OutboundSpec commandSpec, boolean add) {
@@ -214,7 +224,7 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         if (command instanceof RefreshType && !isControl(channelUID)) {
             logger.debug("Refreshing channel '{}'", channelUID);
             withKNXType(channelUID, (selector, configuration) -> {
-                scheduleRead(selector, configuration);
+                scheduleRead(selector, configuration, ReadPriority.ON_DEMAND);
             });
         } else {
             switch (channelUID.getId()) {
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -34,4 +36,14 @@ public interface GroupAddressListener extends BusMessageListener {
      */
     public boolean listensTo(GroupAddress destination);
 
+    /**
+     * Get all group addresses the GroupAddressListener has an interest in.
+     *
+     * The KNX client indexes listeners by these addresses when they are registered, so implementations have to
+     * re-register whenever the returned set changes.
+     *
+     * @return the group addresses
+     */
+    public Set<GroupAddress> getGroupAddresses();
+
 }
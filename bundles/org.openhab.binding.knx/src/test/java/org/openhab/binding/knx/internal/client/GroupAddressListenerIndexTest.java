@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class GroupAddressListenerIndexTest {
+
+    private static final GroupAddress GA1 = new GroupAddress(1, 2, 3);
+    private static final GroupAddress GA2 = new GroupAddress(1, 2, 4);
+    private static final GroupAddress GA3 = new GroupAddress(1, 2, 5);
+
+    private GroupAddressListenerIndex index;
+    private GroupAddressListener listener1;
+    private GroupAddressListener listener2;
+
+    @Before
+    public void setup() {
+        index = new GroupAddressListenerIndex();
+        listener1 = mock(GroupAddressListener.class);
+        listener2 = mock(GroupAddressListener.class);
+        when(listener1.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(GA1, GA2)));
+        when(listener2.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(GA2)));
+    }
+
+    @Test
+    public void testRegister() {
+        assertTrue(index.register(listener1));
+        assertTrue(index.register(listener2));
+        assertFalse(index.register(listener2));
+
+        assertEquals(new HashSet<>(Arrays.asList(listener1)), index.getListeners(GA1));
+        assertEquals(new HashSet<>(Arrays.asList(listener1, listener2)), index.getListeners(GA2));
+        assertTrue(index.getListeners(GA3).isEmpty());
+    }
+
+    @Test
+    public void testReregisterUpdatesAddresses() {
+        index.register(listener1);
+        when(listener1.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(GA3)));
+        index.register(listener1);
+
+        assertTrue(index.getListeners(GA1).isEmpty());
+        assertTrue(index.getListeners(GA2).isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(listener1)), index.getListeners(GA3));
+    }
+
+    @Test
+    public void testUnregister() {
+        index.register(listener1);
+        index.register(listener2);
+
+        assertTrue(index.unregister(listener1));
+        assertFalse(index.unregister(listener1));
+
+        assertTrue(index.getListeners(GA1).isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(listener2)), index.getListeners(GA2));
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private final ReadDatapointQueue queue = new ReadDatapointQueue();
+
+    private ReadDatapoint datapoint(int subGroup, ReadPriority priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 1, subGroup), "test", 0, "1.001"), 3, priority);
+    }
+
+    private GroupAddress nextAddress() {
+        ReadDatapoint datapoint = queue.poll();
+        assertNotNull(datapoint);
+        return (GroupAddress) datapoint.getDatapoint().getMainAddress();
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        queue.add(datapoint(1, ReadPriority.PERIODIC));
+        queue.add(datapoint(2, ReadPriority.STARTUP));
+        queue.add(datapoint(3, ReadPriority.STARTUP));
+        queue.add(datapoint(4, ReadPriority.ON_DEMAND));
+
+        assertEquals(new GroupAddress(1, 1, 4), nextAddress());
+        assertEquals(new GroupAddress(1, 1, 2), nextAddress());
+        assertEquals(new GroupAddress(1, 1, 3), nextAddress());
+        assertEquals(new GroupAddress(1, 1, 1), nextAddress());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testDuplicatesAreSuppressed() {
+        assertTrue(queue.add(datapoint(1, ReadPriority.STARTUP)));
+        assertFalse(queue.add(datapoint(1, ReadPriority.STARTUP)));
+        assertFalse(queue.add(datapoint(1, ReadPriority.PERIODIC)));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testDuplicatesArePromoted() {
+        queue.add(datapoint(1, ReadPriority.STARTUP));
+        queue.add(datapoint(2, ReadPriority.STARTUP));
+        assertTrue(queue.add(datapoint(2, ReadPriority.ON_DEMAND)));
+
+        assertEquals(2, queue.size());
+        assertEquals(new GroupAddress(1, 1, 2), nextAddress());
+        assertEquals(new GroupAddress(1, 1, 1), nextAddress());
+        assertNull(queue.poll());
+    }
+
+}
@@ -59,6 +59,17 @@ public class ModbusBindingConstantsInternal {
     public static final String[] DATA_CHANNELS_TO_DELEGATE_COMMAND_FROM_READWRITE_TO_WRITE = { CHANNEL_SWITCH,
             CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER, CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
 
+    // List of all endpoint metrics properties
+    public static final String PROPERTY_METRICS_TRANSACTIONS = "metricsTransactions";
+    public static final String PROPERTY_METRICS_TRANSACTION_LATENCY = "metricsTransactionLatency";
+    public static final String PROPERTY_METRICS_POOL_WAIT = "metricsPoolWait";
+    public static final String PROPERTY_METRICS_ERRORS = "metricsErrors";
+    public static final String PROPERTY_METRICS_RETRIES = "metricsRetries";
+    public static final String PROPERTY_METRICS_CONNECTION_ERRORS = "metricsConnectionErrors";
+    public static final String PROPERTY_METRICS_POLL_OVERRUNS = "metricsPollOverruns";
+    public static final String PROPERTY_METRICS_SAVED_TRANSACTIONS = "metricsSavedTransactions";
+    public static final String PROPERTY_METRICS_QUEUE_SIZE = "metricsQueueSize";
+
     public static final String WRITE_TYPE_COIL = "coil";
     public static final String WRITE_TYPE_HOLDING = "holding";
 
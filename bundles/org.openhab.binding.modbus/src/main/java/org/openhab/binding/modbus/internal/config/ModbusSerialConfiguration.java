@@ -44,6 +44,7 @@ public class ModbusSerialConfiguration {
     private int connectMaxTries;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int metricsIntervalMillis;
 
     public @Nullable String getPort() {
         return port;
@@ -164,4 +165,13 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public int getMetricsIntervalMillis() {
+        return metricsIntervalMillis;
+    }
+
+    public void setMetricsIntervalMillis(int metricsIntervalMillis) {
+        this.metricsIntervalMillis = metricsIntervalMillis;
+    }
+
 }
@@ -33,6 +33,7 @@ public class ModbusTcpConfiguration {
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int metricsIntervalMillis;
 
     public @Nullable String getHost() {
         return host;
@@ -106,4 +107,12 @@ public class ModbusTcpConfiguration {
         this.enableDiscovery = enableDiscovery;
     }
 
+    public int getMetricsIntervalMillis() {
+        return metricsIntervalMillis;
+    }
+
+    public void setMetricsIntervalMillis(int metricsIntervalMillis) {
+        this.metricsIntervalMillis = metricsIntervalMillis;
+    }
+
 }
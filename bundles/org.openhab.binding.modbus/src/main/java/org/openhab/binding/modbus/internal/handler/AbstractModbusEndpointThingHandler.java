@@ -12,6 +12,10 @@
  */
 package org.openhab.binding.modbus.internal.handler;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -23,7 +27,9 @@ import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
+import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -50,6 +56,12 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected Supplier<ModbusManager> managerRef;
     @Nullable
     protected volatile EndpointPoolConfiguration poolConfiguration;
+    /**
+     * Interval for publishing endpoint metrics as thing properties. Zero or negative disables publishing.
+     */
+    protected volatile long metricsIntervalMillis;
+    @Nullable
+    private volatile ScheduledFuture<?> metricsJob;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, Supplier<ModbusManager> managerRef) {
@@ -80,6 +92,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 managerRef.get().addListener(this);
                 managerRef.get().setEndpointPoolConfiguration(endpoint, poolConfiguration);
                 updateStatus(ThingStatus.ONLINE);
+                scheduleMetricsJob();
             } catch (ModbusConfigurationException e) {
                 logger.debug("Exception during initialization", e);
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, String.format(
@@ -92,9 +105,67 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        ScheduledFuture<?> metricsJob = this.metricsJob;
+        if (metricsJob != null) {
+            metricsJob.cancel(true);
+            this.metricsJob = null;
+        }
         managerRef.get().removeListener(this);
     }
 
+    private void scheduleMetricsJob() {
+        ScheduledFuture<?> metricsJob = this.metricsJob;
+        if (metricsJob != null) {
+            metricsJob.cancel(true);
+            this.metricsJob = null;
+        }
+        if (metricsIntervalMillis > 0) {
+            this.metricsJob = scheduler.scheduleWithFixedDelay(this::publishMetrics, metricsIntervalMillis,
+                    metricsIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publish the metrics collected by the transport for this endpoint as thing properties
+     *
+     * The thing is stored again on each update of its properties, so they are updated only when a metric has changed,
+     * e.g. not while the endpoint is idle.
+     */
+    private void publishMetrics() {
+        E endpoint = this.endpoint;
+        if (endpoint == null) {
+            return;
+        }
+        try {
+            ModbusEndpointMetrics metrics = managerRef.get().getEndpointMetrics(endpoint);
+            Map<String, String> properties = new HashMap<>();
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_TRANSACTIONS,
+                    String.valueOf(metrics.getTransactionLatency().getCount()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_TRANSACTION_LATENCY,
+                    metrics.getTransactionLatency().toString());
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_POOL_WAIT, metrics.getPoolWait().toString());
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_ERRORS, String.valueOf(metrics.getErrors()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_RETRIES,
+                    String.valueOf(metrics.getRetries()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_CONNECTION_ERRORS,
+                    String.valueOf(metrics.getConnectionErrors()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_POLL_OVERRUNS,
+                    String.valueOf(metrics.getPollOverruns()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_SAVED_TRANSACTIONS,
+                    String.valueOf(metrics.getSavedTransactions()));
+            properties.put(ModbusBindingConstantsInternal.PROPERTY_METRICS_QUEUE_SIZE,
+                    String.valueOf(metrics.getQueueSize()));
+            Map<String, String> currentProperties = getThing().getProperties();
+            if (properties.entrySet().stream()
+                    .anyMatch(entry -> !entry.getValue().equals(currentProperties.get(entry.getKey())))) {
+                updateProperties(properties);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish metrics of thing {}: {} {}", getThing().getUID(), e.getClass().getName(),
+                    e.getMessage());
+        }
+    }
+
     @Override
     public @Nullable ModbusSlaveEndpoint asSlaveEndpoint() {
         return endpoint;
@@ -125,7 +196,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     public abstract int getSlaveId();
 
     /**
-     * Must be overriden by subclasses to initialize config, endpoint, and poolConfiguration
+     * Must be overriden by subclasses to initialize config, endpoint, poolConfiguration and metricsIntervalMillis
      */
     protected abstract void configure() throws ModbusConfigurationException;
 
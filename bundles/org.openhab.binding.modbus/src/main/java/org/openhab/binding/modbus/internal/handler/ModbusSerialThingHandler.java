@@ -72,6 +72,8 @@ public class ModbusSerialThingHandler
 
         endpoint = new ModbusSerialSlaveEndpoint(port, baud, flowControlIn, flowControlOut, config.getDataBits(),
                 stopBits, parity, encoding, config.isEcho(), config.getReceiveTimeoutMillis());
+
+        metricsIntervalMillis = config.getMetricsIntervalMillis();
     }
 
     /**
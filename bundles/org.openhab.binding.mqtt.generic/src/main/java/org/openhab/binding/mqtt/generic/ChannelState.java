@@ -34,6 +34,8 @@ import org.openhab.binding.mqtt.generic.values.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+
 /**
  * This object consists of an {@link Value}, which is updated on the respective MQTT topic change.
  * Updates to the value are propagated via the {@link ChannelStateUpdateListener}.
@@ -58,6 +60,7 @@ public class ChannelState implements MqttMessageSubscriber {
     protected final List<ChannelStateTransformation> transformationsIn = new ArrayList<>();
     protected final List<ChannelStateTransformation> transformationsOut = new ArrayList<>();
     private @Nullable ChannelStateUpdateListener channelStateUpdateListener;
+    private @Nullable StateTopicDemultiplexer demultiplexer;
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
@@ -104,6 +107,24 @@ public class ChannelState implements MqttMessageSubscriber {
         transformationsOut.add(transformation);
     }
 
+    /**
+     * Subscribe to the state topic through the given demultiplexer, which is shared with other channel states of the
+     * same topic. Must be set before {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)}.
+     *
+     * @param demultiplexer The demultiplexer of the state topic or null to subscribe directly
+     */
+    public void setStateTopicDemultiplexer(@Nullable StateTopicDemultiplexer demultiplexer) {
+        this.demultiplexer = demultiplexer;
+    }
+
+    /**
+     * Returns true if the first transformation of received values is a JSONPATH transformation, which can be
+     * evaluated on a parsed JSON document.
+     */
+    public boolean hasSimpleJsonPathTransformation() {
+        return !transformationsIn.isEmpty() && transformationsIn.get(0).isSimpleJsonPath();
+    }
+
     /**
      * Clear transformations
      */
@@ -139,6 +160,17 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     @Override
     public void processMessage(String topic, byte[] payload) {
+        processMessage(topic, payload, null);
+    }
+
+    /**
+     * Incoming message from the {@link StateTopicDemultiplexer}
+     *
+     * @param topic The topic. Is the same as the field stateTopic.
+     * @param payload The byte payload. Must be UTF8 encoded text or binary data.
+     * @param document The payload parsed as JSON document for the first transformation, null if it is not parsed
+     */
+    public void processMessage(String topic, byte[] payload, @Nullable JsonElement document) {
         final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
         if (channelStateUpdateListener == null) {
             logger.warn("MQTT message received for topic {}, but MessageSubscriber object hasn't been started!", topic);
@@ -154,8 +186,12 @@ public class ChannelState implements MqttMessageSubscriber {
 
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
+        @Nullable
+        JsonElement valueDocument = document;
         for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
+            String transformedValue = t.processValue(strValue, valueDocument);
+            // the document is only valid for the original payload
+            valueDocument = null;
             if (transformedValue != null) {
                 strValue = transformedValue;
             } else {
@@ -243,7 +279,11 @@ public class ChannelState implements MqttMessageSubscriber {
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
         if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
-            return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+            final StateTopicDemultiplexer demultiplexer = this.demultiplexer;
+            CompletableFuture<Boolean> unsubscription = demultiplexer != null
+                    ? demultiplexer.unsubscribe(connection, this)
+                    : connection.unsubscribe(config.stateTopic, this);
+            return unsubscription.thenRun(this::internalStop);
         } else {
             internalStop();
             return CompletableFuture.completedFuture(null);
@@ -299,7 +339,10 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        final StateTopicDemultiplexer demultiplexer = this.demultiplexer;
+        CompletableFuture<Boolean> subscription = demultiplexer != null ? demultiplexer.subscribe(connection, this)
+                : connection.subscribe(config.stateTopic, this);
+        subscription.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
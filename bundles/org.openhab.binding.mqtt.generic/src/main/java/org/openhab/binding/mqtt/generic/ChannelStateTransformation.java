@@ -18,21 +18,30 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.binding.mqtt.generic.tools.JsonPathExtractor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+
 /**
  * A transformation for a {@link ChannelState}. It is applied for each received value on an MQTT topic.
  *
+ * Simple JSONPATH transformations can be evaluated on a JSON document parsed once for all channels of a topic, see
+ * {@link StateTopicDemultiplexer}. Other transformations are delegated to the transformation service.
+ *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
 public class ChannelStateTransformation {
+    private static final String JSONPATH = "JSONPATH";
+
     private final Logger logger = LoggerFactory.getLogger(ChannelStateTransformation.class);
     private final TransformationServiceProvider provider;
     private WeakReference<@Nullable TransformationService> transformationService = new WeakReference<>(null);
     final String pattern;
     final String serviceName;
+    private final @Nullable JsonPathExtractor jsonPathExtractor;
 
     /**
      * Creates a new channel state transformer.
@@ -53,6 +62,7 @@ public class ChannelStateTransformation {
         String type = pattern.substring(0, index).toUpperCase();
         this.pattern = pattern.substring(index + 1);
         this.serviceName = type;
+        this.jsonPathExtractor = createJsonPathExtractor(type, this.pattern);
     }
 
     /**
@@ -68,6 +78,18 @@ public class ChannelStateTransformation {
         this.serviceName = serviceName;
         this.pattern = pattern;
         this.provider = provider;
+        this.jsonPathExtractor = createJsonPathExtractor(serviceName, pattern);
+    }
+
+    private static @Nullable JsonPathExtractor createJsonPathExtractor(String serviceName, String pattern) {
+        return JSONPATH.equalsIgnoreCase(serviceName) ? JsonPathExtractor.compile(pattern) : null;
+    }
+
+    /**
+     * Returns true if this transformation can be evaluated on a parsed JSON document.
+     */
+    public boolean isSimpleJsonPath() {
+        return jsonPathExtractor != null;
     }
 
     /**
@@ -77,6 +99,36 @@ public class ChannelStateTransformation {
      * @return The transformed value
      */
     protected @Nullable String processValue(String value) {
+        return processValue(value, null);
+    }
+
+    /**
+     * Will be called by the {@link ChannelState} for each incoming MQTT value.
+     *
+     * @param value The incoming value
+     * @param document The value parsed as JSON document, or null if it has not been parsed
+     * @return The transformed value
+     */
+    protected @Nullable String processValue(String value, @Nullable JsonElement document) {
+        JsonPathExtractor jsonPathExtractor = this.jsonPathExtractor;
+        if (jsonPathExtractor != null && document != null) {
+            JsonElement element = jsonPathExtractor.select(document);
+            if (element == null) {
+                logger.warn("Executing the {}-transformation failed: Invalid path '{}' in '{}'", serviceName, pattern,
+                        value);
+                return null;
+            }
+            if (element.isJsonNull()) {
+                return null;
+            }
+            if (element.isJsonPrimitive()) {
+                String formattedValue = JsonPathExtractor.format(element.getAsJsonPrimitive());
+                if (formattedValue != null) {
+                    return formattedValue;
+                }
+            }
+            // objects and arrays are formatted by the transformation service
+        }
         TransformationService transformationService = this.transformationService.get();
         if (transformationService == null) {
             transformationService = provider.getTransformationService(serviceName);
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Subscribes to a state topic on behalf of several {@link ChannelState}s, which transform the JSON payload of the
+ * topic with JSONPATH transformations.
+ *
+ * Each message is parsed once and the JSON document is handed to all channel states, which evaluate their simple
+ * JSONPATH transformations on it instead of parsing the payload again. The topic is subscribed as long as one of the
+ * channel states is started.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StateTopicDemultiplexer implements MqttMessageSubscriber {
+    private final String topic;
+    private final Set<ChannelState> channelStates = new CopyOnWriteArraySet<>();
+
+    // guarded by this
+    private @Nullable MqttBrokerConnection connection;
+    private @Nullable CompletableFuture<Boolean> subscription;
+
+    /**
+     * Creates a demultiplexer for the given topic
+     *
+     * @param topic The state topic of the channel states
+     */
+    public StateTopicDemultiplexer(String topic) {
+        this.topic = topic;
+    }
+
+    /**
+     * Returns the state topic.
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Adds a channel state, subscribing to the topic if it is the first one.
+     *
+     * @param connection A broker connection
+     * @param channelState The channel state to hand the messages to
+     * @return A future that completes with true if subscribing worked
+     */
+    public synchronized CompletableFuture<Boolean> subscribe(MqttBrokerConnection connection,
+            ChannelState channelState) {
+        channelStates.add(channelState);
+        CompletableFuture<Boolean> subscription = this.subscription;
+        if (subscription == null || this.connection != connection) {
+            subscription = connection.subscribe(topic, this);
+            this.connection = connection;
+            this.subscription = subscription;
+        }
+        return subscription;
+    }
+
+    /**
+     * Removes a channel state, unsubscribing from the topic if it was the last one.
+     *
+     * @param connection A broker connection
+     * @param channelState The channel state to remove
+     * @return A future that completes with true if unsubscribing worked or is not necessary yet
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(MqttBrokerConnection connection,
+            ChannelState channelState) {
+        channelStates.remove(channelState);
+        if (!channelStates.isEmpty() && this.connection == connection) {
+            return CompletableFuture.completedFuture(true);
+        }
+        this.connection = null;
+        this.subscription = null;
+        return connection.unsubscribe(topic, this);
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        JsonElement document = parse(payload);
+        for (ChannelState channelState : channelStates) {
+            channelState.processMessage(topic, payload, document);
+        }
+    }
+
+    /**
+     * Parses a payload as JSON document
+     *
+     * @return The document, or null if the payload is no JSON object or array
+     */
+    private static @Nullable JsonElement parse(byte[] payload) {
+        try {
+            JsonElement document = new JsonParser().parse(new String(payload, StandardCharsets.UTF_8));
+            return document.isJsonObject() || document.isJsonArray() ? document : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+}
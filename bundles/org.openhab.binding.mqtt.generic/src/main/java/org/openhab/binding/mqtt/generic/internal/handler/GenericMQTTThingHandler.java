@@ -37,6 +37,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.ChannelStateTransformation;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
+import org.openhab.binding.mqtt.generic.StateTopicDemultiplexer;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.generic.values.ValueFactory;
@@ -138,6 +139,23 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
         return state;
     }
 
+    /**
+     * Channels with the same state topic and a JSONPATH transformation subscribe to the topic through a shared
+     * {@link StateTopicDemultiplexer}, so that a JSON payload is parsed once for all of them.
+     */
+    private void shareJsonStateTopics() {
+        Map<String, List<ChannelState>> jsonChannelStatesByTopic = channelStateByChannelUID.values().stream()
+                .filter(c -> StringUtils.isNotBlank(c.getStateTopic()) && !c.getCache().isBinary()
+                        && c.hasSimpleJsonPathTransformation())
+                .collect(Collectors.groupingBy(ChannelState::getStateTopic));
+        jsonChannelStatesByTopic.forEach((topic, channelStates) -> {
+            if (channelStates.size() > 1) {
+                StateTopicDemultiplexer demultiplexer = new StateTopicDemultiplexer(topic);
+                channelStates.forEach(c -> c.setStateTopicDemultiplexer(demultiplexer));
+            }
+        });
+    }
+
     @Override
     public void initialize() {
         List<ChannelUID> configErrors = new ArrayList<>();
@@ -161,6 +179,8 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
             }
         }
 
+        shareJsonStateTopics();
+
         // If some channels could not start up, put the entire thing offline and display the channels
         // in question to the user.
         if (configErrors.isEmpty()) {
@@ -13,11 +13,15 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -26,6 +30,12 @@ import org.eclipse.jdt.annotation.Nullable;
 /**
  * Collects objects over time until a specified delay passed by.
  * Then call the user back with a list of accumulated objects and start over again.
+ * <p>
+ * Objects are collected in a lock-free queue, so that many producers, for example MQTT retained message
+ * storms, do not contend with each other. A batch is delivered when the delay since its first object passed by, or
+ * as soon as the maximum batch size is reached. Larger amounts of objects are delivered in several batches of at most
+ * the maximum batch size. If the queue is bounded, the {@link OverflowPolicy} decides which objects are dropped.
+ * Batches are delivered one after another, never concurrently.
  *
  * @author David Graeff - Initial contribution
  *
@@ -33,26 +43,67 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+    /**
+     * Policy for objects added to a full queue
+     */
+    public enum OverflowPolicy {
+        /** Drop the added object */
+        DROP_NEWEST,
+        /** Drop the oldest queued object to make room for the added one */
+        DROP_OLDEST
+    }
+
     private final int delay;
+    private final int maxBatchSize;
+    private final int maxQueueSize;
+    private final OverflowPolicy overflowPolicy;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final Object deliveryLock = new Object();
     private final ScheduledExecutorService executor;
     protected @Nullable ScheduledFuture<?> future;
 
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} with an unbounded queue and batch size.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, Integer.MAX_VALUE, Integer.MAX_VALUE, OverflowPolicy.DROP_NEWEST, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay The maximum latency of a batch in milliseconds
+     * @param maxBatchSize The maximum number of objects per batch. A batch is delivered immediately if it is full.
+     * @param maxQueueSize The maximum number of queued objects
+     * @param overflowPolicy Decides which objects are dropped if the queue is full
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, int maxQueueSize, OverflowPolicy overflowPolicy,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
         this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueueSize = maxQueueSize;
+        this.overflowPolicy = overflowPolicy;
         this.consumer = consumer;
         this.executor = executor;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize <= 0 || maxQueueSize <= 0) {
+            throw new IllegalArgumentException("Batch and queue size need to be greater than 0!");
+        }
     }
 
     /**
@@ -63,9 +114,30 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     @Override
     public void accept(T t) {
+        int size;
+        // Reserve a slot before adding, so that concurrent producers cannot exceed the maximum queue size
+        while (true) {
+            size = queueSize.get();
+            if (size < maxQueueSize) {
+                if (queueSize.compareAndSet(size, size + 1)) {
+                    size++;
+                    break;
+                }
+            } else if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                drops.incrementAndGet();
+                return;
+            } else if (queue.poll() != null) {
+                // The added object takes over the slot of the dropped one
+                drops.incrementAndGet();
+                break;
+            }
+        }
         queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
+
+        if (size == maxBatchSize) {
+            // Deliver full batch without waiting for the timer
+            executor.execute(this::deliver);
+        } else if (armed.compareAndSet(false, true)) {
             this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
         }
     }
@@ -80,20 +152,17 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
-        return lqueue;
+        List<T> objects = poll(Integer.MAX_VALUE);
+        armed.set(false);
+        return objects;
     }
 
     /**
      * Return true if there is a delayed processing going on.
      */
     public boolean isArmed() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        return scheduledFuture != null && !scheduledFuture.isDone();
+        // The future is assigned after arming, the flag is set before objects wait for the timer
+        return armed.get();
     }
 
     /**
@@ -107,15 +176,58 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
         run();
     }
 
+    /**
+     * Return the number of delivered batches.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Return the number of delivered objects.
+     */
+    public long getItemCount() {
+        return items.get();
+    }
+
+    /**
+     * Return the number of objects dropped because the queue was full.
+     */
+    public long getDropCount() {
+        return drops.get();
+    }
+
+    /**
+     * Return the number of queued objects.
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        // Objects added from now on arm a new timer
+        armed.set(false);
+        deliver();
+    }
+
+    private void deliver() {
+        synchronized (deliveryLock) {
+            List<T> batch;
+            while (!(batch = poll(maxBatchSize)).isEmpty()) {
+                batches.incrementAndGet();
+                items.addAndGet(batch.size());
+                consumer.accept(batch);
+            }
         }
+    }
 
-        if (!lqueue.isEmpty()) {
-            consumer.accept(lqueue);
+    private List<T> poll(int max) {
+        List<T> batch = new ArrayList<>(Math.min(max, Math.max(queueSize.get(), 1)));
+        T t;
+        while (batch.size() < max && (t = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(t);
         }
+        return batch;
     }
 }
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Evaluates simple JsonPath expressions like <code>$.ENERGY.Power</code>, <code>$.values[0]</code> or
+ * <code>$['some key']</code> on a parsed JSON document.
+ *
+ * <p>
+ * The document of a message is parsed once by the {@link org.openhab.binding.mqtt.generic.StateTopicDemultiplexer}
+ * of its topic and handed to the JSONPATH transformations of all channels of the topic.
+ *
+ * <p>
+ * Primitive values are formatted by {@link #format(JsonPrimitive)} like json-smart, the JSON library of the JSONPATH
+ * transformation service, returns them. Other results have to be transformed by the transformation service.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonPathExtractor {
+
+    /** path segments, either String member names or Integer array indexes */
+    private final List<Object> segments;
+
+    private JsonPathExtractor(List<Object> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles a JsonPath expression
+     *
+     * @param path JsonPath expression
+     * @return The extractor, or null if the expression is not a simple path of member names and array indexes
+     */
+    public static @Nullable JsonPathExtractor compile(String path) {
+        String trimmed = path.trim();
+        if (!trimmed.startsWith("$")) {
+            return null;
+        }
+        List<Object> segments = new ArrayList<>();
+        int i = 1;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                while (i < trimmed.length() && isNameChar(trimmed.charAt(i))) {
+                    i++;
+                }
+                if (i == start) {
+                    // deep scan, wildcard or unsupported character
+                    return null;
+                }
+                segments.add(trimmed.substring(start, i));
+            } else if (c == '[') {
+                int end = trimmed.indexOf(']', i);
+                if (end < 0) {
+                    return null;
+                }
+                String selector = trimmed.substring(i + 1, end).trim();
+                i = end + 1;
+                if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                        && selector.charAt(selector.length() - 1) == selector.charAt(0)) {
+                    String name = selector.substring(1, selector.length() - 1);
+                    if (name.indexOf('\\') >= 0 || name.indexOf('\'') >= 0 || name.indexOf('"') >= 0) {
+                        return null;
+                    }
+                    segments.add(name);
+                } else if (!selector.isEmpty() && selector.chars().allMatch(Character::isDigit)
+                        && selector.length() < 10) {
+                    segments.add(Integer.valueOf(selector));
+                } else {
+                    // filters, slices, unions and negative indexes
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        // the whole document is no primitive value
+        return segments.isEmpty() ? null : new JsonPathExtractor(segments);
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    /**
+     * Selects the element of this path in the given JSON document
+     *
+     * @param document parsed JSON document
+     * @return The element, or null if the document has no element at this path
+     */
+    public @Nullable JsonElement select(JsonElement document) {
+        JsonElement element = document;
+        for (Object segment : segments) {
+            @Nullable
+            JsonElement child;
+            if (segment instanceof String) {
+                child = element.isJsonObject() ? ((JsonObject) element).get((String) segment) : null;
+            } else {
+                int index = (Integer) segment;
+                child = element.isJsonArray() && index < ((JsonArray) element).size()
+                        ? ((JsonArray) element).get(index)
+                        : null;
+            }
+            if (child == null) {
+                return null;
+            }
+            element = child;
+        }
+        return element;
+    }
+
+    /**
+     * Formats a primitive value like the JSONPATH transformation service. json-smart returns integers as they are,
+     * decimals with up to 18 characters as double and longer decimals as {@link BigDecimal}.
+     *
+     * @param primitive primitive value
+     * @return The formatted value, or null if the value is no valid number
+     */
+    public static @Nullable String format(JsonPrimitive primitive) {
+        if (!primitive.isNumber()) {
+            return primitive.getAsString();
+        }
+        String number = primitive.getAsString();
+        try {
+            if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                return new BigInteger(number).toString();
+            }
+            if (number.length() > 18) {
+                return new BigDecimal(number).toString();
+            }
+            return Double.toString(Double.parseDouble(number));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.mqtt.generic.values.TextValue;
+
+/**
+ * Tests the {@link StateTopicDemultiplexer} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class StateTopicDemultiplexerTests {
+    private static final String TOPIC = "tele/sonoff/SENSOR";
+    private static final byte[] PAYLOAD = "{\"ENERGY\":{\"Power\":23,\"Voltage\":230.5},\"Time\":\"10:00\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ChannelStateUpdateListener channelStateUpdateListener;
+
+    @Mock
+    private TransformationServiceProvider transformationServiceProvider;
+
+    @Mock
+    private TransformationService jsonPathService;
+
+    private final ChannelUID powerUID = new ChannelUID("mqtt:topic:sonoff:power");
+    private final ChannelUID timeUID = new ChannelUID("mqtt:topic:sonoff:time");
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        when(transformationServiceProvider.getTransformationService(anyString())).thenReturn(jsonPathService);
+
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private ChannelState createChannelState(ChannelUID channelUID, String jsonPath) {
+        ChannelState channelState = new ChannelState(ChannelConfigBuilder.create(TOPIC, null).build(), channelUID,
+                new TextValue(), channelStateUpdateListener);
+        channelState.addTransformation(new ChannelStateTransformation("JSONPATH:" + jsonPath,
+                transformationServiceProvider));
+        return channelState;
+    }
+
+    @Test
+    public void subscribesOnceAndHandsTheDocumentToAllChannels() throws Exception {
+        StateTopicDemultiplexer demultiplexer = new StateTopicDemultiplexer(TOPIC);
+        ChannelState power = createChannelState(powerUID, "$.ENERGY.Power");
+        ChannelState time = createChannelState(timeUID, "$.Time");
+        power.setStateTopicDemultiplexer(demultiplexer);
+        time.setStateTopicDemultiplexer(demultiplexer);
+
+        power.start(connection, scheduler, 0).get(100, TimeUnit.MILLISECONDS);
+        time.start(connection, scheduler, 0).get(100, TimeUnit.MILLISECONDS);
+        verify(connection, times(1)).subscribe(eq(TOPIC), eq(demultiplexer));
+
+        demultiplexer.processMessage(TOPIC, PAYLOAD);
+        verify(channelStateUpdateListener).updateChannelState(eq(powerUID), eq(new StringType("23")));
+        verify(channelStateUpdateListener).updateChannelState(eq(timeUID), eq(new StringType("10:00")));
+        verifyZeroInteractions(jsonPathService);
+
+        power.stop().get();
+        verify(connection, never()).unsubscribe(any(), any());
+        time.stop().get();
+        verify(connection, times(1)).unsubscribe(eq(TOPIC), eq(demultiplexer));
+    }
+
+    @Test
+    public void missingPathDiscardsTheMessage() throws Exception {
+        StateTopicDemultiplexer demultiplexer = new StateTopicDemultiplexer(TOPIC);
+        ChannelState missing = createChannelState(powerUID, "$.ENERGY.Current");
+        missing.setStateTopicDemultiplexer(demultiplexer);
+        missing.start(connection, scheduler, 0).get(100, TimeUnit.MILLISECONDS);
+
+        demultiplexer.processMessage(TOPIC, PAYLOAD);
+        verify(channelStateUpdateListener, never()).updateChannelState(any(), any());
+        verifyZeroInteractions(jsonPathService);
+    }
+
+    @Test
+    public void objectsAndInvalidJsonAreTransformedByTheService() throws Exception {
+        when(jsonPathService.transform(eq("$.ENERGY"), anyString())).thenReturn("{Power=23}");
+        StateTopicDemultiplexer demultiplexer = new StateTopicDemultiplexer(TOPIC);
+        ChannelState energy = createChannelState(powerUID, "$.ENERGY");
+        energy.setStateTopicDemultiplexer(demultiplexer);
+        energy.start(connection, scheduler, 0).get(100, TimeUnit.MILLISECONDS);
+
+        demultiplexer.processMessage(TOPIC, PAYLOAD);
+        verify(jsonPathService).transform(eq("$.ENERGY"), eq(new String(PAYLOAD, StandardCharsets.UTF_8)));
+        verify(channelStateUpdateListener).updateChannelState(eq(powerUID), eq(new StringType("{Power=23}")));
+
+        demultiplexer.processMessage(TOPIC, "no json {".getBytes(StandardCharsets.UTF_8));
+        verify(jsonPathService).transform(eq("$.ENERGY"), eq("no json {"));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.OverflowPolicy;
+
+/**
+ * Tests the {@link DelayedBatchProcessing}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    private ScheduledExecutorService executor;
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void waitForBatches(int count) throws InterruptedException {
+        for (int i = 0; i < 200 && batches.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void deliversAfterDelay() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(50, batches::add, executor);
+        processing.accept(1);
+        processing.accept(2);
+        assertTrue(processing.isArmed());
+
+        waitForBatches(1);
+        assertThat(batches, is(Arrays.asList(Arrays.asList(1, 2))));
+        assertThat(processing.getBatchCount(), is(1L));
+        assertThat(processing.getItemCount(), is(2L));
+        assertFalse(processing.isArmed());
+    }
+
+    @Test
+    public void deliversFullBatchesImmediately() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, 2, Integer.MAX_VALUE,
+                OverflowPolicy.DROP_NEWEST, batches::add, executor);
+        for (int i = 0; i < 4; i++) {
+            processing.accept(i);
+        }
+
+        waitForBatches(2);
+        assertThat(batches, is(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3))));
+    }
+
+    @Test
+    public void dropsNewestIfFull() {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, Integer.MAX_VALUE, 2,
+                OverflowPolicy.DROP_NEWEST, batches::add, executor);
+        for (int i = 0; i < 4; i++) {
+            processing.accept(i);
+        }
+
+        assertThat(processing.getDropCount(), is(2L));
+        assertThat(processing.join(), is(Arrays.asList(0, 1)));
+        assertThat(processing.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void dropsOldestIfFull() {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, Integer.MAX_VALUE, 2,
+                OverflowPolicy.DROP_OLDEST, batches::add, executor);
+        for (int i = 0; i < 4; i++) {
+            processing.accept(i);
+        }
+
+        assertThat(processing.getDropCount(), is(2L));
+        processing.forceProcessNow();
+        assertThat(batches, is(Arrays.asList(Arrays.asList(2, 3))));
+    }
+
+    @Test
+    public void concurrentProducersDoNotExceedQueueSize() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, Integer.MAX_VALUE, 100,
+                OverflowPolicy.DROP_NEWEST, batches::add, executor);
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        try {
+            for (int p = 0; p < 8; p++) {
+                producers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        processing.accept(i);
+                        sizes.add(processing.getQueueSize());
+                    }
+                });
+            }
+            start.countDown();
+            producers.shutdown();
+            assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            producers.shutdownNow();
+        }
+
+        assertThat(new ArrayList<>(sizes).stream().allMatch(size -> size <= 100), is(true));
+        assertThat(processing.getDropCount(), is(8L * 1000 - 100));
+        assertThat(processing.join().size(), is(100));
+    }
+}
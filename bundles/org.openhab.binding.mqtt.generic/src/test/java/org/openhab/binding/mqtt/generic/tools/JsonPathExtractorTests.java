@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests the {@link JsonPathExtractor}.
+ *
+ * @author agent - Initial contribution
+ */
+public class JsonPathExtractorTests {
+    private static final JsonElement DOCUMENT = new JsonParser()
+            .parse("{\"Time\":\"2019-05-01T10:00:00\",\"ENERGY\":{\"Power\":23,\"Voltage\":230.50,\"Today\":1e1,"
+                    + "\"On\":true},\"values\":[1,2,3],\"some key\":\"x\",\"obj\":{},\"nothing\":null}");
+
+    private @Nullable JsonElement select(String path) {
+        JsonPathExtractor extractor = JsonPathExtractor.compile(path);
+        assertThat(extractor, is(notNullValue()));
+        return extractor.select(DOCUMENT);
+    }
+
+    private @Nullable String extract(String path) {
+        JsonElement element = select(path);
+        assertThat(element, is(notNullValue()));
+        return JsonPathExtractor.format(element.getAsJsonPrimitive());
+    }
+
+    @Test
+    public void extractPrimitives() {
+        assertThat(extract("$.Time"), is("2019-05-01T10:00:00"));
+        assertThat(extract("$.ENERGY.Power"), is("23"));
+        assertThat(extract("$.ENERGY.Voltage"), is("230.5"));
+        assertThat(extract("$.ENERGY.Today"), is("10.0"));
+        assertThat(extract("$.ENERGY.On"), is("true"));
+        assertThat(extract("$.values[1]"), is("2"));
+        assertThat(extract("$['some key']"), is("x"));
+        assertThat(extract("$[\"ENERGY\"].Power"), is("23"));
+    }
+
+    @Test
+    public void numbersAreFormattedLikeJsonSmart() {
+        assertThat(format("12345678901234567890"), is("12345678901234567890"));
+        assertThat(format("-7"), is("-7"));
+        assertThat(format("0.1"), is("0.1"));
+        assertThat(format("2E3"), is("2000.0"));
+        assertThat(format("1.2345678901234567890"), is("1.2345678901234567890"));
+    }
+
+    private @Nullable String format(String number) {
+        return JsonPathExtractor.format(new JsonParser().parse(number).getAsJsonPrimitive());
+    }
+
+    @Test
+    public void nonPrimitiveAndMissingElements() {
+        assertThat(select("$.obj").isJsonObject(), is(true));
+        assertThat(select("$.values").isJsonArray(), is(true));
+        assertThat(select("$.nothing").isJsonNull(), is(true));
+        assertThat(select("$.values[5]"), is(nullValue()));
+        assertThat(select("$.missing.Power"), is(nullValue()));
+        assertThat(select("$.Time.Power"), is(nullValue()));
+    }
+
+    @Test
+    public void complexPathsAreNotCompiled() {
+        assertThat(JsonPathExtractor.compile("$"), is(nullValue()));
+        assertThat(JsonPathExtractor.compile("$..Power"), is(nullValue()));
+        assertThat(JsonPathExtractor.compile("$.values[*]"), is(nullValue()));
+        assertThat(JsonPathExtractor.compile("$.values[-1]"), is(nullValue()));
+        assertThat(JsonPathExtractor.compile("$.values[?(@ > 1)]"), is(nullValue()));
+        assertThat(JsonPathExtractor.compile("ENERGY.Power"), is(nullValue()));
+    }
+}
@@ -15,15 +15,12 @@ package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -39,6 +36,8 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.discovery.AbstractMQTTDiscovery;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.OverflowPolicy;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homeassistant.internal.BaseChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
@@ -67,7 +66,15 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new TreeMap<>();
 
-    private @Nullable ScheduledFuture<?> future;
+    /**
+     * Collects found config topics, the results are published once per batch.
+     *
+     * Publishing used to be postponed until no config topic arrived for 2 seconds. A batch is now published 2 seconds
+     * after its first config topic, so that a storm of retained config topics cannot postpone publishing
+     * indefinitely. Components are kept across batches, so that a thing whose config topics arrive in several batches
+     * is published again with all its components.
+     */
+    private final DelayedBatchProcessing<String> publishProcessing;
     private final Gson gson;
 
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
@@ -86,6 +93,11 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     static final String BASE_TOPIC = "homeassistant";
 
+    private static final int PUBLISH_DELAY_MILLIS = 2000;
+
+    /** The queued topics only trigger publishing, keeping a few is enough */
+    private static final int MAX_QUEUED_TOPICS = 1000;
+
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
 
@@ -95,6 +107,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     public HomeAssistantDiscovery() {
         super(null, 3, true, BASE_TOPIC + "/#");
         this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+        this.publishProcessing = new DelayedBatchProcessing<>(PUBLISH_DELAY_MILLIS, Integer.MAX_VALUE,
+                MAX_QUEUED_TOPICS, OverflowPolicy.DROP_OLDEST, topics -> publishResults(), scheduler);
     }
 
     @Reference
@@ -137,14 +151,6 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
-        }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
-
         BaseChannelConfiguration config = BaseChannelConfiguration
                 .fromString(new String(payload, StandardCharsets.UTF_8), gson);
 
@@ -160,7 +166,11 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
         final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
 
-        thingIDPerTopic.put(topic, thingUID);
+        ThingUID previousThingUID = thingIDPerTopic.put(topic, thingUID);
+        if (previousThingUID != null && !previousThingUID.equals(thingUID)) {
+            // The component moved to another thing
+            removeComponent(previousThingUID, haID);
+        }
 
         // We need to keep track of already found component topics for a specific thing
         Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID, key -> new HashSet<>());
@@ -183,6 +193,9 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
                             .withRepresentationProperty("objectid").withBridge(connectionBridge)
                             .withLabel(config.getThingName() + " (" + componentNames + ")").build());
         }
+
+        // We will collect components for the thing label description for up to 2 seconds after the first topic.
+        publishProcessing.accept(topic);
     }
 
     protected void publishResults() {
@@ -190,8 +203,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
         synchronized (results) {
             localResults = new ArrayList<>(results.values());
+            // Components are kept, a thing found in several batches is published with all its components
             results.clear();
-            componentsPerThingID.clear();
         }
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
@@ -207,17 +220,28 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
-            ThingUID thingUID = thingIDPerTopic.remove(topic);
-            final String thingID = thingUID.getId();
-
-            HaID haID = new HaID(topic);
+        ThingUID thingUID = thingIDPerTopic.remove(topic);
+        if (thingUID != null) {
+            removeComponent(thingUID, new HaID(topic));
+        }
+    }
 
-            Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
-            components.remove(haID);
-            if (components.isEmpty()) {
-                thingRemoved(thingUID);
+    /**
+     * Forget a component of a thing. The thing is removed, together with its entry, after its last component is gone.
+     */
+    private void removeComponent(ThingUID thingUID, HaID haID) {
+        final String thingID = thingUID.getId();
+        Set<HaID> components = componentsPerThingID.get(thingID);
+        if (components == null) {
+            return;
+        }
+        components.remove(haID);
+        if (components.isEmpty()) {
+            componentsPerThingID.remove(thingID);
+            synchronized (results) {
+                results.remove(thingUID.getAsString());
             }
+            thingRemoved(thingUID);
         }
     }
 
@@ -44,6 +44,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.OverflowPolicy;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homeassistant.internal.AbstractComponent;
 import org.openhab.binding.mqtt.homeassistant.internal.CChannel;
@@ -80,6 +81,7 @@ import com.google.gson.GsonBuilder;
 public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         implements ComponentDiscovered, Consumer<List<AbstractComponent<?>>> {
     public static final String AVAILABILITY_CHANNEL = "availability";
+    private static final int MAX_COMPONENTS_PER_BATCH = 100;
 
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantThingHandler.class);
 
@@ -115,7 +117,9 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
+        // Split huge discoveries, for example after a broker restart, into several batches
+        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, MAX_COMPONENTS_PER_BATCH,
+                Integer.MAX_VALUE, OverflowPolicy.DROP_NEWEST, this, scheduler);
         this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, gson,
                 this.transformationServiceProvider);
     }
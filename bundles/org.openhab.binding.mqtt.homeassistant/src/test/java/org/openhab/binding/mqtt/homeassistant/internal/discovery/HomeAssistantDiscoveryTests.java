@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+
+/**
+ * Tests the bookkeeping of the {@link HomeAssistantDiscovery}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomeAssistantDiscoveryTests {
+    private static final byte[] CONFIG = "{\"name\":\"Test\",\"device\":{\"identifiers\":[\"dev\"]}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ThingUID bridgeUID = new ThingUID("mqtt:broker:test");
+    private final MqttBrokerConnection connection = mock(MqttBrokerConnection.class);
+    private HomeAssistantDiscovery discovery;
+
+    @Before
+    public void setUp() {
+        discovery = new HomeAssistantDiscovery();
+        discovery.setTypeProvider(mock(MqttChannelTypeProvider.class, RETURNS_DEEP_STUBS));
+    }
+
+    @Test
+    public void componentsAreForgottenWhenTheirConfigTopicsVanish() {
+        discovery.receivedMessage(bridgeUID, connection, "homeassistant/switch/node/a/config", CONFIG);
+        discovery.receivedMessage(bridgeUID, connection, "homeassistant/sensor/node/b/config", CONFIG);
+        assertThat(discovery.componentsPerThingID.size(), is(1));
+        assertThat(discovery.thingIDPerTopic.size(), is(2));
+
+        discovery.topicVanished(bridgeUID, connection, "homeassistant/switch/node/a/config");
+        assertThat(discovery.componentsPerThingID.size(), is(1));
+
+        discovery.topicVanished(bridgeUID, connection, "homeassistant/sensor/node/b/config");
+        assertThat(discovery.componentsPerThingID.isEmpty(), is(true));
+        assertThat(discovery.thingIDPerTopic.isEmpty(), is(true));
+        assertThat(discovery.results.isEmpty(), is(true));
+    }
+
+    @Test
+    public void componentMovedToAnotherThingIsRemovedFromTheFormerThing() {
+        discovery.receivedMessage(bridgeUID, connection, "homeassistant/switch/node/a/config", CONFIG);
+        discovery.receivedMessage(bridgeUID, connection, "homeassistant/switch/node/a/config",
+                "{\"name\":\"Test\",\"device\":{\"identifiers\":[\"other\"]}}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(discovery.componentsPerThingID.size(), is(1));
+        assertThat(discovery.thingIDPerTopic.size(), is(1));
+    }
+}
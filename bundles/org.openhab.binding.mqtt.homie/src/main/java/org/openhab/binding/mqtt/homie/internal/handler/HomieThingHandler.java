@@ -30,6 +30,7 @@ import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.OverflowPolicy;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homie.internal.homie300.Device;
 import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes;
@@ -49,6 +50,7 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class HomieThingHandler extends AbstractMQTTThingHandler implements DeviceCallback, Consumer<List<Object>> {
+    private static final int MAX_QUEUED_UPDATES = 1000;
     private final Logger logger = LoggerFactory.getLogger(HomieThingHandler.class);
     protected Device device;
     protected final MqttChannelTypeProvider channelTypeProvider;
@@ -76,7 +78,9 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.channelTypeProvider = channelTypeProvider;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        // The queued nodes and properties only trigger a rebuild of the whole device, keeping a few is enough
+        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, Integer.MAX_VALUE, MAX_QUEUED_UPDATES,
+                OverflowPolicy.DROP_OLDEST, this, scheduler);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
@@ -19,8 +19,8 @@ import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +51,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceProbeEngine probeEngine = PresenceProbeEngine.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -79,6 +80,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private String dhcpState = "off";
     Integer currentCheck = 0;
     int detectionChecks;
+    // guarded by this
+    private int unstartedChecks;
+    private long lastCheckStartInMS;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
             throws IllegalArgumentException {
@@ -148,6 +152,13 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.timeoutInMS = timeout;
     }
 
+    /**
+     * Sets the engine executing the probes, by default the engine shared by all network things.
+     */
+    public void setProbeEngine(PresenceProbeEngine probeEngine) {
+        this.probeEngine = probeEngine;
+    }
+
     /**
      * Sets the ping method. This method will perform a feature test. If SYSTEM_PING
      * does not work on this system, JAVA_PING will be used instead.
@@ -272,13 +283,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return probeEngine.newDetectionExecutor();
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The pings are executed on the thread pool
+     * of the {@link PresenceProbeEngine}, which is shared by all network things. The TCP
+     * connection attempts do not occupy a thread, they complete from the selector of the engine.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -310,7 +322,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         if (pingMethod != null) {
             detectionChecks += 1;
         }
-        if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
+        if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
+            // one check for all interfaces, see below
+            detectionChecks += 1;
+        } else if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
             interfaceNames = networkUtils.getInterfaceNames();
             detectionChecks += interfaceNames.size();
         }
@@ -320,31 +335,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
 
         final ExecutorService executorService = getThreadsFor(detectionChecks);
-        this.executorService = executorService;
+        synchronized (this) {
+            this.executorService = executorService;
+            unstartedChecks = detectionChecks - tcpPorts.size();
+            lastCheckStartInMS = System.currentTimeMillis();
+        }
 
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
+            performServicePing(tcpPort).whenComplete((reachable, e) -> checkIfFinished(executorService));
         }
 
         // ARP ping for IPv4 addresses. Use single executor for Windows tool and 
         // each own executor for each network interface for other tools
         if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
             executorService.execute(() -> {
+               checkStarted(executorService);
                Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
                // arp-ping.exe tool capable of handling multiple interfaces by itself
                performARPping("");
-               checkIfFinished();
+               checkIfFinished(executorService);
             });
         } else if (interfaceNames != null) {                        
             for (final String interfaceName : interfaceNames) {
                 executorService.execute(() -> {
+                   checkStarted(executorService);
                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
                    performARPping(interfaceName);
-                   checkIfFinished();
+                   checkIfFinished(executorService);
                });               
             }
         }
@@ -352,13 +369,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         // ICMP ping
         if (pingMethod != null) {
             executorService.execute(() -> {
+                checkStarted(executorService);
                 if (pingMethod != IpPingMethodEnum.JAVA_PING) {
                     Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
                     performSystemPing();
                 } else {
                     performJavaPing();
                 }
-                checkIfFinished();
+                checkIfFinished(executorService);
             });
         }
 
@@ -385,6 +403,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         service.shutdownNow();
         executorService = null;
         detectionChecks = 0;
+        notifyAll();
 
         PresenceDetectionValue v;
 
@@ -407,12 +426,31 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
+     * This method is called when a check of the given detection process starts executing on the
+     * thread pool. The checks may wait in the queue of the shared pool behind the checks of other
+     * things, this time is not counted against the timeout of the detection.
+     * Thread safe.
+     */
+    private synchronized void checkStarted(ExecutorService service) {
+        if (executorService != service) {
+            return;
+        }
+        unstartedChecks -= 1;
+        lastCheckStartInMS = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    /**
+     * This method is called after each individual check of the given detection process and increases
+     * a check counter. If the counter equals the total checks,the final result is submitted. This will
      * happen way before the "timeoutInMS", if all checks were successful.
      * Thread safe.
      */
-    private synchronized void checkIfFinished() {
+    private synchronized void checkIfFinished(ExecutorService service) {
+        if (executorService != service) {
+            // A check of a finished detection process
+            return;
+        }
         currentCheck += 1;
         if (currentCheck < detectionChecks) {
             return;
@@ -421,18 +459,32 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     /**
-     * Waits for the presence detection threads to finish. Returns immediately
+     * Waits for the presence detection checks to finish. Returns immediately
      * if no presence detection is performed right now.
+     *
+     * The checks are cancelled if they did not finish within the timeout after the last
+     * check has started. Checks which are still waiting for a thread of the shared pool
+     * are not cancelled, so a busy pool does not report reachable devices as unreachable.
      */
-    public void waitForPresenceDetection() {
+    public synchronized void waitForPresenceDetection() {
         ExecutorService service = executorService;
         if (service == null) {
             return;
         }
         try {
             // We may get interrupted here by cancelRefreshJob().
-            service.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            while (executorService == service) {
+                if (unstartedChecks > 0) {
+                    wait();
+                    continue;
+                }
+                long remaining = lastCheckStartInMS + timeoutInMS + 100 - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    submitFinalResult();
+                    return;
+                }
+                wait(remaining);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
             service.shutdownNow();
@@ -465,22 +517,35 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    /**
+     * Tries to connect to the given TCP port of the device without blocking a thread.
+     *
+     * @param tcpPort The TCP port
+     * @return A future that completes with true if the device accepted the connection
+     */
+    protected CompletableFuture<Boolean> performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            double pingTime = System.nanoTime();
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress != null
-                    && networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
-                v.addReachableTcpService(tcpPort);
-                updateListener.partialDetectionResult(v);
-            }
-        } catch (IOException e) {
-            // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
+        double pingTime = System.nanoTime();
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(false);
         }
+        String hostAddress = destinationAddress.getHostAddress();
+        return probeEngine.probeAsync("tcp:" + hostAddress + ":" + tcpPort + ":" + timeoutInMS,
+                () -> networkUtils.servicePing(hostAddress, tcpPort, timeoutInMS)).handle((reachable, e) -> {
+                    if (e != null) {
+                        // This should not happen and might be a user configuration issue, we log a warning therefore.
+                        logger.warn("Could not create a socket connection", e);
+                        return false;
+                    }
+                    if (Boolean.TRUE.equals(reachable)) {
+                        final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
+                        v.addReachableTcpService(tcpPort);
+                        updateListener.partialDetectionResult(v);
+                    }
+                    return reachable;
+                });
     }
 
     /**
@@ -503,8 +568,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
                 Thread.sleep(50);
             }
             double pingTime = System.nanoTime();
-            if (networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
-                    destinationAddress.getHostAddress(), timeoutInMS)) {
+            String hostAddress = destinationAddress.getHostAddress();
+            if (probeEngine.probe("arp:" + arpPingMethod + ":" + interfaceName + ":" + hostAddress + ":" + timeoutInMS,
+                    () -> networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, hostAddress,
+                            timeoutInMS))) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
                 updateListener.partialDetectionResult(v);
@@ -548,7 +615,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             if (destinationAddress == null) {
                 return;
             }
-            if (networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS)) {
+            String hostAddress = destinationAddress.getHostAddress();
+            if (probeEngine.probe("icmp:" + pingMethod + ":" + hostAddress + ":" + timeoutInMS,
+                    () -> networkUtils.nativePing(pingMethod, hostAddress, timeoutInMS))) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
                 updateListener.partialDetectionResult(v);
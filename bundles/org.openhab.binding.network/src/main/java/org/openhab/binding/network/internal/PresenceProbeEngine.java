@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PresenceProbeEngine} executes the presence probes of all network things of the binding.
+ *
+ * All probes run on one bounded thread pool instead of a new thread pool per detection cycle. Each detection cycle
+ * gets a lightweight {@link ExecutorService} view on the shared pool, which can be shut down independently.
+ *
+ * Probes of several things for the same host and method, which are running at the same time, are merged: only the
+ * first one is performed and the others wait for its result.
+ *
+ * TCP connection attempts are not blocking a thread each: the sockets connect in non-blocking mode and are watched
+ * by one selector thread, which is started on demand and ends when no connection attempt is pending for a minute.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceProbeEngine {
+    /** maximum number of probes running at the same time */
+    static final int MAX_CONCURRENT_PROBES = 32;
+
+    /** time in ms after which the idle selector thread ends */
+    private static final long SELECTOR_IDLE_TIMEOUT = 60000;
+
+    private static final PresenceProbeEngine INSTANCE = new PresenceProbeEngine();
+
+    private final ThreadPoolExecutor pool;
+    private final Map<String, CompletableFuture<Boolean>> runningProbes = new ConcurrentHashMap<>();
+    private final Logger logger = LoggerFactory.getLogger(PresenceProbeEngine.class);
+
+    private final Queue<PendingConnect> pendingConnects = new ConcurrentLinkedQueue<>();
+    private final NamedThreadFactory selectorThreadFactory = new NamedThreadFactory("presenceProbeConnect", true);
+    // guarded by this
+    private @Nullable Selector selector;
+
+    /**
+     * A blocking probe, for example a ping
+     */
+    @FunctionalInterface
+    public interface Probe {
+        boolean run() throws IOException, InterruptedException;
+    }
+
+    PresenceProbeEngine() {
+        this(MAX_CONCURRENT_PROBES, "presenceProbe");
+    }
+
+    /**
+     * Create an engine with its own thread pool, for probes which must not compete with the presence detections of
+     * the things, like those of the network discovery. TCP connection attempts still share the selector thread of the
+     * engine returned by {@link #getInstance()}.
+     *
+     * @param maxConcurrentProbes Maximum number of probes running at the same time
+     * @param threadName Name of the threads of the pool
+     */
+    public PresenceProbeEngine(int maxConcurrentProbes, String threadName) {
+        pool = new ThreadPoolExecutor(maxConcurrentProbes, maxConcurrentProbes, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(threadName, true));
+        // Let idle threads terminate, the engine lives as long as the binding bundle
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    public static PresenceProbeEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Create an executor for the checks of one detection cycle. The checks are executed on the shared pool.
+     * Shutting the executor down only cancels the checks of this cycle.
+     */
+    public ExecutorService newDetectionExecutor() {
+        return new DetectionExecutor();
+    }
+
+    /**
+     * Perform a probe, or wait for the result of the same probe if it is already running for another thing.
+     *
+     * @param key A key identifying the probe, consisting of method and destination
+     * @param probe The probe to perform
+     * @return The result of the probe
+     * @throws IOException If the probe failed
+     * @throws InterruptedException If interrupted while probing or waiting
+     */
+    public boolean probe(String key, Probe probe) throws IOException, InterruptedException {
+        while (true) {
+            CompletableFuture<Boolean> ownProbe = new CompletableFuture<>();
+            CompletableFuture<Boolean> runningProbe = runningProbes.putIfAbsent(key, ownProbe);
+            if (runningProbe == null) {
+                try {
+                    boolean result = probe.run();
+                    ownProbe.complete(result);
+                    return result;
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    ownProbe.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    runningProbes.remove(key, ownProbe);
+                }
+            }
+
+            try {
+                return runningProbe.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedException) {
+                    // The detection cycle of the other thing was cancelled, probe ourself
+                    continue;
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Start a non-blocking probe, or return the result of the same probe if it is already running for another thing.
+     *
+     * @param key A key identifying the probe, consisting of method and destination
+     * @param probe Starts the probe and returns a future of its result
+     * @return A future of the result of the probe
+     */
+    public CompletableFuture<Boolean> probeAsync(String key, Supplier<CompletableFuture<Boolean>> probe) {
+        CompletableFuture<Boolean> ownProbe = new CompletableFuture<>();
+        CompletableFuture<Boolean> runningProbe = runningProbes.putIfAbsent(key, ownProbe);
+        if (runningProbe != null) {
+            return runningProbe;
+        }
+        try {
+            probe.get().whenComplete((result, e) -> {
+                // Probes are only merged while running
+                runningProbes.remove(key, ownProbe);
+                if (e != null) {
+                    ownProbe.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                } else {
+                    ownProbe.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            runningProbes.remove(key, ownProbe);
+            ownProbe.completeExceptionally(e);
+        }
+        return ownProbe;
+    }
+
+    /**
+     * Try to establish a TCP connection without blocking a thread. The connection is closed as soon as it is
+     * established.
+     *
+     * @param address The destination address and port
+     * @param timeoutInMS Timeout in milliseconds
+     * @return A future that completes with true if the connection was established, with false if it was refused, the
+     *         host was not reachable or the timeout elapsed, and exceptionally on other I/O errors.
+     */
+    public CompletableFuture<Boolean> connect(InetSocketAddress address, int timeoutInMS) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            PendingConnect pendingConnect = new PendingConnect(channel, result,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMS));
+            if (channel.connect(address)) {
+                pendingConnect.finish(true);
+            } else {
+                pendingConnects.add(pendingConnect);
+                wakeupSelector();
+            }
+        } catch (IOException e) {
+            if (channel != null) {
+                new PendingConnect(channel, result, 0).fail(e);
+            } else {
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wake the selector thread up to register the pending connection attempts, start it if it is not running.
+     */
+    private synchronized void wakeupSelector() throws IOException {
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+            return;
+        }
+        Selector newSelector = Selector.open();
+        this.selector = newSelector;
+        selectorThreadFactory.newThread(() -> runSelector(newSelector)).start();
+    }
+
+    /**
+     * End the selector thread if there is nothing to do.
+     *
+     * @return True if the selector was closed
+     */
+    private synchronized boolean closeSelectorIfIdle(Selector selector) {
+        if (!selector.keys().isEmpty() || !pendingConnects.isEmpty()) {
+            return false;
+        }
+        this.selector = null;
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the selector", e);
+        }
+        return true;
+    }
+
+    private void runSelector(Selector selector) {
+        try {
+            long idleSince = System.nanoTime();
+            while (true) {
+                PendingConnect pendingConnect;
+                while ((pendingConnect = pendingConnects.poll()) != null) {
+                    try {
+                        pendingConnect.channel.register(selector, SelectionKey.OP_CONNECT, pendingConnect);
+                    } catch (IOException e) {
+                        pendingConnect.fail(e);
+                    }
+                }
+
+                if (selector.keys().isEmpty()) {
+                    long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idleSince);
+                    if (idle >= SELECTOR_IDLE_TIMEOUT && closeSelectorIfIdle(selector)) {
+                        return;
+                    }
+                    selector.select(Math.max(1, SELECTOR_IDLE_TIMEOUT - idle));
+                } else {
+                    selector.select(getSelectTimeout(selector));
+                }
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    PendingConnect connect = (PendingConnect) key.attachment();
+                    try {
+                        connect.finish(connect.channel.finishConnect());
+                    } catch (IOException e) {
+                        connect.fail(e);
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                long now = System.nanoTime();
+                for (SelectionKey key : selector.keys()) {
+                    PendingConnect connect = (PendingConnect) key.attachment();
+                    if (key.isValid() && now - connect.deadline >= 0) {
+                        connect.finish(false);
+                    }
+                }
+                if (selector.keys().isEmpty()) {
+                    idleSince = now;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("The presence probe selector failed", e);
+            synchronized (this) {
+                if (this.selector == selector) {
+                    this.selector = null;
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((PendingConnect) key.attachment()).finish(false);
+            }
+            PendingConnect pendingConnect;
+            while ((pendingConnect = pendingConnects.poll()) != null) {
+                pendingConnect.finish(false);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Return the time in ms until the earliest deadline of the pending connection attempts, at least 1.
+     */
+    private static long getSelectTimeout(Selector selector) {
+        long now = System.nanoTime();
+        long timeout = Long.MAX_VALUE;
+        for (SelectionKey key : selector.keys()) {
+            long remaining = ((PendingConnect) key.attachment()).deadline - now;
+            timeout = Math.min(timeout, TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+        }
+        return Math.max(1, timeout);
+    }
+
+    /**
+     * A non-blocking connection attempt
+     */
+    private static class PendingConnect {
+        final SocketChannel channel;
+        final CompletableFuture<Boolean> result;
+        final long deadline;
+
+        PendingConnect(SocketChannel channel, CompletableFuture<Boolean> result, long deadline) {
+            this.channel = channel;
+            this.result = result;
+            this.deadline = deadline;
+        }
+
+        void finish(boolean connected) {
+            close();
+            result.complete(connected);
+        }
+
+        void fail(IOException e) {
+            if (e instanceof ConnectException || e instanceof NoRouteToHostException) {
+                finish(false);
+            } else {
+                close();
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void close() {
+            try {
+                // Also cancels the registration at the selector
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * The checks of one detection cycle, executed on the shared pool
+     */
+    private class DetectionExecutor extends AbstractExecutorService {
+        private final Set<FutureTask<?>> tasks = new HashSet<>();
+        private boolean shutdown;
+
+        @Override
+        public void execute(@Nullable Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            FutureTask<@Nullable Void> task = new FutureTask<@Nullable Void>(command, null) {
+                @Override
+                protected void done() {
+                    taskDone(this);
+                }
+            };
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Presence detection already finished");
+                }
+                tasks.add(task);
+            }
+            pool.execute(task);
+        }
+
+        private synchronized void taskDone(FutureTask<?> task) {
+            tasks.remove(task);
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            notifyAll();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            Set<FutureTask<?>> cancelled;
+            synchronized (this) {
+                shutdown = true;
+                cancelled = new HashSet<>(tasks);
+            }
+            // Cancel outside of the lock, done() of the cancelled tasks acquires it
+            for (FutureTask<?> task : cancelled) {
+                task.cancel(true);
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, @Nullable TimeUnit unit)
+                throws InterruptedException {
+            long remaining = unit == null ? timeout : unit.toNanos(timeout);
+            long deadline = System.nanoTime() + remaining;
+            while (!isTerminated()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return true;
+        }
+    }
+}
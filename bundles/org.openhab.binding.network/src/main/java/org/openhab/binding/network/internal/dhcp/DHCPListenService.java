@@ -13,7 +13,13 @@
 package org.openhab.binding.network.internal.dhcp;
 
 import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -37,12 +43,26 @@ public class DHCPListenService {
     static Map<String, IPRequestReceivedCallback> registeredListeners = new TreeMap<>();
     static Logger logger = LoggerFactory.getLogger(DHCPListenService.class);
 
+    static final int MAX_RECENT_REQUESTS = 256;
+    /** Addresses of recent DHCP requests, also for unregistered addresses, most recent last */
+    static final Map<String, Boolean> recentRequests = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_RECENT_REQUESTS;
+        }
+    };
+
     @SuppressWarnings({ "null", "unused" })
     public static synchronized DHCPPacketListenerServer register(String hostAddress,
             IPRequestReceivedCallback dhcpListener) throws SocketException {
         DHCPPacketListenerServer instance = DHCPListenService.instance;
         if (instance == null) {
             instance = new DHCPPacketListenerServer((String ipAddress) -> {
+                synchronized (recentRequests) {
+                    recentRequests.put(ipAddress, Boolean.TRUE);
+                }
                 IPRequestReceivedCallback listener = registeredListeners.get(ipAddress);
                 if (listener != null) {
                     listener.dhcpRequestReceived(ipAddress);
@@ -59,6 +79,19 @@ public class DHCPListenService {
         return instance;
     }
 
+    /**
+     * Returns the addresses of the most recent DHCP requests, seen while the listener was running, the most recent
+     * first. The network discovery probes those addresses first.
+     */
+    public static Set<String> getRecentRequests() {
+        List<String> addresses;
+        synchronized (recentRequests) {
+            addresses = new ArrayList<>(recentRequests.keySet());
+        }
+        Collections.reverse(addresses);
+        return new LinkedHashSet<>(addresses);
+    }
+
     public static void unregister(String hostAddress) {
         synchronized (registeredListeners) {
             registeredListeners.remove(hostAddress);
@@ -16,11 +16,13 @@ import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,11 +33,14 @@ import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
+import org.eclipse.smarthome.core.net.CidrAddress;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.PresenceProbeEngine;
+import org.openhab.binding.network.internal.dhcp.DHCPListenService;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -49,14 +54,26 @@ import org.slf4j.LoggerFactory;
  * the current Network. It uses every Network Interface which is connected to a network.
  * It tries common TCP ports to connect to, ICMP pings and ARP pings.
  *
+ * Hosts are probed at a configurable rate of probes per second, hosts of the local networks which recently sent a
+ * DHCP request or are in the ARP cache of the system first. Devices are reported as soon as they answer.
+ *
+ * The pings of the scan run on a thread pool of their own, so that a scan does not delay the presence detections of
+ * the network things. The rate is limited to what this pool can handle, so that the pings do not pile up.
+ *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
  */
 @NonNullByDefault
 @Component(service = DiscoveryService.class, immediate = true, configurationPid = "discovery.network")
-public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
+public class NetworkDiscoveryService extends AbstractDiscoveryService {
     static final int PING_TIMEOUT_IN_MS = 500;
+    /** Time for starting the probes of the last IP and reporting its result, in addition to the ping timeout */
+    static final int DETECTION_OVERHEAD_IN_MS = 1000;
     static final int MAXIMUM_IPS_PER_INTERFACE = 255;
+    /** Maximum number of pings of the scan running at the same time */
+    static final int MAX_CONCURRENT_PROBES = 16;
+    static final String CONFIG_PROBES_PER_SECOND = "probesPerSecond";
+    static final int DEFAULT_PROBES_PER_SECOND = 100;
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
@@ -65,15 +82,21 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     // TCP port 1025 (Xbox / MS-RPC)
     private Set<Integer> tcpServicePorts = Collections
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
-    private Integer scannedIPcount = 0;
-    private @Nullable ExecutorService executorService = null;
+    // guarded by this
+    private int scanGeneration;
+    private int scannedIPcount;
+    private int scanIPcount;
+    private @Nullable ScheduledFuture<?> scanJob;
+
+    private volatile int probesPerSecond = DEFAULT_PROBES_PER_SECOND;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
-    private final NetworkUtils networkUtils = new NetworkUtils();
+    private final PresenceProbeEngine probeEngine = new PresenceProbeEngine(MAX_CONCURRENT_PROBES,
+            "networkDiscoveryProbe");
+    NetworkUtils networkUtils = new NetworkUtils();
 
     public NetworkDiscoveryService() {
-        super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
-                new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
-                false);
+        // The scan timeout depends on the number of IPs and the probe rate, see getScanTimeout()
+        super(SUPPORTED_THING_TYPES_UIDS, 0, false);
     }
 
     @Override
@@ -91,18 +114,29 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         // configuration, the values are automatically available in all handlers. Because they all
         // share the same instance.
         configuration.update(new Configuration(config).as(NetworkBindingConfiguration.class));
+
+        Object probesPerSecond = config != null ? config.get(CONFIG_PROBES_PER_SECOND) : null;
+        try {
+            this.probesPerSecond = probesPerSecond != null ? Integer.parseInt(probesPerSecond.toString())
+                    : DEFAULT_PROBES_PER_SECOND;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: {}", CONFIG_PROBES_PER_SECOND, probesPerSecond);
+            this.probesPerSecond = DEFAULT_PROBES_PER_SECOND;
+        }
     }
 
     @Override
     @Deactivate
     protected void deactivate() {
-        if (executorService != null) {
-            executorService.shutdown();
-        }
+        stopScan();
         super.deactivate();
     }
 
-    @Override
+    /**
+     * Submit the devices of a reachable presence detection value.
+     *
+     * @param value A partial result of a presence detection
+     */
     public void partialDetectionResult(PresenceDetectionValue value) {
         final String ip = value.getHostAddress();
         if (value.isPingReachable()) {
@@ -115,69 +149,167 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         }
     }
 
+    /**
+     * Returns the scan timeout in seconds: the time to start the presence detections of all IPs at the configured
+     * rate, plus the time for the last detection to finish.
+     */
     @Override
-    public void finalDetectionResult(PresenceDetectionValue value) {
+    public int getScanTimeout() {
+        return getScanTimeout(getScanIPs().size(), getProbesPerIP(), getPingsPerIP(), probesPerSecond);
+    }
+
+    static int getScanTimeout(int ipCount, int probesPerIP, int pingsPerIP, int probesPerSecond) {
+        long intervalInMicros = getScanIntervalInMicros(probesPerIP, pingsPerIP, probesPerSecond);
+        long scanMillis = TimeUnit.MICROSECONDS.toMillis(ipCount * intervalInMicros) + PING_TIMEOUT_IN_MS
+                + DETECTION_OVERHEAD_IN_MS;
+        return (int) ((scanMillis + 999) / 1000);
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Returns the interval between the start of two presence detections, so that the probes stay within the budget
+     * and the pings, which occupy a thread of the pool each, do not start faster than the pool can execute them.
      */
-    @Override
-    protected void startScan() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
-        }
-        final ExecutorService service = executorService;
-        if (service == null) {
-            return;
+    static long getScanIntervalInMicros(int probesPerIP, int pingsPerIP, int probesPerSecond) {
+        long budgetInterval = TimeUnit.SECONDS.toMicros(probesPerIP) / Math.max(1, probesPerSecond);
+        long capacityInterval = TimeUnit.MILLISECONDS.toMicros(pingsPerIP * PING_TIMEOUT_IN_MS)
+                / MAX_CONCURRENT_PROBES;
+        return Math.max(1, Math.max(budgetInterval, capacityInterval));
+    }
+
+    private int getProbesPerIP() {
+        return tcpServicePorts.size() + getPingsPerIP();
+    }
+
+    /**
+     * Returns the number of ICMP and ARP pings per IP, the TCP connection attempts do not need a thread.
+     */
+    private int getPingsPerIP() {
+        int pingsPerIP = 1;
+        if (configuration.arpPingUtilMethod != NetworkUtils.ArpPingUtilEnum.UNKNOWN_TOOL) {
+            pingsPerIP += networkUtils.getInterfaceNames().size();
         }
+        return pingsPerIP;
+    }
+
+    /**
+     * Returns the IPs to scan. Hosts of the local networks which recently sent a DHCP request or are in the ARP cache
+     * come first, followed by the other IPs of the local networks.
+     */
+    Set<String> getScanIPs() {
+        Set<String> seedIPs = new LinkedHashSet<>(DHCPListenService.getRecentRequests());
+        seedIPs.addAll(networkUtils.getArpCacheIPs());
+        Set<CidrAddress> interfaceIPs = networkUtils.getInterfaceIPs();
+
+        Set<String> scanIPs = networkUtils.getIPsInNetworks(seedIPs, interfaceIPs);
+        scanIPs.addAll(networkUtils.getNetworkIPs(interfaceIPs, MAXIMUM_IPS_PER_INTERFACE));
+        return scanIPs;
+    }
+
+    /**
+     * Starts the scan of each IP on each interface on the network. The presence detections are started at the
+     * configured rate, their pings are executed on the pool of the discovery.
+     */
+    @Override
+    protected synchronized void startScan() {
+        cancelScanJob();
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
-        final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
+        final Set<String> networkIPs = getScanIPs();
+        if (networkIPs.isEmpty()) {
+            stopScan();
+            return;
+        }
+        // Results of detections of previous scans are ignored from now on
+        final int generation = ++scanGeneration;
+        final Queue<String> pendingIPs = new ConcurrentLinkedQueue<>(networkIPs);
+        scanIPcount = networkIPs.size();
         scannedIPcount = 0;
 
-        for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
-            s.setHostname(ip);
-            s.setIOSDevice(true);
-            s.setUseDhcpSniffing(false);
-            s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
-            s.setUseIcmpPing(true);
-            s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                synchronized (scannedIPcount) {
-                    scannedIPcount += 1;
-                    if (scannedIPcount == networkIPs.size()) {
-                        logger.trace("Scan of {} IPs successful", scannedIPcount);
-                        stopScan();
-                    }
+        long intervalInMicros = getScanIntervalInMicros(getProbesPerIP(), getPingsPerIP(), probesPerSecond);
+        logger.debug("Scanning {} IPs with {} probes per second", scanIPcount, probesPerSecond);
+        scanJob = scheduler.scheduleAtFixedRate(() -> scanNextIP(generation, pendingIPs), 0, intervalInMicros,
+                TimeUnit.MICROSECONDS);
+    }
+
+    private void scanNextIP(int generation, Queue<String> pendingIPs) {
+        String ip = pendingIPs.poll();
+        if (ip == null) {
+            synchronized (this) {
+                if (generation == scanGeneration) {
+                    cancelScanJob();
                 }
-            });
+            }
+            return;
+        }
+
+        // The final result is reported to ipScanned()
+        if (!createPresenceDetection(ip, new ScanListener(generation)).performPresenceDetection(false)) {
+            ipScanned(generation);
+        }
+    }
+
+    PresenceDetection createPresenceDetection(String ip, PresenceDetectionListener listener) {
+        final PresenceDetection s = new PresenceDetection(listener, 2000);
+        s.setHostname(ip);
+        s.setIOSDevice(true);
+        s.setUseDhcpSniffing(false);
+        s.setTimeout(PING_TIMEOUT_IN_MS);
+        s.setProbeEngine(probeEngine);
+        // Ping devices
+        s.setUseIcmpPing(true);
+        s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
+        // TCP devices
+        s.setServicePorts(tcpServicePorts);
+        return s;
+    }
+
+    private synchronized void ipScanned(int generation) {
+        if (generation != scanGeneration) {
+            logger.trace("Ignoring the result of a previous scan");
+            return;
+        }
+        if (++scannedIPcount == scanIPcount) {
+            logger.trace("Scan of {} IPs successful", scanIPcount);
+            stopScan();
+        }
+    }
+
+    private synchronized void cancelScanJob() {
+        ScheduledFuture<?> scanJob = this.scanJob;
+        if (scanJob != null) {
+            scanJob.cancel(false);
+            this.scanJob = null;
         }
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        final ExecutorService service = executorService;
-        if (service == null) {
-            return;
+        cancelScanJob();
+        // Results of the stopped scan are ignored
+        scanGeneration++;
+    }
+
+    /**
+     * Receives the results of the presence detections of one scan
+     */
+    private class ScanListener implements PresenceDetectionListener {
+        private final int generation;
+
+        ScanListener(int generation) {
+            this.generation = generation;
         }
 
-        try {
-            service.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
+        @Override
+        public void partialDetectionResult(PresenceDetectionValue value) {
+            NetworkDiscoveryService.this.partialDetectionResult(value);
+        }
+
+        @Override
+        public void finalDetectionResult(PresenceDetectionValue value) {
+            ipScanned(generation);
         }
-        service.shutdown();
-        executorService = null;
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
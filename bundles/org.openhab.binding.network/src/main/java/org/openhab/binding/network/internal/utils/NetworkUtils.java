@@ -15,33 +15,38 @@ package org.openhab.binding.network.internal.utils;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.ConnectException;
+import java.io.UncheckedIOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.NoRouteToHostException;
 import java.net.PortUnreachableException;
-import java.net.Socket;
-import java.net.SocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
 import org.apache.commons.net.util.SubnetUtils;
+import org.apache.commons.net.util.SubnetUtils.SubnetInfo;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.net.CidrAddress;
 import org.eclipse.smarthome.core.net.NetUtil;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.openhab.binding.network.internal.PresenceProbeEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -144,24 +149,62 @@ public class NetworkUtils {
     }
 
     /**
-     * Try to establish a tcp connection to the given port. Returns false if a timeout occurred
-     * or the connection was denied.
+     * Filters IPv4 addresses, keeping the addresses within the networks of the given interface addresses.
+     *
+     * @param ips The IPv4 addresses to filter
+     * @param interfaceIPs The IPs which are assigned to the Network Interfaces
+     * @return The addresses within the networks, in the given order
+     */
+    public Set<String> getIPsInNetworks(Collection<String> ips, Set<CidrAddress> interfaceIPs) {
+        List<SubnetInfo> networks = interfaceIPs.stream()
+                .map(cidrNotation -> new SubnetUtils(cidrNotation.toString()).getInfo()).collect(Collectors.toList());
+        Set<String> result = new LinkedHashSet<>();
+        for (String ip : ips) {
+            try {
+                if (networks.stream().anyMatch(network -> network.isInRange(ip))) {
+                    result.add(ip);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.trace("Ignoring invalid IPv4 address {}", ip);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the IPv4 addresses of the neighbours known to the operating system, read from the ARP cache.
+     * Only supported on Linux, an empty set is returned on other systems.
+     *
+     * @return IP addresses with a resolved hardware address
+     */
+    public Set<String> getArpCacheIPs() {
+        Set<String> ips = new LinkedHashSet<>();
+        Path arpCache = Paths.get("/proc/net/arp");
+        if (!Files.isReadable(arpCache)) {
+            return ips;
+        }
+        // Format: IP address, HW type, Flags, HW address, Mask, Device
+        try (Stream<String> lines = Files.lines(arpCache)) {
+            lines.skip(1).map(line -> line.trim().split("\\s+")).filter(columns -> columns.length >= 4)
+                    .filter(columns -> !"0x0".equals(columns[2])).forEach(columns -> ips.add(columns[0]));
+        } catch (IOException | UncheckedIOException e) {
+            logger.debug("Could not read the ARP cache: {}", e.getMessage());
+        }
+        return ips;
+    }
+
+    /**
+     * Try to establish a tcp connection to the given port. The connection is made by the non-blocking selector of the
+     * {@link PresenceProbeEngine}, so no thread is blocked while connecting.
      *
      * @param host The IP or hostname
      * @param port The tcp port. Must be not 0.
      * @param timeout Timeout in ms
-     * @param logger A slf4j logger instance to log IOException
-     * @return
-     * @throws IOException
+     * @return A future that completes with false if a timeout occurred or the connection was denied, and exceptionally
+     *         on other I/O errors.
      */
-    public boolean servicePing(String host, int port, int timeout) throws IOException {
-        SocketAddress socketAddress = new InetSocketAddress(host, port);
-        try (Socket socket = new Socket()) {
-            socket.connect(socketAddress, timeout);
-            return true;
-        } catch (ConnectException | SocketTimeoutException | NoRouteToHostException ignored) {
-            return false;
-        }
+    public CompletableFuture<Boolean> servicePing(String host, int port, int timeout) {
+        return PresenceProbeEngine.getInstance().connect(new InetSocketAddress(host, port), timeout);
     }
 
     /**
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -98,7 +99,7 @@ public class PresenceDetectionTest {
         doNothing().when(subject).performARPping(any());
         doNothing().when(subject).performJavaPing();
         doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        doReturn(CompletableFuture.completedFuture(false)).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
@@ -116,7 +117,8 @@ public class PresenceDetectionTest {
         doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
         doReturn(true).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
                 any(), anyInt());
-        doReturn(true).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+        doReturn(CompletableFuture.completedFuture(true)).when(networkUtils).servicePing(anyString(), anyInt(),
+                anyInt());
 
         assertTrue(subject.performPresenceDetection(false));
         subject.waitForPresenceDetection();
@@ -138,7 +140,8 @@ public class PresenceDetectionTest {
         doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
         doReturn(true).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
                 any(), anyInt());
-        doReturn(true).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+        doReturn(CompletableFuture.completedFuture(true)).when(networkUtils).servicePing(anyString(), anyInt(),
+                anyInt());
 
         doReturn(executorService).when(subject).getThreadsFor(anyInt());
 
@@ -151,9 +154,9 @@ public class PresenceDetectionTest {
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
+        // Perform the different presence detection threads now, the TCP check does not need a thread
         ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
+        verify(executorService, times(2)).execute(capture.capture());
         for (Runnable r : capture.getAllValues()) {
             r.run();
         }
@@ -174,6 +177,38 @@ public class PresenceDetectionTest {
         verify(callback, times(2)).accept(any());
     }
 
+    @Test
+    public void queuedChecksAreNotCancelled() throws Exception {
+        doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
+        doReturn(true).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
+                any(), anyInt());
+        doReturn(CompletableFuture.completedFuture(false)).when(networkUtils).servicePing(anyString(), anyInt(),
+                anyInt());
+        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+
+        assertTrue(subject.performPresenceDetection(false));
+        Thread waiting = new Thread(subject::waitForPresenceDetection);
+        waiting.start();
+
+        // The checks wait for a thread of the shared pool for longer than the timeout
+        waiting.join(1000);
+        assertTrue(waiting.isAlive());
+        verify(executorService, never()).shutdownNow();
+        verify(listener, never()).finalDetectionResult(any());
+
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(2)).execute(capture.capture());
+        for (Runnable r : capture.getAllValues()) {
+            r.run();
+        }
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+
+        ArgumentCaptor<PresenceDetectionValue> result = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(result.capture());
+        assertThat(result.getValue().getSuccessfulDetectionTypes(), is("ARP_PING, ICMP_PING"));
+    }
+
     @Test
     public void reuseValueTests() throws InterruptedException, IOException {
         final long START_TIME = 1000L;
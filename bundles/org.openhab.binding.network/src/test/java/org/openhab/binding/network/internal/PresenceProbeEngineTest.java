@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@see PresenceProbeEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceProbeEngineTest {
+    private final PresenceProbeEngine subject = new PresenceProbeEngine();
+
+    @Test
+    public void concurrentIdenticalProbesAreMerged() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        CountDownLatch probeStarted = new CountDownLatch(1);
+        CountDownLatch releaseProbe = new CountDownLatch(1);
+        ExecutorService executor = subject.newDetectionExecutor();
+
+        Future<Boolean> first = executor.submit(() -> subject.probe("icmp:host", () -> {
+            probes.incrementAndGet();
+            probeStarted.countDown();
+            releaseProbe.await();
+            return true;
+        }));
+        assertTrue(probeStarted.await(5, TimeUnit.SECONDS));
+        Future<Boolean> second = executor.submit(() -> subject.probe("icmp:host", () -> {
+            probes.incrementAndGet();
+            return false;
+        }));
+        Thread.sleep(100);
+        releaseProbe.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(second.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(probes.get(), is(1));
+
+        // Probes are only merged while running
+        assertThat(subject.probe("icmp:host", () -> false), is(false));
+    }
+
+    @Test
+    public void concurrentIdenticalAsyncProbesAreMerged() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        CompletableFuture<Boolean> connect = new CompletableFuture<>();
+
+        CompletableFuture<Boolean> first = subject.probeAsync("tcp:host:80", () -> {
+            probes.incrementAndGet();
+            return connect;
+        });
+        CompletableFuture<Boolean> second = subject.probeAsync("tcp:host:80", () -> {
+            probes.incrementAndGet();
+            return CompletableFuture.completedFuture(false);
+        });
+        assertFalse(first.isDone());
+        connect.complete(true);
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(second.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(probes.get(), is(1));
+
+        // Probes are only merged while running
+        assertThat(subject.probeAsync("tcp:host:80", () -> CompletableFuture.completedFuture(false)).get(), is(false));
+    }
+
+    @Test
+    public void connectToOpenAndClosedPorts() throws Exception {
+        InetSocketAddress address;
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+            assertThat(subject.connect(address, 2000).get(5, TimeUnit.SECONDS), is(true));
+        }
+        // The port is closed now, the connection is refused
+        assertThat(subject.connect(address, 2000).get(5, TimeUnit.SECONDS), is(false));
+    }
+
+    @Test
+    public void concurrentConnectsShareTheSelector() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    serverSocket.getLocalPort());
+            CompletableFuture<?>[] connects = new CompletableFuture<?>[20];
+            for (int i = 0; i < connects.length; i++) {
+                connects[i] = subject.connect(address, 2000);
+            }
+            for (CompletableFuture<?> connect : connects) {
+                assertThat(connect.get(5, TimeUnit.SECONDS), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void shutdownNowCancelsOnlyTheChecksOfTheCycle() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService cycle = subject.newDetectionExecutor();
+        ExecutorService otherCycle = subject.newDetectionExecutor();
+
+        cycle.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Future<Boolean> other = otherCycle.submit(() -> true);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cycle.shutdownNow();
+        assertTrue(cycle.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(cycle.isTerminated());
+
+        assertThat(other.get(5, TimeUnit.SECONDS), is(true));
+        assertFalse(otherCycle.isShutdown());
+    }
+}
@@ -21,6 +21,8 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.openhab.binding.network.internal.dhcp.DHCPPacket.BadPacketException;
@@ -56,4 +58,20 @@ public class DHCPTest {
         s.receivePacket(new DHCPPacket(new byte[] { DHCPPacket.DHCPREQUEST }, null), testAddress);
         verify(dhcpListener, times(2)).dhcpRequestReceived(eq(testIP));
     }
+
+    @Test
+    public void testRecentRequestsMostRecentFirst() {
+        synchronized (DHCPListenService.recentRequests) {
+            DHCPListenService.recentRequests.clear();
+            DHCPListenService.recentRequests.put("10.1.2.3", Boolean.TRUE);
+            DHCPListenService.recentRequests.put("10.1.2.4", Boolean.TRUE);
+            DHCPListenService.recentRequests.put("10.1.2.3", Boolean.TRUE);
+        }
+        try {
+            assertThat(new ArrayList<>(DHCPListenService.getRecentRequests()),
+                    is(Arrays.asList("10.1.2.3", "10.1.2.4")));
+        } finally {
+            DHCPListenService.recentRequests.clear();
+        }
+    }
 }
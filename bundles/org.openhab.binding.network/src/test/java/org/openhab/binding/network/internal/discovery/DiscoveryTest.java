@@ -13,21 +13,32 @@
 package org.openhab.binding.network.internal.discovery;
 
 import static org.hamcrest.CoreMatchers.is;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.smarthome.config.discovery.DiscoveryListener;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
+import org.eclipse.smarthome.core.net.CidrAddress;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.openhab.binding.network.internal.NetworkBindingConstants;
+import org.openhab.binding.network.internal.PresenceDetection;
+import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
 
 /**
  * Tests cases for {@see PresenceDetectionValue}
@@ -43,6 +54,11 @@ public class DiscoveryTest {
     @Mock
     DiscoveryListener listener;
 
+    @Mock
+    PresenceDetection presenceDetection;
+
+    private final List<PresenceDetectionListener> detectionListeners = Collections.synchronizedList(new ArrayList<>());
+
     @Before
     public void setUp() {
         initMocks(this);
@@ -87,4 +103,100 @@ public class DiscoveryTest {
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_HOSTNAME), is(ip));
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_PORT), is(1010));
     }
+
+    /**
+     * Creates a discovery service for the network 192.168.1.0/29, which starts mocked presence detections.
+     */
+    private NetworkDiscoveryService createScanningService(Set<String> arpCacheIPs) throws UnknownHostException {
+        NetworkUtils networkUtils = spy(new NetworkUtils());
+        doReturn(Collections.singleton(new CidrAddress(InetAddress.getByName("192.168.1.1"), (short) 29)))
+                .when(networkUtils).getInterfaceIPs();
+        doReturn(arpCacheIPs).when(networkUtils).getArpCacheIPs();
+        doReturn(Collections.emptySet()).when(networkUtils).getInterfaceNames();
+
+        NetworkDiscoveryService d = spy(new NetworkDiscoveryService());
+        d.networkUtils = networkUtils;
+        doAnswer(invocation -> {
+            detectionListeners.add(invocation.getArgument(1));
+            return presenceDetection;
+        }).when(d).createPresenceDetection(anyString(), any());
+        when(presenceDetection.performPresenceDetection(anyBoolean())).thenReturn(true);
+        return d;
+    }
+
+    private void waitForDetections(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && detectionListeners.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertThat(detectionListeners.size(), is(count));
+    }
+
+    @Test
+    public void seedsOfTheLocalNetworkAreScannedFirst() throws UnknownHostException {
+        NetworkDiscoveryService d = createScanningService(
+                new LinkedHashSet<>(Arrays.asList("10.0.0.5", "192.168.1.5", "192.168.1.3", "192.168.2.3")));
+
+        List<String> scanIPs = new ArrayList<>(d.getScanIPs());
+        Assert.assertThat(scanIPs, is(Arrays.asList("192.168.1.5", "192.168.1.3", "192.168.1.1", "192.168.1.2",
+                "192.168.1.4", "192.168.1.6")));
+    }
+
+    @Test
+    public void scanIntervalAndTimeoutFollowTheProbeBudget() {
+        // 5 probes per IP at 100 probes per second
+        Assert.assertThat(NetworkDiscoveryService.getScanIntervalInMicros(5, 1, 100), is(50000L));
+        // 254 IPs * 50 ms + ping timeout + overhead, rounded up
+        Assert.assertThat(NetworkDiscoveryService.getScanTimeout(254, 5, 1, 100), is(15));
+        // Invalid budgets still give a valid interval
+        Assert.assertThat(NetworkDiscoveryService.getScanIntervalInMicros(5, 1, 0), is(5000000L));
+        Assert.assertThat(NetworkDiscoveryService.getScanIntervalInMicros(1, 0, Integer.MAX_VALUE), is(1L));
+    }
+
+    @Test
+    public void scanIntervalIsLimitedByThePoolCapacity() {
+        // 2 pings of 500 ms per IP on 16 threads: one IP every 62.5 ms, although the budget allows one every 5 ms
+        Assert.assertThat(NetworkDiscoveryService.getScanIntervalInMicros(5, 2, 1000), is(62500L));
+        // 254 IPs * 31.25 ms + ping timeout + overhead, rounded up
+        Assert.assertThat(NetworkDiscoveryService.getScanTimeout(254, 5, 1, 1000), is(10));
+    }
+
+    @Test
+    public void presenceDetectionsAreStartedAtTheConfiguredRate() throws Exception {
+        NetworkDiscoveryService d = createScanningService(Collections.emptySet());
+        // 5 probes per IP at 25 probes per second: one IP every 200 ms
+        d.modified(Collections.<String, Object> singletonMap(NetworkDiscoveryService.CONFIG_PROBES_PER_SECOND, 25));
+        try {
+            d.startScan();
+            Thread.sleep(500);
+            // Started at 0, 200 and 400 ms
+            Assert.assertThat(detectionListeners.size() >= 2 && detectionListeners.size() <= 4, is(true));
+            waitForDetections(6);
+        } finally {
+            d.stopScan();
+        }
+    }
+
+    @Test
+    public void resultsOfPreviousScansAreIgnored() throws Exception {
+        NetworkDiscoveryService d = createScanningService(Collections.emptySet());
+        d.modified(Collections.<String, Object> singletonMap(NetworkDiscoveryService.CONFIG_PROBES_PER_SECOND, 100000));
+
+        d.startScan();
+        waitForDetections(6);
+        List<PresenceDetectionListener> firstScan = new ArrayList<>(detectionListeners);
+        detectionListeners.clear();
+        d.startScan();
+        waitForDetections(6);
+
+        // Late results of the first scan must not finish the second one
+        for (PresenceDetectionListener detectionListener : firstScan) {
+            detectionListener.finalDetectionResult(value);
+        }
+        verify(d, never()).stopScan();
+
+        for (PresenceDetectionListener detectionListener : detectionListeners) {
+            detectionListener.finalDetectionResult(value);
+        }
+        verify(d, times(1)).stopScan();
+    }
 }
@@ -239,18 +239,27 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
+    /**
+     * Publishes the linked channels of one priority group. All of them are read from the same snapshot of the system
+     * information, so that the system is queried once per refresh cycle and the values are consistent.
+     */
     private void publishData(Set<ChannelUID> channels) {
+        SysteminfoInterface snapshot = systeminfo.createSnapshot();
         Iterator<ChannelUID> iter = channels.iterator();
         while (iter.hasNext()) {
             ChannelUID channeUID = iter.next();
             if (isLinked(channeUID.getId())) {
-                publishDataForChannel(channeUID);
+                publishDataForChannel(channeUID, snapshot);
             }
         }
     }
 
     private void publishDataForChannel(ChannelUID channelUID) {
-        State state = getInfoForChannel(channelUID);
+        publishDataForChannel(channelUID, systeminfo);
+    }
+
+    private void publishDataForChannel(ChannelUID channelUID, SysteminfoInterface snapshot) {
+        State state = getInfoForChannel(channelUID, snapshot);
         String channelID = channelUID.getId();
         updateState(channelID, state);
     }
@@ -273,9 +282,10 @@ public class SysteminfoHandler extends BaseThingHandler {
      * multiple devices, for reference see {@link #getDeviceIndex(String)}})
      *
      * @param channelUID the UID of the channel
+     * @param snapshot the system information to read from
      * @return State object or null, if there is no information for the device with this index
      */
-    private State getInfoForChannel(ChannelUID channelUID) {
+    private State getInfoForChannel(ChannelUID channelUID, SysteminfoInterface snapshot) {
         State state = null;
 
         String channelID = channelUID.getId();
@@ -294,148 +304,148 @@ public class SysteminfoHandler extends BaseThingHandler {
         try {
             switch (channelID) {
                 case CHANNEL_DISPLAY_INFORMATION:
-                    state = systeminfo.getDisplayInformation(deviceIndex);
+                    state = snapshot.getDisplayInformation(deviceIndex);
                     break;
                 case CHANNEL_BATTERY_NAME:
-                    state = systeminfo.getBatteryName(deviceIndex);
+                    state = snapshot.getBatteryName(deviceIndex);
                     break;
                 case CHANNEL_BATTERY_REMAINING_CAPACITY:
-                    state = systeminfo.getBatteryRemainingCapacity(deviceIndex);
+                    state = snapshot.getBatteryRemainingCapacity(deviceIndex);
                     break;
                 case CHANNEL_BATTERY_REMAINING_TIME:
-                    state = systeminfo.getBatteryRemainingTime(deviceIndex);
+                    state = snapshot.getBatteryRemainingTime(deviceIndex);
                     break;
                 case CHANNEL_SENSORS_CPU_TEMPERATURE:
-                    state = systeminfo.getSensorsCpuTemperature();
+                    state = snapshot.getSensorsCpuTemperature();
                     break;
                 case CHANNEL_SENOSRS_CPU_VOLTAGE:
-                    state = systeminfo.getSensorsCpuVoltage();
+                    state = snapshot.getSensorsCpuVoltage();
                     break;
                 case CHANNEL_SENSORS_FAN_SPEED:
-                    state = systeminfo.getSensorsFanSpeed(deviceIndex);
+                    state = snapshot.getSensorsFanSpeed(deviceIndex);
                     break;
                 case CHANNEL_CPU_LOAD_1:
-                    state = systeminfo.getCpuLoad1();
+                    state = snapshot.getCpuLoad1();
                     break;
                 case CHANNEL_CPU_LOAD_5:
-                    state = systeminfo.getCpuLoad5();
+                    state = snapshot.getCpuLoad5();
                     break;
                 case CHANNEL_CPU_LOAD_15:
-                    state = systeminfo.getCpuLoad15();
+                    state = snapshot.getCpuLoad15();
                     break;
                 case CHANNEL_CPU_UPTIME:
-                    state = systeminfo.getCpuUptime();
+                    state = snapshot.getCpuUptime();
                     break;
                 case CHANNEL_CPU_THREADS:
-                    state = systeminfo.getCpuThreads();
+                    state = snapshot.getCpuThreads();
                     break;
                 case CHANNEL_CPU_DESCRIPTION:
-                    state = systeminfo.getCpuDescription();
+                    state = snapshot.getCpuDescription();
                     break;
                 case CHANNEL_CPU_NAME:
-                    state = systeminfo.getCpuName();
+                    state = snapshot.getCpuName();
                     break;
                 case CHANNEL_MEMORY_AVAILABLE:
-                    state = systeminfo.getMemoryAvailable();
+                    state = snapshot.getMemoryAvailable();
                     break;
                 case CHANNEL_MEMORY_USED:
-                    state = systeminfo.getMemoryUsed();
+                    state = snapshot.getMemoryUsed();
                     break;
                 case CHANNEL_MEMORY_TOTAL:
-                    state = systeminfo.getMemoryTotal();
+                    state = snapshot.getMemoryTotal();
                     break;
                 case CHANNEL_MEMORY_AVAILABLE_PERCENT:
-                    state = systeminfo.getMemoryAvailablePercent();
+                    state = snapshot.getMemoryAvailablePercent();
                     break;
                 case CHANNEL_MEMORY_USED_PERCENT:
-                    state = systeminfo.getMemoryUsedPercent();
+                    state = snapshot.getMemoryUsedPercent();
                     break;
                 case CHANNEL_SWAP_AVAILABLE:
-                    state = systeminfo.getSwapAvailable();
+                    state = snapshot.getSwapAvailable();
                     break;
                 case CHANNEL_SWAP_USED:
-                    state = systeminfo.getSwapUsed();
+                    state = snapshot.getSwapUsed();
                     break;
                 case CHANNEL_SWAP_TOTAL:
-                    state = systeminfo.getSwapTotal();
+                    state = snapshot.getSwapTotal();
                     break;
                 case CHANNEL_SWAP_AVAILABLE_PERCENT:
-                    state = systeminfo.getSwapAvailablePercent();
+                    state = snapshot.getSwapAvailablePercent();
                     break;
                 case CHANNEL_SWAP_USED_PERCENT:
-                    state = systeminfo.getSwapUsedPercent();
+                    state = snapshot.getSwapUsedPercent();
                     break;
                 case CHANNEL_DRIVE_MODEL:
-                    state = systeminfo.getDriveModel(deviceIndex);
+                    state = snapshot.getDriveModel(deviceIndex);
                     break;
                 case CHANNEL_DRIVE_SERIAL:
-                    state = systeminfo.getDriveSerialNumber(deviceIndex);
+                    state = snapshot.getDriveSerialNumber(deviceIndex);
                     break;
                 case CHANNEL_DRIVE_NAME:
-                    state = systeminfo.getDriveName(deviceIndex);
+                    state = snapshot.getDriveName(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_NAME:
-                    state = systeminfo.getStorageName(deviceIndex);
+                    state = snapshot.getStorageName(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_DESCRIPTION:
-                    state = systeminfo.getStorageDescription(deviceIndex);
+                    state = snapshot.getStorageDescription(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_AVAILABLE:
-                    state = systeminfo.getStorageAvailable(deviceIndex);
+                    state = snapshot.getStorageAvailable(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_USED:
-                    state = systeminfo.getStorageUsed(deviceIndex);
+                    state = snapshot.getStorageUsed(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_TOTAL:
-                    state = systeminfo.getStorageTotal(deviceIndex);
+                    state = snapshot.getStorageTotal(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_TYPE:
-                    state = systeminfo.getStorageType(deviceIndex);
+                    state = snapshot.getStorageType(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_AVAILABLE_PERCENT:
-                    state = systeminfo.getStorageAvailablePercent(deviceIndex);
+                    state = snapshot.getStorageAvailablePercent(deviceIndex);
                     break;
                 case CHANNEL_STORAGE_USED_PERCENT:
-                    state = systeminfo.getStorageUsedPercent(deviceIndex);
+                    state = snapshot.getStorageUsedPercent(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_IP:
-                    state = systeminfo.getNetworkIp(deviceIndex);
+                    state = snapshot.getNetworkIp(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_ADAPTER_NAME:
-                    state = systeminfo.getNetworkDisplayName(deviceIndex);
+                    state = snapshot.getNetworkDisplayName(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_NAME:
-                    state = systeminfo.getNetworkName(deviceIndex);
+                    state = snapshot.getNetworkName(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_MAC:
-                    state = systeminfo.getNetworkMac(deviceIndex);
+                    state = snapshot.getNetworkMac(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_DATA_SENT:
-                    state = systeminfo.getNetworkDataSent(deviceIndex);
+                    state = snapshot.getNetworkDataSent(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_DATA_RECEIVED:
-                    state = systeminfo.getNetworkDataReceived(deviceIndex);
+                    state = snapshot.getNetworkDataReceived(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_PACKETS_RECEIVED:
-                    state = systeminfo.getNetworkPacketsReceived(deviceIndex);
+                    state = snapshot.getNetworkPacketsReceived(deviceIndex);
                     break;
                 case CHANNEL_NETWORK_PACKETS_SENT:
-                    state = systeminfo.getNetworkPacketsSent(deviceIndex);
+                    state = snapshot.getNetworkPacketsSent(deviceIndex);
                     break;
                 case CHANNEL_PROCESS_LOAD:
-                    state = systeminfo.getProcessCpuUsage(deviceIndex);
+                    state = snapshot.getProcessCpuUsage(deviceIndex);
                     break;
                 case CHANNEL_PROCESS_MEMORY:
-                    state = systeminfo.getProcessMemoryUsage(deviceIndex);
+                    state = snapshot.getProcessMemoryUsage(deviceIndex);
                     break;
                 case CHANNEL_PROCESS_NAME:
-                    state = systeminfo.getProcessName(deviceIndex);
+                    state = snapshot.getProcessName(deviceIndex);
                     break;
                 case CHANNEL_PROCESS_PATH:
-                    state = systeminfo.getProcessPath(deviceIndex);
+                    state = snapshot.getProcessPath(deviceIndex);
                     break;
                 case CHANNEL_PROCESS_THREADS:
-                    state = systeminfo.getProcessThreads(deviceIndex);
+                    state = snapshot.getProcessThreads(deviceIndex);
                     break;
                 default:
                     logger.debug("Channel with unknown ID: {} !", channelID);
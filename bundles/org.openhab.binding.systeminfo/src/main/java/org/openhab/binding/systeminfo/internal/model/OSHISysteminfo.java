@@ -13,6 +13,9 @@
 package org.openhab.binding.systeminfo.internal.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -42,6 +45,9 @@ import oshi.util.EdidUtil;
  * This implementation of {@link SysteminfoInterface} is using the open source library OSHI to provide system
  * information. OSHI is a free JNA-based (native) Operating System and Hardware Information library for Java.
  *
+ * Snapshots returned by {@link #createSnapshot()} query each information at most once and reuse it for all channels of
+ * a refresh cycle.
+ *
  * @author Svilen Valkanov - Initial contribution
  * @author Lyubomir Papazov - Move the initialization logic that could potentially take long time to the
  *         initializeSysteminfo method
@@ -73,6 +79,11 @@ public class OSHISysteminfo implements SysteminfoInterface {
     private @NonNullByDefault({}) PowerSource[] powerSources;
     private @NonNullByDefault({}) HWDiskStore[] drives;
 
+    /**
+     * Information sampled for a snapshot, {@code null} if this instance queries the system on each request
+     */
+    private final @Nullable Map<String, Object> samples;
+
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
     /**
@@ -81,6 +92,25 @@ public class OSHISysteminfo implements SysteminfoInterface {
      */
     public OSHISysteminfo() {
         logger.debug("OSHISysteminfo service is created");
+        samples = null;
+    }
+
+    /**
+     * Creates a snapshot of the passed instance
+     */
+    private OSHISysteminfo(OSHISysteminfo systeminfo) {
+        hal = systeminfo.hal;
+        memory = systeminfo.memory;
+        cpu = systeminfo.cpu;
+        sensors = systeminfo.sensors;
+        computerSystem = systeminfo.computerSystem;
+        operatingSystem = systeminfo.operatingSystem;
+        networks = systeminfo.networks;
+        displays = systeminfo.displays;
+        fileStores = systeminfo.fileStores;
+        powerSources = systeminfo.powerSources;
+        drives = systeminfo.drives;
+        samples = new HashMap<>();
     }
 
     @Override
@@ -88,7 +118,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
         logger.debug("OSHISysteminfo service starts initializing");
 
         SystemInfo systemInfo = new SystemInfo();
-        hal = systemInfo.getHardware();
+        initializeSysteminfo(systemInfo.getHardware(), systemInfo.getOperatingSystem());
+    }
+
+    /**
+     * Initializes the service with the passed hardware and operating system
+     */
+    void initializeSysteminfo(HardwareAbstractionLayer hal, OperatingSystem operatingSystem) {
+        this.hal = hal;
 
         // Doesn't need regular update, they may be queried repeatedly
         memory = hal.getMemory();
@@ -99,7 +136,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
         // see https://github.com/oshi/oshi/issues/310
         // TODO: Once the issue is resolved in OSHI , remove unnecessary object recreations from the public get methods
         computerSystem = hal.getComputerSystem();
-        operatingSystem = systemInfo.getOperatingSystem();
+        this.operatingSystem = operatingSystem;
         networks = hal.getNetworkIFs();
         displays = hal.getDisplays();
         fileStores = operatingSystem.getFileSystem().getFileStores();
@@ -107,6 +144,61 @@ public class OSHISysteminfo implements SysteminfoInterface {
         drives = hal.getDiskStores();
     }
 
+    @Override
+    public SysteminfoInterface createSnapshot() {
+        return new OSHISysteminfo(this);
+    }
+
+    /**
+     * Returns the sampled information with the passed key if this is a snapshot, otherwise it is queried
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T sample(String key, Supplier<T> query) {
+        Map<String, Object> localSamples = samples;
+        if (localSamples == null) {
+            return query.get();
+        }
+        return (T) localSamples.computeIfAbsent(key, k -> query.get());
+    }
+
+    private OSFileStore[] updateFileStores() {
+        // In the current OSHI version a new query is required for the storage data values to be updated
+        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
+        fileStores = sample("fileStores", () -> operatingSystem.getFileSystem().getFileStores());
+        return fileStores;
+    }
+
+    private PowerSource[] updatePowerSources() {
+        // In the current OSHI version a new query is required for the battery data values to be updated
+        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
+        powerSources = sample("powerSources", () -> hal.getPowerSources());
+        return powerSources;
+    }
+
+    private NetworkIF[] updateNetworks() {
+        // In the current OSHI version a new query is required for the network data values to be updated
+        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
+        networks = sample("networks", () -> hal.getNetworkIFs());
+        return networks;
+    }
+
+    private NetworkIF getUpdatedNetwork(int index) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(updateNetworks(), index);
+        sample("networkAttributes" + index, () -> {
+            network.updateAttributes();
+            return network;
+        });
+        return network;
+    }
+
+    private long getMemoryAvailableBytes() {
+        return sample("memoryAvailable", () -> memory.getAvailable());
+    }
+
+    private long getSwapUsedBytes() {
+        return sample("swapUsed", () -> memory.getVirtualMemory().getSwapUsed());
+    }
+
     private Object getDevice(Object @Nullable [] devices, int index) throws DeviceNotFoundException {
         if ((devices == null) || (devices.length <= index)) {
             throw new DeviceNotFoundException("Device with index: " + index + " can not be found!");
@@ -115,7 +207,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
     }
 
     private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+        // a process is looked up by scanning the processes of the system, a snapshot does it once per process
+        OSProcess process = sample("process" + pid, () -> operatingSystem.getProcess(pid));
         if (process == null) {
             throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
         }
@@ -182,7 +275,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = getMemoryAvailableBytes();
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
@@ -190,7 +283,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getMemoryUsed() {
         long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        long availableMemory = getMemoryAvailableBytes();
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -198,10 +291,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(updateFileStores(), index);
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
@@ -209,10 +299,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(updateFileStores(), index);
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
@@ -220,10 +307,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = (OSFileStore) getDevice(updateFileStores(), index);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -233,10 +317,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = (OSFileStore) getDevice(updateFileStores(), deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         if (totalSpace > 0) {
@@ -250,10 +331,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = (OSFileStore) getDevice(updateFileStores(), deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -289,10 +367,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = (NetworkIF) getDevice(updateNetworks(), index);
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
@@ -330,31 +405,30 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        double cpuTemperature = sample("cpuTemperature", () -> sensors.getCpuTemperature());
+        BigDecimal cpuTemp = new BigDecimal(cpuTemperature);
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        double voltage = sample("cpuVoltage", () -> sensors.getCpuVoltage());
+        BigDecimal cpuVoltage = new BigDecimal(voltage);
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
+        int[] fanSpeeds = sample("fanSpeeds", () -> sensors.getFanSpeeds());
         int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
 
     @Override
     public @Nullable DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        PowerSource powerSource = (PowerSource) getDevice(updatePowerSources(), index);
         double remainingTimeInSeconds = powerSource.getTimeRemaining();
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
         BigDecimal remainingTime = getTimeInMinutes(remainingTimeInSeconds);
@@ -363,10 +437,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        PowerSource powerSource = (PowerSource) getDevice(updatePowerSources(), index);
         double remainingCapacity = powerSource.getRemainingCapacity();
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
         return new DecimalType(remainingCapacityPercents);
@@ -381,7 +452,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = getMemoryAvailableBytes();
         long totalMemory = memory.getTotal();
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
@@ -394,7 +465,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = getMemoryAvailableBytes();
         long totalMemory = memory.getTotal();
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
@@ -437,7 +508,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getSwapAvailable() {
         long swapTotal = memory.getVirtualMemory().getSwapTotal();
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long swapUsed = getSwapUsedBytes();
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return swapAvaialble > 0 ? new DecimalType(swapAvaialble) : null;
@@ -445,14 +516,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsed() {
-        long swapTotal = memory.getVirtualMemory().getSwapUsed();
+        long swapTotal = getSwapUsedBytes();
         swapTotal = getSizeInMB(swapTotal);
         return swapTotal > 0 ? new DecimalType(swapTotal) : null;
     }
 
     @Override
     public @Nullable DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getVirtualMemory().getSwapUsed();
+        long usedSwap = getSwapUsedBytes();
         long totalSwap = memory.getVirtualMemory().getSwapTotal();
         long freeSwap = totalSwap - usedSwap;
         if (totalSwap > 0) {
@@ -466,7 +537,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsedPercent() {
-        long usedSwap = memory.getVirtualMemory().getSwapUsed();
+        long usedSwap = getSwapUsedBytes();
         long totalSwap = memory.getVirtualMemory().getSwapTotal();
         if (totalSwap > 0) {
             double usedPercentDecimal = (double) usedSwap / (double) totalSwap;
@@ -542,7 +613,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        double processorLoads[] = sample("systemLoadAverage", () -> cpu.getSystemLoadAverage(3));
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -569,44 +640,28 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = getUpdatedNetwork(networkIndex);
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = getUpdatedNetwork(networkIndex);
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = getUpdatedNetwork(networkIndex);
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        NetworkIF network = getUpdatedNetwork(networkIndex);
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
@@ -31,6 +31,15 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Creates a snapshot of the system information. Information which has to be queried from the system, like the
+     * file stores, network interfaces or processes, is queried once when it is first requested from the snapshot and
+     * then reused, so that all channels of a refresh cycle are updated from consistent values.
+     *
+     * @return the snapshot, which must only be used by one thread
+     */
+    public SysteminfoInterface createSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.systeminfo.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.junit.Before;
+import org.junit.Test;
+
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+import oshi.software.os.FileSystem;
+import oshi.software.os.OSFileStore;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * Tests that the snapshots of {@link OSHISysteminfo} query the system once per refresh cycle.
+ *
+ * @author agent - Initial contribution
+ */
+public class OSHISysteminfoTest {
+
+    private static final int PID = 42;
+
+    private final HardwareAbstractionLayer hal = mock(HardwareAbstractionLayer.class);
+    private final OperatingSystem operatingSystem = mock(OperatingSystem.class);
+    private final FileSystem fileSystem = mock(FileSystem.class);
+    private final OSFileStore fileStore = mock(OSFileStore.class);
+    private final NetworkIF network = mock(NetworkIF.class);
+    private final OSProcess process = mock(OSProcess.class);
+
+    private final OSHISysteminfo systeminfo = new OSHISysteminfo();
+
+    @Before
+    public void setUp() {
+        when(hal.getNetworkIFs()).thenReturn(new NetworkIF[] { network });
+        when(network.getIPv4addr()).thenReturn(new String[] { "192.168.0.2" });
+        when(operatingSystem.getFileSystem()).thenReturn(fileSystem);
+        when(fileSystem.getFileStores()).thenReturn(new OSFileStore[] { fileStore });
+        when(fileStore.getTotalSpace()).thenReturn(4L * 1024 * 1024);
+        when(fileStore.getUsableSpace()).thenReturn(1L * 1024 * 1024);
+        when(operatingSystem.getProcess(PID)).thenReturn(process);
+        when(process.getName()).thenReturn("java");
+
+        systeminfo.initializeSysteminfo(hal, operatingSystem);
+        clearInvocations(hal, fileSystem, network, operatingSystem);
+    }
+
+    @Test
+    public void snapshotQueriesEachInformationOnce() throws DeviceNotFoundException {
+        SysteminfoInterface snapshot = systeminfo.createSnapshot();
+
+        snapshot.getStorageTotal(0);
+        snapshot.getStorageAvailable(0);
+        snapshot.getStorageUsed(0);
+        snapshot.getStorageUsedPercent(0);
+        snapshot.getNetworkIp(0);
+        snapshot.getNetworkDataSent(0);
+        snapshot.getNetworkDataReceived(0);
+        snapshot.getNetworkPacketsSent(0);
+        snapshot.getNetworkPacketsReceived(0);
+        assertEquals(new StringType("java"), snapshot.getProcessName(PID));
+        snapshot.getProcessMemoryUsage(PID);
+        snapshot.getProcessThreads(PID);
+
+        verify(fileSystem, times(1)).getFileStores();
+        verify(hal, times(1)).getNetworkIFs();
+        verify(network, times(1)).updateAttributes();
+        verify(operatingSystem, times(1)).getProcess(PID);
+    }
+
+    @Test
+    public void everySnapshotQueriesTheSystemAgain() throws DeviceNotFoundException {
+        systeminfo.createSnapshot().getStorageTotal(0);
+        systeminfo.createSnapshot().getStorageTotal(0);
+        systeminfo.createSnapshot().getProcessThreads(PID);
+        systeminfo.createSnapshot().getProcessThreads(PID);
+
+        verify(fileSystem, times(2)).getFileStores();
+        verify(operatingSystem, times(2)).getProcess(PID);
+    }
+
+    @Test
+    public void serviceQueriesTheSystemOnEachRequest() throws DeviceNotFoundException {
+        systeminfo.getStorageTotal(0);
+        systeminfo.getStorageAvailable(0);
+
+        verify(fileSystem, times(2)).getFileStores();
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -37,10 +38,11 @@ class HomekitAccessoryRegistry {
     private @Nullable HomekitRoot bridge;
     private final Map<String, HomekitAccessory> createdAccessories = new HashMap<>();
     private final Set<Integer> createdIds = new HashSet<>();
+    private int configurationRevision = 1;
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
-    public synchronized void remove(String itemName) {
+    public synchronized boolean remove(String itemName) {
         if (createdAccessories.containsKey(itemName)) {
             HomekitAccessory accessory = createdAccessories.remove(itemName);
             logger.debug("Removed accessory {} for taggedItem {}", accessory.getId(), itemName);
@@ -49,7 +51,9 @@ class HomekitAccessoryRegistry {
             } else {
                 logger.warn("trying to remove {} but bridge is null", accessory);
             }
+            return true;
         }
+        return false;
     }
 
     public synchronized void clear() {
@@ -69,6 +73,7 @@ class HomekitAccessoryRegistry {
     public synchronized void setBridge(HomekitRoot bridge) {
         this.bridge = bridge;
         createdAccessories.values().forEach(accessory -> bridge.addAccessory(accessory));
+        applyConfigurationRevision();
     }
 
     public synchronized void unsetBridge() {
@@ -87,4 +92,24 @@ class HomekitAccessoryRegistry {
         }
         logger.debug("Added accessory {}", accessory.getId());
     }
+
+    /**
+     * Sets the configuration revision advertised by the bridge. Controllers reload the accessories of the bridge when
+     * the revision changes, so it must only be changed once a batch of accessory changes is complete.
+     */
+    public synchronized void setConfigurationRevision(int revision) {
+        configurationRevision = revision;
+        applyConfigurationRevision();
+    }
+
+    private void applyConfigurationRevision() {
+        if (bridge != null) {
+            try {
+                bridge.setConfigurationIndex(configurationRevision);
+            } catch (IOException e) {
+                logger.warn("Could not advertise configuration revision {}: {}", configurationRevision,
+                        e.getMessage());
+            }
+        }
+    }
 }
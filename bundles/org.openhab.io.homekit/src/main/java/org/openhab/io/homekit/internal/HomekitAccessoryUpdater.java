@@ -77,6 +77,31 @@ public class HomekitAccessoryUpdater {
         });
     }
 
+    /**
+     * Moves the subscriptions of an item to the instance replacing it in the item registry, so that the clients are
+     * notified until the accessories of the item are rebuilt and no subscription is left on the replaced instance.
+     *
+     * @param oldItem The replaced item instance
+     * @param newItem The item instance now held by the item registry
+     */
+    public void itemReplaced(Item oldItem, Item newItem) {
+        if (oldItem == newItem || !(oldItem instanceof GenericItem) || !(newItem instanceof GenericItem)) {
+            return;
+        }
+        for (ItemKey itemKey : subscriptionsByName.keySet()) {
+            if (itemKey.item != oldItem) {
+                continue;
+            }
+            Subscription subscription = subscriptionsByName.remove(itemKey);
+            if (subscription != null) {
+                logger.debug("Moving subscription for {} / {} to the updated item", newItem, itemKey.key);
+                ((GenericItem) oldItem).removeStateChangeListener(subscription);
+                ((GenericItem) newItem).addStateChangeListener(subscription);
+                subscriptionsByName.put(new ItemKey((GenericItem) newItem, itemKey.key), subscription);
+            }
+        }
+    }
+
     @FunctionalInterface
     private static interface Subscription extends StateChangeListener {
 
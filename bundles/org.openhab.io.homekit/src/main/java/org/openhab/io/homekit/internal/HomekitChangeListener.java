@@ -12,20 +12,30 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.core.storage.Storage;
 import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.openhab.io.homekit.internal.accessories.IncompleteAccessoryException;
 import org.slf4j.Logger;
@@ -37,17 +47,42 @@ import com.beowulfe.hap.HomekitRoot;
  * Listens for changes to the item registry. When changes are detected, check
  * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * Only the accessories affected by a change are rebuilt, and an accessory is only replaced if its definition
+ * actually changed or one of its items was replaced by a new instance, since accessories keep references to their
+ * items. The changes collected during the debounce period are published to the controllers with a single
+ * configuration revision change, which is only advanced if a definition changed.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
+    private static final String CONFIGURATION_REVISION_KEY = "configurationRevision";
+    private static final String CONFIGURATION_DIGEST_KEY = "configurationDigest";
+
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
     private HomekitSettings settings;
+    private final Storage<String> storage;
 
     private Set<String> pendingUpdates = new HashSet<String>();
 
+    /**
+     * Names of the groups tagged as accessory, maintained with the changes of the item registry so that the accessory
+     * groups of a changed item can be found without looking up each of its groups.
+     */
+    private final Set<String> accessoryGroupNames = new HashSet<>();
+
+    /**
+     * Definition of each created root accessory, to skip rebuilding accessories which did not change.
+     */
+    private final Map<String, String> accessorySignatures = new HashMap<>();
+
+    /**
+     * Item instances each created root accessory refers to, to rebuild accessories whose items were replaced.
+     */
+    private final Map<String, List<Item>> accessoryItems = new HashMap<>();
+
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
 
@@ -61,27 +96,44 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      */
     private final Debouncer applyUpdatesDebouncer;
 
-    HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings) {
+    HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings, Storage<String> storage) {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
+        this.storage = storage;
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().stream().map(item -> new HomekitTaggedItem(item, itemRegistry))
-                .filter(taggedItem -> taggedItem.isAccessory())
-                .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
-                .forEach(rootTaggedItem -> createRootAccessory(rootTaggedItem));
+        synchronized (this) {
+            Collection<Item> items = itemRegistry.getAll();
+            items.forEach(this::index);
+            items.stream().map(item -> new HomekitTaggedItem(item, itemRegistry))
+                    .filter(taggedItem -> taggedItem.isAccessory())
+                    .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
+                    .forEach(rootTaggedItem -> createRootAccessory(rootTaggedItem));
+            publishConfiguration();
+        }
     }
 
     @Override
     public synchronized void added(Item item) {
+        index(item);
         markDirty(item);
     }
 
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
         clearAccessories();
+        accessoryGroupNames.clear();
+        itemRegistry.getAll().forEach(this::index);
+    }
+
+    private void index(Item item) {
+        if (item instanceof GroupItem && HomekitTaggedItem.isAccessoryGroup((GroupItem) item)) {
+            accessoryGroupNames.add(item.getName());
+        } else {
+            accessoryGroupNames.remove(item.getName());
+        }
     }
 
     /**
@@ -93,11 +145,13 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private synchronized void markDirty(Item item) {
         pendingUpdates.add(item.getName());
         /*
-         * If findMyAccessoryGroups fails because the accessory group has already been deleted, then we can count on a
-         * later update telling us that the accessory group was removed.
+         * If the accessory group has already been deleted, then we can count on a later update telling us that the
+         * accessory group was removed.
          */
-        for (Item accessoryGroup : HomekitTaggedItem.findMyAccessoryGroups(item, itemRegistry)) {
-            pendingUpdates.add(accessoryGroup.getName());
+        for (String groupName : item.getGroupNames()) {
+            if (accessoryGroupNames.contains(groupName)) {
+                pendingUpdates.add(groupName);
+            }
         }
 
         applyUpdatesDebouncer.call();
@@ -106,6 +160,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     @Override
     public synchronized void removed(Item item) {
         markDirty(item);
+        accessoryGroupNames.remove(item.getName());
     }
 
     private Optional<Item> getItemOptional(String name) {
@@ -116,27 +171,137 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
-    private synchronized void applyUpdates() {
-        Iterator<String> iter = pendingUpdates.iterator();
+    synchronized void applyUpdates() {
+        Set<String> updates = pendingUpdates;
+        pendingUpdates = new HashSet<>();
 
-        while (iter.hasNext()) {
-            String name = iter.next();
-            accessoryRegistry.remove(name);
+        int changes = 0;
+        for (String name : updates) {
+            Optional<HomekitTaggedItem> rootItem = getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
+                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup());
+            String signature = rootItem.map(this::getSignature).orElse(null);
+            if (signature != null && signature.equals(accessorySignatures.get(name))
+                    && isSameInstances(getAccessoryItems(rootItem.get()), accessoryItems.get(name))) {
+                logger.trace("Homekit device {} did not change", name);
+                continue;
+            }
 
-            getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
-                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup())
-                    .ifPresent(rootItem -> createRootAccessory(rootItem));
+            if (accessoryRegistry.remove(name)) {
+                changes++;
+            }
+            accessorySignatures.remove(name);
+            accessoryItems.remove(name);
+            if (rootItem.isPresent() && createRootAccessory(rootItem.get())) {
+                changes++;
+            }
+        }
+
+        if (changes > 0) {
+            logger.debug("Applied {} homekit device changes", changes);
+            publishConfiguration();
+        }
+    }
+
+    /**
+     * Describes everything an accessory is created from: the root item and those members of an accessory group which
+     * are tagged.
+     */
+    private String getSignature(HomekitTaggedItem taggedItem) {
+        StringBuilder signature = new StringBuilder();
+        for (Item item : getAccessoryItems(taggedItem)) {
+            signature.append(item.getName()).append('|').append(item.getType()).append('|').append(item.getLabel())
+                    .append('|').append(item.getCategory()).append('|').append(new TreeSet<>(item.getTags()))
+                    .append(';');
+        }
+        return signature.toString();
+    }
+
+    private static boolean isSameInstances(List<Item> items, List<Item> otherItems) {
+        if (otherItems == null || items.size() != otherItems.size()) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != otherItems.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Item> getAccessoryItems(HomekitTaggedItem taggedItem) {
+        List<Item> items = new ArrayList<>();
+        items.add(taggedItem.getItem());
+        if (taggedItem.getItem() instanceof GroupItem) {
+            ((GroupItem) taggedItem.getItem()).getMembers().stream().filter(member -> !member.getTags().isEmpty())
+                    .sorted((a, b) -> a.getName().compareTo(b.getName())).forEach(items::add);
+        }
+        return items;
+    }
+
+    /**
+     * Advances the configuration revision of the bridge if the accessories differ from the last published ones. The
+     * revision is persisted, so that controllers also notice changes made while openHAB was not running.
+     */
+    private void publishConfiguration() {
+        String digest = getConfigurationDigest();
+        int revision = getStoredConfigurationRevision();
+        if (!digest.equals(storage.get(CONFIGURATION_DIGEST_KEY))) {
+            // HAP limits the configuration number to 1..65535
+            revision = revision % 65535 + 1;
+            storage.put(CONFIGURATION_REVISION_KEY, Integer.toString(revision));
+            storage.put(CONFIGURATION_DIGEST_KEY, digest);
+            logger.debug("Publishing homekit configuration revision {}", revision);
+        }
+        accessoryRegistry.setConfigurationRevision(revision);
+    }
+
+    /**
+     * Calculates a SHA-256 digest of the signatures of all accessories, sorted by their names so that it does not
+     * depend on the order in which the accessories were created.
+     */
+    private String getConfigurationDigest() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, String> entry : new TreeMap<>(accessorySignatures).entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private int getStoredConfigurationRevision() {
+        String revision = storage.get(CONFIGURATION_REVISION_KEY);
+        try {
+            return revision == null ? 1 : Integer.parseInt(revision);
+        } catch (NumberFormatException e) {
+            return 1;
         }
     }
 
     @Override
-    public void updated(Item oldElement, Item element) {
+    public synchronized void updated(Item oldElement, Item element) {
+        // the accessories of the replaced item are rebuilt, the subscriptions are moved so they are not left behind
+        updater.itemReplaced(oldElement, element);
         markDirty(oldElement);
+        index(element);
         markDirty(element);
     }
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        accessorySignatures.clear();
+        accessoryItems.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -159,19 +324,23 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.itemRegistry.removeRegistryChangeListener(this);
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private boolean createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
             if (taggedItem.isMemberOfAccessoryGroup()) {
                 logger.warn("Bug! Cannot add {} as a root accessory if it is a member of a group! ",
                         taggedItem.getItem().getUID());
-                return;
+                return false;
             }
             logger.debug("Adding homekit device {}", taggedItem.getItem().getUID());
             accessoryRegistry.addRootAccessory(taggedItem.getName(),
                     HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
+            accessorySignatures.put(taggedItem.getName(), getSignature(taggedItem));
+            accessoryItems.put(taggedItem.getName(), getAccessoryItems(taggedItem));
             logger.debug("Added homekit device {}", taggedItem.getItem().getUID());
+            return true;
         } catch (HomekitException | IncompleteAccessoryException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return false;
         }
     }
 }
@@ -68,7 +68,7 @@ public class HomekitImpl implements Homekit {
         this.storageService = storageService;
         this.networkAddressService = networkAddressService;
         this.settings = processConfig(config);
-        this.changeListener = new HomekitChangeListener(itemRegistry, settings);
+        this.changeListener = new HomekitChangeListener(itemRegistry, settings, storageService.getStorage("homekit"));
         startHomekitServer();
     }
 
@@ -190,8 +190,13 @@ public class HomekitTaggedItem {
             } else {
                 return Stream.empty();
             }
-        }).filter(groupItem -> {
-            return groupItem.getTags().stream().filter(gt -> HomekitAccessoryType.valueOfTag(gt) != null).count() > 0;
-        }).collect(Collectors.toList());
+        }).filter(HomekitTaggedItem::isAccessoryGroup).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns whether or not the group is tagged as a Homekit accessory.
+     */
+    public static boolean isAccessoryGroup(GroupItem groupItem) {
+        return groupItem.getTags().stream().anyMatch(gt -> HomekitAccessoryType.valueOfTag(gt) != null);
     }
 }
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemNotFoundException;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.storage.Storage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
+import com.beowulfe.hap.HomekitRoot;
+
+/**
+ * Tests the {@link HomekitChangeListener} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitChangeListenerTest {
+
+    @Mock
+    private ItemRegistry itemRegistry;
+
+    @Mock
+    private Storage<String> storage;
+
+    @Mock
+    private HomekitRoot bridge;
+
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, String> stored = new HashMap<>();
+    private final List<HomekitChangeListener> listeners = new ArrayList<>();
+
+    @Before
+    public void setUp() throws ItemNotFoundException {
+        initMocks(this);
+        when(itemRegistry.getAll()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(itemRegistry.get(anyString())).thenAnswer(invocation -> items.get(invocation.getArgument(0)));
+        when(itemRegistry.getItem(anyString())).thenAnswer(invocation -> {
+            Item item = items.get(invocation.getArgument(0));
+            if (item == null) {
+                throw new ItemNotFoundException((String) invocation.getArgument(0));
+            }
+            return item;
+        });
+        when(storage.get(anyString())).thenAnswer(invocation -> stored.get(invocation.getArgument(0)));
+        when(storage.put(anyString(), anyString()))
+                .thenAnswer(invocation -> stored.put(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @After
+    public void tearDown() {
+        listeners.forEach(HomekitChangeListener::stop);
+    }
+
+    private HomekitChangeListener createListener() {
+        HomekitChangeListener listener = new HomekitChangeListener(itemRegistry, new HomekitSettings(), storage);
+        listeners.add(listener);
+        return listener;
+    }
+
+    private SwitchItem createLight(String name, String label) {
+        SwitchItem item = new SwitchItem(name);
+        item.setLabel(label);
+        item.addTag("Lighting");
+        items.put(name, item);
+        return item;
+    }
+
+    @Test
+    public void unchangedItemKeepsAccessory() {
+        SwitchItem item = createLight("Light", "Light");
+        HomekitChangeListener listener = createListener();
+        listener.setBridge(bridge);
+        verify(bridge, times(1)).addAccessory(any());
+
+        listener.updated(item, item);
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).addAccessory(any());
+        verify(bridge, never()).removeAccessory(any());
+    }
+
+    @Test
+    public void replacedItemWithSameDefinitionRebuildsAccessoryWithSameRevision() {
+        SwitchItem oldItem = createLight("Light", "Light");
+        HomekitChangeListener listener = createListener();
+        listener.setBridge(bridge);
+        String revision = stored.get("configurationRevision");
+
+        // accessories keep the item instance, so they must not refer to the replaced one
+        listener.updated(oldItem, createLight("Light", "Light"));
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).removeAccessory(any());
+        verify(bridge, times(2)).addAccessory(any());
+        assertEquals(revision, stored.get("configurationRevision"));
+    }
+
+    @Test
+    public void changedDefinitionRebuildsAccessory() {
+        SwitchItem oldItem = createLight("Light", "Light");
+        HomekitChangeListener listener = createListener();
+        listener.setBridge(bridge);
+        String digest = stored.get("configurationDigest");
+        int revision = Integer.parseInt(stored.get("configurationRevision"));
+
+        listener.updated(oldItem, createLight("Light", "Ceiling light"));
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).removeAccessory(any());
+        verify(bridge, times(2)).addAccessory(any());
+        assertEquals(Integer.toString(revision + 1), stored.get("configurationRevision"));
+        assertNotEquals(digest, stored.get("configurationDigest"));
+    }
+
+    @Test
+    public void digestIsSha256AndIndependentOfTheItemOrder() {
+        createLight("Kitchen", "Kitchen");
+        createLight("Bedroom", "Bedroom");
+        createListener();
+        String digest = stored.get("configurationDigest");
+        String revision = stored.get("configurationRevision");
+        assertTrue(digest.matches("[0-9a-f]{64}"));
+
+        List<Item> reversed = new ArrayList<>(items.values());
+        Collections.reverse(reversed);
+        when(itemRegistry.getAll()).thenReturn(reversed);
+        createListener();
+
+        assertEquals(digest, stored.get("configurationDigest"));
+        assertEquals(revision, stored.get("configurationRevision"));
+    }
+
+    @Test
+    public void subscriptionsMoveToTheReplacingItem() {
+        SwitchItem oldItem = createLight("Light", "Light");
+        SwitchItem newItem = createLight("Light", "Light");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+        updater.subscribe(oldItem, callback);
+
+        updater.itemReplaced(oldItem, newItem);
+        oldItem.setState(OnOffType.ON);
+        newItem.setState(OnOffType.ON);
+
+        verify(callback, after(500).times(1)).changed();
+    }
+}
@@ -13,14 +13,17 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.items.StringItem;
+import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.StateUtils;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
@@ -74,6 +77,31 @@ public class HueLightEntry {
 
     public Capabilities capabilities = new Capabilities();
 
+    /** The last serialization, reused as long as the item, its state and label do not change */
+    private transient volatile @Nullable Serialized serialized;
+
+    /**
+     * A serialization of this entry, together with the values it has been created from
+     */
+    private static class Serialized {
+        final GenericItem item;
+        final State itemState;
+        final @Nullable String label;
+        final JsonElement element;
+        @Nullable String json;
+
+        Serialized(GenericItem item, State itemState, @Nullable String label, JsonElement element) {
+            this.item = item;
+            this.itemState = itemState;
+            this.label = label;
+            this.element = element;
+        }
+
+        boolean isValidFor(GenericItem item) {
+            return this.item == item && itemState.equals(item.getState()) && Objects.equals(label, item.getLabel());
+        }
+    }
+
     private HueLightEntry() {
         this(new StringItem(""), "", DeviceType.SwitchType);
     }
@@ -165,18 +193,57 @@ public class HueLightEntry {
 
         @Override
         public JsonElement serialize(HueLightEntry product, Type type, JsonSerializationContext context) {
+            Serialized serialized = product.serialized;
+            if (serialized != null && serialized.isValidFor(product.item)) {
+                return serialized.element;
+            }
 
-            product.state = StateUtils.colorStateFromItemState(product.item.getState(), product.deviceType);
-            String label = product.item.getLabel();
+            GenericItem item = product.item;
+            State itemState = item.getState();
+            product.state = StateUtils.colorStateFromItemState(itemState, product.deviceType);
+            String label = item.getLabel();
             if (label != null) {
                 product.name = label;
             }
 
             JsonElement jsonSubscription = context.serialize(product, HueDeviceHelper.class);
+            product.serialized = new Serialized(item, itemState, label, jsonSubscription);
             return jsonSubscription;
         }
     }
 
+    /**
+     * Serializes this entry. The result is cached and only recomputed if the item,
+     * its state or its label changed or {@link #invalidate()} has been called.
+     *
+     * @param gson The gson instance with the {@link Serializer} registered
+     * @return The JSON representation of this entry
+     */
+    public String toJson(Gson gson) {
+        Serialized serialized = this.serialized;
+        if (serialized == null || !serialized.isValidFor(item)) {
+            gson.toJsonTree(this);
+            serialized = this.serialized;
+            if (serialized == null) {
+                // No serializer registered
+                return gson.toJson(this);
+            }
+        }
+        String json = serialized.json;
+        if (json == null) {
+            json = gson.toJson(serialized.element);
+            serialized.json = json;
+        }
+        return json;
+    }
+
+    /**
+     * Drops the cached serialization, for example if the configuration of the item changed.
+     */
+    public void invalidate() {
+        serialized = null;
+    }
+
     /**
      * Replaces the associated openHAB item of this hue device with the given once
      * and also synchronizes/updates the color information of this hue device with the item.
@@ -184,6 +251,7 @@ public class HueLightEntry {
      * @param element A replace item
      */
     public void updateItem(GenericItem element) {
+        invalidate();
         item = element;
         state = StateUtils.colorStateFromItemState(item.getState(), deviceType);
 
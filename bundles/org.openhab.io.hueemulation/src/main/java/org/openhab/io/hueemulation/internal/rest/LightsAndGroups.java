@@ -14,6 +14,7 @@ package org.openhab.io.hueemulation.internal.rest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,8 +27,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -242,12 +246,33 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        // Assemble the response from the cached serializations of the lights
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, HueLightEntry> light : cs.ds.lights.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(cs.gson.toJson(light.getKey())).append(':').append(light.getValue().toJson(cs.gson));
+        }
+        return conditionalResponse(request, json.append('}').toString());
+    }
+
+    /**
+     * Hue clients poll the lights several times per second. Answer with "304 Not Modified"
+     * if the client already has the current state.
+     */
+    private Response conditionalResponse(Request request, String json) {
+        EntityTag etag = new EntityTag(Integer.toHexString(json.hashCode()));
+        ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(json).tag(etag).build();
     }
 
     @GET
@@ -278,13 +303,17 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights/{id}")
     @ApiOperation(value = "Return a light")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getLightApi(@Context UriInfo uri, //
+    public Response getLightApi(@Context UriInfo uri, @Context Request request, //
             @PathParam("username") @ApiParam(value = "username") String username,
             @PathParam("id") @ApiParam(value = "light id") String id) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        if (hueDevice == null) {
+            return Response.ok(cs.gson.toJson(null)).build();
+        }
+        return conditionalResponse(request, hueDevice.toJson(cs.gson));
     }
 
     @SuppressWarnings({ "null", "unused" })
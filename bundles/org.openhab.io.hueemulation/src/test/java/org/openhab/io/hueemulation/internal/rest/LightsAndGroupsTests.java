@@ -328,6 +328,33 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void cachedLightsFollowItemState() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/1").request().get();
+        assertThat(response.readEntity(String.class), containsString("\"on\":false"));
+
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/1").request().get();
+        assertThat(response.readEntity(String.class), containsString("\"on\":true"));
+    }
+
+    @Test
+    public void conditionalGetOfAllLights() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        String etag = response.getHeaderString("ETag");
+        assertThat(etag, is(notNullValue()));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(304, response.getStatus());
+
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(200, response.getStatus());
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
@@ -12,6 +12,7 @@
  */
 package org.openhab.io.openhabcloud.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -19,6 +20,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -27,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
@@ -37,9 +40,9 @@ import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -67,6 +70,13 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    /*
+     * Maximum number of items with item updates waiting for the connection
+     */
+    private static final int MAX_QUEUED_ITEM_UPDATES = 1000;
+
     /*
      * Logger for this class
      */
@@ -131,6 +141,16 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * This variable holds the coalescing queue of item updates sent to the openHAB Cloud
+     */
+    private final ItemUpdateUplink itemUpdateUplink;
+
+    /*
+     * This variable holds the cache of static resources proxied to the openHAB Cloud
+     */
+    private final StaticResourceCache staticResourceCache = new StaticResourceCache();
+
     /**
      * Constructor of CloudClient
      *
@@ -138,9 +158,10 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateWindow Time in milliseconds item updates are collected before they are sent
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, long itemUpdateWindow) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -149,6 +170,9 @@ public class CloudClient {
         this.exposedItems = exposedItems;
         runningRequests = new HashMap<Integer, Request>();
         this.jettyClient = httpClient;
+        this.itemUpdateUplink = new ItemUpdateUplink(this::emitItemUpdate,
+                ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD), itemUpdateWindow,
+                MAX_QUEUED_ITEM_UPDATES);
     }
 
     /**
@@ -231,6 +255,8 @@ public class CloudClient {
     public void onConnect() {
         logger.info("Connected to the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid, this.localBaseUrl);
         isConnected = true;
+        // Send the item updates queued while disconnected
+        ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).execute(itemUpdateUplink::flush);
     }
 
     /**
@@ -321,8 +347,27 @@ public class CloudClient {
             }
             request.header("X-Forwarded-Proto", proto);
 
+            String acceptEncoding = getRequestHeader(requestHeadersJson, "Accept-Encoding");
+            boolean acceptsGzip = StringUtils.containsIgnoreCase(acceptEncoding, "gzip");
+            String cacheKey = null;
+            StaticResourceCache.Entry cachedEntry = null;
+
             if (requestMethod.equals("GET")) {
                 request.method(HttpMethod.GET);
+                if (StaticResourceCache.isStaticResource(requestPath)
+                        && getRequestHeader(requestHeadersJson, "Range") == null) {
+                    cacheKey = newPath;
+                    // Revalidate a cached response, unless the client does so itself
+                    if (getRequestHeader(requestHeadersJson, "If-None-Match") == null
+                            && getRequestHeader(requestHeadersJson, "If-Modified-Since") == null) {
+                        cachedEntry = staticResourceCache.get(cacheKey);
+                        if (cachedEntry != null && cachedEntry.getETag() != null) {
+                            request.header(HttpHeader.IF_NONE_MATCH, cachedEntry.getETag());
+                        } else if (cachedEntry != null) {
+                            request.header(HttpHeader.IF_MODIFIED_SINCE, cachedEntry.getLastModified());
+                        }
+                    }
+                }
             } else if (requestMethod.equals("POST")) {
                 request.method(HttpMethod.POST);
                 request.content(new BytesContentProvider(requestBody.getBytes()));
@@ -334,7 +379,7 @@ public class CloudClient {
                 logger.warn("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
+            ResponseListener listener = new ResponseListener(requestId, acceptsGzip, cacheKey, cachedEntry);
             request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
             // If successfully submitted request to http client, add it to the list of currently
             // running requests to be able to cancel it if needed
@@ -363,6 +408,18 @@ public class CloudClient {
         }
     }
 
+    private String getRequestHeader(JSONObject requestHeadersJson, String headerName) {
+        @SuppressWarnings("unchecked")
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            String name = headersIterator.next();
+            if (name.equalsIgnoreCase(headerName)) {
+                return requestHeadersJson.optString(name, null);
+            }
+        }
+        return null;
+    }
+
     private void handleCancelEvent(JSONObject data) {
         try {
             int requestId = data.getInt("id");
@@ -469,26 +526,64 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. Updates are collected for the item update window
+     * and only the latest state of an item is sent. While there is no connection, updates
+     * are queued.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
-        if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
-            JSONObject itemUpdateMessage = new JSONObject();
-            try {
-                itemUpdateMessage.put("itemName", itemName);
-                itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
-            } catch (JSONException e) {
-                logger.debug("{}", e.getMessage());
-            }
-        } else {
-            logger.debug("No connection, Item update is not sent");
+        itemUpdateUplink.update(itemName, itemState);
+    }
+
+    /*
+     * Emits a single item update, returns false if there is no connection
+     */
+    private boolean emitItemUpdate(String itemName, String itemState) {
+        if (!isConnected()) {
+            logger.debug("No connection, Item update is queued");
+            return false;
+        }
+        logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
+        JSONObject itemUpdateMessage = new JSONObject();
+        try {
+            itemUpdateMessage.put("itemName", itemName);
+            itemUpdateMessage.put("itemStatus", itemState);
+            socket.emit("itemupdate", itemUpdateMessage);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
         }
+        return true;
+    }
+
+    /**
+     * Returns the number of item updates sent to the openHAB Cloud
+     */
+    public long getSentItemUpdates() {
+        return itemUpdateUplink.getSentUpdates();
+    }
+
+    /**
+     * Returns the number of item updates replaced by a newer state before they were sent
+     */
+    public long getCoalescedItemUpdates() {
+        return itemUpdateUplink.getCoalescedUpdates();
+    }
+
+    /**
+     * Returns the number of item updates dropped while there was no connection
+     */
+    public long getDroppedItemUpdates() {
+        return itemUpdateUplink.getDroppedUpdates();
+    }
+
+    /**
+     * Returns the number of items with item updates waiting to be sent
+     */
+    public int getQueuedItemUpdates() {
+        return itemUpdateUplink.getQueueSize();
     }
 
     /**
@@ -503,6 +598,10 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        logger.debug("Item updates sent: {}, coalesced: {}, dropped: {}", getSentItemUpdates(),
+                getCoalescedItemUpdates(), getDroppedItemUpdates());
+        itemUpdateUplink.shutdown();
+        staticResourceCache.clear();
         socket.disconnect();
     }
 
@@ -524,20 +623,42 @@ public class CloudClient {
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
-
-        public ResponseListener(int requestId) {
+        private final boolean mAcceptsGzip;
+        private final String mCacheKey;
+        private final StaticResourceCache.Entry mCachedEntry;
+        private ResponseStreamer mStreamer;
+        private boolean mServedFromCache = false;
+        private HttpFields mCaptureHeaders;
+        private ByteArrayOutputStream mCapture;
+
+        public ResponseListener(int requestId, boolean acceptsGzip, String cacheKey,
+                StaticResourceCache.Entry cachedEntry) {
             mRequestId = requestId;
+            mAcceptsGzip = acceptsGzip;
+            mCacheKey = cacheKey;
+            mCachedEntry = cachedEntry;
         }
 
-        private JSONObject getJSONHeaders(HttpFields httpFields) {
+        private JSONObject getJSONHeaders(HttpFields httpFields, boolean compressed) {
             JSONObject headersJSON = new JSONObject();
+            List<String> varyValues = new ArrayList<>();
             try {
                 for (HttpField field : httpFields) {
+                    if (compressed && field.getHeader() == HttpHeader.CONTENT_LENGTH) {
+                        continue;
+                    }
+                    if (compressed && field.getHeader() == HttpHeader.VARY) {
+                        varyValues.add(field.getValue());
+                        continue;
+                    }
                     headersJSON.put(field.getName(), field.getValue());
                 }
+                if (compressed) {
+                    headersJSON.put(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+                    headersJSON.put(HttpHeader.VARY.asString(), ResponseStreamer.getCompressedVary(varyValues));
+                }
             } catch (JSONException e) {
                 logger.warn("Error forming response headers: {}", e.getMessage());
             }
@@ -561,6 +682,19 @@ public class CloudClient {
                 }
             }
 
+            // Send the remaining content before the response is finished
+            if (mStreamer != null) {
+                try {
+                    mStreamer.finish();
+                } catch (IOException e) {
+                    logger.debug("{}", e.getMessage());
+                }
+            }
+            if (mCapture != null && result != null && !result.isFailed()) {
+                staticResourceCache.put(mCacheKey,
+                        new StaticResourceCache.Entry(mCaptureHeaders, mCapture.toByteArray()));
+            }
+
             /**
              * What is this? In some cases where latency is very low the myopenhab service
              * can receive responseFinished before the headers or content are received and I
@@ -593,12 +727,38 @@ public class CloudClient {
         @Override
         public void onContent(Response response, ByteBuffer content) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+            if (mServedFromCache) {
+                return;
+            }
+            if (mCapture != null) {
+                if (mCapture.size() + content.remaining() > StaticResourceCache.MAX_ENTRY_SIZE) {
+                    mCapture = null;
+                } else {
+                    byte[] bytes = new byte[content.remaining()];
+                    content.duplicate().get(bytes);
+                    mCapture.write(bytes, 0, bytes.length);
+                }
+            }
+            try {
+                if (mStreamer == null) {
+                    mStreamer = new ResponseStreamer(this::sendContent, false, false);
+                }
+                mStreamer.write(content);
+            } catch (IOException e) {
+                logger.debug("{}", e.getMessage());
+            }
+        }
+
+        /*
+         * Sends a frame of the response body to the openHAB Cloud
+         */
+        private void sendContent(byte[] frame) {
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
+                responseJson.put("body", frame);
                 socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
+                logger.debug("Sent {} bytes of content to request {}", frame.length, mRequestId);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
@@ -608,17 +768,40 @@ public class CloudClient {
         public void onHeaders(Response response) {
             if (!mHeadersSent) {
                 logger.debug("Jetty finished receiving response header");
-                JSONObject responseJson = new JSONObject();
                 mHeadersSent = true;
+                HttpFields headers = response.getHeaders();
+                int status = response.getStatus();
+                if (mCachedEntry != null && status == HttpStatus.NOT_MODIFIED_304) {
+                    // The cached response is still valid, send it instead of the response to the revalidation
+                    logger.debug("Serving request {} from the static resource cache", mRequestId);
+                    mServedFromCache = true;
+                    headers = mCachedEntry.getHeaders();
+                    status = HttpStatus.OK_200;
+                } else if (mCacheKey != null && status == HttpStatus.OK_200
+                        && StaticResourceCache.isCacheable(headers)) {
+                    mCaptureHeaders = new HttpFields(headers);
+                    mCapture = new ByteArrayOutputStream();
+                }
+
+                String contentType = headers.get(HttpHeader.CONTENT_TYPE);
+                boolean compressed = mAcceptsGzip && status == HttpStatus.OK_200
+                        && headers.get(HttpHeader.CONTENT_ENCODING) == null
+                        && ResponseStreamer.isCompressible(contentType);
+                JSONObject responseJson = new JSONObject();
                 try {
+                    mStreamer = new ResponseStreamer(this::sendContent, compressed,
+                            ResponseStreamer.isStreamed(contentType));
                     responseJson.put("id", mRequestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
-                    responseJson.put("responseStatusCode", response.getStatus());
+                    responseJson.put("headers", getJSONHeaders(headers, compressed));
+                    responseJson.put("responseStatusCode", status);
                     responseJson.put("responseStatusText", "OK");
                     socket.emit("responseHeader", responseJson);
                     logger.debug("Sent headers to request {}", mRequestId);
                     logger.debug("{}", responseJson.toString());
-                } catch (JSONException e) {
+                    if (mServedFromCache) {
+                        mStreamer.write(mCachedEntry.getBody());
+                    }
+                } catch (JSONException | IOException e) {
                     logger.debug("{}", e.getMessage());
                 }
             } else {
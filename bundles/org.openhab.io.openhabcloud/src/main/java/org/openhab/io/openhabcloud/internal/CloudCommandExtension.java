@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for the openHAB Cloud connector
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class CloudCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATUS = "status";
+
+    private CloudService cloudService;
+
+    public CloudCommandExtension() {
+        super("openhabcloud", "Interact with the openHAB Cloud connector.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_STATUS:
+                    printStatus(console);
+                    break;
+
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATUS,
+                "shows the connection state and the counters of the item updates sent to the openHAB Cloud"));
+    }
+
+    @Reference
+    public void setCloudService(CloudService cloudService) {
+        this.cloudService = cloudService;
+    }
+
+    public void unsetCloudService(CloudService cloudService) {
+        this.cloudService = null;
+    }
+
+    private void printStatus(Console console) {
+        CloudClient cloudClient = cloudService.getCloudClient();
+        if (cloudClient == null) {
+            console.println("The openHAB Cloud connector is not started");
+            return;
+        }
+        console.println("Connected: " + cloudClient.isConnected());
+        console.println("Item updates sent: " + cloudClient.getSentItemUpdates());
+        console.println("Item updates coalesced: " + cloudClient.getCoalescedItemUpdates());
+        console.println("Item updates dropped: " + cloudClient.getDroppedItemUpdates());
+        console.println("Items with queued updates: " + cloudClient.getQueuedItemUpdates());
+    }
+}
@@ -19,6 +19,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -71,7 +72,7 @@ import org.slf4j.LoggerFactory;
  * @author Victor Belov - Initial contribution
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  */
-@Component(immediate = true, service = { EventSubscriber.class,
+@Component(immediate = true, service = { CloudService.class, EventSubscriber.class,
         ActionService.class }, configurationPid = "org.openhab.openhabcloud", property = {
                 Constants.SERVICE_PID + "=org.openhab.openhabcloud",
                 ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=io:openhabcloud",
@@ -82,6 +83,8 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindow";
+    private static final long DEFAULT_ITEM_UPDATE_WINDOW = 1000;
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
@@ -99,11 +102,19 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
+    private long itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
     private int localPort;
 
     public CloudService() {
     }
 
+    /**
+     * Returns the client of the connection to the openHAB Cloud, or null if the service is not started
+     */
+    public CloudClient getCloudClient() {
+        return cloudClient;
+    }
+
     /**
      * This method sends notification message to mobile app through the openHAB Cloud service
      *
@@ -218,6 +229,16 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
+        Object windowCfg = config.get(CFG_ITEM_UPDATE_WINDOW);
+        if (windowCfg != null) {
+            try {
+                itemUpdateWindow = new BigDecimal(windowCfg.toString().trim()).longValue();
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid item update window '{}', using {} ms", windowCfg, DEFAULT_ITEM_UPDATE_WINDOW);
+            }
+        }
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
         if (cloudClient != null) {
@@ -237,7 +258,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, itemUpdateWindow);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
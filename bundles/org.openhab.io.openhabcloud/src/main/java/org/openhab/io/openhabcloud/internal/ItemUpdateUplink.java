@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class coalesces item updates that are sent to the openHAB Cloud.
+ * Updates are collected for a time window and only the latest state of each item
+ * is sent at the end of the window. While there is no connection, updates are kept
+ * up to a maximum number of items, the updates of the items not updated for the
+ * longest time are dropped first.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemUpdateUplink {
+
+    /*
+     * Sends a single item update, returns false if it could not be sent
+     */
+    public interface Sender {
+        boolean send(String itemName, String itemState);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateUplink.class);
+
+    private final Sender sender;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxQueueSize;
+
+    /*
+     * Latest pending state per item, the item updated least recently first. Guarded by this.
+     */
+    private final LinkedHashMap<String, String> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    private final Object flushLock = new Object();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor of ItemUpdateUplink
+     *
+     * @param sender sends the updates to the openHAB Cloud
+     * @param scheduler executor for sending the updates at the end of the window
+     * @param windowMillis time in milliseconds updates are collected, 0 to send them immediately
+     * @param maxQueueSize maximum number of items with pending updates
+     */
+    public ItemUpdateUplink(Sender sender, ScheduledExecutorService scheduler, long windowMillis, int maxQueueSize) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+    }
+
+    /**
+     * Queue an item update. A pending update of the same item is replaced.
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public void update(String itemName, String itemState) {
+        synchronized (this) {
+            // re-insert, so that the item becomes the most recently updated one
+            if (pending.remove(itemName) != null) {
+                coalesced.incrementAndGet();
+            }
+            pending.put(itemName, itemState);
+            if (pending.size() > maxQueueSize) {
+                Iterator<String> eldest = pending.keySet().iterator();
+                logger.debug("Item update queue is full, dropping update for item '{}'", eldest.next());
+                eldest.remove();
+                dropped.incrementAndGet();
+            }
+            if (windowMillis > 0) {
+                if (flushJob == null) {
+                    flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Send all pending updates. Updates which could not be sent are kept for the next flush.
+     */
+    public void flush() {
+        // one flush at a time, so that updates of an item are sent in order
+        synchronized (flushLock) {
+            Map<String, String> batch;
+            synchronized (this) {
+                flushJob = null;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+
+            int count = 0;
+            Iterator<Map.Entry<String, String>> iterator = batch.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, String> entry = iterator.next();
+                if (!sender.send(entry.getKey(), entry.getValue())) {
+                    break;
+                }
+                iterator.remove();
+                count++;
+            }
+            sent.addAndGet(count);
+
+            if (!batch.isEmpty()) {
+                requeue(batch);
+            }
+            logger.debug("Sent {} item updates to the openHAB Cloud, {} pending", count, batch.size());
+        }
+    }
+
+    /*
+     * Put updates back which could not be sent. Updates received in the meantime are newer and win.
+     */
+    private synchronized void requeue(Map<String, String> batch) {
+        LinkedHashMap<String, String> newer = new LinkedHashMap<>(pending);
+        pending.clear();
+        batch.forEach((itemName, itemState) -> {
+            if (!newer.containsKey(itemName)) {
+                pending.put(itemName, itemState);
+            }
+        });
+        pending.putAll(newer);
+        while (pending.size() > maxQueueSize) {
+            Iterator<String> eldest = pending.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stop sending updates and discard all pending updates
+     */
+    public synchronized void shutdown() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            flushJob = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Returns the number of updates sent to the openHAB Cloud
+     */
+    public long getSentUpdates() {
+        return sent.get();
+    }
+
+    /**
+     * Returns the number of updates replaced by a newer state of the same item before they were sent
+     */
+    public long getCoalescedUpdates() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of updates dropped because the queue was full
+     */
+    public long getDroppedUpdates() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of items with pending updates
+     */
+    public synchronized int getQueueSize() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class streams the body of a proxied response to the openHAB Cloud.
+ * Content chunks are aggregated into frames of a fixed size instead of sending
+ * every chunk on its own, and are optionally compressed with gzip.
+ *
+ * @author agent - Initial contribution
+ */
+public class ResponseStreamer {
+
+    /*
+     * Size of the frames sent to the openHAB Cloud
+     */
+    static final int FRAME_SIZE = 64 * 1024;
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private final FrameOutputStream frames;
+    private final OutputStream out;
+    private final boolean flushEachChunk;
+    private byte[] transferBuffer;
+
+    /**
+     * Constructor of ResponseStreamer
+     *
+     * @param frameSink receives the frames to send
+     * @param gzip compress the content with gzip
+     * @param flushEachChunk send every chunk immediately, for streamed responses like server-sent events
+     */
+    public ResponseStreamer(Consumer<byte[]> frameSink, boolean gzip, boolean flushEachChunk) throws IOException {
+        this.frames = new FrameOutputStream(frameSink, FRAME_SIZE);
+        this.out = gzip ? new GZIPOutputStream(frames, 8192, true) : frames;
+        this.flushEachChunk = flushEachChunk;
+    }
+
+    /**
+     * Returns true if content of the given content type benefits from compression
+     *
+     * @param contentType value of the Content-Type header, may be null
+     */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return (type.startsWith("text/") && !type.startsWith("text/event-stream"))
+                || type.startsWith("application/json") || type.startsWith("application/javascript")
+                || type.startsWith("application/xml") || type.startsWith("image/svg+xml") || type.contains("+json")
+                || type.contains("+xml");
+    }
+
+    /**
+     * Returns true if a response with the given content type is streamed and must not be aggregated
+     *
+     * @param contentType value of the Content-Type header, may be null
+     */
+    public static boolean isStreamed(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("text/event-stream");
+    }
+
+    /**
+     * Returns the value of the Vary header of a compressed response: the values of the original
+     * response with Accept-Encoding appended, unless the response already varies by it
+     *
+     * @param varyValues values of the Vary headers of the original response
+     */
+    public static String getCompressedVary(List<String> varyValues) {
+        StringBuilder vary = new StringBuilder();
+        boolean variesByEncoding = false;
+        for (String value : varyValues) {
+            for (String token : value.split(",")) {
+                token = token.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                if ("*".equals(token) || ACCEPT_ENCODING.equalsIgnoreCase(token)) {
+                    variesByEncoding = true;
+                }
+                if (vary.length() > 0) {
+                    vary.append(", ");
+                }
+                vary.append(token);
+            }
+        }
+        if (!variesByEncoding) {
+            vary.append(vary.length() > 0 ? ", " : "").append(ACCEPT_ENCODING);
+        }
+        return vary.toString();
+    }
+
+    /**
+     * Write a content chunk. The buffer is consumed.
+     */
+    public void write(ByteBuffer content) throws IOException {
+        if (content.hasArray()) {
+            out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+            content.position(content.limit());
+        } else {
+            if (transferBuffer == null) {
+                transferBuffer = new byte[8192];
+            }
+            while (content.hasRemaining()) {
+                int length = Math.min(content.remaining(), transferBuffer.length);
+                content.get(transferBuffer, 0, length);
+                out.write(transferBuffer, 0, length);
+            }
+        }
+        if (flushEachChunk) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Write a complete body
+     */
+    public void write(byte[] content) throws IOException {
+        out.write(content);
+        if (flushEachChunk) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Send all remaining content
+     */
+    public void finish() throws IOException {
+        if (out instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) out).finish();
+        }
+        frames.flush();
+    }
+
+    /*
+     * Collects written bytes into frames, a frame is sent as soon as it is full or the stream is flushed
+     */
+    private static class FrameOutputStream extends OutputStream {
+        private final Consumer<byte[]> frameSink;
+        private final int frameSize;
+        private byte[] frame;
+        private int count;
+
+        FrameOutputStream(Consumer<byte[]> frameSink, int frameSize) {
+            this.frameSink = frameSink;
+            this.frameSize = frameSize;
+            this.frame = new byte[frameSize];
+        }
+
+        @Override
+        public void write(int b) {
+            frame[count++] = (byte) b;
+            if (count == frameSize) {
+                sendFrame();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                int length = Math.min(len, frameSize - count);
+                System.arraycopy(b, off, frame, count, length);
+                count += length;
+                off += length;
+                len -= length;
+                if (count == frameSize) {
+                    sendFrame();
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (count > 0) {
+                sendFrame();
+            }
+        }
+
+        private void sendFrame() {
+            if (count == frameSize) {
+                // hand the full frame over without copying
+                frameSink.accept(frame);
+                frame = new byte[frameSize];
+            } else {
+                frameSink.accept(Arrays.copyOf(frame, count));
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+
+/**
+ * This class caches static resources proxied to the openHAB Cloud, like images, scripts
+ * and style sheets of the UIs. Only responses with an ETag or Last-Modified header are
+ * cached. Cached responses are always revalidated with a conditional request to the local
+ * openHAB, so that the body only needs to be transferred again if it has changed.
+ *
+ * @author agent - Initial contribution
+ */
+public class StaticResourceCache {
+
+    /*
+     * Maximum size of a single cached body
+     */
+    static final int MAX_ENTRY_SIZE = 512 * 1024;
+
+    /*
+     * Maximum size of all cached bodies
+     */
+    static final int MAX_TOTAL_SIZE = 4 * 1024 * 1024;
+
+    /*
+     * A cached response
+     */
+    public static class Entry {
+        private final HttpFields headers;
+        private final byte[] body;
+
+        public Entry(HttpFields headers, byte[] body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public HttpFields getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return headers.get(HttpHeader.ETAG);
+        }
+
+        public String getLastModified() {
+            return headers.get(HttpHeader.LAST_MODIFIED);
+        }
+    }
+
+    /*
+     * Cached responses by path and query, least recently used first. Guarded by this.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int totalSize;
+
+    /**
+     * Returns true if responses to the given request path may be cached
+     *
+     * @param requestPath path of the request, without query
+     */
+    public static boolean isStaticResource(String requestPath) {
+        return !requestPath.startsWith("/rest") && !requestPath.startsWith("/chart");
+    }
+
+    /**
+     * Returns true if a response with the given headers can be cached
+     *
+     * @param headers headers of a successful response
+     */
+    public static boolean isCacheable(HttpFields headers) {
+        if (headers.get(HttpHeader.ETAG) == null && headers.get(HttpHeader.LAST_MODIFIED) == null) {
+            return false;
+        }
+        String cacheControl = headers.get(HttpHeader.CACHE_CONTROL);
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        long contentLength = headers.getLongField(HttpHeader.CONTENT_LENGTH.asString());
+        return contentLength <= MAX_ENTRY_SIZE;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        if (entry.body.length > MAX_ENTRY_SIZE) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        totalSize += entry.body.length;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (totalSize > MAX_TOTAL_SIZE && eldest.hasNext()) {
+            totalSize -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalSize -= removed.body.length;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalSize = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
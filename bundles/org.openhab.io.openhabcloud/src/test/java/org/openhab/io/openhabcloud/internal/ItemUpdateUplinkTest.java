@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests for {@link ItemUpdateUplink}
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemUpdateUplinkTest {
+
+    private final List<String> sentUpdates = new ArrayList<>();
+    private boolean connected = true;
+    private int acceptedUpdates = Integer.MAX_VALUE;
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private boolean send(String itemName, String itemState) {
+        if (!connected || acceptedUpdates == 0) {
+            return false;
+        }
+        acceptedUpdates--;
+        sentUpdates.add(itemName + "=" + itemState);
+        return true;
+    }
+
+    private Runnable getScheduledFlush(int times) {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(times)).schedule(flush.capture(), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        return flush.getValue();
+    }
+
+    @Test
+    public void updatesWithinTheWindowAreCoalesced() {
+        ItemUpdateUplink uplink = new ItemUpdateUplink(this::send, scheduler, 1000, 10);
+        uplink.update("Power", "100");
+        uplink.update("Light", "ON");
+        uplink.update("Power", "120");
+        uplink.update("Power", "130");
+        assertThat(sentUpdates.isEmpty(), is(true));
+
+        // One flush per window
+        getScheduledFlush(1).run();
+        assertThat(sentUpdates, is(Arrays.asList("Light=ON", "Power=130")));
+        assertThat(uplink.getSentUpdates(), is(2L));
+        assertThat(uplink.getCoalescedUpdates(), is(2L));
+        assertThat(uplink.getDroppedUpdates(), is(0L));
+        assertThat(uplink.getQueueSize(), is(0));
+
+        // The next update opens a new window
+        uplink.update("Power", "140");
+        getScheduledFlush(2).run();
+        assertThat(sentUpdates.get(2), is("Power=140"));
+    }
+
+    @Test
+    public void updatesAreSentImmediatelyWithoutWindow() {
+        ItemUpdateUplink uplink = new ItemUpdateUplink(this::send, scheduler, 0, 10);
+        uplink.update("Power", "100");
+        uplink.update("Power", "120");
+        assertThat(sentUpdates, is(Arrays.asList("Power=100", "Power=120")));
+        assertThat(uplink.getCoalescedUpdates(), is(0L));
+        verifyZeroInteractions(scheduler);
+    }
+
+    @Test
+    public void leastRecentlyUpdatedItemsAreDroppedWhileDisconnected() {
+        connected = false;
+        ItemUpdateUplink uplink = new ItemUpdateUplink(this::send, scheduler, 0, 2);
+        uplink.update("A", "1");
+        uplink.update("B", "1");
+        uplink.update("A", "2");
+        uplink.update("C", "1");
+        assertThat(sentUpdates.isEmpty(), is(true));
+        assertThat(uplink.getQueueSize(), is(2));
+        assertThat(uplink.getDroppedUpdates(), is(1L));
+        assertThat(uplink.getCoalescedUpdates(), is(1L));
+
+        connected = true;
+        uplink.flush();
+        assertThat(sentUpdates, is(Arrays.asList("A=2", "C=1")));
+        assertThat(uplink.getSentUpdates(), is(2L));
+    }
+
+    @Test
+    public void unsentUpdatesAreKeptButNewerStatesWin() {
+        acceptedUpdates = 1;
+        ItemUpdateUplink uplink = new ItemUpdateUplink(this::send, scheduler, 1000, 10);
+        uplink.update("A", "1");
+        uplink.update("B", "1");
+        uplink.update("C", "1");
+        Runnable flush = getScheduledFlush(1);
+        flush.run();
+        assertThat(sentUpdates, is(Collections.singletonList("A=1")));
+        assertThat(uplink.getQueueSize(), is(2));
+
+        uplink.update("B", "2");
+        acceptedUpdates = Integer.MAX_VALUE;
+        uplink.flush();
+        assertThat(sentUpdates, is(Arrays.asList("A=1", "C=1", "B=2")));
+        assertThat(uplink.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void shutdownDiscardsPendingUpdates() {
+        ItemUpdateUplink uplink = new ItemUpdateUplink(this::send, scheduler, 1000, 10);
+        uplink.update("A", "1");
+        uplink.shutdown();
+        getScheduledFlush(1).run();
+        assertThat(sentUpdates.isEmpty(), is(true));
+        assertThat(uplink.getQueueSize(), is(0));
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResponseStreamer}
+ *
+ * @author agent - Initial contribution
+ */
+public class ResponseStreamerTest {
+
+    private final List<byte[]> frames = new ArrayList<>();
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        return content;
+    }
+
+    private byte[] joinFrames() {
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (byte[] frame : frames) {
+            joined.write(frame, 0, frame.length);
+        }
+        return joined.toByteArray();
+    }
+
+    @Test
+    public void chunksAreAggregatedIntoFrames() throws IOException {
+        byte[] content = content(ResponseStreamer.FRAME_SIZE + 1000);
+        ResponseStreamer streamer = new ResponseStreamer(frames::add, false, false);
+        for (int offset = 0; offset < content.length; offset += 1000) {
+            streamer.write(ByteBuffer.wrap(content, offset, Math.min(1000, content.length - offset)));
+        }
+        assertThat(frames.size(), is(1));
+        assertThat(frames.get(0).length, is(ResponseStreamer.FRAME_SIZE));
+
+        streamer.finish();
+        assertThat(frames.size(), is(2));
+        assertThat(frames.get(1).length, is(1000));
+        assertArrayEquals(content, joinFrames());
+    }
+
+    @Test
+    public void directBuffersAreCopied() throws IOException {
+        byte[] content = content(20000);
+        ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content);
+        direct.flip();
+
+        ResponseStreamer streamer = new ResponseStreamer(frames::add, false, false);
+        streamer.write(direct);
+        streamer.finish();
+        assertFalse(direct.hasRemaining());
+        assertArrayEquals(content, joinFrames());
+    }
+
+    @Test
+    public void streamedResponsesAreSentPerChunk() throws IOException {
+        ResponseStreamer streamer = new ResponseStreamer(frames::add, false, true);
+        streamer.write(ByteBuffer.wrap("event: a\n\n".getBytes()));
+        streamer.write("event: b\n\n".getBytes());
+        assertThat(frames.size(), is(2));
+        assertThat(new String(frames.get(1)), is("event: b\n\n"));
+    }
+
+    @Test
+    public void compressedContentCanBeDecompressed() throws IOException {
+        byte[] content = content(3 * ResponseStreamer.FRAME_SIZE);
+        ResponseStreamer streamer = new ResponseStreamer(frames::add, true, false);
+        streamer.write(ByteBuffer.wrap(content));
+        streamer.finish();
+
+        byte[] compressed = joinFrames();
+        assertTrue(compressed.length < content.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(content, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void contentTypes() {
+        assertTrue(ResponseStreamer.isCompressible("text/html; charset=UTF-8"));
+        assertTrue(ResponseStreamer.isCompressible("application/json"));
+        assertTrue(ResponseStreamer.isCompressible("application/vnd.api+json"));
+        assertFalse(ResponseStreamer.isCompressible("image/png"));
+        assertFalse(ResponseStreamer.isCompressible("text/event-stream"));
+        assertFalse(ResponseStreamer.isCompressible(null));
+
+        assertTrue(ResponseStreamer.isStreamed("text/event-stream"));
+        assertFalse(ResponseStreamer.isStreamed("text/html"));
+        assertFalse(ResponseStreamer.isStreamed(null));
+    }
+
+    @Test
+    public void acceptEncodingIsAppendedToVary() {
+        assertThat(ResponseStreamer.getCompressedVary(Collections.emptyList()), is("Accept-Encoding"));
+        assertThat(ResponseStreamer.getCompressedVary(Arrays.asList("Origin", "Cookie, User-Agent")),
+                is("Origin, Cookie, User-Agent, Accept-Encoding"));
+        assertThat(ResponseStreamer.getCompressedVary(Collections.singletonList("accept-encoding,Origin")),
+                is("accept-encoding, Origin"));
+        assertThat(ResponseStreamer.getCompressedVary(Collections.singletonList("*")), is("*"));
+    }
+}
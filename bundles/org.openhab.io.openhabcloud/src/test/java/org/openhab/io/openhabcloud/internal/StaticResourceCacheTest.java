@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StaticResourceCache}
+ *
+ * @author agent - Initial contribution
+ */
+public class StaticResourceCacheTest {
+
+    private final StaticResourceCache cache = new StaticResourceCache();
+
+    private static HttpFields headers(String etag) {
+        HttpFields headers = new HttpFields();
+        headers.put(HttpHeader.ETAG, etag);
+        return headers;
+    }
+
+    private static StaticResourceCache.Entry entry(int size) {
+        return new StaticResourceCache.Entry(headers("\"" + size + "\""), new byte[size]);
+    }
+
+    @Test
+    public void staticResources() {
+        assertTrue(StaticResourceCache.isStaticResource("/basicui/app"));
+        assertTrue(StaticResourceCache.isStaticResource("/icon/light"));
+        assertFalse(StaticResourceCache.isStaticResource("/rest/items"));
+        assertFalse(StaticResourceCache.isStaticResource("/chart"));
+    }
+
+    @Test
+    public void onlyValidatedPublicResponsesAreCacheable() {
+        assertFalse(StaticResourceCache.isCacheable(new HttpFields()));
+        assertTrue(StaticResourceCache.isCacheable(headers("\"1\"")));
+
+        HttpFields lastModified = new HttpFields();
+        lastModified.put(HttpHeader.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertTrue(StaticResourceCache.isCacheable(lastModified));
+
+        HttpFields noStore = headers("\"1\"");
+        noStore.put(HttpHeader.CACHE_CONTROL, "no-store");
+        assertFalse(StaticResourceCache.isCacheable(noStore));
+
+        HttpFields tooLarge = headers("\"1\"");
+        tooLarge.putLongField(HttpHeader.CONTENT_LENGTH, StaticResourceCache.MAX_ENTRY_SIZE + 1);
+        assertFalse(StaticResourceCache.isCacheable(tooLarge));
+    }
+
+    @Test
+    public void entriesAreReplaced() {
+        StaticResourceCache.Entry first = entry(10);
+        cache.put("/icon/light", first);
+        assertSame(first, cache.get("/icon/light"));
+        assertThat(first.getETag(), is("\"10\""));
+
+        StaticResourceCache.Entry second = entry(20);
+        cache.put("/icon/light", second);
+        assertSame(second, cache.get("/icon/light"));
+        assertThat(cache.size(), is(1));
+
+        cache.remove("/icon/light");
+        assertNull(cache.get("/icon/light"));
+    }
+
+    @Test
+    public void tooLargeEntriesAreNotCached() {
+        cache.put("/large", entry(StaticResourceCache.MAX_ENTRY_SIZE + 1));
+        assertNull(cache.get("/large"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        int entries = StaticResourceCache.MAX_TOTAL_SIZE / StaticResourceCache.MAX_ENTRY_SIZE;
+        for (int i = 0; i < entries; i++) {
+            cache.put("/" + i, entry(StaticResourceCache.MAX_ENTRY_SIZE));
+        }
+        assertThat(cache.size(), is(entries));
+
+        // Use the first entry, the second one becomes the least recently used
+        assertNotNull(cache.get("/0"));
+        cache.put("/new", entry(StaticResourceCache.MAX_ENTRY_SIZE));
+        assertThat(cache.size(), is(entries));
+        assertNotNull(cache.get("/0"));
+        assertNull(cache.get("/1"));
+        assertNotNull(cache.get("/new"));
+    }
+}
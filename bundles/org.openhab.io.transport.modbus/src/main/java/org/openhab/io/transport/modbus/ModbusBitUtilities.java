@@ -14,8 +14,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,6 +99,32 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        return rawValueToDecimalType(extractRawValueFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Read data from registers without allocating any intermediate objects
+     *
+     * Interpretation of <tt>index</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. The returned value is
+     * - sign extended with signed integer types (BIT, INT8, INT16, INT32, INT64 and their swapped variants)
+     * - zero extended with unsigned integer types (UINT8, UINT16, UINT32 and UINT32_SWAP)
+     * - the raw 64 bits with UINT64 and UINT64_SWAP. Use {@link Long#toUnsignedString(long)} or
+     * {@link #rawValueToDecimalType(long, ModbusConstants.ValueType)} to interpret it
+     * - the raw IEEE 754 bits with FLOAT32 and FLOAT32_SWAP. Use {@link Float#intBitsToFloat(int)} to interpret it
+     *
+     * Two raw values of the same type are equal if and only if the underlying register data is equal. This allows
+     * callers to detect changed values before constructing any states.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. unsigned 16bit integer (<tt>ModbusBindingProvider.ValueType.UINT16</tt>)
+     * @return raw value as described above
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawValueFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -111,107 +135,83 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+                return (byte) (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2)));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegister(index).toUnsignedShort();
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+            case FLOAT32:
+                return (int) registersToLong(registers, index, index + 1);
+            case UINT32:
+                return registersToLong(registers, index, index + 1);
+            case INT64:
+            case UINT64:
+                return registersToLong(registers, index, index + 1, index + 2, index + 3);
+            case INT32_SWAP:
+            case FLOAT32_SWAP:
+                return (int) registersToLong(registers, index + 1, index);
+            case UINT32_SWAP:
+                return registersToLong(registers, index + 1, index);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return registersToLong(registers, index + 3, index + 2, index + 1, index);
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+
+    /**
+     * Convert raw value, as returned by
+     * {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}, to DecimalType
+     *
+     * @param rawValue raw value extracted from registers
+     * @param type item type the raw value was extracted with
+     * @return number representation of the value, <tt>DecimalType</tt>. Empty optional is returned
+     *         with NaN and infinity floating point values
+     */
+    public static Optional<DecimalType> rawValueToDecimalType(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
                 try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                    return Optional.of(new DecimalType(Float.intBitsToFloat((int) rawValue)));
                 } catch (NumberFormatException e) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    // out of bounds of signed 64bit
+                    return Optional
+                            .of(new DecimalType(new BigDecimal(new BigInteger(Long.toUnsignedString(rawValue)))));
                 }
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+                return Optional.of(new DecimalType(rawValue));
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return Optional.of(new DecimalType(rawValue));
         }
     }
 
+    /**
+     * Concatenate two registers, most significant first, to a zero extended long
+     */
+    private static long registersToLong(ModbusRegisterArray registers, int high, int low) {
+        return ((long) registers.getRegister(high).toUnsignedShort() << 16)
+                | registers.getRegister(low).toUnsignedShort();
+    }
+
+    /**
+     * Concatenate four registers, most significant first, to a long
+     */
+    private static long registersToLong(ModbusRegisterArray registers, int first, int second, int third, int fourth) {
+        return (registersToLong(registers, first, second) << 32) | registersToLong(registers, third, fourth);
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Immutable snapshot of the performance metrics collected for a single endpoint
+ *
+ * All counters are cumulative since the activation of the {@link ModbusManager}.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ModbusEndpointMetrics {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusLatencyHistogram transactionLatency;
+    private final ModbusLatencyHistogram poolWait;
+    private final long errors;
+    private final long retries;
+    private final long connectionErrors;
+    private final long pollOverruns;
+    private final long savedTransactions;
+    private final int queueSize;
+
+    public ModbusEndpointMetrics(ModbusSlaveEndpoint endpoint, ModbusLatencyHistogram transactionLatency,
+            ModbusLatencyHistogram poolWait, long errors, long retries, long connectionErrors, long pollOverruns,
+            long savedTransactions, int queueSize) {
+        this.endpoint = endpoint;
+        this.transactionLatency = transactionLatency;
+        this.poolWait = poolWait;
+        this.errors = errors;
+        this.retries = retries;
+        this.connectionErrors = connectionErrors;
+        this.pollOverruns = pollOverruns;
+        this.savedTransactions = savedTransactions;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Get the endpoint these metrics are about
+     *
+     * @return endpoint
+     */
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get latencies of the transactions (request sent, response received), including failed ones. Each retry is a
+     * separate transaction.
+     *
+     * @return histogram of transaction latencies
+     */
+    public ModbusLatencyHistogram getTransactionLatency() {
+        return transactionLatency;
+    }
+
+    /**
+     * Get time waited for a connection from the connection pool. This includes the time between transactions and
+     * reconnections, as configured with {@link org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration}.
+     *
+     * @return histogram of connection pool wait times
+     */
+    public ModbusLatencyHistogram getPoolWait() {
+        return poolWait;
+    }
+
+    /**
+     * Get number of operations (reads and writes) which failed, after all tries
+     *
+     * @return number of failed operations
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get number of failed tries which were retried
+     *
+     * @return number of retries
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Get number of times a connection could not be established
+     *
+     * @return number of connection errors
+     */
+    public long getConnectionErrors() {
+        return connectionErrors;
+    }
+
+    /**
+     * Get number of executions of regular polls which took longer than the poll period
+     *
+     * @return number of poll overruns
+     */
+    public long getPollOverruns() {
+        return pollOverruns;
+    }
+
+    /**
+     * Get number of transactions saved by merging regular polls
+     *
+     * @return number of saved transactions
+     */
+    public long getSavedTransactions() {
+        return savedTransactions;
+    }
+
+    /**
+     * Get number of tasks waiting in the queue of the executor. Note that the executor is shared by all endpoints.
+     *
+     * @return queue size, or -1 if not known
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("endpoint", endpoint)
+                .append("transactionLatency", transactionLatency).append("poolWait", poolWait)
+                .append("errors", errors).append("retries", retries).append("connectionErrors", connectionErrors)
+                .append("pollOverruns", pollOverruns).append("savedTransactions", savedTransactions)
+                .append("queueSize", queueSize).toString();
+    }
+}
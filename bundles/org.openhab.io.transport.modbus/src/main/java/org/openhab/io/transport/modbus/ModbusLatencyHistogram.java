@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Immutable snapshot of a latency histogram
+ *
+ * Bucket <tt>i</tt> counts the durations which are at most {@link #getUpperBoundsMillis()}<tt>[i]</tt> milliseconds
+ * (and longer than the previous bound). The last bucket counts durations longer than the largest bound.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ModbusLatencyHistogram {
+
+    private final long[] upperBoundsMillis;
+    private final long[] counts;
+    private final long totalMillis;
+    private final long count;
+
+    /**
+     * Construct histogram snapshot
+     *
+     * @param upperBoundsMillis (inclusive) upper bounds of the buckets, in ascending order
+     * @param counts number of durations in each bucket. Length is one more than number of bounds.
+     * @param totalMillis sum of all durations
+     */
+    public ModbusLatencyHistogram(long[] upperBoundsMillis, long[] counts, long totalMillis) {
+        if (counts.length != upperBoundsMillis.length + 1) {
+            throw new IllegalArgumentException("There should be one more count than there are bounds");
+        }
+        this.upperBoundsMillis = upperBoundsMillis.clone();
+        this.counts = counts.clone();
+        this.totalMillis = totalMillis;
+        this.count = Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Get upper bounds of the buckets
+     *
+     * @return (inclusive) upper bounds in milliseconds
+     */
+    public long[] getUpperBoundsMillis() {
+        return upperBoundsMillis.clone();
+    }
+
+    /**
+     * Get number of durations in each bucket
+     *
+     * @return counts, the last one being the number of durations longer than any bound
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Get number of recorded durations
+     *
+     * @return number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get sum of recorded durations
+     *
+     * @return sum in milliseconds
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Get average duration
+     *
+     * @return average in milliseconds, or zero when nothing has been recorded
+     */
+    public double getAverageMillis() {
+        return count == 0 ? 0 : (double) totalMillis / count;
+    }
+
+    /**
+     * Get upper bound of the bucket containing the given percentile
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket in milliseconds, {@link Long#MAX_VALUE} when the percentile is in the last
+     *         bucket, and zero when nothing has been recorded
+     */
+    public long getPercentileUpperBoundMillis(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile should be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long cumulative = 0;
+        for (int i = 0; i < upperBoundsMillis.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= threshold) {
+                return upperBoundsMillis[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private String formatBound(long bound) {
+        return bound == Long.MAX_VALUE ? String.format(">%d", upperBoundsMillis[upperBoundsMillis.length - 1])
+                : String.format("<=%d", bound);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, avg=%.1f ms, p50%s ms, p95%s ms, p99%s ms", count, getAverageMillis(),
+                formatBound(getPercentileUpperBoundMillis(50)), formatBound(getPercentileUpperBoundMillis(95)),
+                formatBound(getPercentileUpperBoundMillis(99)));
+    }
+}
@@ -104,4 +104,12 @@ public interface ModbusManager {
      */
     public Set<PollTask> getRegisteredRegularPolls();
 
+    /**
+     * Get performance metrics collected for a given endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return snapshot of the metrics. All counters are zero if nothing has been executed with the endpoint.
+     */
+    public ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint);
+
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BitArray;
+
+/**
+ * {@link BitArray} view to a continuous range of bits of another {@link BitArray}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BitArraySlice implements BitArray {
+
+    private BitArray wrapped;
+    private int offset;
+    private int length;
+
+    /**
+     * Construct view to the bits of <code>wrapped</code>, starting from index <code>offset</code>
+     *
+     * The length of the view is truncated in case the wrapped array has less bits than requested.
+     *
+     * @param wrapped wrapped data
+     * @param offset index of the first bit of the view
+     * @param length number of bits of the view
+     */
+    public BitArraySlice(BitArray wrapped, int offset, int length) {
+        this.wrapped = wrapped;
+        this.offset = offset;
+        this.length = Math.max(0, Math.min(length, wrapped.size() - offset));
+    }
+
+    @Override
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return wrapped.getBit(offset + index);
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("BitArraySlice(bits=").append(length == 0 ? "<empty>" : toBinaryString()).append(")")
+                .toString();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        return sizeAndValuesEquals(obj);
+    }
+
+}
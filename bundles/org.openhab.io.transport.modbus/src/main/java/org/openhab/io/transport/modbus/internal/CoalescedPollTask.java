@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PollTask} reading the data of several other poll tasks with a single transaction
+ *
+ * The tasks must share endpoint, slave id and function code, and their ranges must be covered by the request of
+ * this task. Responses and errors are passed on to the callbacks of the original tasks, using the original requests
+ * and the corresponding slice of the data.
+ *
+ * Instances are compared by identity.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask, ModbusReadCallback {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private ModbusSlaveEndpoint endpoint;
+    private BasicModbusReadRequestBlueprint request;
+    private List<PollTask> tasks;
+    private AtomicLong savedTransactions;
+
+    /**
+     * Construct task reading the data of the given tasks
+     *
+     * @param endpoint endpoint of the tasks
+     * @param request request covering the requests of all tasks
+     * @param tasks tasks to serve with the response
+     * @param savedTransactions counter incremented with the number of transactions saved on each execution
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request,
+            List<PollTask> tasks, AtomicLong savedTransactions) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.savedTransactions = savedTransactions;
+    }
+
+    /**
+     * Get the original poll tasks served by this task
+     *
+     * @return list of poll tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public @Nullable ModbusReadCallback getCallback() {
+        return this;
+    }
+
+    @Override
+    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+        savedTransactions.addAndGet(tasks.size() - 1);
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            try {
+                callback.onRegisters(taskRequest, new RegisterArraySlice(registers,
+                        taskRequest.getReference() - this.request.getReference(), taskRequest.getDataLength()));
+            } catch (RuntimeException e) {
+                logger.error("Unhandled exception in callback of poll task {}: {} {}", task, e.getClass().getName(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        savedTransactions.addAndGet(tasks.size() - 1);
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            try {
+                callback.onBits(taskRequest, new BitArraySlice(bits,
+                        taskRequest.getReference() - this.request.getReference(), taskRequest.getDataLength()));
+            } catch (RuntimeException e) {
+                logger.error("Unhandled exception in callback of poll task {}: {} {}", task, e.getClass().getName(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+        savedTransactions.addAndGet(tasks.size() - 1);
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            try {
+                callback.onError(task.getRequest(), error);
+            } catch (RuntimeException e) {
+                logger.error("Unhandled exception in callback of poll task {}: {} {}", task, e.getClass().getName(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Collects performance metrics of a single endpoint
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+class EndpointMetricsCollector {
+
+    final LatencyRecorder transactionLatency = new LatencyRecorder();
+    final LatencyRecorder poolWait = new LatencyRecorder();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong retries = new AtomicLong();
+    final AtomicLong connectionErrors = new AtomicLong();
+    final AtomicLong pollOverruns = new AtomicLong();
+
+    ModbusEndpointMetrics snapshot(ModbusSlaveEndpoint endpoint, long savedTransactions, int queueSize) {
+        return new ModbusEndpointMetrics(endpoint, transactionLatency.snapshot(), poolWait.snapshot(), errors.get(),
+                retries.get(), connectionErrors.get(), pollOverruns.get(), savedTransactions, queueSize);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+
+/**
+ * Thread-safe recorder of durations, with fixed histogram buckets
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class LatencyRecorder {
+
+    /**
+     * Default (inclusive) upper bounds of the buckets, in milliseconds
+     */
+    public static final long[] DEFAULT_UPPER_BOUNDS_MILLIS = new long[] { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000,
+            2000, 5000 };
+
+    private final long[] upperBoundsMillis;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalMillis = new AtomicLong();
+
+    public LatencyRecorder() {
+        this(DEFAULT_UPPER_BOUNDS_MILLIS);
+    }
+
+    public LatencyRecorder(long[] upperBoundsMillis) {
+        this.upperBoundsMillis = upperBoundsMillis.clone();
+        this.counts = new AtomicLongArray(upperBoundsMillis.length + 1);
+    }
+
+    /**
+     * Record single duration
+     *
+     * @param millis duration in milliseconds
+     */
+    public void record(long millis) {
+        int bucket = 0;
+        while (bucket < upperBoundsMillis.length && millis > upperBoundsMillis[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        totalMillis.addAndGet(millis);
+    }
+
+    /**
+     * Take a snapshot of the recorded durations
+     *
+     * @return histogram
+     */
+    public ModbusLatencyHistogram snapshot() {
+        long[] countsSnapshot = new long[counts.length()];
+        for (int i = 0; i < countsSnapshot.length; i++) {
+            countsSnapshot[i] = counts.get(i);
+        }
+        return new ModbusLatencyHistogram(upperBoundsMillis, countsSnapshot, totalMillis.get());
+    }
+}
@@ -14,6 +14,9 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -28,6 +31,8 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.SwallowedExceptionListener;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
@@ -37,8 +42,10 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
@@ -91,6 +98,50 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    /**
+     * Key identifying regular polls which can be merged into same transactions: equal endpoint, slave id, function
+     * code and poll period.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+
+        public PollGroupKey(PollTask task, long pollPeriodMillis) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(37, 11).append(endpoint).append(unitId).append(functionCode)
+                    .append(pollPeriodMillis).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            PollGroupKey rhs = (PollGroupKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(functionCode, rhs.functionCode).append(pollPeriodMillis, rhs.pollPeriodMillis)
+                    .isEquals();
+        }
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -248,6 +299,21 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
+    /**
+     * Delay for collecting changes of merge groups, so that e.g. the polls registered by the things of a slave on
+     * startup are planned once
+     */
+    private static final long REPLAN_DELAY_MILLIS = 100;
+
+    /**
+     * Configuration property enabling merging of regular polls with adjacent or overlapping ranges
+     */
+    public static final String CONFIG_POLL_COALESCING = "pollCoalescing";
+
+    /**
+     * Configuration property for the maximum number of unrequested registers (or bits) between two merged polls
+     */
+    public static final String CONFIG_POLL_COALESCING_MAX_GAP = "pollCoalescingMaxGap";
 
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
@@ -268,6 +334,32 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Planner for merging regular polls, null when merging is disabled
+     */
+    @Nullable
+    private volatile ModbusPollPlanner pollPlanner;
+    /**
+     * Regular polls by merge group. Access synchronized with this
+     */
+    private final Map<PollGroupKey, Set<PollTask>> pollGroups = new HashMap<>();
+    /**
+     * Planned and scheduled transactions by merge group. Access synchronized with this
+     */
+    private final Map<PollGroupKey, Map<PollTask, ScheduledFuture<?>>> plannedPollGroups = new HashMap<>();
+    /**
+     * Scheduled merged transactions (see {@link CoalescedPollTask})
+     */
+    private final Map<PollTask, ScheduledFuture<?>> scheduledCoalescedPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Merge groups to plan again, with the earliest requested time of the first poll. Access synchronized with this
+     */
+    private final Map<PollGroupKey, Long> pendingReplans = new HashMap<>();
+    /**
+     * Job planning the pending merge groups. Access synchronized with this
+     */
+    @Nullable
+    private ScheduledFuture<?> replanJob;
     /**
      * Executor for requests
      */
@@ -276,6 +368,14 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile Collection<ModbusManagerListener> listeners = new CopyOnWriteArraySet<>();
     @Nullable
     private volatile ScheduledFuture<?> monitorFuture;
+    /**
+     * Performance metrics by endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointMetricsCollector> metrics = new ConcurrentHashMap<>();
+
+    private EndpointMetricsCollector getMetrics(ModbusSlaveEndpoint endpoint) {
+        return metrics.computeIfAbsent(endpoint, e -> new EndpointMetricsCollector());
+    }
 
     private void constructConnectionPool() {
         ModbusSlaveConnectionFactoryImpl connectionFactory = new ModbusSlaveConnectionFactoryImpl();
@@ -419,8 +519,11 @@ public class ModbusManagerImpl implements ModbusManager {
 
         ModbusRequestBlueprint request = task.getRequest();
         Optional<ModbusSlaveConnection> connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+        long connectionBorrowMillis = System.currentTimeMillis() - connectionBorrowStart;
         logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
-                System.currentTimeMillis() - connectionBorrowStart, operationId);
+                connectionBorrowMillis, operationId);
+        EndpointMetricsCollector endpointMetrics = getMetrics(endpoint);
+        endpointMetrics.poolWait.record(connectionBorrowMillis);
         if (scheduledThreadPoolExecutor == null) {
             // manager deactivated
             timer.connection.timeRunnable(() -> invalidate(endpoint, connection));
@@ -429,6 +532,8 @@ public class ModbusManagerImpl implements ModbusManager {
         if (!connection.isPresent()) {
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
+            endpointMetrics.connectionErrors.incrementAndGet();
+            endpointMetrics.errors.incrementAndGet();
             if (callback != null) {
                 timer.callback.timeRunnable(
                         () -> invokeCallbackWithError(request, callback, new ModbusConnectionException(endpoint)));
@@ -468,7 +573,7 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        if (!this.scheduledPollTasks.containsKey(task) && !this.scheduledCoalescedPollTasks.containsKey(task)) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -508,6 +613,7 @@ public class ModbusManagerImpl implements ModbusManager {
         @Nullable
         C callback = task.getCallback();
         int maxTries = task.getMaxTries();
+        EndpointMetricsCollector endpointMetrics = getMetrics(endpoint);
         AtomicReference<@Nullable Exception> lastError = new AtomicReference<>();
         long retryDelay = Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
                 .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
@@ -569,6 +675,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Sleep ended, slept {} [operation ID {}]", slept, operationId);
 
                 boolean willRetry = false;
+                long transactionMillisBefore = timer.transaction.getTotalTimeMillis();
                 try {
                     tryIndex++;
                     willRetry = tryIndex < maxTries;
@@ -656,6 +763,11 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } finally {
                     lastTryMillis = System.currentTimeMillis();
+                    long transactionMillis = timer.transaction.getTotalTimeMillis() - transactionMillisBefore;
+                    endpointMetrics.transactionLatency.record(transactionMillis);
+                    if (willRetry && lastError.get() != null) {
+                        endpointMetrics.retries.incrementAndGet();
+                    }
                     // Connection was reseted in error handling and needs to be reconnected.
                     // Try to re-establish connection.
                     if (willRetry && !connection.isPresent()) {
@@ -666,6 +778,7 @@ public class ModbusManagerImpl implements ModbusManager {
             Exception exception = lastError.get();
             if (exception != null) {
                 // All retries failed with some error
+                endpointMetrics.errors.incrementAndGet();
                 if (callback != null) {
                     timer.callback.timeRunnable(() -> {
                         invokeCallbackWithError(request, callback, exception);
@@ -712,27 +825,121 @@ public class ModbusManagerImpl implements ModbusManager {
             Objects.requireNonNull(executor, "Not activated!");
             logger.trace("Registering poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
-            if (scheduledPollTasks.containsKey(task)) {
+            if (scheduledPollTasks.containsKey(task) || findPollGroup(task) != null) {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
-
+            if (pollPlanner != null) {
+                PollGroupKey key = new PollGroupKey(task, pollPeriodMillis);
+                pollGroups.computeIfAbsent(key, k -> new HashSet<>()).add(task);
+                requestReplan(key, initialDelayMillis);
+                logger.trace("Registered poll task {} with period {} using initial delay {} (merged polls)", task,
+                        pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            ScheduledFuture<?> future = schedulePoll(executor, task, pollPeriodMillis, initialDelayMillis);
             scheduledPollTasks.put(task, future);
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
     }
 
+    private ScheduledFuture<?> schedulePoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        return executor.scheduleWithFixedDelay(() -> {
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
+                    started);
+            executeOperation(task, false, pollOperation);
+            long finished = System.currentTimeMillis();
+            if (finished - started > pollPeriodMillis) {
+                getMetrics(task.getEndpoint()).pollOverruns.incrementAndGet();
+            }
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, task, finished, started, finished - started);
+        }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Plan a merge group again after a short delay, collecting further changes of its poll tasks.
+     *
+     * Until then, the previous transactions of the group keep running: added poll tasks are not polled yet and
+     * removed poll tasks may still receive the data of a shared transaction.
+     *
+     * Must be called while synchronized with this.
+     */
+    private void requestReplan(PollGroupKey key, long initialDelayMillis) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        Objects.requireNonNull(executor, "Not activated!");
+        pendingReplans.merge(key, System.currentTimeMillis() + initialDelayMillis, Math::min);
+        if (replanJob == null) {
+            replanJob = executor.schedule(this::replanPendingPollGroups, REPLAN_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void replanPendingPollGroups() {
+        synchronized (this) {
+            replanJob = null;
+            if (scheduledThreadPoolExecutor == null || pollPlanner == null) {
+                // deactivated meanwhile
+                pendingReplans.clear();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            pendingReplans.forEach((key, firstPoll) -> replanPollGroup(key, Math.max(0, firstPoll - now)));
+            pendingReplans.clear();
+        }
+    }
+
+    /**
+     * Plan and schedule the transactions of a merge group again, after poll tasks of the group have changed.
+     *
+     * New transactions are scheduled before previous ones are canceled, so that the poll tasks stay registered all
+     * the time. Transactions in progress are not interrupted.
+     *
+     * Must be called while synchronized with this.
+     */
+    private void replanPollGroup(PollGroupKey key, long initialDelayMillis) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        ModbusPollPlanner planner = pollPlanner;
+        Objects.requireNonNull(executor, "Not activated!");
+        Objects.requireNonNull(planner, "Poll merging not enabled!");
+
+        Map<PollTask, ScheduledFuture<?>> previous = plannedPollGroups.remove(key);
+        Set<PollTask> tasks = pollGroups.get(key);
+        if (tasks != null && !tasks.isEmpty()) {
+            List<PollTask> planned = planner.plan(tasks);
+            Map<PollTask, ScheduledFuture<?>> scheduled = new HashMap<>();
+            for (PollTask plannedTask : planned) {
+                ScheduledFuture<?> future = schedulePoll(executor, plannedTask, key.pollPeriodMillis,
+                        initialDelayMillis);
+                scheduled.put(plannedTask, future);
+                if (plannedTask instanceof CoalescedPollTask) {
+                    scheduledCoalescedPollTasks.put(plannedTask, future);
+                    for (PollTask task : ((CoalescedPollTask) plannedTask).getTasks()) {
+                        scheduledPollTasks.put(task, future);
+                    }
+                } else {
+                    scheduledPollTasks.put(plannedTask, future);
+                }
+            }
+            plannedPollGroups.put(key, scheduled);
+            logger.debug("Planned {} transactions for {} poll tasks of endpoint {} (slave {}, {}, period {}ms)",
+                    planned.size(), tasks.size(), key.endpoint, key.unitId, key.functionCode, key.pollPeriodMillis);
+        } else {
+            pollGroups.remove(key);
+        }
+        if (previous != null) {
+            previous.forEach((plannedTask, future) -> {
+                if (plannedTask instanceof CoalescedPollTask) {
+                    scheduledCoalescedPollTasks.remove(plannedTask);
+                }
+                future.cancel(false);
+            });
+        }
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -745,7 +952,8 @@ public class ModbusManagerImpl implements ModbusManager {
             // cancel poller
             @Nullable
             ScheduledFuture<?> future = scheduledPollTasks.remove(task);
-            if (future == null) {
+            PollGroupKey groupKey = findPollGroup(task);
+            if (future == null && groupKey == null) {
                 // No such poll task
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
@@ -756,7 +964,20 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            if (groupKey != null) {
+                // transaction might be shared with other poll tasks, it is canceled when the group is planned again.
+                // Without transaction, the task was registered after the group has been planned last.
+                Set<PollTask> tasks = pollGroups.get(groupKey);
+                if (tasks != null) {
+                    tasks.remove(task);
+                }
+                if (future != null && !scheduledCoalescedPollTasks.containsValue(future)) {
+                    future.cancel(true);
+                }
+                requestReplan(groupKey, groupKey.pollPeriodMillis);
+            } else {
+                future.cancel(true);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -775,6 +996,42 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private @Nullable PollGroupKey findPollGroup(PollTask task) {
+        for (Map.Entry<PollGroupKey, Set<PollTask>> entry : pollGroups.entrySet()) {
+            if (entry.getValue().contains(task)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get number of transactions saved by merging regular polls
+     *
+     * @return number of saved transactions per endpoint, empty if merging of polls is disabled
+     */
+    public Map<ModbusSlaveEndpoint, Long> getSavedPollTransactions() {
+        ModbusPollPlanner planner = pollPlanner;
+        return planner == null ? new HashMap<>() : planner.getSavedTransactions();
+    }
+
+    @Override
+    public ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        EndpointMetricsCollector collector = metrics.get(endpoint);
+        if (collector == null) {
+            collector = new EndpointMetricsCollector();
+        }
+        return collector.snapshot(endpoint, getSavedPollTransactions().getOrDefault(endpoint, 0L), getQueueSize());
+    }
+
+    private int getQueueSize() {
+        ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
+        if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) scheduledThreadPoolExecutor).getQueue().size();
+        }
+        return -1;
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
@@ -828,6 +1085,13 @@ public class ModbusManagerImpl implements ModbusManager {
             if (connectionPool == null) {
                 constructConnectionPool();
             }
+            if (Boolean.parseBoolean(String.valueOf(configProperties.get(CONFIG_POLL_COALESCING)))) {
+                Object maxGap = configProperties.get(CONFIG_POLL_COALESCING_MAX_GAP);
+                pollPlanner = new ModbusPollPlanner(maxGap == null ? 0 : Integer.parseInt(String.valueOf(maxGap)));
+                logger.info("Merging of regular polls enabled");
+            } else {
+                pollPlanner = null;
+            }
             ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
             if (scheduledThreadPoolExecutor == null) {
                 this.scheduledThreadPoolExecutor = scheduledThreadPoolExecutor = ThreadPoolManager
@@ -845,6 +1109,17 @@ public class ModbusManagerImpl implements ModbusManager {
     @Deactivate
     protected void deactivate() {
         synchronized (this) {
+            // all transactions are canceled below, there is no need to plan the merge groups again
+            ScheduledFuture<?> replanJob = this.replanJob;
+            if (replanJob != null) {
+                replanJob.cancel(false);
+                this.replanJob = null;
+            }
+            pendingReplans.clear();
+            pollGroups.clear();
+            plannedPollGroups.clear();
+            scheduledCoalescedPollTasks.clear();
+
             KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool = this.connectionPool;
             if (connectionPool != null) {
                 Set<@NonNull PollTask> polls = getRegisteredRegularPolls();
@@ -855,6 +1130,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            metrics.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -887,6 +1163,13 @@ public class ModbusManagerImpl implements ModbusManager {
                         task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
                         future.getDelay(TimeUnit.MILLISECONDS), task);
             });
+            getSavedPollTransactions().forEach((endpoint, saved) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {}: {} transactions saved by merging polls",
+                        endpoint, saved);
+            });
+            this.metrics.keySet().forEach(endpoint -> {
+                pollMonitorLogger.trace("POLL MONITOR: {}", getEndpointMetrics(endpoint));
+            });
             if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
                 ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
                 pollMonitorLogger.trace(
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Planner merging poll tasks with adjacent or overlapping ranges into as few transactions as possible
+ *
+ * Only tasks sharing endpoint, slave id and function code can be merged, and the merged requests respect the maximum
+ * data length of a single Modbus request (125 registers, or 2000 coils / discrete inputs).
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlanner {
+
+    /**
+     * Maximum number of registers read with a single request (function codes 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs read with a single request (function codes 1 and 2)
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private final int maxGap;
+    private final Map<ModbusSlaveEndpoint, AtomicLong> savedTransactions = new ConcurrentHashMap<>();
+
+    /**
+     * Construct planner
+     *
+     * @param maxGap maximum number of unrequested registers (or bits) between two ranges to still merge them. Note
+     *            that some slaves respond with an error when unmapped data is requested, so 0 is the safe choice.
+     */
+    public ModbusPollPlanner(int maxGap) {
+        this.maxGap = Math.max(0, maxGap);
+    }
+
+    /**
+     * Plan transactions for the given poll tasks
+     *
+     * @param tasks poll tasks sharing endpoint, slave id and function code
+     * @return tasks to execute. Tasks which could not be merged with any other task are returned as such, the rest
+     *         are represented by {@link CoalescedPollTask}s.
+     * @throws IllegalArgumentException if the tasks do not share endpoint, slave id and function code
+     */
+    public List<PollTask> plan(Collection<PollTask> tasks) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        PollTask first = tasks.iterator().next();
+        ModbusSlaveEndpoint endpoint = first.getEndpoint();
+        int unitId = first.getRequest().getUnitID();
+        ModbusReadFunctionCode functionCode = first.getRequest().getFunctionCode();
+        for (PollTask task : tasks) {
+            if (!task.getEndpoint().equals(endpoint) || task.getRequest().getUnitID() != unitId
+                    || task.getRequest().getFunctionCode() != functionCode) {
+                throw new IllegalArgumentException(
+                        String.format("Poll task %s cannot be merged with poll task %s", task, first));
+            }
+        }
+        int maxLength = getMaxDataLength(functionCode);
+
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                .thenComparing(Comparator.comparingInt((PollTask task) -> task.getRequest().getDataLength())
+                        .reversed()));
+
+        List<PollTask> planned = new ArrayList<>();
+        List<PollTask> merged = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int taskEnd = request.getReference() + request.getDataLength();
+            if (!merged.isEmpty() && request.getReference() <= end + maxGap
+                    && Math.max(end, taskEnd) - start <= maxLength) {
+                merged.add(task);
+                end = Math.max(end, taskEnd);
+                continue;
+            }
+            if (!merged.isEmpty()) {
+                planned.add(createTask(endpoint, unitId, functionCode, start, end, merged));
+            }
+            merged = new ArrayList<>();
+            merged.add(task);
+            start = request.getReference();
+            end = taskEnd;
+        }
+        planned.add(createTask(endpoint, unitId, functionCode, start, end, merged));
+        return planned;
+    }
+
+    private PollTask createTask(ModbusSlaveEndpoint endpoint, int unitId, ModbusReadFunctionCode functionCode,
+            int start, int end, List<PollTask> tasks) {
+        if (tasks.size() == 1) {
+            return tasks.get(0);
+        }
+        int maxTries = tasks.stream().mapToInt(task -> task.getMaxTries()).max().orElse(1);
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(unitId, functionCode, start,
+                end - start, maxTries);
+        return new CoalescedPollTask(endpoint, request, tasks,
+                savedTransactions.computeIfAbsent(endpoint, e -> new AtomicLong()));
+    }
+
+    /**
+     * Get number of transactions saved by merging poll tasks, per endpoint
+     *
+     * @return number of transactions saved since activation of the planner
+     */
+    public Map<ModbusSlaveEndpoint, Long> getSavedTransactions() {
+        Map<ModbusSlaveEndpoint, Long> result = new ConcurrentHashMap<>();
+        savedTransactions.forEach((endpoint, counter) -> result.put(endpoint, counter.get()));
+        return result;
+    }
+
+    /**
+     * Get maximum data length of a single read request
+     *
+     * @param functionCode function code of the request
+     * @return maximum number of registers or bits
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_REQUEST;
+            default:
+                return MAX_REGISTERS_PER_REQUEST;
+        }
+    }
+
+}
@@ -401,4 +401,20 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedStateWrapped)));
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testRawValueToDecimalType() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(this.registers, this.index, this.type);
+        Optional<@NonNull DecimalType> actualState = ModbusBitUtilities.rawValueToDecimalType(rawValue, this.type);
+        Optional<@NonNull DecimalType> expectedStateWrapped = expectedResult instanceof DecimalType
+                ? Optional.of((DecimalType) expectedResult)
+                : (Optional<@NonNull DecimalType>) expectedResult;
+        assertThat(String.format("registers=%s, index=%d, type=%s, raw=%d", registers, index, type, rawValue),
+                actualState, is(equalTo(expectedStateWrapped)));
+    }
 }
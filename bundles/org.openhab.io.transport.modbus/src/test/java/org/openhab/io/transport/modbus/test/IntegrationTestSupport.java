@@ -24,6 +24,7 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.function.LongSupplier;
 
 import org.apache.commons.lang.NotImplementedException;
@@ -350,7 +351,11 @@ public class IntegrationTestSupport extends JavaTest {
 
     public static class NonOSGIModbusManager extends ModbusManagerImpl implements AutoCloseable {
         public NonOSGIModbusManager() {
-            activate(new HashMap<>());
+            this(new HashMap<>());
+        }
+
+        public NonOSGIModbusManager(Map<String, Object> configProperties) {
+            activate(configProperties);
         }
 
         @Override
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+import org.openhab.io.transport.modbus.internal.LatencyRecorder;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class LatencyRecorderTest {
+
+    @Test
+    public void testEmpty() {
+        ModbusLatencyHistogram histogram = new LatencyRecorder().snapshot();
+
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getAverageMillis(), is(equalTo(0.0)));
+        assertThat(histogram.getPercentileUpperBoundMillis(99), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testBuckets() {
+        LatencyRecorder recorder = new LatencyRecorder(new long[] { 10, 100 });
+        recorder.record(0);
+        recorder.record(10);
+        recorder.record(11);
+        recorder.record(101);
+
+        ModbusLatencyHistogram histogram = recorder.snapshot();
+        assertThat(histogram.getCounts(), is(equalTo(new long[] { 2, 1, 1 })));
+        assertThat(histogram.getCount(), is(equalTo(4L)));
+        assertThat(histogram.getTotalMillis(), is(equalTo(122L)));
+        assertThat(histogram.getAverageMillis(), is(equalTo(30.5)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder(new long[] { 10, 100 });
+        for (int i = 0; i < 90; i++) {
+            recorder.record(5);
+        }
+        for (int i = 0; i < 9; i++) {
+            recorder.record(50);
+        }
+        recorder.record(1000);
+
+        ModbusLatencyHistogram histogram = recorder.snapshot();
+        assertThat(histogram.getPercentileUpperBoundMillis(50), is(equalTo(10L)));
+        assertThat(histogram.getPercentileUpperBoundMillis(90), is(equalTo(10L)));
+        assertThat(histogram.getPercentileUpperBoundMillis(95), is(equalTo(100L)));
+        assertThat(histogram.getPercentileUpperBoundMillis(99), is(equalTo(100L)));
+        assertThat(histogram.getPercentileUpperBoundMillis(100), is(equalTo(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(1);
+        ModbusLatencyHistogram histogram = recorder.snapshot();
+        recorder.record(1);
+
+        assertThat(histogram.getCount(), is(equalTo(1L)));
+        assertThat(recorder.snapshot().getCount(), is(equalTo(2L)));
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusPollPlanner;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusPollPlannerTest {
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private PollTask task(int start, int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, 3), callback);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingRangesAreMerged() {
+        PollTask task1 = task(0, 2, mock(ModbusReadCallback.class));
+        PollTask task2 = task(2, 4, mock(ModbusReadCallback.class));
+        PollTask task3 = task(4, 4, mock(ModbusReadCallback.class));
+
+        List<PollTask> planned = new ModbusPollPlanner(0).plan(Arrays.asList(task3, task1, task2));
+
+        assertThat(planned.size(), is(equalTo(1)));
+        assertThat(planned.get(0), is(instanceOf(CoalescedPollTask.class)));
+        ModbusReadRequestBlueprint request = planned.get(0).getRequest();
+        assertThat(request.getReference(), is(equalTo(0)));
+        assertThat(request.getDataLength(), is(equalTo(8)));
+    }
+
+    @Test
+    public void testGapsAreRespected() {
+        PollTask task1 = task(0, 2, mock(ModbusReadCallback.class));
+        PollTask task2 = task(5, 2, mock(ModbusReadCallback.class));
+
+        assertThat(new ModbusPollPlanner(0).plan(Arrays.asList(task1, task2)),
+                is(equalTo(Arrays.asList(task1, task2))));
+
+        List<PollTask> planned = new ModbusPollPlanner(3).plan(Arrays.asList(task1, task2));
+        assertThat(planned.size(), is(equalTo(1)));
+        assertThat(planned.get(0).getRequest().getDataLength(), is(equalTo(7)));
+    }
+
+    @Test
+    public void testProtocolLimitIsRespected() {
+        PollTask task1 = task(0, 100, mock(ModbusReadCallback.class));
+        PollTask task2 = task(100, 100, mock(ModbusReadCallback.class));
+
+        assertThat(new ModbusPollPlanner(0).plan(Arrays.asList(task1, task2)),
+                is(equalTo(Arrays.asList(task1, task2))));
+    }
+
+    @Test
+    public void testResponseIsSplit() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(10, 2, callback1);
+        PollTask task2 = task(12, 1, callback2);
+        ModbusPollPlanner planner = new ModbusPollPlanner(0);
+        PollTask planned = planner.plan(Arrays.asList(task1, task2)).get(0);
+
+        planned.getCallback().onRegisters(planned.getRequest(), new BasicModbusRegisterArray(5, 6, 7));
+
+        ArgumentCaptor<ModbusRegisterArray> registers1 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback1).onRegisters(eq(task1.getRequest()), registers1.capture());
+        assertThat(registers1.getValue().size(), is(equalTo(2)));
+        assertThat(registers1.getValue().getRegister(0).getValue(), is(equalTo(5)));
+        assertThat(registers1.getValue().getRegister(1).getValue(), is(equalTo(6)));
+
+        ArgumentCaptor<ModbusRegisterArray> registers2 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback2).onRegisters(eq(task2.getRequest()), registers2.capture());
+        assertThat(registers2.getValue().size(), is(equalTo(1)));
+        assertThat(registers2.getValue().getRegister(0).getValue(), is(equalTo(7)));
+
+        assertThat(planner.getSavedTransactions().get(endpoint), is(equalTo(1L)));
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusManagerImpl;
+
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * Tests merging of regular polls against a real slave
+ *
+ * @author agent - Initial contribution
+ */
+public class PollCoalescingTest extends IntegrationTestSupport {
+
+    private static final long POLL_PERIOD_MILLIS = 150;
+    private static final long MAX_WAIT_REPLAN_MILLIS = 5000;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        for (int i = 0; i < 100; i++) {
+            spi.addRegister(new SimpleRegister(i));
+        }
+        modbusManager.close();
+        Map<String, Object> configProperties = new HashMap<>();
+        configProperties.put(ModbusManagerImpl.CONFIG_POLL_COALESCING, "true");
+        modbusManager = new NonOSGIModbusManager(configProperties);
+    }
+
+    private PollTask holdingPoll(ModbusSlaveEndpoint endpoint, int reference, int length) {
+        return new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, reference, length, 1),
+                mock(ModbusReadCallback.class));
+    }
+
+    /**
+     * Returns the (reference, word count) of the last requests received by the slave, the latest request last
+     */
+    private List<String> lastRequests(int count) {
+        List<ModbusRequest> requests = modbustRequestCaptor.getAllReturnValues();
+        List<String> ranges = new ArrayList<>();
+        synchronized (requests) {
+            for (int i = Math.max(0, requests.size() - count); i < requests.size(); i++) {
+                ReadMultipleRegistersRequest request = (ReadMultipleRegistersRequest) requests.get(i);
+                ranges.add(request.getReference() + "+" + request.getWordCount());
+            }
+        }
+        return ranges;
+    }
+
+    private void waitForLastRequests(String... expectedRanges) {
+        waitForAssert(() -> assertThat(lastRequests(expectedRanges.length), hasItems(expectedRanges)),
+                MAX_WAIT_REPLAN_MILLIS, 10);
+    }
+
+    @Test
+    public void testRegisteringAndUnregisteringPollsReplansTransactions() {
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        PollTask first = holdingPoll(endpoint, 1, 5);
+        PollTask second = holdingPoll(endpoint, 6, 5);
+        PollTask third = holdingPoll(endpoint, 11, 5);
+
+        modbusManager.registerRegularPoll(first, POLL_PERIOD_MILLIS, 0);
+        modbusManager.registerRegularPoll(second, POLL_PERIOD_MILLIS, 0);
+        // adjacent polls are read with one request
+        waitForLastRequests("1+10");
+
+        // another adjacent poll extends the merged request
+        modbusManager.registerRegularPoll(third, POLL_PERIOD_MILLIS, 0);
+        waitForLastRequests("1+15");
+
+        // without the poll in the middle, the remaining polls are not adjacent anymore
+        modbusManager.unregisterRegularPoll(second);
+        waitForLastRequests("1+5", "11+5");
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for the MapDB persistence service
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class MapDbCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATUS = "status";
+
+    private MapDbPersistenceService persistenceService;
+
+    public MapDbCommandExtension() {
+        super("mapdb", "Interact with the MapDB persistence service.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_STATUS:
+                    printStatus(console);
+                    break;
+
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATUS,
+                "shows the number of queued updates and the durations of the commits"));
+    }
+
+    @Reference
+    public void setPersistenceService(MapDbPersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    public void unsetPersistenceService(MapDbPersistenceService persistenceService) {
+        this.persistenceService = null;
+    }
+
+    private void printStatus(Console console) {
+        MapDbWriter writer = persistenceService.getWriter();
+        if (writer == null) {
+            console.println("The MapDB persistence service is not active");
+            return;
+        }
+        console.println("Queued updates: " + writer.getQueueLength());
+        console.println("Skipped updates: " + writer.getSkipped());
+        console.println("Commits: " + writer.getCommits());
+        console.println("Last commit: " + writer.getLastCommitMillis() + " ms");
+        console.println("Longest commit: " + writer.getMaxCommitMillis() + " ms");
+        console.println(String.format("Average commit: %.1f ms", writer.getAverageCommitMillis()));
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.Fun;
+import org.mapdb.Serializer;
+
+/**
+ * Time series of item states, stored in a MapDB B-tree.
+ *
+ * Every record is keyed by <code>(alias, epochMillis, sequence)</code> and holds the state encoded with
+ * {@link StateCodec}. Records of a single item are thus adjacent and ordered by time, and queries for a time range are
+ * range scans. The sequence orders the states of an item stored within the same millisecond.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbHistory {
+
+    private static final String MAP_NAME = "itemHistory";
+
+    private final BTreeMap<Fun.Tuple3<String, Long, Integer>, byte[]> records;
+    private final long downsampleMillis;
+
+    /**
+     * Create or open the history in the given database
+     *
+     * @param db database
+     * @param downsampleMillis length of the downsampling interval. Only the last state within an interval is kept.
+     *            Zero or negative keeps every state.
+     */
+    public MapDbHistory(DB db, long downsampleMillis) {
+        this.records = db.createTreeMap(MAP_NAME).keySerializer(BTreeKeySerializer.TUPLE3)
+                .valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        this.downsampleMillis = downsampleMillis;
+    }
+
+    /**
+     * Add a record to the time series of the given alias
+     *
+     * @param alias item alias
+     * @param state state to store
+     * @param epochMillis time of the state
+     */
+    public void store(String alias, State state, long epochMillis) {
+        if (downsampleMillis > 0) {
+            Fun.Tuple3<String, Long, Integer> last = records
+                    .floorKey(Fun.t3(alias, Long.MAX_VALUE, Integer.MAX_VALUE));
+            if (last != null && alias.equals(last.a)
+                    && Math.floorDiv(last.b, downsampleMillis) == Math.floorDiv(epochMillis, downsampleMillis)) {
+                // replace earlier state in the same interval
+                records.remove(last);
+            }
+        }
+        Fun.Tuple3<String, Long, Integer> previous = records.floorKey(Fun.t3(alias, epochMillis, Integer.MAX_VALUE));
+        int sequence = previous != null && alias.equals(previous.a) && previous.b == epochMillis ? previous.c + 1 : 0;
+        records.put(Fun.t3(alias, epochMillis, sequence), StateCodec.encode(state));
+    }
+
+    /**
+     * Query the time series of a single item. Begin and end date, ordering, paging and state filter of the criteria
+     * are taken into account.
+     *
+     * @param filter criteria
+     * @return matching records, empty if item name is not specified
+     */
+    public List<HistoricItem> query(FilterCriteria filter) {
+        return query(filter, Collections.emptyList());
+    }
+
+    /**
+     * Query the time series of a single item together with states which are not yet stored. The states are merged by
+     * time, a not yet stored state comes after the stored states of the same millisecond. Downsampling is only
+     * applied when the states are stored.
+     *
+     * @param filter criteria
+     * @param pendingItems states of the item which are not yet stored, in the order they will be stored
+     * @return matching records, empty if item name is not specified
+     */
+    public List<HistoricItem> query(FilterCriteria filter, List<MapDbItem> pendingItems) {
+        String alias = filter.getItemName();
+        if (alias == null) {
+            return Collections.emptyList();
+        }
+        Date beginDate = filter.getBeginDate();
+        Date endDate = filter.getEndDate();
+        long begin = beginDate == null ? Long.MIN_VALUE : beginDate.getTime();
+        long end = endDate == null ? Long.MAX_VALUE : endDate.getTime();
+        if (begin > end) {
+            return Collections.emptyList();
+        }
+
+        boolean descending = filter.getOrdering() == Ordering.DESCENDING;
+        NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> range = records.subMap(
+                Fun.t3(alias, begin, Integer.MIN_VALUE), true, Fun.t3(alias, end, Integer.MAX_VALUE), true);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        List<MapDbItem> pending = new ArrayList<>();
+        for (MapDbItem item : pendingItems) {
+            long time = item.getTimestamp().getTime();
+            if (alias.equals(item.getName()) && time >= begin && time <= end) {
+                pending.add(item);
+            }
+        }
+        // stable sort, states of the same millisecond keep their order
+        pending.sort(Comparator.comparingLong(item -> item.getTimestamp().getTime()));
+        if (descending) {
+            Collections.reverse(pending);
+        }
+
+        long skip = (long) filter.getPageNumber() * filter.getPageSize();
+        int limit = filter.getPageSize();
+        List<HistoricItem> result = new ArrayList<>();
+        Iterator<Map.Entry<Fun.Tuple3<String, Long, Integer>, byte[]>> stored = range.entrySet().iterator();
+        Map.@Nullable Entry<Fun.Tuple3<String, Long, Integer>, byte[]> nextStored = stored.hasNext() ? stored.next()
+                : null;
+        int nextPending = 0;
+        while (result.size() < limit && (nextStored != null || nextPending < pending.size())) {
+            long time;
+            @Nullable
+            State state;
+            if (nextStored != null && (nextPending >= pending.size() || isBefore(nextStored.getKey().b,
+                    pending.get(nextPending).getTimestamp().getTime(), descending))) {
+                time = nextStored.getKey().b;
+                state = StateCodec.decode(nextStored.getValue());
+                nextStored = stored.hasNext() ? stored.next() : null;
+            } else {
+                MapDbItem item = pending.get(nextPending++);
+                time = item.getTimestamp().getTime();
+                state = item.getState();
+            }
+            if (state == null || !matches(filter.getOperator(), filter.getState(), state)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(alias);
+            item.setState(state);
+            item.setTimestamp(new Date(time));
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Whether a stored state comes before a not yet stored state in the order of the query
+     */
+    private static boolean isBefore(long storedTime, long pendingTime, boolean descending) {
+        return descending ? storedTime > pendingTime : storedTime <= pendingTime;
+    }
+
+    /**
+     * Remove records older than the given time
+     *
+     * @param aliases aliases whose time series are trimmed
+     * @param epochMillis time of the oldest record to keep
+     * @return number of removed records
+     */
+    public int removeOlderThan(Collection<String> aliases, long epochMillis) {
+        int removed = 0;
+        for (String alias : aliases) {
+            Map<Fun.Tuple3<String, Long, Integer>, byte[]> expired = records.subMap(
+                    Fun.t3(alias, Long.MIN_VALUE, Integer.MIN_VALUE), true,
+                    Fun.t3(alias, epochMillis, Integer.MIN_VALUE), false);
+            removed += expired.size();
+            expired.clear();
+        }
+        return removed;
+    }
+
+    private static boolean matches(Operator operator, @Nullable State filterState, State state) {
+        if (filterState == null) {
+            return true;
+        }
+        switch (operator) {
+            case EQ:
+                return filterState.equals(state);
+            case NEQ:
+                return !filterState.equals(state);
+            default:
+                break;
+        }
+        if (!(filterState instanceof DecimalType) || !(state instanceof DecimalType)) {
+            return false;
+        }
+        int comparison = ((DecimalType) state).compareTo((DecimalType) filterState);
+        switch (operator) {
+            case GT:
+                return comparison > 0;
+            case GTE:
+                return comparison >= 0;
+            case LT:
+                return comparison < 0;
+            case LTE:
+                return comparison <= 0;
+            default:
+                return false;
+        }
+    }
+}
@@ -19,7 +19,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,7 +55,8 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        MapDbPersistenceService.class }, configurationPid = "org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,25 +65,48 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** configuration property enabling the time series of item states */
+    private static final String CONFIG_HISTORY = "history";
+
+    /** configuration property for the number of days states are kept in the time series, 0 keeps them forever */
+    private static final String CONFIG_HISTORY_RETENTION_DAYS = "historyRetentionDays";
+
+    /** configuration property for the downsampling interval of the time series in seconds, 0 keeps every state */
+    private static final String CONFIG_HISTORY_DOWNSAMPLE_SECONDS = "historyDownsampleSeconds";
+
+    /** configuration property for the time updates are collected before they are committed in one go */
+    private static final String CONFIG_COMMIT_INTERVAL_MILLIS = "commitIntervalMillis";
+
+    private static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 1000;
+
+    private static final long RETENTION_INTERVAL_MINUTES = 60;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService scheduler;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
     private Map<String, String> map;
+    @NonNullByDefault({})
+    private MapDbWriter writer;
+
+    /** time series of item states, null if history is disabled */
+    private @Nullable MapDbHistory history;
+    private long retentionMillis;
+    private @Nullable ScheduledFuture<?> retentionJob;
 
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    public void activate(Map<String, @Nullable Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        scheduler = ThreadPoolManager.getScheduledPool("persist");
 
         File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
@@ -94,15 +120,57 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
         map = db.createTreeMap("itemStore").makeOrGet();
+
+        MapDbHistory history = null;
+        if (Boolean.parseBoolean(String.valueOf(config.get(CONFIG_HISTORY)))) {
+            long downsampleMillis = TimeUnit.SECONDS.toMillis(getLong(config, CONFIG_HISTORY_DOWNSAMPLE_SECONDS));
+            history = new MapDbHistory(db, downsampleMillis);
+            retentionMillis = TimeUnit.DAYS.toMillis(getLong(config, CONFIG_HISTORY_RETENTION_DAYS));
+            if (retentionMillis > 0) {
+                retentionJob = scheduler.scheduleWithFixedDelay(this::applyRetention, 1, RETENTION_INTERVAL_MINUTES,
+                        TimeUnit.MINUTES);
+            }
+            logger.debug("MapDB history enabled (downsampling {} ms, retention {} ms)", downsampleMillis,
+                    retentionMillis);
+        }
+        this.history = history;
+
+        long commitIntervalMillis = config.containsKey(CONFIG_COMMIT_INTERVAL_MILLIS)
+                ? getLong(config, CONFIG_COMMIT_INTERVAL_MILLIS)
+                : DEFAULT_COMMIT_INTERVAL_MILLIS;
+        writer = new MapDbWriter(db, map, history, this::serialize, scheduler, commitIntervalMillis);
         logger.debug("MapDB persistence service is now activated");
     }
 
+    private long getLong(Map<String, @Nullable Object> config, String key) {
+        Object value = config.get(key);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for configuration parameter '{}', using 0", value, key);
+            return 0;
+        }
+    }
+
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> retentionJob = this.retentionJob;
+        if (retentionJob != null) {
+            retentionJob.cancel(false);
+            this.retentionJob = null;
+        }
+        if (writer != null) {
+            // write pending updates before closing the database, and stop retrying failed commits
+            writer.close();
+            writer = null;
+        }
+        history = null;
         if (db != null) {
             db.close();
         }
-        threadPool.shutdown();
     }
 
     @Override
@@ -145,15 +213,28 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
-        logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
+        if (writer.store(mItem)) {
+            logger.debug("Queued '{}' with state '{}' for MapDB database", alias, state.toString());
+        } else {
+            logger.trace("Skipped '{}' since its state '{}' has not changed", alias, state.toString());
+        }
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
+        if (this.history != null) {
+            // the updates which are not yet committed are merged into the result
+            return writer.queryHistory(filter);
+        }
+        String alias = filter.getItemName();
+        if (alias == null) {
+            return Collections.emptyList();
+        }
+        MapDbItem pending = writer.getPending(alias);
+        if (pending != null) {
+            return Collections.singletonList(pending);
+        }
+        String json = map.get(alias);
         if (json == null) {
             return Collections.emptyList();
         }
@@ -177,8 +258,27 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
+    private void applyRetention() {
+        MapDbWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+        try {
+            // committed by the writer, so that the commit never includes a part of a batch
+            int removed = writer.removeHistoryOlderThan(map.keySet(), System.currentTimeMillis() - retentionMillis);
+            logger.debug("Removed {} expired states from MapDB history", removed);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to remove expired states from MapDB history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the writer of the database, e.g. for its metrics
+     *
+     * @return the writer, or null if the service is not active
+     */
+    public @Nullable MapDbWriter getWriter() {
+        return writer;
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batching writer for the MapDB persistence service.
+ *
+ * Stored items are kept in memory for the commit interval. Several updates of the same alias within the interval
+ * result in a single write of the last one, and all writes of the interval are committed at once. States identical to
+ * the last stored state of the alias are skipped altogether. If a commit fails, its items are queued again unless
+ * the alias has been updated meanwhile, and the commit is retried until the writer is closed.
+ *
+ * All writes to the database go through the writer, so that they are never mixed with the writes of a batch.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbWriter {
+
+    private static final long MIN_RETRY_DELAY_MILLIS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbWriter.class);
+
+    private final DB db;
+    private final Map<String, String> map;
+    private final @Nullable MapDbHistory history;
+    private final Function<MapDbItem, String> serializer;
+    private final ScheduledExecutorService scheduler;
+    private final long commitIntervalMillis;
+
+    /** last state stored per alias, to skip unchanged states, guarded by this */
+    private final Map<String, State> lastStates = new HashMap<>();
+
+    /** latest pending item per alias, guarded by this */
+    private Map<String, MapDbItem> pending = new LinkedHashMap<>();
+    /** all pending items for the history, guarded by this */
+    private List<MapDbItem> pendingHistory = new ArrayList<>();
+    /** scheduled commit, guarded by this */
+    private @Nullable ScheduledFuture<?> commitJob;
+    /** serializes the writes to the database, guards closed */
+    private final Object flushLock = new Object();
+    private volatile boolean closed;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong totalCommitMillis = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long lastCommitMillis;
+    private volatile long maxCommitMillis;
+
+    /**
+     * Create writer
+     *
+     * @param db database to commit
+     * @param map map of last values, written as JSON
+     * @param history history to append to, or null if history is disabled
+     * @param serializer serializer of the last values
+     * @param scheduler executor for the commits
+     * @param commitIntervalMillis time to wait for further updates before committing
+     */
+    public MapDbWriter(DB db, Map<String, String> map, @Nullable MapDbHistory history,
+            Function<MapDbItem, String> serializer, ScheduledExecutorService scheduler, long commitIntervalMillis) {
+        this.db = db;
+        this.map = map;
+        this.history = history;
+        this.serializer = serializer;
+        this.scheduler = scheduler;
+        this.commitIntervalMillis = Math.max(0, commitIntervalMillis);
+    }
+
+    /**
+     * Queue item for writing
+     *
+     * @param item item to store
+     * @return false if the item was skipped since its state has not changed
+     */
+    public synchronized boolean store(MapDbItem item) {
+        State previous = lastStates.put(item.getName(), item.getState());
+        if (item.getState().equals(previous)) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        pending.put(item.getName(), item);
+        if (history != null) {
+            pendingHistory.add(item);
+        }
+        scheduleCommit(commitIntervalMillis);
+        return true;
+    }
+
+    /**
+     * Must be called while synchronized with this.
+     */
+    private void scheduleCommit(long delayMillis) {
+        if (commitJob == null && !closed) {
+            commitJob = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Get item which is not yet written
+     *
+     * @param alias alias of the item
+     * @return pending item, or null if there is none
+     */
+    public synchronized @Nullable MapDbItem getPending(String alias) {
+        return pending.get(alias);
+    }
+
+    /**
+     * Query the history, including the items which are not yet committed. The query does not force a commit, it only
+     * waits for a commit in progress, so that every item is seen either as pending or as committed.
+     *
+     * @param filter criteria
+     * @return matching records, empty if history is disabled
+     */
+    public List<HistoricItem> queryHistory(FilterCriteria filter) {
+        MapDbHistory history = this.history;
+        String alias = filter.getItemName();
+        if (history == null || alias == null) {
+            return new ArrayList<>();
+        }
+        synchronized (flushLock) {
+            List<MapDbItem> pendingItems;
+            synchronized (this) {
+                pendingItems = pendingHistory.stream().filter(item -> alias.equals(item.getName()))
+                        .collect(Collectors.toList());
+            }
+            return history.query(filter, pendingItems);
+        }
+    }
+
+    /**
+     * Remove and commit the history records older than the given time
+     *
+     * @param aliases aliases whose time series are trimmed
+     * @param epochMillis time of the oldest record to keep
+     * @return number of removed records
+     */
+    public int removeHistoryOlderThan(Collection<String> aliases, long epochMillis) {
+        MapDbHistory history = this.history;
+        if (history == null) {
+            return 0;
+        }
+        synchronized (flushLock) {
+            if (closed) {
+                return 0;
+            }
+            try {
+                int removed = history.removeOlderThan(aliases, epochMillis);
+                if (removed > 0) {
+                    db.commit();
+                }
+                return removed;
+            } catch (RuntimeException e) {
+                rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Write and commit all pending items
+     */
+    public void flush() {
+        // serialize flushes, so that an older batch never overwrites a newer one
+        synchronized (flushLock) {
+            if (!closed) {
+                commitPending();
+            }
+        }
+    }
+
+    /**
+     * Write and commit all pending items a last time. Items of a failed commit are not retried afterwards, and
+     * nothing is written after the writer is closed.
+     */
+    public void close() {
+        synchronized (flushLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            commitPending();
+        }
+    }
+
+    /**
+     * Must be called while synchronized with flushLock.
+     */
+    private void commitPending() {
+        Map<String, MapDbItem> batch;
+        List<MapDbItem> historyBatch;
+        synchronized (this) {
+            batch = pending;
+            historyBatch = pendingHistory;
+            pending = new LinkedHashMap<>();
+            pendingHistory = new ArrayList<>();
+            ScheduledFuture<?> commitJob = this.commitJob;
+            if (commitJob != null) {
+                commitJob.cancel(false);
+                this.commitJob = null;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            batch.forEach((alias, item) -> map.put(alias, serializer.apply(item)));
+            MapDbHistory history = this.history;
+            if (history != null) {
+                historyBatch.forEach(item -> history.store(item.getName(), item.getState(),
+                        item.getTimestamp().getTime()));
+            }
+            db.commit();
+        } catch (RuntimeException e) {
+            rollback();
+            if (closed) {
+                logger.warn("Failed to commit {} items to MapDB while closing, they are lost: {}", batch.size(),
+                        e.getMessage());
+            } else {
+                logger.warn("Failed to commit {} items to MapDB, retrying: {}", batch.size(), e.getMessage());
+                requeue(batch, historyBatch);
+            }
+            return;
+        }
+        long duration = System.currentTimeMillis() - start;
+        lastCommitMillis = duration;
+        maxCommitMillis = Math.max(maxCommitMillis, duration);
+        totalCommitMillis.addAndGet(duration);
+        commits.incrementAndGet();
+        logger.trace("Committed {} items ({} history states) to MapDB in {} ms, {} items queued", batch.size(),
+                historyBatch.size(), duration, getQueueLength());
+    }
+
+    private void rollback() {
+        try {
+            db.rollback();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to roll back the MapDB transaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queue the items of a failed commit again, without replacing items of the same alias stored meanwhile.
+     */
+    private synchronized void requeue(Map<String, MapDbItem> batch, List<MapDbItem> historyBatch) {
+        Map<String, MapDbItem> requeued = new LinkedHashMap<>(batch);
+        requeued.keySet().removeAll(pending.keySet());
+        requeued.putAll(pending);
+        pending = requeued;
+        historyBatch.addAll(pendingHistory);
+        pendingHistory = historyBatch;
+        scheduleCommit(Math.max(commitIntervalMillis, MIN_RETRY_DELAY_MILLIS));
+    }
+
+    /**
+     * Get number of items waiting to be written
+     *
+     * @return queue length
+     */
+    public synchronized int getQueueLength() {
+        return pending.size();
+    }
+
+    /**
+     * Get number of commits
+     *
+     * @return number of commits
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * Get number of items skipped since their state had not changed
+     *
+     * @return number of skipped items
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Get duration of the last commit
+     *
+     * @return duration in milliseconds
+     */
+    public long getLastCommitMillis() {
+        return lastCommitMillis;
+    }
+
+    /**
+     * Get duration of the longest commit
+     *
+     * @return duration in milliseconds
+     */
+    public long getMaxCommitMillis() {
+        return maxCommitMillis;
+    }
+
+    /**
+     * Get average duration of the commits
+     *
+     * @return average duration in milliseconds, or zero if nothing has been committed
+     */
+    public double getAverageCommitMillis() {
+        long commits = this.commits.get();
+        return commits == 0 ? 0 : (double) totalCommitMillis.get() / commits;
+    }
+}
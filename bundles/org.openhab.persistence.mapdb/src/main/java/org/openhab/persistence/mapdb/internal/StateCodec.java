@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary encoding of Eclipse SmartHome State values.
+ *
+ * The most common states are encoded with a one byte tag followed by their value. Other states are encoded like
+ * {@link StateTypeAdapter} does, with their class name and full string representation.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StateCodec {
+
+    private static final byte TAG_GENERIC = 0;
+    private static final byte TAG_ON_OFF = 1;
+    private static final byte TAG_OPEN_CLOSED = 2;
+    private static final byte TAG_DECIMAL = 3;
+    private static final byte TAG_PERCENT = 4;
+    private static final byte TAG_STRING = 5;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateCodec.class);
+
+    private StateCodec() {
+        // utility class
+    }
+
+    /**
+     * Encode the given state
+     *
+     * @param state state to encode
+     * @return binary representation of the state
+     */
+    public static byte[] encode(State state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (state instanceof OnOffType) {
+                out.writeByte(TAG_ON_OFF);
+                out.writeBoolean(state == OnOffType.ON);
+            } else if (state instanceof OpenClosedType) {
+                out.writeByte(TAG_OPEN_CLOSED);
+                out.writeBoolean(state == OpenClosedType.OPEN);
+            } else if (state.getClass() == PercentType.class && isCompact(((PercentType) state).toBigDecimal())) {
+                out.writeByte(TAG_PERCENT);
+                writeBigDecimal(out, ((PercentType) state).toBigDecimal());
+            } else if (state.getClass() == DecimalType.class && isCompact(((DecimalType) state).toBigDecimal())) {
+                out.writeByte(TAG_DECIMAL);
+                writeBigDecimal(out, ((DecimalType) state).toBigDecimal());
+            } else if (state instanceof StringType) {
+                out.writeByte(TAG_STRING);
+                writeString(out, state.toFullString());
+            } else {
+                out.writeByte(TAG_GENERIC);
+                writeString(out, state.getClass().getName());
+                writeString(out, state.toFullString());
+            }
+        } catch (IOException e) {
+            // cannot happen with in-memory streams
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a state encoded with {@link #encode(State)}
+     *
+     * @param data binary representation of the state
+     * @return the state, or null if it could not be decoded
+     */
+    public static @Nullable State decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte tag = in.readByte();
+            switch (tag) {
+                case TAG_ON_OFF:
+                    return in.readBoolean() ? OnOffType.ON : OnOffType.OFF;
+                case TAG_OPEN_CLOSED:
+                    return in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                case TAG_PERCENT:
+                    return new PercentType(readBigDecimal(in));
+                case TAG_DECIMAL:
+                    return new DecimalType(readBigDecimal(in));
+                case TAG_STRING:
+                    return new StringType(readString(in));
+                case TAG_GENERIC:
+                    return parseState(readString(in), readString(in));
+                default:
+                    LOGGER.warn("Couldn't decode state with unknown tag {}", tag);
+                    return null;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't decode state: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static @Nullable State parseState(String valueTypeName, String valueAsString) {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> valueType = (Class<? extends State>) Class.forName(valueTypeName);
+            List<Class<? extends State>> types = Collections.singletonList(valueType);
+            return TypeParser.parseState(types, valueAsString);
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't deserialize state '{}' of type {}: {}", valueAsString, valueTypeName,
+                    e.getMessage());
+        }
+        return null;
+    }
+
+    private static boolean isCompact(BigDecimal value) {
+        // unscaled value must fit in 255 bytes, see writeBigDecimal
+        return value.unscaledValue().bitLength() < 255 * 8;
+    }
+
+    private static void writeBigDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readBigDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
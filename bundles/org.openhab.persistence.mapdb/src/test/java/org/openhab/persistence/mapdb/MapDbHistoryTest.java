@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbHistory;
+import org.openhab.persistence.mapdb.internal.StateCodec;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbHistoryTest {
+
+    private DB db;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void encodeDecodeRoundtripShouldRecreateTheEncodedState() {
+        for (State state : Arrays.<State> asList(OnOffType.OFF, OpenClosedType.OPEN, new DecimalType("-12.345"),
+                PercentType.HUNDRED, HSBType.GREEN, StringType.valueOf("test"))) {
+            assertThat(StateCodec.decode(StateCodec.encode(state)), is(equalTo(state)));
+        }
+    }
+
+    @Test
+    public void queryShouldScanTheRequestedRange() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        for (int i = 0; i < 10; i++) {
+            history.store("item", new DecimalType(i), 1000L * i);
+            history.store("other", new DecimalType(-i), 1000L * i);
+        }
+
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setBeginDate(new Date(2000))
+                .setEndDate(new Date(4000)).setOrdering(Ordering.ASCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(2, 3, 4))));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(4, 3, 2))));
+    }
+
+    @Test
+    public void historicStateQueryShouldReturnLatestStateBeforeDate() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        history.store("item", OnOffType.ON, 1000);
+        history.store("item", OnOffType.OFF, 2000);
+
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setEndDate(new Date(1500))
+                .setOrdering(Ordering.DESCENDING).setPageSize(1);
+        List<HistoricItem> result = history.query(filter);
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getState(), is(equalTo(OnOffType.ON)));
+        assertThat(result.get(0).getTimestamp(), is(equalTo(new Date(1000))));
+    }
+
+    @Test
+    public void queryShouldSupportPagingAndStateFilter() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        for (int i = 0; i < 10; i++) {
+            history.store("item", new DecimalType(i), 1000L * i);
+        }
+
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING)
+                .setOperator(Operator.GTE).setState(new DecimalType(3)).setPageSize(2).setPageNumber(1);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(5, 6))));
+    }
+
+    @Test
+    public void storeShouldKeepStatesOfTheSameMillisecond() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        history.store("item", new DecimalType(1), 1000);
+        history.store("item", new DecimalType(2), 1000);
+        history.store("item", new DecimalType(3), 1000);
+        history.store("other", new DecimalType(4), 1000);
+
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setBeginDate(new Date(1000))
+                .setEndDate(new Date(1000)).setOrdering(Ordering.ASCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(1, 2, 3))));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(3, 2, 1))));
+
+        assertThat(history.removeOlderThan(Arrays.asList("item"), 1001), is(3));
+    }
+
+    @Test
+    public void storeShouldDownsample() {
+        MapDbHistory history = new MapDbHistory(db, 1000);
+        history.store("item", new DecimalType(1), 100);
+        history.store("item", new DecimalType(2), 900);
+        history.store("item", new DecimalType(3), 1100);
+
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(2, 3))));
+    }
+
+    @Test
+    public void removeOlderThanShouldOnlyRemoveExpiredStates() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        for (int i = 0; i < 10; i++) {
+            history.store("item", new DecimalType(i), 1000L * i);
+        }
+
+        assertThat(history.removeOlderThan(Arrays.asList("item"), 7000), is(7));
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING);
+        assertThat(values(history.query(filter)), is(equalTo(Arrays.asList(7, 8, 9))));
+    }
+
+    private List<Integer> values(List<HistoricItem> items) {
+        List<Integer> values = new ArrayList<>();
+        for (HistoricItem item : items) {
+            values.add(((DecimalType) item.getState()).intValue());
+        }
+        return values;
+    }
+}
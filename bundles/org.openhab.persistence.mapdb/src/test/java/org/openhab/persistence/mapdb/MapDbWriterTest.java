@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbHistory;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbWriter;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbWriterTest {
+
+    private DB db;
+    private Map<String, String> map;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        map = db.createTreeMap("itemStore").makeOrGet();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        db.close();
+    }
+
+    @Test
+    public void storeShouldCoalesceUpdatesUntilFlush() {
+        MapDbWriter writer = new MapDbWriter(db, map, null, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.store(item("item", new DecimalType(i))));
+        }
+        writer.store(item("other", new DecimalType(1)));
+
+        assertThat(writer.getQueueLength(), is(2));
+        assertThat(writer.getPending("item").getState(), is(equalTo(new DecimalType(4))));
+        assertThat(map.containsKey("item"), is(false));
+
+        writer.flush();
+        assertThat(writer.getQueueLength(), is(0));
+        assertThat(writer.getCommits(), is(1L));
+        assertThat(map.get("item"), is("4"));
+        assertThat(map.get("other"), is("1"));
+
+        writer.flush();
+        assertThat(writer.getCommits(), is(1L));
+    }
+
+    @Test
+    public void storeShouldSkipUnchangedStates() {
+        MapDbWriter writer = new MapDbWriter(db, map, null, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        assertTrue(writer.store(item("item", new DecimalType(1))));
+        writer.flush();
+
+        assertFalse(writer.store(item("item", new DecimalType(1))));
+        assertThat(writer.getSkipped(), is(1L));
+        assertThat(writer.getQueueLength(), is(0));
+        assertTrue(writer.store(item("item", new DecimalType(2))));
+    }
+
+    @Test
+    public void storeShouldKeepEveryStateInHistory() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        MapDbWriter writer = new MapDbWriter(db, map, history, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 3; i++) {
+            MapDbItem item = item("item", new DecimalType(i));
+            item.setTimestamp(new Date(1000L * i));
+            writer.store(item);
+        }
+        writer.flush();
+
+        assertThat(history.query(new FilterCriteria().setItemName("item")).size(), is(3));
+        assertThat(map.get("item"), is("2"));
+    }
+
+    @Test
+    public void failedCommitShouldBeRetriedWithoutOverwritingNewerItems() {
+        DB failingDb = spy(db);
+        doThrow(new IllegalStateException("disk full")).doCallRealMethod().when(failingDb).commit();
+        MapDbHistory history = new MapDbHistory(db, 0);
+        MapDbWriter writer = new MapDbWriter(failingDb, map, history, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        writer.store(item("item", new DecimalType(1)));
+        writer.store(item("other", new DecimalType(1)));
+
+        writer.flush();
+        assertThat(writer.getCommits(), is(0L));
+        assertThat(writer.getQueueLength(), is(2));
+        assertThat(map.containsKey("item"), is(false));
+
+        writer.store(item("item", new DecimalType(2)));
+        assertThat(writer.getPending("item").getState(), is(equalTo(new DecimalType(2))));
+
+        writer.flush();
+        assertThat(writer.getCommits(), is(1L));
+        assertThat(writer.getQueueLength(), is(0));
+        assertThat(map.get("item"), is("2"));
+        assertThat(map.get("other"), is("1"));
+        assertThat(history.query(new FilterCriteria().setItemName("item")).size(), is(2));
+        assertFalse(writer.store(item("other", new DecimalType(1))));
+    }
+
+    @Test
+    public void queryHistoryShouldIncludePendingItemsWithoutCommit() {
+        MapDbHistory history = new MapDbHistory(db, 0);
+        MapDbWriter writer = new MapDbWriter(db, map, history, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        MapDbItem committed = item("item", new DecimalType(1));
+        committed.setTimestamp(new Date(1000));
+        writer.store(committed);
+        writer.flush();
+        MapDbItem pending = item("item", new DecimalType(2));
+        pending.setTimestamp(new Date(2000));
+        writer.store(pending);
+        writer.store(item("other", new DecimalType(3)));
+
+        List<HistoricItem> result = writer.queryHistory(new FilterCriteria().setItemName("item"));
+        assertThat(result.size(), is(2));
+        assertThat(result.get(0).getState(), is(equalTo(new DecimalType(1))));
+        assertThat(result.get(1).getState(), is(equalTo(new DecimalType(2))));
+        assertThat(writer.getCommits(), is(1L));
+        assertThat(writer.getQueueLength(), is(2));
+    }
+
+    @Test
+    public void removeHistoryOlderThanShouldCommit() {
+        DB spyDb = spy(db);
+        MapDbHistory history = new MapDbHistory(db, 0);
+        MapDbWriter writer = new MapDbWriter(spyDb, map, history, item -> item.getState().toString(), scheduler,
+                TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 3; i++) {
+            MapDbItem item = item("item", new DecimalType(i));
+            item.setTimestamp(new Date(1000L * i));
+            writer.store(item);
+        }
+        writer.flush();
+
+        assertThat(writer.removeHistoryOlderThan(Collections.singleton("item"), 1500), is(2));
+        verify(spyDb, times(2)).commit();
+        assertThat(history.query(new FilterCriteria().setItemName("item")).size(), is(1));
+
+        assertThat(writer.removeHistoryOlderThan(Collections.singleton("item"), 1500), is(0));
+        verify(spyDb, times(2)).commit();
+    }
+
+    @Test
+    public void failedCommitShouldNotBeRetriedAfterClose() throws InterruptedException {
+        DB failingDb = spy(db);
+        doThrow(new IllegalStateException("disk full")).when(failingDb).commit();
+        MapDbWriter writer = new MapDbWriter(failingDb, map, null, item -> item.getState().toString(), scheduler, 10);
+        writer.store(item("item", new DecimalType(1)));
+
+        writer.close();
+        verify(failingDb, times(1)).commit();
+        writer.store(item("item", new DecimalType(2)));
+        writer.flush();
+        assertThat(writer.removeHistoryOlderThan(Collections.singleton("item"), 0), is(0));
+
+        Thread.sleep(100);
+        verify(failingDb, times(1)).commit();
+        assertThat(writer.getCommits(), is(0L));
+    }
+
+    @Test
+    public void scheduledCommitShouldWritePendingItems() throws InterruptedException {
+        MapDbWriter writer = new MapDbWriter(db, map, null, item -> item.getState().toString(), scheduler, 10);
+        writer.store(item("item", new DecimalType(1)));
+
+        for (int i = 0; i < 100 && writer.getCommits() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(writer.getCommits(), is(1L));
+        assertThat(map.get("item"), is("1"));
+    }
+
+    private MapDbItem item(String name, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(new Date());
+        return item;
+    }
+}
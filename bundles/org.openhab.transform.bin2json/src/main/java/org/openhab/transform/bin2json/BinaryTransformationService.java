@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+
+/**
+ * Service which transforms binary data by Java Binary Block Parser syntax to JSON format. Unlike the BIN2JSON
+ * transformation service, it takes the data as bytes, so callers which receive binary data do not have to encode it
+ * as hexadecimal string first.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface BinaryTransformationService {
+
+    /**
+     * Transforms binary data by Java Binary Block Parser syntax.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param data the binary data to transform
+     * @return JSON string
+     * @throws TransformationException if the syntax is invalid or the data does not match it
+     */
+    String transform(String syntax, byte[] data) throws TransformationException;
+
+    /**
+     * Transforms the remaining bytes of a buffer by Java Binary Block Parser syntax. The position of the buffer is not
+     * changed.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param data the binary data to transform
+     * @return JSON string
+     * @throws TransformationException if the syntax is invalid or the data does not match it
+     */
+    String transform(String syntax, ByteBuffer data) throws TransformationException;
+}
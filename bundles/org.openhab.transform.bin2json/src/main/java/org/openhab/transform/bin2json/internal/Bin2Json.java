@@ -14,16 +14,19 @@ package org.openhab.transform.bin2json.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
@@ -58,12 +61,16 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * "https://github.com/raydac/java-binary-block-parser">https://github.com/raydac/java-binary-block-parser</a>
  *
  * <p>
+ * The parser rule is prepared once, so instances can be kept and shared between threads. The JSON output is written
+ * directly from the parsed fields, without building a JSON tree first.
+ *
+ * <p>
  * Usage example:
  *
  * <pre>
  * {@code
- * JsonObject json = new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF");
- * json.toString() = {"a":3,"b":-6,"c":255}
+ * String json = new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF");
+ * json = {"a":3,"b":-6,"c":255}
  * </pre>
  *
  * @author Pauli Anttila - Initial contribution
@@ -71,9 +78,11 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  */
 public class Bin2Json {
 
+    private static final String UNNAMED_FIELD = "nonamed";
+
     private final Logger logger = LoggerFactory.getLogger(Bin2Json.class);
 
-    private JBBPParser parser;
+    private final JBBPParser parser;
 
     /**
      *
@@ -89,28 +98,30 @@ public class Bin2Json {
     }
 
     /**
-     * Convert {@link String} in hexadecimal string format to JSON object.
+     * Convert {@link String} in hexadecimal string format to JSON.
      *
      * @param hexString Data in hexadecimal string format. Example data: 03FAFF
-     * @return Gson {@link JsonObject}
+     * @return JSON string
      * @throws ConversionException
      */
-    public JsonObject convert(String hexString) throws ConversionException {
+    public String convert(String hexString) throws ConversionException {
+        byte[] data;
         try {
-            return convert(HexUtils.hexToBytes(hexString));
+            data = HexUtils.hexToBytes(hexString);
         } catch (IllegalArgumentException e) {
             throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
         }
+        return convert(data);
     }
 
     /**
-     * Convert byte array to JSON object.
+     * Convert byte array to JSON.
      *
      * @param data Data in byte array format.
-     * @return Gson {@link JsonObject}
+     * @return JSON string
      * @throws ConversionException
      */
-    public JsonObject convert(byte[] data) throws ConversionException {
+    public String convert(byte[] data) throws ConversionException {
         try {
             return convert(parser.parse(data));
         } catch (IOException e) {
@@ -121,13 +132,33 @@ public class Bin2Json {
     }
 
     /**
-     * Convert data from {@link InputStream} to JSON object.
+     * Convert the remaining bytes of a {@link ByteBuffer} to JSON. The position of the buffer is not changed.
+     *
+     * @param data Data in byte buffer.
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convert(ByteBuffer data) throws ConversionException {
+        if (data.hasArray()) {
+            byte[] array = data.array();
+            int from = data.arrayOffset() + data.position();
+            int to = from + data.remaining();
+            // use backing array directly if it holds exactly the remaining bytes
+            return convert(from == 0 && to == array.length ? array : Arrays.copyOfRange(array, from, to));
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return convert(bytes);
+    }
+
+    /**
+     * Convert data from {@link InputStream} to JSON.
      *
      * @param inputStream
-     * @return Gson {@link JsonObject}
+     * @return JSON string
      * @throws ConversionException
      */
-    public JsonObject convert(InputStream inputStream) throws ConversionException {
+    public String convert(InputStream inputStream) throws ConversionException {
         try {
             return convert(parser.parse(inputStream));
         } catch (IOException e) {
@@ -137,103 +168,123 @@ public class Bin2Json {
         }
     }
 
-    private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
+    private String convert(JBBPFieldStruct data) throws ConversionException {
         try {
-            LocalDateTime start = LocalDateTime.now();
-            final JsonObject json = convertToJSon(data);
+            final long start = System.nanoTime();
+            final StringWriter out = new StringWriter();
+            try (JsonWriter writer = new JsonWriter(out)) {
+                writeStruct(writer, data);
+            }
+            final String json = out.toString();
             if (logger.isTraceEnabled()) {
-                Duration duration = Duration.between(start, LocalDateTime.now());
-                logger.trace("Conversion time={}, json={}", duration, json.toString());
+                logger.trace("Conversion time={} us, json={}", (System.nanoTime() - start) / 1000, json);
             }
             return json;
-        } catch (JBBPException e) {
+        } catch (IOException | JBBPException e) {
             throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
         }
     }
 
-    private JsonObject convertToJSon(final JBBPAbstractField field) throws ConversionException {
-        return convertToJSon(null, field);
-    }
+    private void writeStruct(final JsonWriter writer, final JBBPFieldStruct struct)
+            throws IOException, ConversionException {
+        final JBBPAbstractField[] fields = struct.getArray();
 
-    private JsonObject convertToJSon(final JsonObject json, final JBBPAbstractField field) throws ConversionException {
-        JsonObject jsn = json == null ? new JsonObject() : json;
+        // like in a JSON object, a name shared by several fields (e.g. unnamed fields) is written once, at the
+        // position of its first field with the value of its last field
+        final Map<String, JBBPAbstractField> lastFields = new HashMap<>();
+        for (final JBBPAbstractField field : fields) {
+            lastFields.put(getName(field), field);
+        }
 
-        final String fieldName = field.getFieldName() == null ? "nonamed" : field.getFieldName();
+        final Set<String> written = new HashSet<>();
+        writer.beginObject();
+        for (final JBBPAbstractField field : fields) {
+            final String fieldName = getName(field);
+            if (written.add(fieldName)) {
+                writer.name(fieldName);
+                writeValue(writer, lastFields.get(fieldName));
+            }
+        }
+        writer.endObject();
+    }
+
+    private void writeValue(final JsonWriter writer, final JBBPAbstractField field)
+            throws IOException, ConversionException {
         if (field instanceof JBBPAbstractArrayField) {
-            final JsonArray jsonArray = new JsonArray();
+            writer.beginArray();
             if (field instanceof JBBPFieldArrayBit) {
                 for (final byte b : ((JBBPFieldArrayBit) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayBoolean) {
                 for (final boolean b : ((JBBPFieldArrayBoolean) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayByte) {
                 for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayInt) {
                 for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayLong) {
                 for (final long b : ((JBBPFieldArrayLong) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayShort) {
                 for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    writer.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayStruct) {
                 final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
                 for (int i = 0; i < array.size(); i++) {
-                    jsonArray.add(convertToJSon(new JsonObject(), array.getElementAt(i)));
+                    // every element is wrapped in an object holding the element under its name
+                    final JBBPFieldStruct element = array.getElementAt(i);
+                    writer.beginObject();
+                    writer.name(getName(element));
+                    writeStruct(writer, element);
+                    writer.endObject();
                 }
             } else if (field instanceof JBBPFieldArrayUByte) {
                 for (final byte b : ((JBBPFieldArrayUByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFF));
+                    writer.value(b & 0xFF);
                 }
             } else if (field instanceof JBBPFieldArrayUShort) {
                 for (final short b : ((JBBPFieldArrayUShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFFFF));
+                    writer.value(b & 0xFFFF);
                 }
             } else {
                 throw new ConversionException(String.format("Unexpected field type '%s'", field));
             }
-            jsn.add(fieldName, jsonArray);
+            writer.endArray();
         } else {
             if (field instanceof JBBPFieldBit) {
-                jsn.addProperty(fieldName, ((JBBPFieldBit) field).getAsInt());
+                writer.value(((JBBPFieldBit) field).getAsInt());
             } else if (field instanceof JBBPFieldBoolean) {
-                jsn.addProperty(fieldName, ((JBBPFieldBoolean) field).getAsBool());
+                writer.value(((JBBPFieldBoolean) field).getAsBool());
             } else if (field instanceof JBBPFieldByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldByte) field).getAsInt());
+                writer.value(((JBBPFieldByte) field).getAsInt());
             } else if (field instanceof JBBPFieldInt) {
-                jsn.addProperty(fieldName, ((JBBPFieldInt) field).getAsInt());
+                writer.value(((JBBPFieldInt) field).getAsInt());
             } else if (field instanceof JBBPFieldLong) {
-                jsn.addProperty(fieldName, ((JBBPFieldLong) field).getAsLong());
+                writer.value(((JBBPFieldLong) field).getAsLong());
             } else if (field instanceof JBBPFieldShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldShort) field).getAsInt());
+                writer.value(((JBBPFieldShort) field).getAsInt());
             } else if (field instanceof JBBPFieldStruct) {
-                final JBBPFieldStruct struct = (JBBPFieldStruct) field;
-                final JsonObject obj = new JsonObject();
-                for (final JBBPAbstractField f : struct.getArray()) {
-                    convertToJSon(obj, f);
-                }
-                if (json == null) {
-                    return obj;
-                } else {
-                    jsn.add(fieldName, obj);
-                }
+                writeStruct(writer, (JBBPFieldStruct) field);
             } else if (field instanceof JBBPFieldUByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldUByte) field).getAsInt());
+                writer.value(((JBBPFieldUByte) field).getAsInt());
             } else if (field instanceof JBBPFieldUShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldUShort) field).getAsInt());
+                writer.value(((JBBPFieldUShort) field).getAsInt());
             } else {
                 throw new ConversionException(String.format("Unexpected field '%s'", field));
             }
         }
-        return jsn;
+    }
+
+    private static String getName(final JBBPAbstractField field) {
+        final String fieldName = field.getFieldName();
+        return fieldName == null ? UNNAMED_FIELD : fieldName;
     }
 }
@@ -12,10 +12,15 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.bin2json.BinaryTransformationService;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,14 +29,31 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * hexa string formatted binary data by Binary Block Parser syntax to JSON format.
  *
+ * Prepared parsers are cached by their syntax. Binary data which is already available as bytes can be transformed
+ * directly through the {@link BinaryTransformationService} interface.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=BIN2JSON" })
-public class Bin2JsonTransformationService implements TransformationService {
+@Component(immediate = true, service = { TransformationService.class,
+        BinaryTransformationService.class }, property = { "smarthome.transform=BIN2JSON" })
+public class Bin2JsonTransformationService implements TransformationService, BinaryTransformationService {
+
+    /** maximum number of prepared parsers kept in the cache */
+    private static final int CACHE_SIZE = 64;
 
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    /** prepared parsers by syntax, in access order, guarded by itself */
+    private final Map<String, Bin2Json> cache = new LinkedHashMap<String, Bin2Json>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Bin2Json> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +68,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getParser(syntax).convert(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +78,33 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    @Override
+    public String transform(String syntax, byte[] data) throws TransformationException {
+        try {
+            return getParser(syntax).convert(data);
+        } catch (ConversionException e) {
+            throw new TransformationException("An error occurred while executing the converter. " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String transform(String syntax, ByteBuffer data) throws TransformationException {
+        try {
+            return getParser(syntax).convert(data);
+        } catch (ConversionException e) {
+            throw new TransformationException("An error occurred while executing the converter. " + e.getMessage(), e);
+        }
+    }
+
+    private Bin2Json getParser(String syntax) throws ConversionException {
+        synchronized (cache) {
+            Bin2Json parser = cache.get(syntax);
+            if (parser == null) {
+                parser = new Bin2Json(syntax);
+                cache.put(syntax, parser);
+            }
+            return parser;
+        }
+    }
 }
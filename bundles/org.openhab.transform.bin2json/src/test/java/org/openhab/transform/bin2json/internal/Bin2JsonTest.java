@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.Test;
+import org.openhab.transform.bin2json.BinaryTransformationService;
+
+/**
+ * Tests for {@link Bin2Json}. The expected results are the output of the former implementation, which built a Gson
+ * JSON object.
+ *
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test(expected = ConversionException.class)
+    public void testParserRuleError() throws ConversionException {
+        new Bin2Json("byte a byte b ubyte c;").convert("03FAFF");
+    }
+
+    @Test
+    public void testHexStringData() throws ConversionException {
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF"));
+    }
+
+    @Test
+    public void testByteArrayData() throws ConversionException {
+        byte[] data = { 0x03, (byte) 0xFA, (byte) 0xFF };
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert(data));
+    }
+
+    @Test
+    public void testInputStreamData() throws ConversionException {
+        ByteArrayInputStream data = new ByteArrayInputStream(new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF });
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert(data));
+    }
+
+    @Test
+    public void testByteBufferData() throws ConversionException {
+        ByteBuffer data = ByteBuffer.wrap(new byte[] { 0x00, 0x03, (byte) 0xFA, (byte) 0xFF, 0x00 }, 1, 3);
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert(data));
+        assertEquals(1, data.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(3).put(new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF });
+        direct.flip();
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert(direct));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void testNumbers() throws ConversionException {
+        assertEquals("{\"a\":-2,\"b\":65534,\"c\":1,\"d\":2}",
+                new Bin2Json("short a; ushort b; int c; long d;").convert("FFFEFFFE000000010000000000000002"));
+    }
+
+    @Test
+    public void testBitsAndBooleans() throws ConversionException {
+        assertEquals("{\"a\":1,\"b\":2,\"c\":true}", new Bin2Json("bit:4 a; bit:4 b; bool c;").convert("2101"));
+    }
+
+    @Test
+    public void testArrays() throws ConversionException {
+        assertEquals("{\"a\":[255,1],\"b\":[-1,1],\"c\":[65535]}",
+                new Bin2Json("ubyte [2] a; byte [2] b; ushort [1] c;").convert("FF01FF01FFFF"));
+    }
+
+    @Test
+    public void testStruct() throws ConversionException {
+        assertEquals("{\"a\":1,\"s\":{\"b\":2,\"c\":3}}",
+                new Bin2Json("byte a; s { ubyte b; ubyte c; }").convert("010203"));
+    }
+
+    @Test
+    public void testStructArray() throws ConversionException {
+        assertEquals("{\"s\":[{\"s\":{\"b\":1}},{\"s\":{\"b\":2}}]}",
+                new Bin2Json("s [2] { ubyte b; }").convert("0102"));
+    }
+
+    @Test
+    public void testUnnamedFieldsKeepPositionOfFirstAndValueOfLast() throws ConversionException {
+        assertEquals("{\"nonamed\":3,\"a\":2}", new Bin2Json("byte; byte a; byte;").convert("010203"));
+    }
+
+    @Test
+    public void testTransformationServiceReusesParser() throws TransformationException {
+        Bin2JsonTransformationService service = new Bin2JsonTransformationService();
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", service.transform("byte a; byte b; ubyte c;", "03FAFF"));
+        assertEquals("{\"a\":1,\"b\":2,\"c\":3}", service.transform("byte a; byte b; ubyte c;", "010203"));
+    }
+
+    @Test
+    public void testBinaryTransformationService() throws TransformationException {
+        BinaryTransformationService service = new Bin2JsonTransformationService();
+        byte[] data = { 0x03, (byte) 0xFA, (byte) 0xFF };
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", service.transform("byte a; byte b; ubyte c;", data));
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                service.transform("byte a; byte b; ubyte c;", ByteBuffer.wrap(data)));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testBinaryTransformationServiceWithTooShortData() throws TransformationException {
+        new Bin2JsonTransformationService().transform("int a;", new byte[] { 0x01 });
+    }
+}
@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -33,6 +35,9 @@ import com.jayway.jsonpath.PathNotFoundException;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * <p>
+ * Compiled paths are immutable and kept in a bounded cache shared by all threads.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -41,8 +46,21 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /** maximum number of compiled paths kept in the cache */
+    private static final int CACHE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /** compiled paths by expression, in access order, guarded by itself */
+    private final Map<String, JsonPath> cache = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +78,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = compile(jsonPathExpression).read(source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +94,17 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath compile(String jsonPathExpression) {
+        synchronized (cache) {
+            JsonPath path = cache.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                cache.put(jsonPathExpression, path);
+            }
+            return path;
+        }
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -13,12 +13,18 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +41,41 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Neither document builders nor compiled expressions are thread-safe. A thread borrows them from small pools owned by
+ * the service and returns them afterwards, so they are reused without being bound to the threads of the caller. The
+ * compiled expressions are pooled per expression in a bounded cache.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /** maximum number of expressions whose compiled forms are kept */
+    private static final int CACHE_SIZE = 64;
+
+    /** maximum number of idle document builders, and of idle compiled forms of an expression */
+    private static final int POOL_SIZE = 4;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final BlockingQueue<DocumentBuilder> builders = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /** idle compiled forms by expression, in access order, guarded by itself */
+    private final Map<String, BlockingQueue<XPathExpression>> expressions = new LinkedHashMap<String, BlockingQueue<XPathExpression>>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, BlockingQueue<XPathExpression>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** compiles the expressions, guarded by this */
+    private @Nullable XPath xpath;
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -54,21 +87,31 @@ public class XPathTransformationService implements TransformationService {
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            DocumentBuilder builder = borrowDocumentBuilder();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            Document doc;
+            try {
+                doc = builder.parse(inputSource);
+            } finally {
+                builder.reset();
+                builders.offer(builder);
+            }
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            BlockingQueue<XPathExpression> pool = getExpressionPool(xpathExpression);
+            XPathExpression expr = pool.poll();
+            if (expr == null) {
+                expr = compile(xpathExpression);
+            }
+            String transformationResult;
+            try {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            } finally {
+                pool.offer(expr);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -82,4 +125,32 @@ public class XPathTransformationService implements TransformationService {
         }
     }
 
+    private DocumentBuilder borrowDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = builders.poll();
+        if (builder == null) {
+            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+            domFactory.setNamespaceAware(true);
+            domFactory.setValidating(false);
+            builder = domFactory.newDocumentBuilder();
+        }
+        return builder;
+    }
+
+    private BlockingQueue<XPathExpression> getExpressionPool(String xpathExpression) {
+        synchronized (expressions) {
+            return expressions.computeIfAbsent(xpathExpression, key -> new ArrayBlockingQueue<>(POOL_SIZE));
+        }
+    }
+
+    private XPathExpression compile(String xpathExpression) throws XPathExpressionException {
+        synchronized (this) {
+            XPath xpath = this.xpath;
+            if (xpath == null) {
+                xpath = XPathFactory.newInstance().newXPath();
+                this.xpath = xpath;
+            }
+            return xpath.compile(xpathExpression);
+        }
+    }
+
 }
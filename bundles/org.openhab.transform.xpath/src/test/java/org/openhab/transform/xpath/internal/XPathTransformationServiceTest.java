@@ -14,6 +14,12 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -41,4 +47,22 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformFromSeveralThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String expression = i % 2 == 0 ? "//current_conditions/temp_c/@data"
+                        : "//current_conditions/temp_f/@data";
+                results.add(executor.submit(() -> processor.transform(expression, source)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? "8" : "46", results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
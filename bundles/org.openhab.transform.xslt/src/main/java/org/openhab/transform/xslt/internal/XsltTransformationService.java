@@ -15,9 +15,11 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -35,14 +37,33 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Compiled stylesheets are cached and recompiled when their file is modified.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    /** maximum number of compiled stylesheets kept in the cache */
+    private static final int CACHE_SIZE = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /** compiled stylesheets by path, in access order, guarded by itself */
+    private final Map<String, CompiledStylesheet> cache = new LinkedHashMap<String, CompiledStylesheet>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompiledStylesheet> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,29 +81,19 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
-
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
+        String path = ConfigConstants.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
+                + File.separator + filename;
 
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
+        logger.debug("about to transform '{}' by the function '{}'", source, path);
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        Templates templates = getTemplates(path);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            // transformers are cheap to create from compiled templates, but not thread-safe
+            templates.newTransformer().transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
@@ -93,4 +104,46 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    private Templates getTemplates(String path) throws TransformationException {
+        File file = new File(path);
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        synchronized (cache) {
+            CompiledStylesheet stylesheet = cache.get(path);
+            if (stylesheet != null && stylesheet.lastModified == lastModified && stylesheet.length == length) {
+                return stylesheet.templates;
+            }
+
+            try {
+                // TransformerFactory is not thread-safe, compile while holding the lock
+                Templates templates = transformerFactory.newTemplates(new StreamSource(file));
+                cache.put(path, new CompiledStylesheet(templates, lastModified, length));
+                logger.debug("compiled stylesheet '{}'", path);
+                return templates;
+            } catch (TransformerConfigurationException e) {
+                cache.remove(path);
+                String message = "compiling file '" + path + "' throws exception";
+
+                logger.error("{}", message, e);
+                throw new TransformationException(message, e);
+            }
+        }
+    }
+
+    /**
+     * Compiled stylesheet together with the state of its file at compile time
+     */
+    private static class CompiledStylesheet {
+        private final Templates templates;
+        private final long lastModified;
+        private final long length;
+
+        private CompiledStylesheet(Templates templates, long lastModified, long length) {
+            this.templates = templates;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
 }
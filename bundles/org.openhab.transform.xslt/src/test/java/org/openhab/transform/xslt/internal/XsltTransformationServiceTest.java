@@ -14,7 +14,14 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
 import org.junit.Before;
 import org.junit.Test;
 import org.openhab.transform.xslt.internal.XsltTransformationService;
@@ -41,4 +48,28 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByModifiedXSLT() throws TransformationException, IOException {
+        File file = new File(ConfigConstants.getConfigFolder() + File.separator
+                + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + "http" + File.separator
+                + "modified.xsl");
+        try {
+            Files.write(file.toPath(), stylesheet("temp_c").getBytes(StandardCharsets.UTF_8));
+            assertEquals("8", processor.transform("http/modified.xsl", source));
+
+            // the cached stylesheet must be recompiled
+            Files.write(file.toPath(), stylesheet("temp_f").getBytes(StandardCharsets.UTF_8));
+            file.setLastModified(file.lastModified() + 2000);
+            assertEquals("46", processor.transform("http/modified.xsl", source));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private String stylesheet(String element) {
+        return "<?xml version=\"1.0\"?><xsl:stylesheet xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" "
+                + "version=\"1.0\"><xsl:output method=\"text\"/><xsl:template match=\"//current_conditions\">"
+                + "<xsl:value-of select=\"" + element + "/@data\"/></xsl:template></xsl:stylesheet>";
+    }
+
 }
@@ -14,7 +14,9 @@ package org.openhab.voice.googletts.internal;
 
 import static org.openhab.voice.googletts.internal.GoogleTTSService.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
@@ -24,11 +26,12 @@ import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
-import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
 import org.openhab.voice.googletts.internal.protocol.AudioEncoding;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -95,6 +98,11 @@ public class GoogleTTSService implements TTSService {
      */
     private GoogleCloudAPI apiImpl;
 
+    /**
+     * Cache of the synthesized audio
+     */
+    private TTSCache cache;
+
     /**
      * All voices for all supported locales
      */
@@ -113,12 +121,10 @@ public class GoogleTTSService implements TTSService {
         // create cache folder
         File userData = new File(ConfigConstants.getUserDataFolder());
         File cacheFolder = new File(new File(userData, CACHE_FOLDER_NAME), SERVICE_PID);
-        if (!cacheFolder.exists()) {
-            cacheFolder.mkdirs();
-        }
         logger.info("Using cache folder {}", cacheFolder.getAbsolutePath());
 
-        apiImpl = new GoogleCloudAPI(cacheFolder);
+        cache = new TTSCache(SERVICE_ID, cacheFolder);
+        apiImpl = new GoogleCloudAPI();
         updateConfig(config);
     }
 
@@ -211,6 +217,11 @@ public class GoogleTTSService implements TTSService {
             }
             logger.trace("New configuration: {}", config.toString());
 
+            // maintain cache
+            if (config.getPurgeCache() != null && config.getPurgeCache()) {
+                cache.clear();
+            }
+
             if (config.getServiceAccountKey() != null) {
                 apiImpl.setConfig(config);
                 if (apiImpl.isInitialized()) {
@@ -306,11 +317,21 @@ public class GoogleTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        // create the audio byte array for given text, locale, format
-        byte[] audio = apiImpl.synthesizeSpeech(trimmedText, (GoogleTTSVoice) voice, requestedFormat.getCodec());
-        if (audio == null) {
-            throw new TTSException("Could not read from Google Cloud TTS Service");
+        // create the audio for given text, locale, format, the configuration changes the audio as well
+        GoogleTTSVoice googleVoice = (GoogleTTSVoice) voice;
+        String codec = requestedFormat.getCodec();
+        TTSCacheKey key = new TTSCacheKey(googleVoice.getTechnicalName(), apiImpl.getFileExtension(codec), trimmedText,
+                config.toConfigString());
+        try {
+            return cache.get(key, requestedFormat, () -> {
+                byte[] audio = apiImpl.synthesizeSpeech(trimmedText, googleVoice, codec);
+                if (audio == null) {
+                    throw new IOException("No response");
+                }
+                return new ByteArrayInputStream(audio);
+            });
+        } catch (IOException e) {
+            throw new TTSException("Could not read from Google Cloud TTS Service: " + e.getMessage(), e);
         }
-        return new ByteArrayAudioStream(audio, requestedFormat);
     }
 }
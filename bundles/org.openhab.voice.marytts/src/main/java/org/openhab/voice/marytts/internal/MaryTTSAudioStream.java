@@ -15,11 +15,9 @@ package org.openhab.voice.marytts.internal;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
 
-import javax.sound.sampled.AudioInputStream;
-
-import org.apache.commons.io.IOUtils;
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioSource;
@@ -28,36 +26,107 @@ import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
 /**
  * Implementation of the {@link AudioSource} interface for the {@link MaryTTSService}
  *
+ * The audio of a text can be appended sentence by sentence while the stream is already read, so that playback
+ * starts as soon as the first sentence is synthesized. If reading starts before the synthesis is complete, the WAVE
+ * header announces an unknown length. The length and the cloned streams are only available when the synthesis is
+ * complete, {@link #length()} and {@link #getClonedStream()} wait for it.
+ *
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
 class MaryTTSAudioStream extends FixedLengthAudioStream {
 
+    private static final int HEADER_LENGTH = 44;
+
+    /**
+     * Chunk size announced in the header while the length is unknown
+     */
+    private static final long UNKNOWN_LENGTH = 0xFFFFFFFFL;
+
     /**
      * {@link AudioFormat} of this {@link AudioSource}
      */
     private final AudioFormat audioFormat;
 
+    // guarded by this
+    private byte[] rawAudio;
+    private int rawLength;
+    private boolean complete;
+    private IOException failure;
+    private boolean closed;
+    private byte[] header;
+    private long position;
+
     /**
-     * {@link InputStream} of this {@link AudioSource}
+     * Constructs an instance whose audio is appended while it is synthesized
+     *
+     * @param audioFormat The AudioFormat of this instance
      */
-    private InputStream inputStream;
-
-    private final byte[] rawAudio;
-    private final int length;
+    public MaryTTSAudioStream(AudioFormat audioFormat) {
+        this.audioFormat = audioFormat;
+        this.rawAudio = new byte[0];
+    }
 
     /**
-     * Constructs an instance with the passed properties
+     * Constructs an instance with the complete audio
      *
-     * @param inputStream The InputStream of this instance
+     * @param rawAudio The PCM data of this instance
      * @param audioFormat The AudioFormat of this instance
-     * @throws IOException
      */
-    public MaryTTSAudioStream(AudioInputStream inputStream, AudioFormat audioFormat) throws IOException {
-        rawAudio = IOUtils.toByteArray(inputStream);
-        this.length = rawAudio.length + 36;
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
+    public MaryTTSAudioStream(byte[] rawAudio, AudioFormat audioFormat) {
         this.audioFormat = audioFormat;
+        this.rawAudio = rawAudio;
+        this.rawLength = rawAudio.length;
+        this.complete = true;
+    }
+
+    /**
+     * Appends the PCM data of the next part of the text
+     */
+    synchronized void append(byte[] audio) {
+        if (rawLength + audio.length > rawAudio.length) {
+            rawAudio = Arrays.copyOf(rawAudio, Math.max(rawLength + audio.length, rawAudio.length * 2));
+        }
+        System.arraycopy(audio, 0, rawAudio, rawLength, audio.length);
+        rawLength += audio.length;
+        notifyAll();
+    }
+
+    /**
+     * Marks the audio as complete
+     */
+    synchronized void complete() {
+        complete = true;
+        notifyAll();
+    }
+
+    /**
+     * Ends the audio because the synthesis has failed
+     */
+    synchronized void fail(IOException failure) {
+        this.failure = failure;
+        complete = true;
+        notifyAll();
+    }
+
+    /**
+     * Returns true if the stream has been closed by its reader, further synthesis is not needed then
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the complete audio including the WAVE header, or null if the synthesis has failed
+     */
+    synchronized byte[] getWaveAudio() throws IOException {
+        awaitComplete();
+        if (failure != null) {
+            return null;
+        }
+        byte[] waveAudio = Arrays.copyOf(getWavHeader(rawLength), HEADER_LENGTH + rawLength);
+        System.arraycopy(rawAudio, 0, waveAudio, HEADER_LENGTH, rawLength);
+        return waveAudio;
     }
 
     @Override
@@ -65,36 +134,86 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         return this.audioFormat;
     }
 
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
     @Override
     public int read(byte[] b) throws IOException {
-        return inputStream.read(b, 0, b.length);
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (header == null) {
+            header = getWavHeader(complete ? rawLength : UNKNOWN_LENGTH);
+        }
+        if (position < HEADER_LENGTH) {
+            int length = Math.min(len, HEADER_LENGTH - (int) position);
+            System.arraycopy(header, (int) position, b, off, length);
+            position += length;
+            return length;
+        }
+        int rawPosition = (int) (position - HEADER_LENGTH);
+        while (rawPosition >= rawLength && !complete && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the synthesis");
+            }
+        }
+        if (rawPosition >= rawLength) {
+            if (failure != null) {
+                throw failure;
+            }
+            return -1;
+        }
+        int length = Math.min(len, rawLength - rawPosition);
+        System.arraycopy(rawAudio, rawPosition, b, off, length);
+        position += length;
+        return length;
     }
 
     @Override
-    public int read(byte[] b, int off, int len) throws IOException {
-        return inputStream.read(b, off, len);
+    public synchronized int available() {
+        if (header == null || position < HEADER_LENGTH) {
+            return HEADER_LENGTH - (int) position;
+        }
+        return rawLength - (int) (position - HEADER_LENGTH);
     }
 
     @Override
-    public int read() throws IOException {
-        return inputStream.read();
+    public synchronized void close() throws IOException {
+        closed = true;
+        notifyAll();
     }
 
     @Override
-    public long length() {
-        return length;
+    public synchronized long length() {
+        try {
+            awaitComplete();
+        } catch (IOException e) {
+            // the length of the audio synthesized so far
+        }
+        return HEADER_LENGTH + rawLength;
     }
 
-    private InputStream getWavHeaderInputStream(int length) throws IOException {
+    private byte[] getWavHeader(long rawLength) {
         // WAVE header
         // see http://www-mmsp.ece.mcgill.ca/Documents/AudioFormats/WAVE/WAVE.html
-        byte[] header = new byte[44];
+        byte[] header = new byte[HEADER_LENGTH];
 
         byte format = 0x10; // PCM
         byte bits = 16;
         byte channel = 1;
         long srate = (this.audioFormat != null) ? this.audioFormat.getFrequency() : 48000l;
-        long rawLength = length - 36;
+        long length = rawLength == UNKNOWN_LENGTH ? UNKNOWN_LENGTH : rawLength + 36;
         long bitrate = srate * channel * bits;
 
         header[0] = 'R';
@@ -122,8 +241,8 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         header[22] = channel;
         header[23] = 0;
         header[24] = (byte) (srate & 0xff);
-        header[25] = (byte) ((srate >> 8) & 0xff); 
-        header[26] = (byte) ((srate >> 16) & 0xff); 
+        header[25] = (byte) ((srate >> 8) & 0xff);
+        header[26] = (byte) ((srate >> 16) & 0xff);
         header[27] = (byte) ((srate >> 24) & 0xff);
         header[28] = (byte) ((bitrate / 8) & 0xff);
         header[29] = (byte) (((bitrate / 8) >> 8) & 0xff);
@@ -141,21 +260,36 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         header[41] = (byte) ((rawLength >> 8) & 0xff);
         header[42] = (byte) ((rawLength >> 16) & 0xff);
         header[43] = (byte) ((rawLength >> 24) & 0xff);
-        return new ByteArrayInputStream(header);
+        return header;
+    }
+
+    private void awaitComplete() throws IOException {
+        while (!complete) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the synthesis");
+            }
+        }
     }
 
     @Override
     public synchronized void reset() throws IOException {
-        IOUtils.closeQuietly(inputStream);
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
+        header = null;
+        position = 0;
     }
 
     @Override
     public InputStream getClonedStream() throws AudioException {
         try {
-            return new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
+            byte[] waveAudio = getWaveAudio();
+            if (waveAudio == null) {
+                throw new AudioException("The synthesis has failed");
+            }
+            return new ByteArrayInputStream(waveAudio);
         } catch (IOException e) {
-            throw new AudioException(e);
+            throw new AudioException(e.getMessage(), e);
         }
     }
 }
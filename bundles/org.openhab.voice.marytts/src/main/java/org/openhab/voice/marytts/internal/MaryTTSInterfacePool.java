@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.marytts.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.smarthome.core.voice.Voice;
+
+import marytts.LocalMaryInterface;
+import marytts.MaryInterface;
+import marytts.exceptions.MaryConfigurationException;
+
+/**
+ * Pool of {@link MaryInterface}s, each of them set up for one voice.
+ *
+ * A {@link MaryInterface} keeps the locale and voice of the next synthesis as state, so an interface can only be
+ * used by one synthesis at a time. The pool creates up to a maximum number of interfaces per voice on demand and
+ * keeps them for reuse, so that several texts can be synthesized concurrently.
+ *
+ * @author agent - Initial contribution
+ */
+class MaryTTSInterfacePool {
+
+    private final int maxInterfacesPerVoice;
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Map<String, Queue<MaryInterface>> idleInterfaces = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a pool
+     *
+     * @param maxInterfacesPerVoice The maximum number of concurrent syntheses of one voice
+     */
+    MaryTTSInterfacePool(int maxInterfacesPerVoice) {
+        this.maxInterfacesPerVoice = maxInterfacesPerVoice;
+    }
+
+    /**
+     * Takes an interface for the passed voice from the pool, waiting while all interfaces of the voice are in use
+     *
+     * @param voice The voice to synthesize with
+     * @return An interface set up for the voice, to be returned with {@link #release(Voice, MaryInterface)}
+     * @throws IOException if no interface could be created or the thread has been interrupted
+     */
+    MaryInterface acquire(Voice voice) throws IOException {
+        Semaphore voicePermits = permits.computeIfAbsent(voice.getLabel(), k -> new Semaphore(maxInterfacesPerVoice));
+        try {
+            voicePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for voice " + voice.getLabel());
+        }
+        MaryInterface marytts = getIdleInterfaces(voice).poll();
+        if (marytts != null) {
+            return marytts;
+        }
+        try {
+            marytts = new LocalMaryInterface();
+            marytts.setLocale(voice.getLocale());
+            marytts.setVoice(voice.getLabel());
+            return marytts;
+        } catch (MaryConfigurationException | IllegalArgumentException e) {
+            voicePermits.release();
+            throw new IOException("Failed to set up voice " + voice.getLabel() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns an interface to the pool
+     *
+     * @param voice The voice the interface has been acquired for
+     * @param marytts The interface
+     */
+    void release(Voice voice, MaryInterface marytts) {
+        getIdleInterfaces(voice).offer(marytts);
+        permits.get(voice.getLabel()).release();
+    }
+
+    private Queue<MaryInterface> getIdleInterfaces(Voice voice) {
+        return idleInterfaces.computeIfAbsent(voice.getLabel(), k -> new ConcurrentLinkedQueue<>());
+    }
+}
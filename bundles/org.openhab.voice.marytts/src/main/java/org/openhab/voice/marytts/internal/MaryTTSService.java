@@ -14,15 +14,27 @@ package org.openhab.voice.marytts.internal;
 
 import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
 
+import java.io.File;
 import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import javax.sound.sampled.AudioInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,10 +54,31 @@ import marytts.modules.synthesis.Voice;
 @Component
 public class MaryTTSService implements TTSService {
 
+    /**
+     * Cache folder under $userdata
+     */
+    private static final String CACHE_FOLDER_NAME = "cache";
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
+    private final ExecutorService scheduler = ThreadPoolManager.getPool("marytts");
+
+    /**
+     * Interface used to query the voices
+     */
     private MaryInterface marytts;
 
+    /**
+     * Interfaces used for synthesis, several texts can be synthesized concurrently with the same voice
+     */
+    private final MaryTTSInterfacePool interfacePool = new MaryTTSInterfacePool(
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Cache of the synthesized audio
+     */
+    private TTSCache cache;
+
     /**
      * Set of supported voices
      */
@@ -59,6 +92,9 @@ public class MaryTTSService implements TTSService {
     protected void activate() {
         try {
             marytts = new LocalMaryInterface();
+            File cacheFolder = new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME),
+                    "org.openhab.voice.marytts");
+            cache = new TTSCache(getId(), cacheFolder);
             voices = initVoices();
             audioFormats = initAudioFormats();
         } catch (MaryConfigurationException e) {
@@ -114,18 +150,98 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
-        // Synchronize on marytts
-        synchronized (marytts) {
-            // Set voice (Each voice supports only a single AudioFormat)
-            marytts.setLocale(voice.getLocale());
-            marytts.setVoice(voice.getLabel());
+        TTSCacheKey key = new TTSCacheKey(voice.getLabel(), "wav", text);
+        try {
+            AudioStream cachedAudio = cache.getIfPresent(key, maryTTSVoiceAudioFormat);
+            if (cachedAudio != null) {
+                return cachedAudio;
+            }
+            List<String> sentences = splitSentences(text, voice.getLocale());
+            TTSCache.PendingSynthesis synthesis = sentences.size() > 1 ? cache.startSynthesis(key) : null;
+            if (synthesis == null) {
+                // a single sentence, or a text which is already synthesized for another request
+                return cache.get(key, maryTTSVoiceAudioFormat,
+                        () -> new MaryTTSAudioStream(generateAudio(text, voice), maryTTSVoiceAudioFormat));
+            }
+            return synthesizeSentences(synthesis, key, sentences, voice, maryTTSVoiceAudioFormat);
+        } catch (IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+    }
 
+    /**
+     * Synthesizes a text of several sentences in the background. Each sentence is appended to the returned stream
+     * as soon as it is synthesized, so that playback can start with the first sentence. Requests of the same text
+     * wait for the pending synthesis of the cache until the complete audio is cached.
+     */
+    private AudioStream synthesizeSentences(TTSCache.PendingSynthesis synthesis, TTSCacheKey key,
+            List<String> sentences, org.eclipse.smarthome.core.voice.Voice voice,
+            AudioFormat maryTTSVoiceAudioFormat) {
+        MaryTTSAudioStream audioStream = new MaryTTSAudioStream(maryTTSVoiceAudioFormat);
+        scheduler.execute(() -> {
+            try {
+                for (String sentence : sentences) {
+                    if (audioStream.isClosed()) {
+                        logger.debug("Synthesis of '{}' aborted, the stream has been closed", key.getText());
+                        synthesis.cancel();
+                        audioStream.fail(new IOException("Synthesis aborted"));
+                        return;
+                    }
+                    audioStream.append(generateAudio(sentence, voice));
+                }
+            } catch (IOException e) {
+                logger.warn("Error synthesizing '{}': {}", key.getText(), e.getMessage());
+                synthesis.fail(e);
+                audioStream.fail(e);
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Error synthesizing '{}': {}", key.getText(), e.getMessage(), e);
+                IOException failure = new IOException(e);
+                synthesis.fail(failure);
+                audioStream.fail(failure);
+                return;
+            }
+            audioStream.complete();
             try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
+                synthesis.complete(audioStream.getWaveAudio());
+            } catch (IOException e) {
+                logger.debug("Could not cache the audio of '{}': {}", key.getText(), e.getMessage());
+            }
+        });
+        return audioStream;
+    }
+
+    /**
+     * Synthesizes a text with an interface of the pool
+     *
+     * @return The PCM data of the text
+     */
+    private byte[] generateAudio(String text, org.eclipse.smarthome.core.voice.Voice voice) throws IOException {
+        MaryInterface maryInterface = interfacePool.acquire(voice);
+        try (AudioInputStream audioInputStream = maryInterface.generateAudio(text)) {
+            return IOUtils.toByteArray(audioInputStream);
+        } catch (SynthesisException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            interfacePool.release(voice, maryInterface);
+        }
+    }
+
+    /**
+     * Splits a text into its sentences
+     */
+    static List<String> splitSentences(String text, Locale locale) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(text);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end).trim();
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
             }
         }
+        return sentences;
     }
 
     /**
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.marytts.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests streaming the sentences of a text with {@link MaryTTSAudioStream}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MaryTTSAudioStreamTest {
+
+    private static final int HEADER_LENGTH = 44;
+    private static final AudioFormat FORMAT = new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED,
+            false, 16, 16 * 16000, 16000L);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static long getChunkSize(byte[] waveAudio) {
+        return (waveAudio[4] & 0xffL) | (waveAudio[5] & 0xffL) << 8 | (waveAudio[6] & 0xffL) << 16
+                | (waveAudio[7] & 0xffL) << 24;
+    }
+
+    @Test
+    public void sentencesAreReadWhileTheyAreAppended() throws Exception {
+        MaryTTSAudioStream audioStream = new MaryTTSAudioStream(FORMAT);
+        Future<byte[]> result = executor.submit(() -> IOUtils.toByteArray(audioStream));
+
+        audioStream.append(new byte[] { 1, 2 });
+        Thread.sleep(50);
+        assertFalse(result.isDone());
+        audioStream.append(new byte[] { 3 });
+        audioStream.complete();
+
+        byte[] waveAudio = result.get(5, TimeUnit.SECONDS);
+        assertEquals(HEADER_LENGTH + 3, waveAudio.length);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Arrays.copyOfRange(waveAudio, HEADER_LENGTH, waveAudio.length));
+        // the length was unknown when reading started
+        assertEquals(0xFFFFFFFFL, getChunkSize(waveAudio));
+        assertEquals(HEADER_LENGTH + 3, audioStream.length());
+    }
+
+    @Test
+    public void completeAudioHasKnownLength() throws IOException {
+        MaryTTSAudioStream audioStream = new MaryTTSAudioStream(FORMAT);
+        audioStream.append(new byte[] { 1, 2 });
+        audioStream.append(new byte[] { 3, 4 });
+        audioStream.complete();
+
+        byte[] waveAudio = audioStream.getWaveAudio();
+        assertEquals(36 + 4, getChunkSize(waveAudio));
+        ByteArrayOutputStream cloned = new ByteArrayOutputStream();
+        try {
+            IOUtils.copy(audioStream.getClonedStream(), cloned);
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+        assertArrayEquals(waveAudio, cloned.toByteArray());
+    }
+
+    @Test
+    public void failedSynthesisEndsTheStream() throws Exception {
+        MaryTTSAudioStream audioStream = new MaryTTSAudioStream(FORMAT);
+        Future<byte[]> result = executor.submit(() -> IOUtils.toByteArray(audioStream));
+
+        audioStream.append(new byte[] { 1 });
+        audioStream.fail(new IOException("synthesis failed"));
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("The failure was not passed to the reader");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertNull(audioStream.getWaveAudio());
+    }
+
+    @Test
+    public void closedStreamStopsWaitingReader() throws Exception {
+        MaryTTSAudioStream audioStream = new MaryTTSAudioStream(FORMAT);
+        Future<byte[]> result = executor.submit(() -> IOUtils.toByteArray(audioStream));
+        Thread.sleep(50);
+
+        audioStream.close();
+
+        assertEquals(HEADER_LENGTH, result.get(5, TimeUnit.SECONDS).length);
+        assertTrue(audioStream.isClosed());
+    }
+}
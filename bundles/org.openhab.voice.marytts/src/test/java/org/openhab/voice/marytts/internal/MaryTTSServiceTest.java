@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.marytts.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Tests the sentence splitting of {@link MaryTTSService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MaryTTSServiceTest {
+
+    @Test
+    public void textIsSplitIntoSentences() {
+        assertEquals(Arrays.asList("The door is open.", "Should I close it?", "Done!"),
+                MaryTTSService.splitSentences("The door is open. Should I close it?  Done!", Locale.ENGLISH));
+    }
+
+    @Test
+    public void singleSentenceIsKept() {
+        assertEquals(Collections.singletonList("Good morning"),
+                MaryTTSService.splitSentences(" Good morning ", Locale.ENGLISH));
+    }
+
+    @Test
+    public void blankTextHasNoSentences() {
+        assertEquals(Collections.emptyList(), MaryTTSService.splitSentences("   ", Locale.GERMAN));
+    }
+
+    @Test
+    public void sentencesAreSplitByLocale() {
+        assertEquals(Arrays.asList("Es ist 20 Uhr.", "Das Fenster ist offen."),
+                MaryTTSService.splitSentences("Es ist 20 Uhr. Das Fenster ist offen.", Locale.GERMAN));
+    }
+}
@@ -12,37 +12,37 @@
  */
 package org.openhab.voice.picotts.internal;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
-import org.eclipse.smarthome.core.voice.Voice;
 
 /**
  * Implementation of {@link AudioStream} for {@link PicoTTSService}
  *
+ * The stream is a WAVE file of the PCM data synthesized by the {@link PicoTTSWorker}, which is kept in memory.
+ *
  * @author Florian Schmidt - Initial Contribution
  */
 class PicoTTSAudioStream extends FixedLengthAudioStream {
-    private final Voice voice;
-    private final String text;
+    private static final int HEADER_LENGTH = 44;
+    private static final short CHANNELS = 1;
+    private static final short BITS_PER_SAMPLE = 16;
+
     private final AudioFormat audioFormat;
+    private final byte[] waveAudio;
     private final InputStream inputStream;
 
-    private long length;
-    private File file;
-
-    public PicoTTSAudioStream(String text, Voice voice, AudioFormat audioFormat) throws AudioException {
-        this.text = text;
-        this.voice = voice;
+    public PicoTTSAudioStream(byte[] rawAudio, AudioFormat audioFormat) {
         this.audioFormat = audioFormat;
-        this.inputStream = createInputStream();
+        this.waveAudio = toWaveAudio(rawAudio, audioFormat);
+        this.inputStream = new ByteArrayInputStream(waveAudio);
     }
 
     @Override
@@ -50,61 +50,18 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return audioFormat;
     }
 
-    private InputStream createInputStream() throws AudioException {
-        String outputFile = generateOutputFilename();
-        String[] command = getCommand(outputFile);
-
-        try {
-            Process process = Runtime.getRuntime().exec(command);
-            process.waitFor();
-            file = new File(outputFile);
-            this.length = file.length();
-            return getFileInputStream(file);
-        } catch (IOException e) {
-            throw new AudioException("Error while executing '" + command + "'", e);
-        } catch (InterruptedException e) {
-            throw new AudioException("The '" + command + "' has been interrupted", e);
-        }
-    }
-
-    private InputStream getFileInputStream(File file) throws AudioException {
-        if (file == null) {
-            throw new IllegalArgumentException("file must not be null");
-        }
-        if (file.exists()) {
-            try {
-                return new FileInputStream(file);
-            } catch (FileNotFoundException e) {
-                throw new AudioException("Cannot open temporary audio file '" + file.getName() + ".");
-            }
-        } else {
-            throw new AudioException("Temporary file '" + file.getName() + "' not found!");
-        }
-    }
-
-    /**
-     * Generates a unique, absolute output filename
-     *
-     * @return Unique, absolute output filename
-     */
-    private String generateOutputFilename() throws AudioException {
-        try {
-            File tempFile = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
-            tempFile.deleteOnExit();
-            return tempFile.getAbsolutePath();
-        } catch (IOException e) {
-            throw new AudioException("Unable to create temp file.", e);
-        }
-    }
-
-    /**
-     * Gets the command used to generate an audio file {@code outputFile}
-     *
-     * @param outputFile The absolute filename of the command's output
-     * @return The command used to generate the audio file {@code outputFile}
-     */
-    private String[] getCommand(String outputFile) {
-        return new String[] { "pico2wave", "-l=" + this.voice.getLabel(), "-w=" + outputFile, this.text };
+    private static byte[] toWaveAudio(byte[] rawAudio, AudioFormat audioFormat) {
+        long frequency = audioFormat.getFrequency() != null ? audioFormat.getFrequency() : 16000L;
+        int blockAlign = CHANNELS * BITS_PER_SAMPLE / 8;
+        ByteBuffer wave = ByteBuffer.allocate(HEADER_LENGTH + rawAudio.length).order(ByteOrder.LITTLE_ENDIAN);
+        wave.put(new byte[] { 'R', 'I', 'F', 'F' }).putInt(rawAudio.length + HEADER_LENGTH - 8);
+        wave.put(new byte[] { 'W', 'A', 'V', 'E' });
+        wave.put(new byte[] { 'f', 'm', 't', ' ' }).putInt(16).putShort((short) 1).putShort(CHANNELS);
+        wave.putInt((int) frequency).putInt((int) frequency * blockAlign).putShort((short) blockAlign);
+        wave.putShort(BITS_PER_SAMPLE);
+        wave.put(new byte[] { 'd', 'a', 't', 'a' }).putInt(rawAudio.length);
+        wave.put(rawAudio);
+        return wave.array();
     }
 
     @Override
@@ -112,17 +69,18 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return inputStream.read();
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return inputStream.read(b, off, len);
+    }
+
     @Override
     public long length() {
-        return length;
+        return waveAudio.length;
     }
 
     @Override
     public InputStream getClonedStream() throws AudioException {
-        if (file != null) {
-            return getFileInputStream(file);
-        } else {
-            throw new AudioException("No temporary audio file available.");
-        }
+        return new ByteArrayInputStream(waveAudio);
     }
 }
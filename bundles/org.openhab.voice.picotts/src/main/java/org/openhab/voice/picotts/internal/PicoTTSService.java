@@ -12,25 +12,36 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.eclipse.smarthome.core.audio.AudioException;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 
 /**
  * @author Florian Schmidt - Initial Contribution
  */
 @Component
 public class PicoTTSService implements TTSService {
+    /**
+     * Cache folder under $userdata
+     */
+    private static final String CACHE_FOLDER_NAME = "cache";
+
     private final Set<Voice> voices = Stream
             .of(new PicoTTSVoice("de-DE"), new PicoTTSVoice("en-US"), new PicoTTSVoice("en-GB"),
                     new PicoTTSVoice("es-ES"), new PicoTTSVoice("fr-FR"), new PicoTTSVoice("it-IT"))
@@ -39,6 +50,22 @@ public class PicoTTSService implements TTSService {
     private final Set<AudioFormat> audioFormats = Collections.singleton(
             new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED, false, 16, null, 16000L));
 
+    /**
+     * Cache of the synthesized audio
+     */
+    private final TTSCache cache = new TTSCache(getId(),
+            new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME), "org.openhab.voice.picotts"));
+
+    /**
+     * Worker running pico2wave, started on the first synthesis
+     */
+    private final PicoTTSWorker worker = new PicoTTSWorker(ThreadPoolManager.getScheduledPool("picotts"));
+
+    @Deactivate
+    protected void deactivate() {
+        worker.stop();
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -68,8 +95,9 @@ public class PicoTTSService implements TTSService {
         }
 
         try {
-            return new PicoTTSAudioStream(text, voice, requestedFormat);
-        } catch (AudioException e) {
+            return cache.get(new TTSCacheKey(voice.getLabel(), "wav", text), requestedFormat,
+                    () -> new PicoTTSAudioStream(worker.synthesize(text, voice), requestedFormat));
+        } catch (IOException e) {
             throw new TTSException(e);
         }
     }
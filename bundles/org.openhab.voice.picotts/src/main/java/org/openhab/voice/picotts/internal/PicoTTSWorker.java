@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.picotts.internal;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.smarthome.core.voice.Voice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent worker which synthesizes texts with pico2wave.
+ *
+ * Forking the Java process for every text is expensive on small devices, so the worker starts a single shell once
+ * and lets it run pico2wave. pico2wave only writes to files ending with .wav, so it writes to a link to its standard
+ * output, which the shell connects to a named pipe in a private temporary folder. The audio is read from the pipe
+ * while it is synthesized and no audio file is written to disk. The folder, the pipe and the link are removed when
+ * the worker is stopped.
+ *
+ * Opening the pipe blocks until the shell opens it for writing. If the shell does not do so within a timeout, e.g.
+ * because it hangs, a watchdog terminates the shell and opens the pipe itself to release the waiting synthesis.
+ *
+ * @author agent - Initial contribution
+ */
+class PicoTTSWorker {
+
+    private static final String PIPE_NAME = "audio";
+    private static final String LINK_NAME = "audio.wav";
+    private static final String COMMAND_NOT_FOUND = "127";
+    private static final int MAX_CHUNK_SIZE = 1024;
+    private static final String PICO2WAVE = "pico2wave";
+    private static final long OPEN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final Logger logger = LoggerFactory.getLogger(PicoTTSWorker.class);
+
+    private final String pico2wave;
+    private final ScheduledExecutorService scheduler;
+    private final long openTimeoutMillis;
+
+    // guarded by this
+    private Process shell;
+    private Writer commands;
+    private BufferedReader results;
+    private File folder;
+    private File pipe;
+    private File link;
+
+    /**
+     * Creates a worker
+     *
+     * @param scheduler The scheduler of the watchdog
+     */
+    PicoTTSWorker(ScheduledExecutorService scheduler) {
+        this(PICO2WAVE, scheduler, OPEN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a worker with a different command and timeout, for tests
+     */
+    PicoTTSWorker(String pico2wave, ScheduledExecutorService scheduler, long openTimeoutMillis) {
+        this.pico2wave = pico2wave;
+        this.scheduler = scheduler;
+        this.openTimeoutMillis = openTimeoutMillis;
+    }
+
+    /**
+     * Synthesizes a text, starting the worker if it is not running
+     *
+     * @param text The text to synthesize
+     * @param voice The voice to synthesize with
+     * @return The 16 bit mono PCM data of the text
+     * @throws IOException if the synthesis has failed
+     */
+    synchronized byte[] synthesize(String text, Voice voice) throws IOException {
+        if (shell == null || !shell.isAlive()) {
+            start();
+        }
+        try {
+            // the shell opens the pipe, so the reader gets an end of file even if pico2wave fails to start
+            commands.write(pico2wave + " -l=" + quote(voice.getLabel()) + " -w=" + quote(link.getAbsolutePath())
+                    + " -- " + quote(text) + " > " + quote(pipe.getAbsolutePath()) + "; echo $?\n");
+            commands.flush();
+
+            byte[] rawAudio;
+            try (InputStream audio = openPipe()) {
+                rawAudio = readRawAudio(audio);
+            }
+            String result = results.readLine();
+            if (result == null) {
+                throw new IOException("The pico2wave worker has terminated");
+            }
+            if (COMMAND_NOT_FOUND.equals(result.trim())) {
+                throw new IOException("pico2wave is not installed");
+            }
+            if (rawAudio.length == 0) {
+                throw new IOException("pico2wave failed with exit code " + result.trim());
+            }
+            return rawAudio;
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the worker and removes its temporary files
+     */
+    synchronized void stop() {
+        if (shell != null) {
+            shell.destroy();
+            shell = null;
+        }
+        delete(link);
+        delete(pipe);
+        delete(folder);
+        link = null;
+        pipe = null;
+        folder = null;
+    }
+
+    private void start() throws IOException {
+        stop();
+        folder = Files.createTempDirectory("picotts").toFile();
+        pipe = new File(folder, PIPE_NAME);
+        link = new File(folder, LINK_NAME);
+        shell = new ProcessBuilder("sh").start();
+        commands = new OutputStreamWriter(shell.getOutputStream(), StandardCharsets.UTF_8);
+        results = new BufferedReader(new InputStreamReader(shell.getInputStream(), StandardCharsets.UTF_8));
+
+        // the messages of pico2wave are not needed, they would fill up the error stream otherwise
+        commands.write("exec 2>/dev/null; mkfifo " + quote(pipe.getAbsolutePath()) + " && ln -s /dev/stdout "
+                + quote(link.getAbsolutePath()) + "; echo $?\n");
+        commands.flush();
+        String result = results.readLine();
+        if (!"0".equals(result == null ? null : result.trim())) {
+            stop();
+            throw new IOException("Unable to create the pipe in " + folder);
+        }
+        logger.debug("Started pico2wave worker in {}", folder);
+    }
+
+    /**
+     * Opens the pipe for reading, which blocks until the shell opens it for writing. If that does not happen within
+     * the timeout, the watchdog terminates the shell and releases the open by opening the pipe for writing.
+     */
+    private InputStream openPipe() throws IOException {
+        Process shell = this.shell;
+        File pipe = this.pipe;
+        AtomicBoolean opening = new AtomicBoolean(true);
+        ScheduledFuture<?> watchdog = scheduler.schedule(() -> {
+            if (opening.compareAndSet(true, false)) {
+                logger.warn("pico2wave worker did not open the pipe within {} ms, terminating it", openTimeoutMillis);
+                shell.destroy();
+                try (FileOutputStream release = new FileOutputStream(pipe)) {
+                    // opening releases the waiting reader, which gets an end of file
+                } catch (IOException e) {
+                    logger.debug("Could not open the pipe {}: {}", pipe, e.getMessage());
+                }
+            }
+        }, openTimeoutMillis, TimeUnit.MILLISECONDS);
+        InputStream audio = new FileInputStream(pipe);
+        if (!opening.compareAndSet(true, false)) {
+            audio.close();
+            throw new IOException("The pico2wave worker did not open the pipe within " + openTimeoutMillis + " ms");
+        }
+        watchdog.cancel(false);
+        return audio;
+    }
+
+    /**
+     * Reads the PCM data of the WAVE file written by pico2wave. The chunk sizes of the RIFF and data chunks are not
+     * updated on a pipe, so the data is read until the end of the stream.
+     */
+    private static byte[] readRawAudio(InputStream audio) throws IOException {
+        DataInputStream wave = new DataInputStream(audio);
+        byte[] chunkId = new byte[4];
+        ByteArrayOutputStream rawAudio = new ByteArrayOutputStream();
+        try {
+            // RIFF header: "RIFF", size, "WAVE"
+            wave.readFully(new byte[12]);
+            wave.readFully(chunkId);
+            while (!"data".equals(new String(chunkId, StandardCharsets.US_ASCII))) {
+                int chunkSize = Integer.reverseBytes(wave.readInt());
+                if (chunkSize < 0 || chunkSize > MAX_CHUNK_SIZE) {
+                    throw new IOException("Unexpected WAVE chunk of " + chunkSize + " bytes");
+                }
+                wave.readFully(new byte[chunkSize]);
+                wave.readFully(chunkId);
+            }
+            wave.readInt();
+        } catch (EOFException e) {
+            // no audio, e.g. pico2wave has failed
+            return new byte[0];
+        }
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = wave.read(buffer)) != -1) {
+            rawAudio.write(buffer, 0, length);
+        }
+        return rawAudio.toByteArray();
+    }
+
+    private void delete(File file) {
+        if (file != null && !file.delete() && Files.exists(file.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+            logger.warn("Failed to delete the temporary file {}", file);
+        }
+    }
+
+    private static String quote(String argument) {
+        return "'" + argument.replace("'", "'\\''") + "'";
+    }
+}
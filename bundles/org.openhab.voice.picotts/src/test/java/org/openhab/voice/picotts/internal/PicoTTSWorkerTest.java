@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.picotts.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link PicoTTSWorker} with a fake pico2wave script, which writes a WAVE header followed by the text.
+ *
+ * @author agent - Initial contribution
+ */
+public class PicoTTSWorkerTest {
+
+    private static final String FAKE_PICO2WAVE = "#!/bin/sh\n" //
+            + "for a in \"$@\"; do case \"$a\" in -w=*) out=\"${a#-w=}\";; -l=*) l=\"${a#-l=}\";; esac; last=\"$a\"; done\n"
+            + "[ \"$l\" = \"xx-XX\" ] && exit 1\n" //
+            + "{ printf 'RIFF\\000\\000\\000\\000WAVEfmt \\020\\000\\000\\000'; printf '%016d' 0;"
+            + " printf 'data\\000\\000\\000\\000'; printf '%s' \"$last\"; } > \"$out\"\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private String pico2wave;
+    private PicoTTSWorker worker;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeTrue("The worker needs a POSIX shell", new File("/bin/sh").canExecute());
+        File script = folder.newFile("pico2wave");
+        Files.write(script.toPath(), FAKE_PICO2WAVE.getBytes(StandardCharsets.US_ASCII));
+        assertTrue(script.setExecutable(true));
+        pico2wave = script.getAbsolutePath();
+        worker = new PicoTTSWorker(pico2wave, scheduler, 2000);
+    }
+
+    @After
+    public void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+        scheduler.shutdownNow();
+    }
+
+    private String synthesize(PicoTTSWorker worker, String text, String languageTag) throws IOException {
+        return new String(worker.synthesize(text, new PicoTTSVoice(languageTag)), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void textsAreSynthesizedByTheSameWorker() throws IOException {
+        assertEquals("Hello world", synthesize(worker, "Hello world", "en-US"));
+        assertEquals("It's 8 o'clock", synthesize(worker, "It's 8 o'clock", "en-US"));
+    }
+
+    @Test
+    public void workerIsRestartedAfterFailure() throws IOException {
+        try {
+            synthesize(worker, "Hello", "xx-XX");
+            fail("The failure of pico2wave was not reported");
+        } catch (IOException e) {
+            assertEquals("pico2wave failed with exit code 1", e.getMessage());
+        }
+        assertEquals("Hello", synthesize(worker, "Hello", "en-US"));
+    }
+
+    @Test
+    public void missingPico2waveIsReported() {
+        PicoTTSWorker missing = new PicoTTSWorker(new File(folder.getRoot(), "missing").getAbsolutePath(), scheduler,
+                2000);
+        try {
+            synthesize(missing, "Hello", "en-US");
+            fail("The missing pico2wave was not reported");
+        } catch (IOException e) {
+            assertEquals("pico2wave is not installed", e.getMessage());
+        } finally {
+            missing.stop();
+        }
+    }
+
+    @Test
+    public void openingThePipeTimesOut() throws IOException {
+        // the shell sleeps before it opens the pipe for the output of pico2wave
+        PicoTTSWorker hanging = new PicoTTSWorker("sleep 30; " + pico2wave, scheduler, 200);
+        long start = System.currentTimeMillis();
+        try {
+            synthesize(hanging, "Hello", "en-US");
+            fail("The timeout was not reported");
+        } catch (IOException e) {
+            assertTrue(System.currentTimeMillis() - start < 10000);
+        } finally {
+            hanging.stop();
+        }
+    }
+}
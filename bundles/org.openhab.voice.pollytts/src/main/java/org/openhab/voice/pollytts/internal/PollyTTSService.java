@@ -23,17 +23,19 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
-import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
-import org.openhab.voice.pollytts.internal.cloudapi.CachedPollyTTSCloudImpl;
+import org.openhab.voice.pollytts.internal.cloudapi.PollyTTSCloudImpl;
 import org.openhab.voice.pollytts.internal.cloudapi.PollyTTSConfig;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -79,10 +81,12 @@ public class PollyTTSService implements TTSService {
 
     private final Logger logger = LoggerFactory.getLogger(PollyTTSService.class);
 
+    private PollyTTSCloudImpl pollyTTSImpl;
+
     /**
-     * We need the cached implementation to allow for FixedLengthAudioStream.
+     * Cache of the synthesized audio, which also allows for FixedLengthAudioStream.
      */
-    private CachedPollyTTSCloudImpl pollyTTSImpl;
+    private TTSCache cache;
 
     /**
      * Set of supported voices
@@ -98,6 +102,9 @@ public class PollyTTSService implements TTSService {
 
     @Activate
     protected void activate(Map<String, Object> config) {
+        File cacheFolder = new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
+        logger.info("Using cache folder {}", cacheFolder.getAbsolutePath());
+        cache = new TTSCache(SERVICE_ID, cacheFolder);
         modified(config);
     }
 
@@ -107,14 +114,8 @@ public class PollyTTSService implements TTSService {
             pollyTTSConfig = new PollyTTSConfig(config);
             logger.debug("Using configuration {}", config);
 
-            // create cache folder
-            File cacheFolder = new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
-            if (!cacheFolder.exists()) {
-                cacheFolder.mkdirs();
-            }
-            logger.info("Using cache folder {}", cacheFolder.getAbsolutePath());
-
-            pollyTTSImpl = new CachedPollyTTSCloudImpl(pollyTTSConfig, cacheFolder);
+            pollyTTSImpl = new PollyTTSCloudImpl(pollyTTSConfig);
+            cache.setMaxAge(pollyTTSConfig.getExpireDate(), TimeUnit.DAYS);
 
             audioFormats.clear();
             audioFormats.addAll(initAudioFormats());
@@ -168,16 +169,12 @@ public class PollyTTSService implements TTSService {
         // now create the input stream for given text, locale, format. There is
         // only a default voice
         try {
-            File cacheAudioFile = pollyTTSImpl.getTextToSpeechAsFile(text, voice.getLabel(),
-                    getApiAudioFormat(requestedFormat));
-            if (cacheAudioFile == null) {
-                throw new TTSException("Could not read from PollyTTS service");
-            }
+            String label = voice.getLabel();
+            String apiAudioFormat = getApiAudioFormat(requestedFormat);
+            AudioStream audioStream = cache.get(new TTSCacheKey(label, apiAudioFormat, text), requestedFormat,
+                    () -> pollyTTSImpl.getTextToSpeech(text, label, apiAudioFormat));
             logger.debug("Audio Stream for '{}' in format {}", text, requestedFormat);
-            AudioStream audioStream = new PollyTTSAudioStream(cacheAudioFile, requestedFormat);
             return audioStream;
-        } catch (AudioException ex) {
-            throw new TTSException("Could not create AudioStream: " + ex.getMessage(), ex);
         } catch (IOException ex) {
             throw new TTSException("Could not read from PollyTTS service: " + ex.getMessage(), ex);
         }
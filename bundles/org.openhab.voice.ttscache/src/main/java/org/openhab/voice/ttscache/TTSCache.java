@@ -0,0 +1,639 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.audio.AudioException;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
+import org.eclipse.smarthome.core.audio.FileAudioStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the audio synthesized by a TTS service.
+ *
+ * The audio is stored in a folder of the service, together with a .txt file containing the text, and is evicted
+ * least recently used first when the folder exceeds its maximum size or when it has not been used for the maximum
+ * age. Small audio is additionally kept in memory, so that frequently used phrases are served without file access.
+ * Identical texts requested concurrently are only synthesized once.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSCache {
+
+    /**
+     * Default maximum size of all cached audio files
+     */
+    public static final long DEFAULT_MAX_SIZE = 100L * 1024 * 1024;
+
+    /**
+     * Default maximum size of all audio kept in memory
+     */
+    public static final long DEFAULT_MAX_MEMORY_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * Maximum size of a single audio kept in memory
+     */
+    static final int MAX_MEMORY_ENTRY_SIZE = 512 * 1024;
+
+    /**
+     * Interval of the check for aged files when nothing new is cached
+     */
+    static final long AGE_CHECK_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String TEXT_FILE_EXTENSION = ".txt";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * Synthesizes the text of a key if it is not cached
+     */
+    @FunctionalInterface
+    public interface Synthesizer {
+        /**
+         * Returns the synthesized audio, the stream is closed by the cache
+         */
+        InputStream synthesize() throws IOException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(TTSCache.class);
+
+    private final String serviceId;
+    private final File cacheFolder;
+
+    private volatile long maxSize = DEFAULT_MAX_SIZE;
+    private volatile long maxAgeMillis;
+    private volatile long maxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
+
+    // guarded by this, least recently used first
+    private final LinkedHashMap<String, DiskEntry> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskSize;
+    private long memorySize;
+    private boolean indexed;
+    private long lastAgeCheck;
+
+    private final Map<String, CompletableFuture<CachedAudio>> pendingSyntheses = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache
+     *
+     * @param serviceId id of the TTS service, used for logging
+     * @param cacheFolder folder of the cached files, created if it does not exist
+     */
+    public TTSCache(String serviceId, File cacheFolder) {
+        this.serviceId = serviceId;
+        this.cacheFolder = cacheFolder;
+    }
+
+    /**
+     * Sets the maximum size of all cached audio files
+     *
+     * @param maxSize maximum size in bytes
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Sets the time after which an unused audio file is removed
+     *
+     * @param maxAge maximum age, 0 to keep files until the maximum size is exceeded
+     * @param unit unit of the maximum age
+     */
+    public void setMaxAge(long maxAge, TimeUnit unit) {
+        this.maxAgeMillis = unit.toMillis(maxAge);
+    }
+
+    /**
+     * Sets the maximum size of all audio kept in memory
+     *
+     * @param maxMemorySize maximum size in bytes, 0 to not keep audio in memory
+     */
+    public void setMaxMemorySize(long maxMemorySize) {
+        this.maxMemorySize = maxMemorySize;
+    }
+
+    public File getCacheFolder() {
+        return cacheFolder;
+    }
+
+    /**
+     * Returns the audio of a key from the cache, synthesizing and caching it if it is not cached yet.
+     *
+     * @param key the key of the audio
+     * @param format the format of the returned stream
+     * @param synthesizer synthesizes the audio if it is not cached
+     * @return a stream of fixed length of the audio
+     * @throws IOException if the audio could not be synthesized or cached
+     */
+    public AudioStream get(TTSCacheKey key, AudioFormat format, Synthesizer synthesizer) throws IOException {
+        return toAudioStream(getAudio(key, synthesizer), format);
+    }
+
+    /**
+     * Returns the file of the audio of a key, synthesizing and caching it if it is not cached yet.
+     *
+     * @param key the key of the audio
+     * @param synthesizer synthesizes the audio if it is not cached
+     * @return the cached audio file
+     * @throws IOException if the audio could not be synthesized or cached
+     */
+    public File getFile(TTSCacheKey key, Synthesizer synthesizer) throws IOException {
+        return getAudio(key, synthesizer).file;
+    }
+
+    /**
+     * Removes all cached files
+     */
+    public void clear() {
+        File[] files;
+        synchronized (this) {
+            diskEntries.clear();
+            memoryEntries.clear();
+            diskSize = 0;
+            memorySize = 0;
+            indexed = true;
+            files = cacheFolder.listFiles();
+        }
+        if (files != null) {
+            Arrays.stream(files).filter(File::isFile).forEach(File::delete);
+        }
+        logger.debug("Cache of {} purged", serviceId);
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the size of all cached audio files in bytes
+     */
+    public synchronized long getSize() {
+        return diskSize;
+    }
+
+    /**
+     * Returns the audio of a key if it is cached.
+     *
+     * @param key the key of the audio
+     * @param format the format of the returned stream
+     * @return a stream of fixed length of the audio or {@code null} if it is not cached
+     * @throws IOException if the cached audio could not be read
+     */
+    public @Nullable AudioStream getIfPresent(TTSCacheKey key, AudioFormat format) throws IOException {
+        CachedAudio cachedAudio = lookup(key);
+        return cachedAudio == null ? null : toAudioStream(cachedAudio, format);
+    }
+
+    /**
+     * Starts a synthesis whose audio is streamed by the caller while it is synthesized, e.g. sentence by sentence.
+     * Until the synthesis is completed, requests of the same key through
+     * {@link #get(TTSCacheKey, AudioFormat, Synthesizer)} wait for it instead of synthesizing the text again. It is
+     * counted as a miss.
+     *
+     * @param key the key of the audio
+     * @return the synthesis, which must be completed, failed or cancelled, or {@code null} if the key is already
+     *         being synthesized
+     */
+    public @Nullable PendingSynthesis startSynthesis(TTSCacheKey key) {
+        CompletableFuture<CachedAudio> synthesis = new CompletableFuture<>();
+        if (pendingSyntheses.putIfAbsent(key.getFileName(), synthesis) != null) {
+            return null;
+        }
+        misses.incrementAndGet();
+        return new PendingSynthesis(key, synthesis);
+    }
+
+    private CachedAudio getAudio(TTSCacheKey key, Synthesizer synthesizer) throws IOException {
+        CachedAudio cachedAudio = lookup(key);
+        if (cachedAudio != null) {
+            return cachedAudio;
+        }
+
+        String fileName = key.getFileName();
+        CompletableFuture<CachedAudio> synthesis = new CompletableFuture<>();
+        CompletableFuture<CachedAudio> pendingSynthesis = pendingSyntheses.putIfAbsent(fileName, synthesis);
+        if (pendingSynthesis != null) {
+            logger.trace("Waiting for the pending synthesis of {}", key);
+            try {
+                return await(pendingSynthesis);
+            } catch (CancellationException e) {
+                logger.trace("The pending synthesis of {} has been cancelled", key);
+                return getAudio(key, synthesizer);
+            }
+        }
+        try {
+            misses.incrementAndGet();
+            cachedAudio = synthesize(key, new File(cacheFolder, fileName), synthesizer);
+            synthesis.complete(cachedAudio);
+            return cachedAudio;
+        } catch (IOException | RuntimeException e) {
+            synthesis.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingSyntheses.remove(fileName, synthesis);
+        }
+    }
+
+    private @Nullable CachedAudio lookup(TTSCacheKey key) throws IOException {
+        String fileName = key.getFileName();
+        File file = new File(cacheFolder, fileName);
+        long now = System.currentTimeMillis();
+        List<File> evicted = new ArrayList<>();
+        Map<File, Long> usedFromMemory = Collections.emptyMap();
+        byte @Nullable [] audio;
+        @Nullable
+        DiskEntry diskEntry;
+        synchronized (this) {
+            index();
+            audio = memoryEntries.get(fileName);
+            diskEntry = diskEntries.get(fileName);
+            if (diskEntry != null) {
+                diskEntry.lastUsed = now;
+                if (audio == null) {
+                    // the file is read anyway
+                    diskEntry.lastModified = now;
+                }
+            }
+            if (now - lastAgeCheck > AGE_CHECK_INTERVAL_MILLIS) {
+                evicted = evict(now);
+                usedFromMemory = getUsedFromMemory();
+            }
+        }
+        delete(evicted);
+        usedFromMemory.forEach(File::setLastModified);
+
+        if (diskEntry != null) {
+            if (audio != null) {
+                memoryHits.incrementAndGet();
+                return new CachedAudio(file, audio);
+            }
+            if (file.isFile()) {
+                // keep the order of use for the next start
+                file.setLastModified(now);
+                diskHits.incrementAndGet();
+                if (diskEntry.size <= MAX_MEMORY_ENTRY_SIZE && maxMemorySize > 0) {
+                    audio = Files.readAllBytes(file.toPath());
+                    synchronized (this) {
+                        putInMemory(fileName, audio);
+                    }
+                }
+                return new CachedAudio(file, audio);
+            }
+            // removed by someone else
+            synchronized (this) {
+                removeEntry(fileName);
+            }
+        }
+        return null;
+    }
+
+    private CachedAudio await(CompletableFuture<CachedAudio> synthesis) throws IOException {
+        try {
+            return synthesis.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the synthesis", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /*
+     * Synthesizes into a temporary file which is then moved to the cache, so that a partially written file is never
+     * served
+     */
+    private CachedAudio synthesize(TTSCacheKey key, File file, Synthesizer synthesizer) throws IOException {
+        cacheFolder.mkdirs();
+        File tempFile = File.createTempFile(key.getFileName(), TEMP_FILE_EXTENSION, cacheFolder);
+        @Nullable
+        ByteArrayOutputStream memoryCopy = maxMemorySize > 0 ? new ByteArrayOutputStream() : null;
+        long size = 0;
+        try {
+            try (InputStream inputStream = synthesizer.synthesize();
+                    OutputStream outputStream = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[READ_BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                    size += read;
+                    if (memoryCopy != null) {
+                        if (size <= MAX_MEMORY_ENTRY_SIZE) {
+                            memoryCopy.write(buffer, 0, read);
+                        } else {
+                            memoryCopy = null;
+                        }
+                    }
+                }
+            }
+            if (size == 0) {
+                throw new IOException("No audio received for " + key);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tempFile.delete();
+        }
+        writeText(key);
+
+        byte @Nullable [] audio = memoryCopy != null ? memoryCopy.toByteArray() : null;
+        long now = System.currentTimeMillis();
+        List<File> evicted;
+        synchronized (this) {
+            removeEntry(key.getFileName());
+            diskEntries.put(key.getFileName(), new DiskEntry(size, now));
+            diskSize += size;
+            if (audio != null) {
+                putInMemory(key.getFileName(), audio);
+            }
+            evicted = evict(now);
+        }
+        delete(evicted);
+        logger.debug("Cached {} bytes for '{}' of {}, {}", size, key.getText(), serviceId, this);
+        return new CachedAudio(file, audio);
+    }
+
+    /*
+     * Write the text to a file for transparency, this allows to know which content is in which audio file
+     */
+    private void writeText(TTSCacheKey key) {
+        File textFile = new File(cacheFolder, getBaseName(key.getFileName()) + TEXT_FILE_EXTENSION);
+        try (OutputStream outputStream = new FileOutputStream(textFile)) {
+            outputStream.write(key.getText().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.debug("Could not write {}: {}", textFile, e.getMessage());
+        }
+    }
+
+    /*
+     * Reads the cached files on first use, ordered by their last use
+     */
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        File[] files = cacheFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!file.isFile() || fileName.endsWith(TEXT_FILE_EXTENSION)) {
+                continue;
+            }
+            if (fileName.endsWith(TEMP_FILE_EXTENSION)) {
+                // left over by an interrupted synthesis
+                file.delete();
+                continue;
+            }
+            diskEntries.put(fileName, new DiskEntry(file.length(), file.lastModified()));
+            diskSize += file.length();
+        }
+        logger.debug("Indexed {} cached files of {} with {} bytes", diskEntries.size(), serviceId, diskSize);
+    }
+
+    // guarded by this
+    private void putInMemory(String fileName, byte[] audio) {
+        byte[] replaced = memoryEntries.put(fileName, audio);
+        if (replaced != null) {
+            memorySize -= replaced.length;
+        }
+        memorySize += audio.length;
+        Iterator<byte[]> eldest = memoryEntries.values().iterator();
+        while (memorySize > maxMemorySize && eldest.hasNext()) {
+            memorySize -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    // guarded by this
+    private void removeEntry(String fileName) {
+        DiskEntry diskEntry = diskEntries.remove(fileName);
+        if (diskEntry != null) {
+            diskSize -= diskEntry.size;
+        }
+        byte[] audio = memoryEntries.remove(fileName);
+        if (audio != null) {
+            memorySize -= audio.length;
+        }
+    }
+
+    /*
+     * Removes the least recently used entries exceeding the maximum size or age, guarded by this. Returns the files
+     * to delete.
+     */
+    private List<File> evict(long now) {
+        lastAgeCheck = now;
+        List<File> evicted = new ArrayList<>();
+        long maxAgeMillis = this.maxAgeMillis;
+        Iterator<Map.Entry<String, DiskEntry>> eldest = diskEntries.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Map.Entry<String, DiskEntry> entry = eldest.next();
+            boolean aged = maxAgeMillis > 0 && now - entry.getValue().lastUsed > maxAgeMillis;
+            if (diskSize <= maxSize && !aged) {
+                break;
+            }
+            String fileName = entry.getKey();
+            eldest.remove();
+            diskSize -= entry.getValue().size;
+            byte[] audio = memoryEntries.remove(fileName);
+            if (audio != null) {
+                memorySize -= audio.length;
+            }
+            evicted.add(new File(cacheFolder, fileName));
+            evicted.add(new File(cacheFolder, getBaseName(fileName) + TEXT_FILE_EXTENSION));
+        }
+        return evicted;
+    }
+
+    /*
+     * Returns the files used from memory since their modification time was last set, with the time of their last use,
+     * guarded by this. Their modification time keeps the order of use for the next start, and is only updated once
+     * per age check, so that hits from memory do not write to the disk.
+     */
+    private Map<File, Long> getUsedFromMemory() {
+        Map<File, Long> used = new HashMap<>();
+        diskEntries.forEach((fileName, diskEntry) -> {
+            if (diskEntry.lastUsed > diskEntry.lastModified) {
+                diskEntry.lastModified = diskEntry.lastUsed;
+                used.put(new File(cacheFolder, fileName), diskEntry.lastUsed);
+            }
+        });
+        return used;
+    }
+
+    private void delete(List<File> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        files.forEach(File::delete);
+        evictions.addAndGet(files.size() / 2);
+        logger.debug("Evicted {} cached files of {}, {}", files.size() / 2, serviceId, this);
+    }
+
+    private static String getBaseName(String fileName) {
+        int extension = fileName.lastIndexOf('.');
+        return extension < 0 ? fileName : fileName.substring(0, extension);
+    }
+
+    private static AudioStream toAudioStream(CachedAudio cachedAudio, AudioFormat format) throws IOException {
+        byte[] audio = cachedAudio.audio;
+        if (audio != null) {
+            return new ByteArrayAudioStream(audio, format);
+        }
+        try {
+            return new FileAudioStream(cachedAudio.file, format);
+        } catch (AudioException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long size;
+        int files;
+        synchronized (this) {
+            size = diskSize;
+            files = diskEntries.size();
+        }
+        return "hits: " + memoryHits + " from memory, " + diskHits + " from disk, misses: " + misses + ", evictions: "
+                + evictions + ", " + files + " files with " + size + " bytes";
+    }
+
+    /**
+     * A synthesis started with {@link TTSCache#startSynthesis(TTSCacheKey)}
+     */
+    public class PendingSynthesis {
+        private final TTSCacheKey key;
+        private final CompletableFuture<CachedAudio> synthesis;
+
+        private PendingSynthesis(TTSCacheKey key, CompletableFuture<CachedAudio> synthesis) {
+            this.key = key;
+            this.synthesis = synthesis;
+        }
+
+        /**
+         * Adds the complete audio to the cache and passes it to the waiting requests
+         *
+         * @param audio the complete audio
+         * @throws IOException if the audio could not be cached
+         */
+        public void complete(byte[] audio) throws IOException {
+            try {
+                File file = new File(cacheFolder, key.getFileName());
+                synthesis.complete(synthesize(key, file, () -> new ByteArrayInputStream(audio)));
+            } catch (IOException | RuntimeException e) {
+                synthesis.completeExceptionally(e);
+                throw e;
+            } finally {
+                pendingSyntheses.remove(key.getFileName(), synthesis);
+            }
+        }
+
+        /**
+         * Passes the failure of the synthesis to the waiting requests
+         *
+         * @param failure the cause of the failure
+         */
+        public void fail(IOException failure) {
+            pendingSyntheses.remove(key.getFileName(), synthesis);
+            synthesis.completeExceptionally(failure);
+        }
+
+        /**
+         * Ends the synthesis without audio, e.g. because its stream has been closed. The waiting requests synthesize
+         * the text themselves.
+         */
+        public void cancel() {
+            pendingSyntheses.remove(key.getFileName(), synthesis);
+            synthesis.cancel(false);
+        }
+    }
+
+    private static class DiskEntry {
+        private final long size;
+        private long lastUsed;
+        // the modification time of the file, which lags behind the last use for hits from memory
+        private long lastModified;
+
+        DiskEntry(long size, long lastUsed) {
+            this.size = size;
+            this.lastUsed = lastUsed;
+            this.lastModified = lastUsed;
+        }
+    }
+
+    private static class CachedAudio {
+        private final File file;
+        private final byte @Nullable [] audio;
+
+        CachedAudio(File file, byte @Nullable [] audio) {
+            this.file = file;
+            this.audio = audio;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Identifies a synthesized text in a {@link TTSCache}.
+ *
+ * The key consists of the voice, the file format and the text. Service parameters which change the audio, like the
+ * pitch or the speaking rate, are passed as parameters and are hashed together with the text.
+ *
+ * The audio file of a key is named {@code <voice>_<md5 of parameters and text>.<format>}, which is the name the
+ * voice services have always used for their cache files, so existing cache folders remain valid.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class TTSCacheKey {
+
+    private final String voice;
+    private final String format;
+    private final String text;
+    private final String parameters;
+    private final String fileName;
+
+    /**
+     * Creates a key
+     *
+     * @param voice the voice label or locale used by the service
+     * @param format the format of the audio, used as file extension, e.g. "mp3"
+     * @param text the synthesized text
+     */
+    public TTSCacheKey(String voice, String format, String text) {
+        this(voice, format, text, "");
+    }
+
+    /**
+     * Creates a key
+     *
+     * @param voice the voice label or locale used by the service
+     * @param format the format of the audio, used as file extension, e.g. "mp3"
+     * @param text the synthesized text
+     * @param parameters further service parameters which change the audio
+     */
+    public TTSCacheKey(String voice, String format, String text, String parameters) {
+        this.voice = voice;
+        this.format = format.toLowerCase();
+        this.text = text;
+        this.parameters = parameters;
+        this.fileName = voice.replaceAll("[\\\\/:*?\"<>|]", "_") + "_" + md5(parameters + text) + "." + this.format;
+    }
+
+    public String getVoice() {
+        return voice;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the name of the audio file of this key
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    private static String md5(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] md5Hash = md.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hashText = new StringBuilder(new BigInteger(1, md5Hash).toString(16));
+            // zero pad to the full 32 chars
+            while (hashText.length() < 32) {
+                hashText.insert(0, '0');
+            }
+            return hashText.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support MD5
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return fileName.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return fileName.equals(((TTSCacheKey) obj).fileName);
+    }
+
+    @Override
+    public String toString() {
+        return fileName;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TTSCache}
+ *
+ * @author agent - Initial contribution
+ */
+public class TTSCacheTest {
+
+    private static final AudioFormat MP3 = AudioFormat.MP3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger syntheses = new AtomicInteger();
+
+    private TTSCache.Synthesizer synthesizer(String audio) {
+        return () -> {
+            syntheses.incrementAndGet();
+            return new ByteArrayInputStream(audio.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private String read(AudioStream audioStream) throws IOException {
+        try {
+            return new String(IOUtils.toByteArray(audioStream), StandardCharsets.UTF_8);
+        } finally {
+            audioStream.close();
+        }
+    }
+
+    @Test
+    public void cachedAudioIsNotSynthesizedAgain() throws IOException {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "MP3", "Hello");
+
+        assertEquals("audio", read(cache.get(key, MP3, synthesizer("audio"))));
+        assertEquals("audio", read(cache.get(key, MP3, synthesizer("other"))));
+
+        assertEquals(1, syntheses.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getMemoryHits());
+        assertTrue(new File(folder.getRoot(), key.getFileName()).isFile());
+        assertTrue(key.getFileName().startsWith("en-US_") && key.getFileName().endsWith(".mp3"));
+    }
+
+    @Test
+    public void existingFilesAreUsedAfterRestart() throws IOException {
+        TTSCacheKey key = new TTSCacheKey("en-US", "mp3", "Hello");
+        Files.write(new File(folder.getRoot(), key.getFileName()).toPath(),
+                "audio".getBytes(StandardCharsets.UTF_8));
+
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        assertEquals("audio", read(cache.get(key, MP3, synthesizer("other"))));
+
+        assertEquals(0, syntheses.get());
+        assertEquals(1, cache.getDiskHits());
+    }
+
+    @Test
+    public void onlyHitsFromDiskTouchTheFile() throws IOException {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "MP3", "Hello");
+        read(cache.get(key, MP3, synthesizer("audio")));
+        File file = new File(folder.getRoot(), key.getFileName());
+        assertTrue(file.setLastModified(1000));
+
+        assertEquals("audio", read(cache.get(key, MP3, synthesizer("other"))));
+        assertEquals(1, cache.getMemoryHits());
+        assertEquals(1000, file.lastModified());
+
+        TTSCache restarted = new TTSCache("test", folder.getRoot());
+        restarted.setMaxMemorySize(0);
+        assertEquals("audio", read(restarted.get(key, MP3, synthesizer("other"))));
+        assertEquals(1, restarted.getDiskHits());
+        assertTrue(file.lastModified() > 1000);
+    }
+
+    @Test
+    public void streamedAudioIsAddedAfterwards() throws IOException {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "wav", "Hello. World.");
+
+        assertNull(cache.getIfPresent(key, MP3));
+        TTSCache.PendingSynthesis synthesis = cache.startSynthesis(key);
+        assertNotNull(synthesis);
+        assertNull(cache.startSynthesis(key));
+        synthesis.complete("audio".getBytes(StandardCharsets.UTF_8));
+
+        AudioStream audioStream = cache.getIfPresent(key, MP3);
+        assertNotNull(audioStream);
+        assertEquals("audio", read(audioStream));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void requestsWaitForStreamedSynthesis() throws Exception {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "wav", "Hello. World.");
+        TTSCache.PendingSynthesis synthesis = cache.startSynthesis(key);
+        assertNotNull(synthesis);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> result = executor.submit(() -> read(cache.get(key, MP3, synthesizer("other"))));
+            Thread.sleep(100);
+            synthesis.complete("audio".getBytes(StandardCharsets.UTF_8));
+
+            assertEquals("audio", result.get(5, TimeUnit.SECONDS));
+            assertEquals(0, syntheses.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void requestsSynthesizeThemselvesAfterCancelledSynthesis() throws Exception {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "wav", "Hello. World.");
+        TTSCache.PendingSynthesis synthesis = cache.startSynthesis(key);
+        assertNotNull(synthesis);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> result = executor.submit(() -> read(cache.get(key, MP3, synthesizer("audio"))));
+            Thread.sleep(100);
+            synthesis.cancel();
+
+            assertEquals("audio", result.get(5, TimeUnit.SECONDS));
+            assertEquals(1, syntheses.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void leastRecentlyUsedFilesAreEvicted() throws IOException {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        cache.setMaxSize(10);
+        cache.setMaxMemorySize(0);
+        TTSCacheKey first = new TTSCacheKey("en-US", "mp3", "first");
+        TTSCacheKey second = new TTSCacheKey("en-US", "mp3", "second");
+        TTSCacheKey third = new TTSCacheKey("en-US", "mp3", "third");
+
+        read(cache.get(first, MP3, synthesizer("11111")));
+        read(cache.get(second, MP3, synthesizer("22222")));
+        read(cache.get(first, MP3, synthesizer("11111")));
+        read(cache.get(third, MP3, synthesizer("33333")));
+
+        assertTrue(new File(folder.getRoot(), first.getFileName()).isFile());
+        assertFalse(new File(folder.getRoot(), second.getFileName()).exists());
+        assertTrue(new File(folder.getRoot(), third.getFileName()).isFile());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(10, cache.getSize());
+    }
+
+    @Test
+    public void concurrentRequestsAreSynthesizedOnce() throws Exception {
+        TTSCache cache = new TTSCache("test", folder.getRoot());
+        TTSCacheKey key = new TTSCacheKey("en-US", "mp3", "Hello");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TTSCache.Synthesizer slowSynthesizer = () -> {
+            syntheses.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return new ByteArrayInputStream("audio".getBytes(StandardCharsets.UTF_8));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> read(cache.get(key, MP3, slowSynthesizer))));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            results.add(executor.submit(() -> read(cache.get(key, MP3, slowSynthesizer))));
+            results.add(executor.submit(() -> read(cache.get(key, MP3, slowSynthesizer))));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("audio", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, syntheses.get());
+    }
+}
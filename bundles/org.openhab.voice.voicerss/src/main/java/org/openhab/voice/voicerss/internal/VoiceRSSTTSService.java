@@ -22,13 +22,14 @@ import java.util.Set;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
-import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
-import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
+import org.openhab.voice.voicerss.internal.cloudapi.VoiceRSSCloudImpl;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Modified;
@@ -56,10 +57,12 @@ public class VoiceRSSTTSService implements TTSService {
 
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
+    private VoiceRSSCloudImpl voiceRssImpl;
+
     /**
-     * We need the cached implementation to allow for FixedLengthAudioStream.
+     * Cache of the synthesized audio, which also allows for FixedLengthAudioStream.
      */
-    private CachedVoiceRSSCloudImpl voiceRssImpl;
+    private TTSCache cache;
 
     /**
      * Set of supported voices
@@ -77,7 +80,8 @@ public class VoiceRSSTTSService implements TTSService {
     protected void activate(Map<String, Object> config) {
         try {
             modified(config);
-            voiceRssImpl = initVoiceImplementation();
+            voiceRssImpl = new VoiceRSSCloudImpl();
+            cache = new TTSCache("voicerss", new File(getCacheFolderName()));
             voices = initVoices();
             audioFormats = initAudioFormats();
 
@@ -137,14 +141,11 @@ public class VoiceRSSTTSService implements TTSService {
         // now create the input stream for given text, locale, format. There is
         // only a default voice
         try {
-            File cacheAudioFile = voiceRssImpl.getTextToSpeechAsFile(apiKey, trimmedText,
-                    voice.getLocale().toLanguageTag(), getApiAudioFormat(requestedFormat));
-            if (cacheAudioFile == null) {
-                throw new TTSException("Could not read from VoiceRSS service");
-            }
-            return new VoiceRSSAudioStream(cacheAudioFile, requestedFormat);
-        } catch (AudioException ex) {
-            throw new TTSException("Could not create AudioStream: " + ex.getMessage(), ex);
+            String locale = voice.getLocale().toLanguageTag();
+            String apiAudioFormat = getApiAudioFormat(requestedFormat);
+            String currentApiKey = apiKey;
+            return cache.get(new TTSCacheKey(locale, apiAudioFormat, trimmedText), requestedFormat,
+                    () -> voiceRssImpl.getTextToSpeech(currentApiKey, trimmedText, locale, apiAudioFormat));
         } catch (IOException ex) {
             throw new TTSException("Could not read from VoiceRSS service: " + ex.getMessage(), ex);
         }
@@ -214,10 +215,6 @@ public class VoiceRSSTTSService implements TTSService {
         }
     }
 
-    private CachedVoiceRSSCloudImpl initVoiceImplementation() {
-        return new CachedVoiceRSSCloudImpl(getCacheFolderName());
-    }
-
     private String getCacheFolderName() {
         // we assume that this folder does NOT have a trailing separator
         return ConfigConstants.getUserDataFolder() + File.separator + CACHE_FOLDER_NAME;
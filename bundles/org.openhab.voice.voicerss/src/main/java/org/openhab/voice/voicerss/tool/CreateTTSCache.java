@@ -17,7 +17,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 
-import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSCacheKey;
+import org.openhab.voice.voicerss.internal.cloudapi.VoiceRSSCloudImpl;
 
 /**
  * This class fills a cache with data from the VoiceRSS TTS service.
@@ -102,8 +104,10 @@ public class CreateTTSCache {
             System.err.println("Ignore msg=''");
             return;
         }
-        CachedVoiceRSSCloudImpl impl = new CachedVoiceRSSCloudImpl(cacheDir);
-        File cachedFile = impl.getTextToSpeechAsFile(apiKey, trimmedMsg, locale, "MP3");
+        VoiceRSSCloudImpl impl = new VoiceRSSCloudImpl();
+        TTSCache cache = new TTSCache("voicerss", new File(cacheDir));
+        File cachedFile = cache.getFile(new TTSCacheKey(locale, "MP3", trimmedMsg),
+                () -> impl.getTextToSpeech(apiKey, trimmedMsg, locale, "MP3"));
         System.out.println(
                 "Created cached audio for locale='" + locale + "', msg='" + trimmedMsg + "' to file=" + cachedFile);
     }
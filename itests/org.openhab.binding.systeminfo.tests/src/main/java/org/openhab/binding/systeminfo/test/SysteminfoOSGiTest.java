@@ -113,6 +113,7 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
 
         // Preparing the mock with OS properties, that are used in the initialize method of SysteminfoHandler
         mockedSystemInfo = mock(SysteminfoInterface.class);
+        when(mockedSystemInfo.createSnapshot()).thenReturn(mockedSystemInfo);
         when(mockedSystemInfo.getCpuLogicalCores()).thenReturn(new DecimalType(2));
         when(mockedSystemInfo.getCpuPhysicalCores()).thenReturn(new DecimalType(2));
         when(mockedSystemInfo.getOsFamily()).thenReturn(new StringType("Mock OS"));